@@ -0,0 +1,73 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.edge.identity.app.stress
+
+import com.adobe.marketing.mobile.AdobeCallbackWithError
+import com.adobe.marketing.mobile.AdobeError
+import com.adobe.marketing.mobile.MobileCore
+import com.adobe.marketing.mobile.edge.identity.AuthenticatedState
+import com.adobe.marketing.mobile.edge.identity.Identity
+import com.adobe.marketing.mobile.edge.identity.IdentityItem
+import com.adobe.marketing.mobile.edge.identity.IdentityMap
+
+/**
+ * [StressTarget] calling the Edge Identity APIs. Updated identifiers cycle through [identifierCount] ids
+ * in the [namespace] namespace, so removals hit previously added identifiers.
+ */
+class EdgeIdentityStressTarget(
+    private val namespace: String = "stressNamespace",
+    private val identifierCount: Int = 100
+) : StressTarget {
+
+    override fun perform(operation: StressOperation, index: Long, completion: StressTarget.Completion) {
+        when (operation) {
+            StressOperation.UPDATE_IDENTITIES -> {
+                val identityMap = IdentityMap()
+                identityMap.addItem(IdentityItem(identifier(index), AuthenticatedState.AMBIGUOUS, false), namespace)
+                Identity.updateIdentities(identityMap)
+                completion.complete(StressOutcome.SUCCESS)
+            }
+            StressOperation.REMOVE_IDENTITY -> {
+                Identity.removeIdentity(IdentityItem(identifier(index)), namespace)
+                completion.complete(StressOutcome.SUCCESS)
+            }
+            StressOperation.GET_IDENTITIES -> Identity.getIdentities(callback(completion))
+            StressOperation.GET_URL_VARIABLES -> Identity.getUrlVariables(callback(completion))
+            StressOperation.SET_AD_ID -> {
+                // alternate between two ad IDs so each call is an ad ID change
+                MobileCore.setAdvertisingIdentifier(if (index % 2 == 0L) AD_ID_EVEN else AD_ID_ODD)
+                completion.complete(StressOutcome.SUCCESS)
+            }
+        }
+    }
+
+    private fun identifier(index: Long): String = "stress-${index % identifierCount}"
+
+    private fun <T> callback(completion: StressTarget.Completion): AdobeCallbackWithError<T> {
+        return object : AdobeCallbackWithError<T> {
+            override fun call(value: T) {
+                completion.complete(StressOutcome.SUCCESS)
+            }
+
+            override fun fail(error: AdobeError?) {
+                completion.complete(
+                    if (error == AdobeError.CALLBACK_TIMEOUT) StressOutcome.TIMEOUT else StressOutcome.ERROR
+                )
+            }
+        }
+    }
+
+    private companion object {
+        const val AD_ID_EVEN = "00000000-0000-0000-0000-00000000000a"
+        const val AD_ID_ODD = "00000000-0000-0000-0000-00000000000b"
+    }
+}
@@ -0,0 +1,238 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.edge.identity.app.stress
+
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Operations issued by the [StressDriver].
+ */
+enum class StressOperation {
+    UPDATE_IDENTITIES,
+    REMOVE_IDENTITY,
+    GET_IDENTITIES,
+    GET_URL_VARIABLES,
+    SET_AD_ID
+}
+
+/**
+ * Result of a single operation, reported to [StressTarget.Completion].
+ */
+enum class StressOutcome {
+    SUCCESS,
+    ERROR,
+    TIMEOUT
+}
+
+/**
+ * Performs the operations issued by the [StressDriver], for example by calling the Edge Identity APIs.
+ * Implementations must be thread safe; operations are issued concurrently from the driver's threads.
+ */
+fun interface StressTarget {
+    fun interface Completion {
+        fun complete(outcome: StressOutcome)
+    }
+
+    /**
+     * Performs [operation] and calls [completion] once it completes. Operations without a callback
+     * should call [completion] when they return.
+     *
+     * @param index a sequence number of the operation, which can be used to build unique identifiers
+     */
+    fun perform(operation: StressOperation, index: Long, completion: Completion)
+}
+
+/**
+ * Configuration of a stress run.
+ *
+ * @property ratesPerSecond the number of operations issued per second, by operation; operations not listed are not issued
+ * @property threads the number of threads issuing operations
+ * @property durationMillis the time during which operations are issued
+ * @property drainMillis the maximum time to wait for outstanding callbacks after the last operation was issued
+ */
+data class StressConfig(
+    val ratesPerSecond: Map<StressOperation, Int>,
+    val threads: Int = 4,
+    val durationMillis: Long = 10_000,
+    val drainMillis: Long = 5_000
+)
+
+/**
+ * Statistics of one operation in a [StressReport]. Latencies are measured from the call until its completion.
+ */
+data class StressOperationStats(
+    val issued: Long,
+    val completed: Long,
+    val errors: Long,
+    val timeouts: Long,
+    val throughputPerSecond: Double,
+    val p50Micros: Long,
+    val p99Micros: Long
+)
+
+/**
+ * Result of a stress run.
+ */
+data class StressReport(
+    val durationMillis: Long,
+    val operations: Map<StressOperation, StressOperationStats>
+) {
+    override fun toString(): String {
+        val builder = StringBuilder("Stress run of ${durationMillis}ms\n")
+        for ((operation, stats) in operations) {
+            builder.append(
+                String.format(
+                    "%s: %d issued, %d completed, %.1f/s, p50 %dus, p99 %dus, %d errors, %d timeouts\n",
+                    operation.name,
+                    stats.issued,
+                    stats.completed,
+                    stats.throughputPerSecond,
+                    stats.p50Micros,
+                    stats.p99Micros,
+                    stats.errors,
+                    stats.timeouts
+                )
+            )
+        }
+        return builder.toString()
+    }
+}
+
+/**
+ * Issues operations to a [StressTarget] at configured rates from multiple threads, and measures their
+ * throughput, callback latency and timeouts. This class does not depend on Android and can run headless.
+ */
+class StressDriver(private val target: StressTarget) {
+
+    private val sequence = AtomicLong()
+
+    @Volatile
+    private var executor: ScheduledExecutorService? = null
+
+    /**
+     * Runs a stress run with the given [config], blocking until all operations were issued and their callbacks
+     * completed or [StressConfig.drainMillis] elapsed. Operations still outstanding after the drain are reported as timeouts.
+     */
+    fun run(config: StressConfig): StressReport {
+        val recorders = config.ratesPerSecond
+            .filterValues { it > 0 }
+            .mapValues { OperationRecorder() }
+        val scheduler = Executors.newScheduledThreadPool(maxOf(1, config.threads))
+        executor = scheduler
+
+        val startNanos = System.nanoTime()
+        for ((operation, recorder) in recorders) {
+            val periodNanos = TimeUnit.SECONDS.toNanos(1) / config.ratesPerSecond.getValue(operation)
+            scheduler.scheduleAtFixedRate(
+                { issue(operation, recorder) },
+                0,
+                maxOf(1L, periodNanos),
+                TimeUnit.NANOSECONDS
+            )
+        }
+
+        try {
+            // returns early if stop() shuts the scheduler down
+            scheduler.awaitTermination(config.durationMillis, TimeUnit.MILLISECONDS)
+        } catch (e: InterruptedException) {
+            Thread.currentThread().interrupt()
+        }
+        scheduler.shutdownNow()
+        val issueNanos = System.nanoTime() - startNanos
+
+        val drainDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.drainMillis)
+        while (recorders.values.any { it.outstanding() > 0 } && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10)
+        }
+
+        val seconds = issueNanos / 1_000_000_000.0
+        return StressReport(
+            TimeUnit.NANOSECONDS.toMillis(issueNanos),
+            recorders.mapValues { it.value.toStats(seconds) }
+        )
+    }
+
+    /**
+     * Stops issuing operations of a [run] in progress on another thread.
+     */
+    fun stop() {
+        executor?.shutdownNow()
+    }
+
+    private fun issue(operation: StressOperation, recorder: OperationRecorder) {
+        val startNanos = System.nanoTime()
+        recorder.onIssued()
+        try {
+            target.perform(operation, sequence.incrementAndGet()) { outcome ->
+                recorder.onCompleted(outcome, System.nanoTime() - startNanos)
+            }
+        } catch (e: Exception) {
+            recorder.onCompleted(StressOutcome.ERROR, System.nanoTime() - startNanos)
+        }
+    }
+
+    private class OperationRecorder {
+        private var issued = 0L
+        private var completed = 0L
+        private var errors = 0L
+        private var timeouts = 0L
+        private var latencies = LongArray(1024)
+
+        @Synchronized
+        fun onIssued() {
+            issued++
+        }
+
+        @Synchronized
+        fun onCompleted(outcome: StressOutcome, latencyNanos: Long) {
+            when (outcome) {
+                StressOutcome.ERROR -> errors++
+                StressOutcome.TIMEOUT -> timeouts++
+                StressOutcome.SUCCESS -> {
+                    if (completed == latencies.size.toLong()) {
+                        latencies = latencies.copyOf(latencies.size * 2)
+                    }
+                    latencies[completed.toInt()] = latencyNanos
+                    completed++
+                }
+            }
+        }
+
+        @Synchronized
+        fun outstanding(): Long = issued - completed - errors - timeouts
+
+        @Synchronized
+        fun toStats(seconds: Double): StressOperationStats {
+            val sorted = latencies.copyOf(completed.toInt())
+            sorted.sort()
+            return StressOperationStats(
+                issued,
+                completed,
+                errors,
+                timeouts + outstanding(),
+                if (seconds > 0) completed / seconds else 0.0,
+                percentileMicros(sorted, 50),
+                percentileMicros(sorted, 99)
+            )
+        }
+
+        private fun percentileMicros(sorted: LongArray, percentile: Int): Long {
+            if (sorted.isEmpty()) {
+                return 0
+            }
+            return TimeUnit.NANOSECONDS.toMicros(sorted[minOf(sorted.size - 1, sorted.size * percentile / 100)])
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.edge.identity.app.ui
+
+import android.os.Bundle
+import android.util.Log
+import android.view.LayoutInflater
+import android.view.View
+import android.view.ViewGroup
+import android.widget.Button
+import android.widget.EditText
+import android.widget.TextView
+import androidx.fragment.app.Fragment
+import com.adobe.marketing.edge.identity.app.R
+import com.adobe.marketing.edge.identity.app.stress.EdgeIdentityStressTarget
+import com.adobe.marketing.edge.identity.app.stress.StressConfig
+import com.adobe.marketing.edge.identity.app.stress.StressDriver
+import com.adobe.marketing.edge.identity.app.stress.StressOperation
+
+class StressFragment : Fragment() {
+
+    private var driver: StressDriver? = null
+
+    override fun onCreateView(
+        inflater: LayoutInflater,
+        container: ViewGroup?,
+        savedInstanceState: Bundle?
+    ): View? {
+        val root = inflater.inflate(R.layout.fragment_stress, container, false)
+
+        val reportTextView = root.findViewById<TextView>(R.id.text_stress_report)
+        val startButton = root.findViewById<Button>(R.id.btn_start_stress)
+        val stopButton = root.findViewById<Button>(R.id.btn_stop_stress)
+
+        startButton.setOnClickListener {
+            val config = StressConfig(
+                mapOf(
+                    StressOperation.UPDATE_IDENTITIES to readInt(root, R.id.text_stress_update),
+                    StressOperation.REMOVE_IDENTITY to readInt(root, R.id.text_stress_remove),
+                    StressOperation.GET_IDENTITIES to readInt(root, R.id.text_stress_get_identities),
+                    StressOperation.GET_URL_VARIABLES to readInt(root, R.id.text_stress_get_url_variables),
+                    StressOperation.SET_AD_ID to readInt(root, R.id.text_stress_ad_id)
+                ),
+                threads = readInt(root, R.id.text_stress_threads),
+                durationMillis = readInt(root, R.id.text_stress_duration) * 1000L
+            )
+
+            val stressDriver = StressDriver(EdgeIdentityStressTarget())
+            driver = stressDriver
+            startButton.isEnabled = false
+            stopButton.isEnabled = true
+            reportTextView.text = getString(R.string.stress_running)
+
+            Thread {
+                val report = stressDriver.run(config)
+                Log.d("Stress", report.toString())
+                activity?.runOnUiThread {
+                    reportTextView.text = report.toString()
+                    startButton.isEnabled = true
+                    stopButton.isEnabled = false
+                }
+            }.start()
+        }
+
+        stopButton.setOnClickListener {
+            driver?.stop()
+        }
+
+        return root
+    }
+
+    override fun onDestroyView() {
+        driver?.stop()
+        super.onDestroyView()
+    }
+
+    private fun readInt(root: View, id: Int): Int {
+        return root.findViewById<EditText>(id).text.toString().toIntOrNull() ?: 0
+    }
+}
@@ -0,0 +1,93 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.edge.identity.app.stress
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class StressDriverTest {
+
+    @Test
+    fun run_issuesConfiguredOperationsAndCompletesThem() {
+        val executor = Executors.newSingleThreadScheduledExecutor()
+        val target = StressTarget { operation, _, completion ->
+            when (operation) {
+                StressOperation.GET_IDENTITIES ->
+                    executor.schedule({ completion.complete(StressOutcome.SUCCESS) }, 1, TimeUnit.MILLISECONDS)
+                else -> completion.complete(StressOutcome.SUCCESS)
+            }
+        }
+
+        val report = StressDriver(target).run(
+            StressConfig(
+                mapOf(StressOperation.UPDATE_IDENTITIES to 100, StressOperation.GET_IDENTITIES to 50),
+                threads = 2,
+                durationMillis = 500
+            )
+        )
+        executor.shutdown()
+
+        assertEquals(setOf(StressOperation.UPDATE_IDENTITIES, StressOperation.GET_IDENTITIES), report.operations.keys)
+        for (stats in report.operations.values) {
+            assertTrue(stats.issued > 0)
+            assertEquals(stats.issued, stats.completed)
+            assertEquals(0, stats.timeouts)
+            assertTrue(stats.p99Micros >= stats.p50Micros)
+        }
+        assertTrue(report.operations.getValue(StressOperation.GET_IDENTITIES).p50Micros >= 1000)
+    }
+
+    @Test
+    fun run_reportsOutstandingCallbacksAsTimeouts() {
+        val target = StressTarget { operation, _, completion ->
+            if (operation == StressOperation.REMOVE_IDENTITY) {
+                completion.complete(StressOutcome.ERROR)
+            }
+            // GET_URL_VARIABLES never completes
+        }
+
+        val report = StressDriver(target).run(
+            StressConfig(
+                mapOf(StressOperation.REMOVE_IDENTITY to 20, StressOperation.GET_URL_VARIABLES to 20),
+                threads = 1,
+                durationMillis = 200,
+                drainMillis = 50
+            )
+        )
+
+        val removeStats = report.operations.getValue(StressOperation.REMOVE_IDENTITY)
+        assertEquals(removeStats.issued, removeStats.errors)
+        assertEquals(0, removeStats.completed)
+
+        val getStats = report.operations.getValue(StressOperation.GET_URL_VARIABLES)
+        assertTrue(getStats.issued > 0)
+        assertEquals(getStats.issued, getStats.timeouts)
+        assertFalse(report.toString().isEmpty())
+    }
+
+    @Test
+    fun run_targetThrows_countsError() {
+        val target = StressTarget { _, _, _ -> throw IllegalStateException("failure") }
+
+        val report = StressDriver(target).run(
+            StressConfig(mapOf(StressOperation.SET_AD_ID to 10), threads = 1, durationMillis = 200)
+        )
+
+        val stats = report.operations.getValue(StressOperation.SET_AD_ID)
+        assertTrue(stats.issued > 0)
+        assertEquals(stats.issued, stats.errors)
+    }
+}
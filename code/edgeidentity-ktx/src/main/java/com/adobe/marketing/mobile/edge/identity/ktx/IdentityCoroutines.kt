@@ -0,0 +1,75 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+@file:JvmName("IdentityCoroutines")
+
+package com.adobe.marketing.mobile.edge.identity.ktx
+
+import com.adobe.marketing.mobile.AdobeCallbackWithError
+import com.adobe.marketing.mobile.AdobeError
+import com.adobe.marketing.mobile.edge.identity.Identity
+import com.adobe.marketing.mobile.edge.identity.IdentityMap
+import kotlinx.coroutines.CancellableContinuation
+import kotlinx.coroutines.suspendCancellableCoroutine
+import kotlin.coroutines.resume
+import kotlin.coroutines.resumeWithException
+
+/**
+ * Thrown by the suspending Edge Identity APIs when the underlying callback fails.
+ *
+ * @property error the [AdobeError] reported by the Edge Identity extension
+ */
+class IdentityException(val error: AdobeError) : Exception(error.errorName)
+
+/**
+ * Suspending variant of [Identity.getExperienceCloudId].
+ *
+ * @return the Experience Cloud ID, or an empty string if it was previously cleared
+ * @throws IdentityException if the request fails or times out
+ */
+suspend fun awaitExperienceCloudId(): String = suspendCancellableCoroutine { continuation ->
+    Identity.getExperienceCloudId(continuation.asCallback())
+}
+
+/**
+ * Suspending variant of [Identity.getUrlVariables].
+ *
+ * @return the identifiers in URL query parameter format
+ * @throws IdentityException if the request fails or times out
+ */
+suspend fun awaitUrlVariables(): String = suspendCancellableCoroutine { continuation ->
+    Identity.getUrlVariables(continuation.asCallback())
+}
+
+/**
+ * Suspending variant of [Identity.getIdentities].
+ *
+ * @return the current [IdentityMap]
+ * @throws IdentityException if the request fails or times out
+ */
+suspend fun awaitIdentities(): IdentityMap = suspendCancellableCoroutine { continuation ->
+    Identity.getIdentities(continuation.asCallback())
+}
+
+/**
+ * Bridges an [AdobeCallbackWithError] to this continuation. Results delivered after the
+ * calling coroutine was cancelled are dropped.
+ */
+internal fun <T> CancellableContinuation<T>.asCallback(): AdobeCallbackWithError<T> =
+    object : AdobeCallbackWithError<T> {
+        override fun call(value: T) {
+            if (isActive) resume(value)
+        }
+
+        override fun fail(error: AdobeError) {
+            if (isActive) resumeWithException(IdentityException(error))
+        }
+    }
@@ -0,0 +1,120 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.edge.identity.ktx
+
+import com.adobe.marketing.mobile.AdobeCallbackWithError
+import com.adobe.marketing.mobile.AdobeError
+import com.adobe.marketing.mobile.edge.identity.Identity
+import com.adobe.marketing.mobile.edge.identity.IdentityMap
+import com.adobe.marketing.mobile.edge.identity.IdentitySnapshot
+import com.adobe.marketing.mobile.edge.identity.IdentityVersion
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.StateFlow
+import java.util.concurrent.atomic.AtomicBoolean
+
+/**
+ * Exposes the Edge Identity [IdentityMap] as a hot [StateFlow].
+ *
+ * A single identity version listener is registered with [Identity] on first use, independently of how many
+ * collectors are attached. Each time it is notified of a newer version, the identifiers are retrieved once with
+ * a conditional request, so unchanged identifiers are not read again; collectors always observe the latest
+ * snapshot and intermediate snapshots are conflated. The value is `null` until the first snapshot is received.
+ */
+object IdentityFlow {
+
+    private val snapshots = MutableStateFlow<IdentityMap?>(null)
+    private val started = AtomicBoolean(false)
+    private var publishedVersion: IdentityVersion? = null
+
+    private val versionListener = object : AdobeCallbackWithError<IdentityVersion> {
+        override fun call(version: IdentityVersion) {
+            refresh(version)
+        }
+
+        override fun fail(error: AdobeError) {
+            // the initial version could not be read, the next change refreshes the identifiers
+        }
+    }
+
+    /**
+     * The latest known [IdentityMap]. Accessing this property registers a single identity version listener
+     * with [Identity] on first use.
+     */
+    val identities: StateFlow<IdentityMap?>
+        get() {
+            if (started.compareAndSet(false, true)) {
+                Identity.registerIdentityVersionListener(versionListener)
+            }
+
+            return snapshots
+        }
+
+    /**
+     * Retrieves the identifiers unless a snapshot with the same or a more recent [version] was already published.
+     * Only identifiers changed since the last published snapshot are retrieved.
+     */
+    internal fun refresh(version: IdentityVersion) {
+        val lastVersion = synchronized(this) { publishedVersion }
+
+        if (lastVersion != null && version.version <= lastVersion.version) {
+            return
+        }
+
+        Identity.getIdentitiesIfChanged(
+            lastVersion,
+            object : AdobeCallbackWithError<IdentitySnapshot> {
+                override fun call(snapshot: IdentitySnapshot) {
+                    publish(snapshot.version, snapshot.identityMap)
+                }
+
+                override fun fail(error: AdobeError) {
+                    // the next change refreshes the identifiers
+                }
+            }
+        )
+    }
+
+    /**
+     * Publishes [identityMap] unless a snapshot with the same or a more recent [version] was already
+     * published. Versions may be notified out of order or more than once, as the initial version and the
+     * changes are received through different SDK callbacks. A null [identityMap] means the identifiers did
+     * not change since the last published snapshot.
+     */
+    @Synchronized
+    internal fun publish(version: IdentityVersion, identityMap: IdentityMap?) {
+        val lastVersion = publishedVersion
+
+        if (lastVersion != null && version.version <= lastVersion.version) {
+            return
+        }
+
+        publishedVersion = version
+
+        if (identityMap != null) {
+            snapshots.value = identityMap
+        }
+    }
+
+    /**
+     * Removes the identity version listener and clears the published snapshot, so each test starts from a
+     * new flow.
+     */
+    @Synchronized
+    internal fun reset() {
+        if (started.compareAndSet(true, false)) {
+            Identity.unregisterIdentityVersionListener(versionListener)
+        }
+
+        publishedVersion = null
+        snapshots.value = null
+    }
+}
@@ -0,0 +1,73 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.edge.identity.ktx
+
+import com.adobe.marketing.mobile.AdobeCallback
+import com.adobe.marketing.mobile.AdobeCallbackWithError
+import com.adobe.marketing.mobile.AdobeError
+import com.adobe.marketing.mobile.edge.identity.Identity
+import com.adobe.marketing.mobile.edge.identity.IdentityItem
+import com.adobe.marketing.mobile.edge.identity.IdentityMap
+import kotlinx.coroutines.runBlocking
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertSame
+import org.junit.Assert.fail
+import org.junit.Test
+import org.mockito.ArgumentMatchers.any
+import org.mockito.Mockito
+
+class IdentityCoroutinesTests {
+
+    @Test
+    fun test_awaitExperienceCloudId_resumesWithValue() {
+        Mockito.mockStatic(Identity::class.java).use { mockedIdentity ->
+            mockedIdentity.`when`<Unit> { Identity.getExperienceCloudId(any()) }.thenAnswer {
+                it.getArgument<AdobeCallback<String>>(0).call("1234")
+                null
+            }
+
+            assertEquals("1234", runBlocking { awaitExperienceCloudId() })
+        }
+    }
+
+    @Test
+    fun test_awaitUrlVariables_failure_throwsIdentityException() {
+        Mockito.mockStatic(Identity::class.java).use { mockedIdentity ->
+            mockedIdentity.`when`<Unit> { Identity.getUrlVariables(any()) }.thenAnswer {
+                it.getArgument<AdobeCallbackWithError<String>>(0).fail(AdobeError.CALLBACK_TIMEOUT)
+                null
+            }
+
+            try {
+                runBlocking { awaitUrlVariables() }
+                fail("Expected IdentityException")
+            } catch (e: IdentityException) {
+                assertEquals(AdobeError.CALLBACK_TIMEOUT, e.error)
+            }
+        }
+    }
+
+    @Test
+    fun test_awaitIdentities_resumesWithIdentityMap() {
+        val identityMap = IdentityMap()
+        identityMap.addItem(IdentityItem("id"), "space")
+
+        Mockito.mockStatic(Identity::class.java).use { mockedIdentity ->
+            mockedIdentity.`when`<Unit> { Identity.getIdentities(any()) }.thenAnswer {
+                it.getArgument<AdobeCallback<IdentityMap>>(0).call(identityMap)
+                null
+            }
+
+            assertSame(identityMap, runBlocking { awaitIdentities() })
+        }
+    }
+}
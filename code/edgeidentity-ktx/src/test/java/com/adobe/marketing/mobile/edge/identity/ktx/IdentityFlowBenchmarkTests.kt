@@ -0,0 +1,102 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.edge.identity.ktx
+
+import com.adobe.marketing.mobile.edge.identity.Identity
+import com.adobe.marketing.mobile.edge.identity.IdentityItem
+import com.adobe.marketing.mobile.edge.identity.IdentityMap
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.withTimeout
+import org.junit.After
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.mockito.Mockito
+import java.io.File
+
+/**
+ * Measures how long it takes for a single published snapshot to reach N concurrent collectors of
+ * [IdentityFlow.identities]. The extension dispatches each change once regardless of N.
+ *
+ * Results are written to `IdentityFlowBenchmark.txt` in the directory set in the `benchmark.reportDir`
+ * system property, one line per collector count with the median of several rounds, and are meant to be
+ * compared between runs on the same machine. The benchmark is excluded from the unit tests and runs with `make benchmark-flow-fan-out`.
+ */
+class IdentityFlowBenchmarkTests {
+
+    private companion object {
+        val COLLECTORS = intArrayOf(1, 10, 100, 1000)
+        const val ROUNDS = 5
+    }
+
+    @After
+    fun teardown() {
+        Mockito.mockStatic(Identity::class.java).use {
+            IdentityFlow.reset()
+        }
+    }
+
+    @Test
+    fun benchmark_publish_fanOutToConcurrentCollectors() {
+        Mockito.mockStatic(Identity::class.java).use {
+            // start the flow on this thread where Identity is mocked
+            val identities = IdentityFlow.identities
+            val lines = mutableListOf<String>()
+            var version = 0L
+
+            // warm up, the first measurements otherwise include class loading and compilation
+            repeat(ROUNDS) { measureFanOut(identities, COLLECTORS.last(), ++version) }
+
+            for (collectors in COLLECTORS) {
+                val elapsedNanos = LongArray(ROUNDS) { measureFanOut(identities, collectors, ++version) }
+                elapsedNanos.sort()
+                lines.add(
+                    "[$collectors collectors]: snapshot received by all in ${elapsedNanos[ROUNDS / 2] / 1_000} us " +
+                        "(median of $ROUNDS)"
+                )
+            }
+
+            val directory = File(System.getProperty("benchmark.reportDir", "build/reports/benchmarks"))
+            assertTrue(directory.isDirectory || directory.mkdirs())
+            File(directory, "IdentityFlowBenchmark.txt").appendText(lines.joinToString("\n", postfix = "\n"))
+        }
+    }
+
+    /**
+     * Returns the nanoseconds from publishing a new snapshot until all [collectors] received it.
+     */
+    private fun measureFanOut(identities: StateFlow<IdentityMap?>, collectors: Int, version: Long): Long {
+        val snapshot = identityMapOf("snapshot-$version")
+        val identityVersion = versionOf(version)
+
+        return runBlocking(Dispatchers.Default) {
+            val waiting = (1..collectors).map {
+                async { identities.first { it === snapshot } }
+            }
+
+            val start = System.nanoTime()
+            IdentityFlow.publish(identityVersion, snapshot)
+            withTimeout(10_000) { waiting.awaitAll() }
+            System.nanoTime() - start
+        }
+    }
+
+    private fun identityMapOf(id: String): IdentityMap {
+        val identityMap = IdentityMap()
+        identityMap.addItem(IdentityItem(id), "space")
+        return identityMap
+    }
+}
@@ -0,0 +1,126 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.edge.identity.ktx
+
+import com.adobe.marketing.mobile.AdobeCallback
+import com.adobe.marketing.mobile.edge.identity.Identity
+import com.adobe.marketing.mobile.edge.identity.IdentityItem
+import com.adobe.marketing.mobile.edge.identity.IdentityMap
+import com.adobe.marketing.mobile.edge.identity.IdentitySnapshot
+import com.adobe.marketing.mobile.edge.identity.IdentityVersion
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Test
+import org.mockito.ArgumentMatchers.any
+import org.mockito.ArgumentMatchers.isNull
+import org.mockito.Mockito
+
+class IdentityFlowTests {
+
+    @After
+    fun teardown() {
+        Mockito.mockStatic(Identity::class.java).use {
+            IdentityFlow.reset()
+        }
+    }
+
+    @Test
+    fun test_versionListener_publishesRetrievedIdentities() {
+        val identityMap = identityMapOf("id")
+        val version = versionOf(1)
+
+        Mockito.mockStatic(Identity::class.java).use { mockedIdentity ->
+            mockedIdentity.`when`<Unit> { Identity.registerIdentityVersionListener(any()) }.thenAnswer {
+                it.getArgument<AdobeCallback<IdentityVersion>>(0).call(version)
+                null
+            }
+            mockedIdentity.`when`<Unit> { Identity.getIdentitiesIfChanged(isNull(), any()) }.thenAnswer {
+                it.getArgument<AdobeCallback<IdentitySnapshot>>(1).call(snapshotOf(version, identityMap))
+                null
+            }
+
+            assertSame(identityMap, IdentityFlow.identities.value)
+            mockedIdentity.verify({ Identity.getIdentitiesIfChanged(any(), any()) }, Mockito.times(1))
+        }
+    }
+
+    @Test
+    fun test_versionListener_unchangedIdentities_keepsPublishedIdentities() {
+        val identityMap = identityMapOf("id")
+        val lastVersion = versionOf(1)
+        val listeners = mutableListOf<AdobeCallback<IdentityVersion>>()
+
+        Mockito.mockStatic(Identity::class.java).use { mockedIdentity ->
+            mockedIdentity.`when`<Unit> { Identity.registerIdentityVersionListener(any()) }.thenAnswer {
+                listeners.add(it.getArgument(0))
+                null
+            }
+            mockedIdentity.`when`<Unit> { Identity.getIdentitiesIfChanged(isNull(), any()) }.thenAnswer {
+                it.getArgument<AdobeCallback<IdentitySnapshot>>(1).call(snapshotOf(lastVersion, identityMap))
+                null
+            }
+            val requestedVersions = mutableListOf<IdentityVersion?>()
+            mockedIdentity.`when`<Unit> { Identity.getIdentitiesIfChanged(Mockito.same(lastVersion), any()) }
+                .thenAnswer {
+                    requestedVersions.add(it.getArgument(0))
+                    it.getArgument<AdobeCallback<IdentitySnapshot>>(1).call(snapshotOf(versionOf(2), null))
+                    null
+                }
+
+            val identities = IdentityFlow.identities
+            assertNull(identities.value)
+
+            // the identifiers are requested once per newer version, then only if they changed
+            listeners[0].call(lastVersion)
+            listeners[0].call(lastVersion)
+            listeners[0].call(versionOf(2))
+            listeners[0].call(versionOf(2))
+
+            assertSame(identityMap, identities.value)
+            assertEquals(listOf(lastVersion), requestedVersions)
+        }
+    }
+
+    @Test
+    fun test_publish_olderVersionIsIgnored() {
+        val newer = identityMapOf("newer")
+        val older = identityMapOf("older")
+
+        IdentityFlow.publish(versionOf(2), newer)
+        IdentityFlow.publish(versionOf(1), older)
+
+        Mockito.mockStatic(Identity::class.java).use {
+            assertSame(newer, IdentityFlow.identities.value)
+        }
+    }
+
+    private fun identityMapOf(id: String): IdentityMap {
+        val identityMap = IdentityMap()
+        identityMap.addItem(IdentityItem(id), "space")
+        return identityMap
+    }
+}
+
+internal fun versionOf(version: Long): IdentityVersion {
+    val identityVersion = Mockito.mock(IdentityVersion::class.java)
+    Mockito.`when`(identityVersion.version).thenReturn(version)
+    return identityVersion
+}
+
+internal fun snapshotOf(version: IdentityVersion, identityMap: IdentityMap?): IdentitySnapshot {
+    val snapshot = Mockito.mock(IdentitySnapshot::class.java)
+    Mockito.`when`(snapshot.version).thenReturn(version)
+    Mockito.`when`(snapshot.identityMap).thenReturn(identityMap)
+    return snapshot
+}
@@ -0,0 +1,91 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.edge.identity;
+
+import androidx.annotation.NonNull;
+import com.adobe.marketing.mobile.util.StringUtils;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Builds an {@link IdentityMap} from identities added concurrently by multiple threads, for example when gathering
+ * identifiers from several SDKs in parallel before calling {@link Identity#updateIdentities(IdentityMap)}.
+ * <p>
+ * Adding an identity does not lock: identities are appended to a lock-free queue per namespace and
+ * applied to a new {@code IdentityMap} when {@link #build()} is called. Identities added to a namespace are applied
+ * in the order they were added, so an identity added again with the same id replaces the earlier one, as with
+ * {@link IdentityMap#addItem(IdentityItem, String)}.
+ */
+public final class ConcurrentIdentityMapBuilder {
+
+	private static final String LOG_SOURCE = "ConcurrentIdentityMapBuilder";
+
+	private final ConcurrentHashMap<String, ConcurrentLinkedQueue<IdentityItem>> itemsByNamespace =
+		new ConcurrentHashMap<>();
+
+	/**
+	 * Adds an identity to the given namespace. May be called from any thread.
+	 * An {@link IdentityItem} with an empty {@code id} is not allowed and is ignored when the map is built.
+	 *
+	 * @param item      {@link IdentityItem} to be added to the given {@code namespace}; should not be null
+	 * @param namespace the namespace integration code or namespace ID of the identity; should not be null
+	 */
+	public void addItem(@NonNull final IdentityItem item, @NonNull final String namespace) {
+		if (item == null) {
+			IdentityLog.debug(LOG_SOURCE, "Add item ignored as must contain a non-null IdentityItem.");
+			return;
+		}
+
+		if (StringUtils.isNullOrEmpty(namespace)) {
+			IdentityLog.debug(LOG_SOURCE, "Add item ignored as must contain a non-null/non-empty namespace.");
+			return;
+		}
+
+		ConcurrentLinkedQueue<IdentityItem> items = itemsByNamespace.get(namespace);
+
+		if (items == null) {
+			final ConcurrentLinkedQueue<IdentityItem> newItems = new ConcurrentLinkedQueue<>();
+			items = itemsByNamespace.putIfAbsent(namespace, newItems);
+			items = items != null ? items : newItems;
+		}
+
+		items.add(item);
+	}
+
+	/**
+	 * @return true if no identity was added to this builder
+	 */
+	public boolean isEmpty() {
+		return itemsByNamespace.isEmpty();
+	}
+
+	/**
+	 * Builds a new {@link IdentityMap} with the identities added to this builder. May be called from any thread;
+	 * identities added while the map is built may or may not be included. The builder is not modified and can
+	 * be built again.
+	 *
+	 * @return a new {@code IdentityMap} with the added identities
+	 */
+	@NonNull
+	public IdentityMap build() {
+		final IdentityMap map = new IdentityMap();
+
+		for (final Map.Entry<String, ConcurrentLinkedQueue<IdentityItem>> entry : itemsByNamespace.entrySet()) {
+			for (final IdentityItem item : entry.getValue()) {
+				map.addItem(item, entry.getKey());
+			}
+		}
+
+		return map;
+	}
+}
@@ -11,9 +11,6 @@
 
 package com.adobe.marketing.mobile.edge.identity;
 
-import static com.adobe.marketing.mobile.edge.identity.IdentityConstants.LOG_TAG;
-
-import com.adobe.marketing.mobile.services.Log;
 import com.adobe.marketing.mobile.util.StringUtils;
 import java.util.Locale;
 import java.util.Objects;
@@ -46,8 +43,7 @@ final class ECID {
 	 */
 	ECID(final String ecidString) {
 		if (StringUtils.isNullOrEmpty(ecidString)) {
-			Log.debug(
-				LOG_TAG,
+			IdentityLog.debug(
 				LOG_SOURCE,
 				"Creating an ECID with null or empty ecidString is not allowed, generating a new ECID."
 			);
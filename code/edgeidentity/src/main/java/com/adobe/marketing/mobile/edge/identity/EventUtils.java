@@ -12,6 +12,8 @@
 package com.adobe.marketing.mobile.edge.identity;
 
 import com.adobe.marketing.mobile.Event;
+import com.adobe.marketing.mobile.EventSource;
+import com.adobe.marketing.mobile.EventType;
 import com.adobe.marketing.mobile.util.DataReader;
 import com.adobe.marketing.mobile.util.StringUtils;
 import java.util.Map;
@@ -32,6 +34,25 @@ final class EventUtils {
 		return data.containsKey(IdentityConstants.EventDataKeys.ADVERTISING_IDENTIFIER);
 	}
 
+	/**
+	 * Checks if the provided {@code event} updates or removes customer identifiers, which is an
+	 * {@link EventType#EDGE_IDENTITY} event with source {@link EventSource#UPDATE_IDENTITY} or
+	 * {@link EventSource#REMOVE_IDENTITY}
+	 *
+	 * @param event the event to verify
+	 * @return {@code true} if the event changes customer identifiers
+	 */
+	static boolean isCustomerIdentifiersChangeEvent(final Event event) {
+		if (event == null || !EventType.EDGE_IDENTITY.equalsIgnoreCase(event.getType())) {
+			return false;
+		}
+
+		return (
+			EventSource.UPDATE_IDENTITY.equalsIgnoreCase(event.getSource()) ||
+			EventSource.REMOVE_IDENTITY.equalsIgnoreCase(event.getSource())
+		);
+	}
+
 	/**
 	 * Reads the url variables flag from the event data, returns false if not present
 	 * Note: This API needs to be used with isRequestIdentityEvent API to determine the correct event type and event source
@@ -45,6 +66,117 @@ final class EventUtils {
 		);
 	}
 
+	/**
+	 * Checks if the event is named as a boot timeout event and has the boot timeout flag
+	 * Note: This API needs to be used with isRequestIdentityEvent API to determine the correct event type and event source
+	 * @param event the event to verify
+	 * @return true if the event has the boot timeout event name and its boottimeout key has a value of true
+	 */
+	static boolean isBootTimeoutEvent(final Event event) {
+		return (
+			event != null &&
+			IdentityConstants.EventNames.IDENTITY_BOOT_TIMEOUT.equals(event.getName()) &&
+			DataReader.optBoolean(event.getEventData(), IdentityConstants.EventDataKeys.BOOT_TIMEOUT, false)
+		);
+	}
+
+	/**
+	 * Checks if the event is named as an expiry sweep event and has the expiry sweep flag
+	 * Note: This API needs to be used with isRequestIdentityEvent API to determine the correct event type and event source
+	 * @param event the event to verify
+	 * @return true if the event has the expiry sweep event name and its expirysweep key has a value of true
+	 */
+	static boolean isExpirySweepEvent(final Event event) {
+		return (
+			event != null &&
+			IdentityConstants.EventNames.IDENTITY_EXPIRY_SWEEP.equals(event.getName()) &&
+			DataReader.optBoolean(event.getEventData(), IdentityConstants.EventDataKeys.EXPIRY_SWEEP, false)
+		);
+	}
+
+	/**
+	 * Checks if the event is named as a flush ad ID event and has the flush ad ID flag
+	 * Note: This API needs to be used with isRequestIdentityEvent API to determine the correct event type and event source
+	 * @param event the event to verify
+	 * @return true if the event has the flush ad ID event name and its flushadid key has a value of true
+	 */
+	static boolean isFlushAdIdEvent(final Event event) {
+		return (
+			event != null &&
+			IdentityConstants.EventNames.IDENTITY_FLUSH_AD_ID.equals(event.getName()) &&
+			DataReader.optBoolean(event.getEventData(), IdentityConstants.EventDataKeys.FLUSH_AD_ID, false)
+		);
+	}
+
+	/**
+	 * Reads the debounce window sequence from the flush ad ID event data, returns 0 if not present
+	 * @param event the flush ad ID event
+	 * @return the sequence of the ad ID debounce window the flush was scheduled for, or 0
+	 */
+	static long getFlushAdIdSequence(final Event event) {
+		return event != null
+			? DataReader.optLong(event.getEventData(), IdentityConstants.EventDataKeys.FLUSH_AD_ID_SEQUENCE, 0)
+			: 0;
+	}
+
+	/**
+	 * Reads the identity version flag from the event data, returns false if not present
+	 * Note: This API needs to be used with isRequestIdentityEvent API to determine the correct event type and event source
+	 * @param event the event to verify
+	 * @return true if identityVersion key is present in the event data and has a value of true
+	 */
+	static boolean isGetIdentityVersionRequestEvent(final Event event) {
+		return (
+			event != null &&
+			DataReader.optBoolean(event.getEventData(), IdentityConstants.EventDataKeys.IDENTITY_VERSION, false)
+		);
+	}
+
+	/**
+	 * Reads the notify identity version changes flag from the event data, returns null if not present
+	 * Note: This API needs to be used with isRequestIdentityEvent API to determine the correct event type and event source
+	 * @param event the event to read
+	 * @return the value of the notifyIdentityVersionChanges key, or null if the key is not present in the event data
+	 */
+	static Boolean getNotifyIdentityVersionChanges(final Event event) {
+		if (event == null || event.getEventData() == null) {
+			return null;
+		}
+
+		final Object notify = event.getEventData().get(IdentityConstants.EventDataKeys.NOTIFY_IDENTITY_VERSION_CHANGES);
+		return notify instanceof Boolean ? (Boolean) notify : null;
+	}
+
+	/**
+	 * Checks if the provided {@code event} is a conditional request whose {@link IdentityConstants.EventDataKeys#IF_NONE_MATCH}
+	 * hash equals the given hash of the current identifiers
+	 * @param event the event to verify
+	 * @param hash the content hash of the current identifiers
+	 * @return true if the identifiers did not change since the hash in the event data was read
+	 */
+	static boolean isIdentityHashMatch(final Event event, final long hash) {
+		if (event == null || event.getEventData() == null) {
+			return false;
+		}
+
+		final Object lastHash = event.getEventData().get(IdentityConstants.EventDataKeys.IF_NONE_MATCH);
+		return lastHash instanceof Number && ((Number) lastHash).longValue() == hash;
+	}
+
+	/**
+	 * Reads the identifier to find the namespaces of from the event data, returns null if not present
+	 * Note: This API needs to be used with isRequestIdentityEvent API to determine the correct event type and event source
+	 * @param event the event to read
+	 * @return the identifier to find the namespaces of, or null if the event is not a find namespaces request
+	 */
+	static String getFindNamespacesId(final Event event) {
+		if (event == null) {
+			return null;
+		}
+
+		return DataReader.optString(event.getEventData(), IdentityConstants.EventDataKeys.FIND_NAMESPACES_ID, null);
+	}
+
 	/**
 	 * Checks if the provided {@code event} is a shared state update event for {@code stateOwnerName}
 	 *
@@ -113,4 +245,32 @@ final class EventUtils {
 			null
 		);
 	}
+
+	/**
+	 * Extracts the ad ID debounce window from the Configuration shared state
+	 *
+	 * @param configurationSharedState the configuration shared state data
+	 * @return the debounce window in milliseconds, or 0 if not found, meaning ad ID changes are not debounced
+	 */
+	static long getAdIdDebounceMillis(final Map<String, Object> configurationSharedState) {
+		return DataReader.optLong(
+			configurationSharedState,
+			IdentityConstants.SharedState.Configuration.AD_ID_DEBOUNCE_MILLIS,
+			0
+		);
+	}
+
+	/**
+	 * Extracts the boot timeout from the Configuration shared state
+	 *
+	 * @param configurationSharedState the configuration shared state data
+	 * @return the boot timeout in milliseconds, or 0 if not found, meaning boot waits for the direct Identity state
+	 */
+	static long getBootTimeoutMillis(final Map<String, Object> configurationSharedState) {
+		return DataReader.optLong(
+			configurationSharedState,
+			IdentityConstants.SharedState.Configuration.BOOT_TIMEOUT_MILLIS,
+			0
+		);
+	}
 }
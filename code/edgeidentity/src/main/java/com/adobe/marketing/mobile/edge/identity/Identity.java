@@ -11,9 +11,9 @@
 
 package com.adobe.marketing.mobile.edge.identity;
 
-import static com.adobe.marketing.mobile.edge.identity.IdentityConstants.LOG_TAG;
-
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 import com.adobe.marketing.mobile.AdobeCallback;
 import com.adobe.marketing.mobile.AdobeCallbackWithError;
 import com.adobe.marketing.mobile.AdobeError;
@@ -22,12 +22,15 @@ import com.adobe.marketing.mobile.EventSource;
 import com.adobe.marketing.mobile.EventType;
 import com.adobe.marketing.mobile.Extension;
 import com.adobe.marketing.mobile.MobileCore;
-import com.adobe.marketing.mobile.services.Log;
 import com.adobe.marketing.mobile.util.DataReader;
 import com.adobe.marketing.mobile.util.StringUtils;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Defines the public APIs for the AEP Edge Identity extension.
@@ -35,7 +38,13 @@ import java.util.Map;
 public class Identity {
 
 	public static final Class<? extends Extension> EXTENSION = IdentityExtension.class;
-	private static final long CALLBACK_TIMEOUT_MILLIS = 500L;
+	private static final long DEFAULT_CALLBACK_TIMEOUT_MILLIS = 500L;
+	private static volatile long callbackTimeoutMillis = DEFAULT_CALLBACK_TIMEOUT_MILLIS;
+	private static volatile long bootWaitTimeoutMillis = 0L;
+
+	// guarded by identityVersionListeners; copied on write so listeners are notified without holding the lock
+	private static final List<AdobeCallback<IdentityVersion>> identityVersionListeners = new CopyOnWriteArrayList<>();
+	private static boolean identityVersionEventListenerRegistered = false;
 
 	private static final String LOG_SOURCE = "Identity";
 
@@ -62,14 +71,88 @@ public class Identity {
 		MobileCore.registerExtension(
 			IdentityExtension.class,
 			extensionError ->
-				Log.error(
-					LOG_TAG,
+				IdentityLog.error(
 					LOG_SOURCE,
-					"There was an error registering the Edge Identity extension: " + extensionError.getErrorName()
+					"There was an error registering the Edge Identity extension: %s",
+					extensionError.getErrorName()
 				)
 		);
 	}
 
+	/**
+	 * Sets the default timeout used by {@link #getExperienceCloudId(AdobeCallback)}, {@link #getUrlVariables(AdobeCallback)}
+	 * and {@link #getIdentities(AdobeCallback)}. The default value is 500 milliseconds.
+	 *
+	 * @param timeoutMillis the timeout in milliseconds; values less than or equal to zero are ignored
+	 */
+	public static void setCallbackTimeout(final long timeoutMillis) {
+		if (timeoutMillis <= 0) {
+			IdentityLog.debug(LOG_SOURCE, "Unable to setCallbackTimeout, timeout must be greater than zero.");
+			return;
+		}
+
+		callbackTimeoutMillis = timeoutMillis;
+	}
+
+	/**
+	 * Sets the additional time the getter APIs wait for a response while the Edge Identity extension has not finished
+	 * booting. Requests made before boot are queued by the extension and answered once boot completes, so waiting
+	 * for them avoids a {@link AdobeError#CALLBACK_TIMEOUT} followed by a retried request.
+	 * The default value is 0, which disables the additional wait.
+	 *
+	 * @param timeoutMillis the additional timeout in milliseconds; values less than zero are ignored
+	 */
+	public static void setBootWaitTimeout(final long timeoutMillis) {
+		if (timeoutMillis < 0) {
+			IdentityLog.debug(LOG_SOURCE, "Unable to setBootWaitTimeout, timeout must not be negative.");
+			return;
+		}
+
+		bootWaitTimeoutMillis = timeoutMillis;
+	}
+
+	/**
+	 * Enables or disables the collection of Identity extension metrics, such as event handler latencies,
+	 * persistence sizes and identity map sizes. Metrics are disabled by default and add no allocations while disabled.
+	 * Disabling metrics keeps the values recorded so far.
+	 *
+	 * @param enabled true to record metrics
+	 * @see #getMetricsSnapshot()
+	 */
+	public static void setMetricsEnabled(final boolean enabled) {
+		IdentityMetrics.setEnabled(enabled);
+	}
+
+	/**
+	 * Returns a copy of the metrics recorded since metrics were enabled or last reset.
+	 *
+	 * @return an {@link IdentityMetricsSnapshot} of the current metrics
+	 * @see #setMetricsEnabled(boolean)
+	 */
+	@NonNull
+	public static IdentityMetricsSnapshot getMetricsSnapshot() {
+		return IdentityMetrics.snapshot();
+	}
+
+	/**
+	 * Resets all recorded Identity extension metrics to zero.
+	 */
+	public static void resetMetrics() {
+		IdentityMetrics.reset();
+	}
+
+	/**
+	 * Enables tracing of the Identity API calls and sets the sink receiving their spans. Each span records when the
+	 * request event was dispatched, when the extension became ready for it, when it was handled, when the response
+	 * was dispatched and when the callback was invoked. Use an {@link IdentityTraceBuffer} to keep the most recent
+	 * spans in memory. Tracing is disabled by default.
+	 *
+	 * @param sink the {@link IdentityTraceSink} receiving completed spans, or null to disable tracing
+	 */
+	public static void setTraceSink(@Nullable final IdentityTraceSink sink) {
+		IdentityTracer.setSink(sink);
+	}
+
 	/**
 	 * Returns the Experience Cloud ID. An empty string is returned if the Experience Cloud ID was previously cleared.
 	 *
@@ -78,8 +161,22 @@ public class Identity {
 	 *                 eventuality of any error that occurred while getting the Experience Cloud ID
 	 */
 	public static void getExperienceCloudId(@NonNull final AdobeCallback<String> callback) {
+		getExperienceCloudId(callbackTimeoutMillis, callback);
+	}
+
+	/**
+	 * Returns the Experience Cloud ID. An empty string is returned if the Experience Cloud ID was previously cleared.
+	 *
+	 * @param timeoutMillis the time in milliseconds to wait for a response before an {@link AdobeCallbackWithError} is
+	 *                      called with {@link AdobeError#CALLBACK_TIMEOUT};
+	 *                      values less than or equal to zero use the default timeout
+	 * @param callback {@link AdobeCallback} of {@code String} invoked with the Experience Cloud ID
+	 *                 If an {@link AdobeCallbackWithError} is provided, an {@link AdobeError} can be returned in the
+	 *                 eventuality of any error that occurred while getting the Experience Cloud ID
+	 */
+	public static void getExperienceCloudId(final long timeoutMillis, @NonNull final AdobeCallback<String> callback) {
 		if (callback == null) {
-			Log.debug(LOG_TAG, LOG_SOURCE, "Unexpected null callback, provide a callback to retrieve current ECID.");
+			IdentityLog.debug(LOG_SOURCE, "Unexpected null callback, provide a callback to retrieve current ECID.");
 			return;
 		}
 
@@ -93,6 +190,8 @@ public class Identity {
 		final AdobeCallbackWithError<Event> callbackWithError = new AdobeCallbackWithError<Event>() {
 			@Override
 			public void call(final Event responseEvent) {
+				IdentityTracer.complete(event.getUniqueIdentifier(), null);
+
 				if (responseEvent == null || responseEvent.getEventData() == null) {
 					returnError(callback, AdobeError.UNEXPECTED_ERROR);
 					return;
@@ -101,8 +200,7 @@ public class Identity {
 				final IdentityMap identityMap = IdentityMap.fromXDMMap(responseEvent.getEventData());
 
 				if (identityMap == null) {
-					Log.debug(
-						LOG_TAG,
+					IdentityLog.debug(
 						LOG_SOURCE,
 						"Failed to read IdentityMap from response event, invoking error callback with AdobeError.UNEXPECTED_ERROR"
 					);
@@ -123,20 +221,19 @@ public class Identity {
 
 			@Override
 			public void fail(final AdobeError adobeError) {
+				IdentityTracer.complete(event.getUniqueIdentifier(), adobeError.getErrorName());
 				returnError(callback, adobeError);
-				Log.debug(
-					LOG_TAG,
+				IdentityLog.debug(
 					LOG_SOURCE,
-					String.format(
-						"Failed to dispatch %s event: Error : %s.",
-						IdentityConstants.EventNames.IDENTITY_REQUEST_IDENTITY_ECID,
-						adobeError.getErrorName()
-					)
+					"Failed to dispatch %s event: Error : %s.",
+					IdentityConstants.EventNames.IDENTITY_REQUEST_IDENTITY_ECID,
+					adobeError.getErrorName()
 				);
 			}
 		};
 
-		MobileCore.dispatchEventWithResponseCallback(event, CALLBACK_TIMEOUT_MILLIS, callbackWithError);
+		IdentityTracer.begin(event, true);
+		MobileCore.dispatchEventWithResponseCallback(event, getEffectiveTimeout(timeoutMillis), callbackWithError);
 	}
 
 	/**
@@ -157,9 +254,23 @@ public class Identity {
 	 *	               eventuality of any error that occurred while getting the identifiers query string
 	 */
 	public static void getUrlVariables(@NonNull final AdobeCallback<String> callback) {
+		getUrlVariables(callbackTimeoutMillis, callback);
+	}
+
+	/**
+	 * Returns the identifiers in URL query parameter format for consumption in hybrid mobile applications.
+	 * See {@link #getUrlVariables(AdobeCallback)} for the format of the returned value.
+	 *
+	 * @param timeoutMillis the time in milliseconds to wait for a response before an {@link AdobeCallbackWithError} is
+	 *                      called with {@link AdobeError#CALLBACK_TIMEOUT};
+	 *                      values less than or equal to zero use the default timeout
+	 * @param callback {@link AdobeCallback} of {@code String} invoked with a value containing the identifiers in query parameter format.
+	 *     	           If an {@link AdobeCallbackWithError} is provided, an {@link AdobeError} can be returned in the
+	 *	               eventuality of any error that occurred while getting the identifiers query string
+	 */
+	public static void getUrlVariables(final long timeoutMillis, @NonNull final AdobeCallback<String> callback) {
 		if (callback == null) {
-			Log.debug(
-				LOG_TAG,
+			IdentityLog.debug(
 				LOG_SOURCE,
 				"Unexpected null callback, provide a callback to retrieve current visitor identifiers (URLVariables) query string."
 			);
@@ -183,6 +294,8 @@ public class Identity {
 		final AdobeCallbackWithError<Event> callbackWithError = new AdobeCallbackWithError<Event>() {
 			@Override
 			public void call(final Event responseEvent) {
+				IdentityTracer.complete(event.getUniqueIdentifier(), null);
+
 				if (responseEvent == null || responseEvent.getEventData() == null) {
 					returnError(callback, AdobeError.UNEXPECTED_ERROR);
 					return;
@@ -204,20 +317,19 @@ public class Identity {
 
 			@Override
 			public void fail(final AdobeError adobeError) {
+				IdentityTracer.complete(event.getUniqueIdentifier(), adobeError.getErrorName());
 				returnError(callback, adobeError);
-				Log.debug(
-					LOG_TAG,
+				IdentityLog.debug(
 					LOG_SOURCE,
-					String.format(
-						"Failed to dispatch %s event: Error : %s.",
-						IdentityConstants.EventNames.IDENTITY_REQUEST_URL_VARIABLES,
-						adobeError.getErrorName()
-					)
+					"Failed to dispatch %s event: Error : %s.",
+					IdentityConstants.EventNames.IDENTITY_REQUEST_URL_VARIABLES,
+					adobeError.getErrorName()
 				);
 			}
 		};
 
-		MobileCore.dispatchEventWithResponseCallback(event, CALLBACK_TIMEOUT_MILLIS, callbackWithError);
+		IdentityTracer.begin(event, true);
+		MobileCore.dispatchEventWithResponseCallback(event, getEffectiveTimeout(timeoutMillis), callbackWithError);
 	}
 
 	/**
@@ -230,7 +342,7 @@ public class Identity {
 	 */
 	public static void updateIdentities(@NonNull final IdentityMap identityMap) {
 		if (identityMap == null || identityMap.isEmpty()) {
-			Log.debug(LOG_TAG, LOG_SOURCE, "Unable to updateIdentities, IdentityMap is null or empty");
+			IdentityLog.debug(LOG_SOURCE, "Unable to updateIdentities, IdentityMap is null or empty");
 			return;
 		}
 
@@ -239,9 +351,10 @@ public class Identity {
 			EventType.EDGE_IDENTITY,
 			EventSource.UPDATE_IDENTITY
 		)
-			.setEventData(identityMap.asXDMMap(false))
+			.setEventData(identityMap.asXDMMapWithExpiries(false))
 			.build();
 
+		IdentityTracer.begin(updateIdentitiesEvent, false);
 		MobileCore.dispatchEvent(updateIdentitiesEvent);
 	}
 
@@ -254,12 +367,12 @@ public class Identity {
 	 */
 	public static void removeIdentity(@NonNull final IdentityItem item, @NonNull final String namespace) {
 		if (StringUtils.isNullOrEmpty(namespace)) {
-			Log.debug(LOG_TAG, LOG_SOURCE, "Unable to removeIdentity, namespace is null or empty");
+			IdentityLog.debug(LOG_SOURCE, "Unable to removeIdentity, namespace is null or empty");
 			return;
 		}
 
 		if (item == null) {
-			Log.debug(LOG_TAG, LOG_SOURCE, "Unable to removeIdentity, IdentityItem is null");
+			IdentityLog.debug(LOG_SOURCE, "Unable to removeIdentity, IdentityItem is null");
 			return;
 		}
 
@@ -273,6 +386,58 @@ public class Identity {
 		)
 			.setEventData(identityMap.asXDMMap(false))
 			.build();
+		IdentityTracer.begin(removeIdentitiesEvent, false);
+		MobileCore.dispatchEvent(removeIdentitiesEvent);
+	}
+
+	/**
+	 * Removes the identities in the given {@link IdentityMap} from the stored client-side {@code IdentityMap}.
+	 * All identities are removed in a single operation. The Identity extension will stop sending these identifiers.
+	 * This does not clear the identifiers from the User Profile Graph.
+	 *
+	 * @param identityMap the identities to remove
+	 */
+	public static void removeIdentities(@NonNull final IdentityMap identityMap) {
+		if (identityMap == null || identityMap.isEmpty()) {
+			IdentityLog.debug(LOG_SOURCE, "Unable to removeIdentities, IdentityMap is null or empty");
+			return;
+		}
+
+		final Event removeIdentitiesEvent = new Event.Builder(
+			IdentityConstants.EventNames.REMOVE_IDENTITIES,
+			EventType.EDGE_IDENTITY,
+			EventSource.REMOVE_IDENTITY
+		)
+			.setEventData(identityMap.asXDMMap(false))
+			.build();
+		IdentityTracer.begin(removeIdentitiesEvent, false);
+		MobileCore.dispatchEvent(removeIdentitiesEvent);
+	}
+
+	/**
+	 * Removes all identities in the given namespace from the stored client-side {@link IdentityMap}.
+	 * The namespace is matched case sensitively. Identities in the reserved namespaces ECID, GAID and IDFA cannot be removed.
+	 * This does not clear the identifiers from the User Profile Graph.
+	 *
+	 * @param namespace the namespace of the identities to remove
+	 */
+	public static void clearNamespace(@NonNull final String namespace) {
+		if (StringUtils.isNullOrEmpty(namespace)) {
+			IdentityLog.debug(LOG_SOURCE, "Unable to clearNamespace, namespace is null or empty");
+			return;
+		}
+
+		final Map<String, Object> eventData = new HashMap<>();
+		eventData.put(IdentityConstants.EventDataKeys.CLEAR_NAMESPACES, Collections.singletonList(namespace));
+
+		final Event removeIdentitiesEvent = new Event.Builder(
+			IdentityConstants.EventNames.REMOVE_IDENTITIES,
+			EventType.EDGE_IDENTITY,
+			EventSource.REMOVE_IDENTITY
+		)
+			.setEventData(eventData)
+			.build();
+		IdentityTracer.begin(removeIdentitiesEvent, false);
 		MobileCore.dispatchEvent(removeIdentitiesEvent);
 	}
 
@@ -284,25 +449,494 @@ public class Identity {
 	 *                 eventuality of any error that occurred while getting the stored identities.
 	 */
 	public static void getIdentities(@NonNull final AdobeCallback<IdentityMap> callback) {
+		getIdentities(callbackTimeoutMillis, callback);
+	}
+
+	/**
+	 * Returns all identifiers, including customer identifiers which were previously added.
+	 *
+	 * @param timeoutMillis the time in milliseconds to wait for a response before an {@link AdobeCallbackWithError} is
+	 *                      called with {@link AdobeError#CALLBACK_TIMEOUT};
+	 *                      values less than or equal to zero use the default timeout
+	 * @param callback {@link AdobeCallback} invoked with the current {@link IdentityMap}
+	 *                 If an {@link AdobeCallbackWithError} is provided, an {@link AdobeError} can be returned in the
+	 *                 eventuality of any error that occurred while getting the stored identities.
+	 */
+	public static void getIdentities(final long timeoutMillis, @NonNull final AdobeCallback<IdentityMap> callback) {
+		getIdentities(timeoutMillis, null, callback);
+	}
+
+	/**
+	 * Returns the identifiers in the given namespaces. Only the requested namespaces are read and returned,
+	 * which is cheaper than retrieving all identifiers when only a few namespaces are needed.
+	 *
+	 * @param namespaces the namespaces to retrieve; if null or empty, all identifiers are returned
+	 * @param callback {@link AdobeCallback} invoked with an {@link IdentityMap} containing the requested namespaces
+	 *                 If an {@link AdobeCallbackWithError} is provided, an {@link AdobeError} can be returned in the
+	 *                 eventuality of any error that occurred while getting the stored identities.
+	 */
+	public static void getIdentities(
+		@Nullable final Set<String> namespaces,
+		@NonNull final AdobeCallback<IdentityMap> callback
+	) {
+		getIdentities(callbackTimeoutMillis, namespaces, callback);
+	}
+
+	/**
+	 * Returns the namespaces containing the given identifier. The identifier is matched case insensitively.
+	 * The lookup is answered from an index of the stored identifiers, so it does not retrieve and scan the
+	 * full {@link IdentityMap} like {@link #getIdentities(AdobeCallback)}.
+	 *
+	 * @param id the identifier to look up
+	 * @param callback {@link AdobeCallback} invoked with the namespaces containing {@code id}, or an empty list if
+	 *                 no namespace contains it.
+	 *                 If an {@link AdobeCallbackWithError} is provided, an {@link AdobeError} can be returned in the
+	 *                 eventuality of any error that occurred while looking up the identifier.
+	 */
+	public static void findNamespaces(@NonNull final String id, @NonNull final AdobeCallback<List<String>> callback) {
+		findNamespaces(callbackTimeoutMillis, id, callback);
+	}
+
+	/**
+	 * Returns the namespaces containing the given identifier. The identifier is matched case insensitively.
+	 * The lookup is answered from an index of the stored identifiers, so it does not retrieve and scan the
+	 * full {@link IdentityMap} like {@link #getIdentities(AdobeCallback)}.
+	 *
+	 * @param timeoutMillis the time in milliseconds to wait for a response before an {@link AdobeCallbackWithError} is
+	 *                      called with {@link AdobeError#CALLBACK_TIMEOUT};
+	 *                      values less than or equal to zero use the default timeout
+	 * @param id the identifier to look up
+	 * @param callback {@link AdobeCallback} invoked with the namespaces containing {@code id}, or an empty list if
+	 *                 no namespace contains it.
+	 *                 If an {@link AdobeCallbackWithError} is provided, an {@link AdobeError} can be returned in the
+	 *                 eventuality of any error that occurred while looking up the identifier.
+	 */
+	public static void findNamespaces(
+		final long timeoutMillis,
+		@NonNull final String id,
+		@NonNull final AdobeCallback<List<String>> callback
+	) {
 		if (callback == null) {
-			Log.debug(
-				LOG_TAG,
+			IdentityLog.debug(LOG_SOURCE, "Unexpected null callback, provide a callback to retrieve the namespaces.");
+			return;
+		}
+
+		if (StringUtils.isNullOrEmpty(id)) {
+			IdentityLog.debug(LOG_SOURCE, "Unable to findNamespaces, id is null or empty");
+			callback.call(new ArrayList<String>());
+			return;
+		}
+
+		final Map<String, Object> eventData = new HashMap<>();
+		eventData.put(IdentityConstants.EventDataKeys.FIND_NAMESPACES_ID, id);
+
+		final Event event = new Event.Builder(
+			IdentityConstants.EventNames.IDENTITY_REQUEST_FIND_NAMESPACES,
+			EventType.EDGE_IDENTITY,
+			EventSource.REQUEST_IDENTITY
+		)
+			.setEventData(eventData)
+			.build();
+
+		final AdobeCallbackWithError<Event> callbackWithError = new AdobeCallbackWithError<Event>() {
+			@Override
+			public void call(final Event responseEvent) {
+				IdentityTracer.complete(event.getUniqueIdentifier(), null);
+
+				if (responseEvent == null || responseEvent.getEventData() == null) {
+					returnError(callback, AdobeError.UNEXPECTED_ERROR);
+					return;
+				}
+
+				final List<String> namespaces = DataReader.optStringList(
+					responseEvent.getEventData(),
+					IdentityConstants.EventDataKeys.NAMESPACES,
+					null
+				);
+
+				if (namespaces == null) {
+					returnError(callback, AdobeError.UNEXPECTED_ERROR);
+					return;
+				}
+
+				callback.call(namespaces);
+			}
+
+			@Override
+			public void fail(final AdobeError adobeError) {
+				IdentityTracer.complete(event.getUniqueIdentifier(), adobeError.getErrorName());
+				returnError(callback, adobeError);
+				IdentityLog.debug(
+					LOG_SOURCE,
+					"Failed to dispatch %s event: Error : %s.",
+					IdentityConstants.EventNames.IDENTITY_REQUEST_FIND_NAMESPACES,
+					adobeError.getErrorName()
+				);
+			}
+		};
+
+		IdentityTracer.begin(event, true);
+		MobileCore.dispatchEventWithResponseCallback(event, getEffectiveTimeout(timeoutMillis), callbackWithError);
+	}
+
+	/**
+	 * Returns the version stamp of the current identifiers. The version and hash change only when the identifiers
+	 * change, so callers can compare them with a previously returned {@link IdentityVersion} to skip retrieving and
+	 * processing unchanged identifiers.
+	 *
+	 * @param callback {@link AdobeCallback} invoked with the current {@link IdentityVersion}
+	 *                 If an {@link AdobeCallbackWithError} is provided, an {@link AdobeError} can be returned in the
+	 *                 eventuality of any error that occurred while getting the identity version.
+	 */
+	public static void getIdentityVersion(@NonNull final AdobeCallback<IdentityVersion> callback) {
+		getIdentityVersion(callbackTimeoutMillis, callback);
+	}
+
+	/**
+	 * Returns the version stamp of the current identifiers. The version and hash change only when the identifiers
+	 * change, so callers can compare them with a previously returned {@link IdentityVersion} to skip retrieving and
+	 * processing unchanged identifiers.
+	 *
+	 * @param timeoutMillis the time in milliseconds to wait for a response before an {@link AdobeCallbackWithError} is
+	 *                      called with {@link AdobeError#CALLBACK_TIMEOUT};
+	 *                      values less than or equal to zero use the default timeout
+	 * @param callback {@link AdobeCallback} invoked with the current {@link IdentityVersion}
+	 *                 If an {@link AdobeCallbackWithError} is provided, an {@link AdobeError} can be returned in the
+	 *                 eventuality of any error that occurred while getting the identity version.
+	 */
+	public static void getIdentityVersion(
+		final long timeoutMillis,
+		@NonNull final AdobeCallback<IdentityVersion> callback
+	) {
+		if (callback == null) {
+			IdentityLog.debug(
 				LOG_SOURCE,
-				"Unexpected null callback, provide a callback to retrieve current IdentityMap."
+				"Unexpected null callback, provide a callback to retrieve the current identity version."
 			);
 			return;
 		}
 
+		final Map<String, Object> eventData = new HashMap<>();
+		eventData.put(IdentityConstants.EventDataKeys.IDENTITY_VERSION, true);
+
 		final Event event = new Event.Builder(
-			IdentityConstants.EventNames.REQUEST_IDENTITIES,
+			IdentityConstants.EventNames.IDENTITY_REQUEST_IDENTITY_VERSION,
 			EventType.EDGE_IDENTITY,
 			EventSource.REQUEST_IDENTITY
 		)
+			.setEventData(eventData)
 			.build();
 
 		final AdobeCallbackWithError<Event> callbackWithError = new AdobeCallbackWithError<Event>() {
 			@Override
 			public void call(final Event responseEvent) {
+				IdentityTracer.complete(event.getUniqueIdentifier(), null);
+
+				final IdentityVersion identityVersion = responseEvent != null
+					? IdentityVersion.fromEventData(responseEvent.getEventData())
+					: null;
+
+				if (identityVersion == null) {
+					returnError(callback, AdobeError.UNEXPECTED_ERROR);
+					return;
+				}
+
+				callback.call(identityVersion);
+			}
+
+			@Override
+			public void fail(final AdobeError adobeError) {
+				IdentityTracer.complete(event.getUniqueIdentifier(), adobeError.getErrorName());
+				returnError(callback, adobeError);
+				IdentityLog.debug(
+					LOG_SOURCE,
+					"Failed to dispatch %s event: Error : %s.",
+					IdentityConstants.EventNames.IDENTITY_REQUEST_IDENTITY_VERSION,
+					adobeError.getErrorName()
+				);
+			}
+		};
+
+		IdentityTracer.begin(event, true);
+		MobileCore.dispatchEventWithResponseCallback(event, getEffectiveTimeout(timeoutMillis), callbackWithError);
+	}
+
+	/**
+	 * Returns the identifiers if they changed since the given version, like an HTTP conditional request.
+	 * When the identifiers did not change, the returned {@link IdentitySnapshot} only holds the current version
+	 * and the identifiers are not retrieved, which makes polling for changes cheap.
+	 *
+	 * @param lastVersion the {@link IdentityVersion} of the identifiers last retrieved, or null to retrieve the
+	 *                    identifiers unconditionally
+	 * @param callback {@link AdobeCallback} invoked with an {@link IdentitySnapshot} holding the current version and,
+	 *                 if the identifiers changed since {@code lastVersion}, the current {@link IdentityMap}.
+	 *                 If an {@link AdobeCallbackWithError} is provided, an {@link AdobeError} can be returned in the
+	 *                 eventuality of any error that occurred while getting the stored identities.
+	 */
+	public static void getIdentitiesIfChanged(
+		@Nullable final IdentityVersion lastVersion,
+		@NonNull final AdobeCallback<IdentitySnapshot> callback
+	) {
+		getIdentitiesIfChanged(callbackTimeoutMillis, lastVersion, callback);
+	}
+
+	/**
+	 * Returns the identifiers if they changed since the given version, like an HTTP conditional request.
+	 * When the identifiers did not change, the returned {@link IdentitySnapshot} only holds the current version
+	 * and the identifiers are not retrieved, which makes polling for changes cheap.
+	 *
+	 * @param timeoutMillis the time in milliseconds to wait for a response before an {@link AdobeCallbackWithError} is
+	 *                      called with {@link AdobeError#CALLBACK_TIMEOUT};
+	 *                      values less than or equal to zero use the default timeout
+	 * @param lastVersion the {@link IdentityVersion} of the identifiers last retrieved, or null to retrieve the
+	 *                    identifiers unconditionally
+	 * @param callback {@link AdobeCallback} invoked with an {@link IdentitySnapshot} holding the current version and,
+	 *                 if the identifiers changed since {@code lastVersion}, the current {@link IdentityMap}.
+	 *                 If an {@link AdobeCallbackWithError} is provided, an {@link AdobeError} can be returned in the
+	 *                 eventuality of any error that occurred while getting the stored identities.
+	 */
+	public static void getIdentitiesIfChanged(
+		final long timeoutMillis,
+		@Nullable final IdentityVersion lastVersion,
+		@NonNull final AdobeCallback<IdentitySnapshot> callback
+	) {
+		if (callback == null) {
+			IdentityLog.debug(
+				LOG_SOURCE,
+				"Unexpected null callback, provide a callback to retrieve current IdentityMap."
+			);
+			return;
+		}
+
+		final Event.Builder eventBuilder = new Event.Builder(
+			IdentityConstants.EventNames.REQUEST_IDENTITIES,
+			EventType.EDGE_IDENTITY,
+			EventSource.REQUEST_IDENTITY
+		);
+
+		if (lastVersion != null) {
+			final Map<String, Object> eventData = new HashMap<>();
+			eventData.put(IdentityConstants.EventDataKeys.IF_NONE_MATCH, lastVersion.getHash());
+			eventBuilder.setEventData(eventData);
+		}
+
+		final Event event = eventBuilder.build();
+
+		final AdobeCallbackWithError<Event> callbackWithError = new AdobeCallbackWithError<Event>() {
+			@Override
+			public void call(final Event responseEvent) {
+				IdentityTracer.complete(event.getUniqueIdentifier(), null);
+
+				final Map<String, Object> responseData = responseEvent != null ? responseEvent.getEventData() : null;
+				final IdentityVersion identityVersion = IdentityVersion.fromEventData(responseData);
+
+				if (identityVersion == null) {
+					returnError(callback, AdobeError.UNEXPECTED_ERROR);
+					return;
+				}
+
+				IdentityMap identityMap = null;
+
+				// the response omits the identity map when the identifiers did not change
+				if (responseData.containsKey(IdentityConstants.XDMKeys.IDENTITY_MAP)) {
+					identityMap = IdentityMap.fromXDMMap(responseData);
+
+					if (identityMap == null) {
+						IdentityLog.debug(
+							LOG_SOURCE,
+							"Failed to read IdentityMap from response event, invoking error callback with AdobeError.UNEXPECTED_ERROR"
+						);
+						returnError(callback, AdobeError.UNEXPECTED_ERROR);
+						return;
+					}
+				}
+
+				callback.call(new IdentitySnapshot(identityVersion, identityMap));
+			}
+
+			@Override
+			public void fail(final AdobeError adobeError) {
+				IdentityTracer.complete(event.getUniqueIdentifier(), adobeError.getErrorName());
+				returnError(callback, adobeError);
+				IdentityLog.debug(
+					LOG_SOURCE,
+					"Failed to dispatch %s event: Error : %s.",
+					IdentityConstants.EventNames.REQUEST_IDENTITIES,
+					adobeError.getErrorName()
+				);
+			}
+		};
+
+		IdentityTracer.begin(event, true);
+		MobileCore.dispatchEventWithResponseCallback(event, getEffectiveTimeout(timeoutMillis), callbackWithError);
+	}
+
+	/**
+	 * Registers a listener notified with the {@link IdentityVersion} of the identifiers each time they change. The
+	 * listener is called once with the current version at registration, then with the version the extension
+	 * dispatches each time it shares changed identifiers, so no request is sent per change. Notifications only carry
+	 * the version; use {@link #getIdentitiesIfChanged(IdentityVersion, AdobeCallback)} to retrieve the identifiers
+	 * when needed.
+	 * <p>
+	 * Versions are delivered on SDK threads and may arrive out of order; ignore a version lower than the last version
+	 * processed. Registering a listener that is already registered has no effect. Remove the listener with
+	 * {@link #unregisterIdentityVersionListener(AdobeCallback)} when it is no longer needed.
+	 *
+	 * @param listener {@link AdobeCallback} invoked with the {@link IdentityVersion} of the identifiers.
+	 *                 If an {@link AdobeCallbackWithError} is provided, an {@link AdobeError} can be returned in the
+	 *                 eventuality of any error that occurred while getting the identity version at registration.
+	 */
+	public static void registerIdentityVersionListener(@NonNull final AdobeCallback<IdentityVersion> listener) {
+		if (listener == null) {
+			IdentityLog.debug(LOG_SOURCE, "Unexpected null listener, provide a listener to receive identity changes.");
+			return;
+		}
+
+		synchronized (identityVersionListeners) {
+			if (identityVersionListeners.contains(listener)) {
+				return;
+			}
+
+			identityVersionListeners.add(listener);
+
+			if (!identityVersionEventListenerRegistered) {
+				// a single event listener notifies all registered listeners, as event listeners cannot be removed
+				MobileCore.registerEventListener(
+					EventType.EDGE_IDENTITY,
+					EventSource.RESPONSE_IDENTITY,
+					Identity::notifyIdentityVersionListeners
+				);
+				identityVersionEventListenerRegistered = true;
+			}
+
+			// dispatched while holding the lock, so the extension receives the notify flags in registration order
+			final Map<String, Object> eventData = new HashMap<>();
+			eventData.put(IdentityConstants.EventDataKeys.IDENTITY_VERSION, true);
+			eventData.put(IdentityConstants.EventDataKeys.NOTIFY_IDENTITY_VERSION_CHANGES, true);
+			final Event event = new Event.Builder(
+				IdentityConstants.EventNames.IDENTITY_REQUEST_IDENTITY_VERSION,
+				EventType.EDGE_IDENTITY,
+				EventSource.REQUEST_IDENTITY
+			)
+				.setEventData(eventData)
+				.build();
+
+			final AdobeCallbackWithError<Event> callbackWithError = new AdobeCallbackWithError<Event>() {
+				@Override
+				public void call(final Event responseEvent) {
+					final IdentityVersion identityVersion = responseEvent != null
+						? IdentityVersion.fromEventData(responseEvent.getEventData())
+						: null;
+
+					if (identityVersion == null) {
+						returnError(listener, AdobeError.UNEXPECTED_ERROR);
+						return;
+					}
+
+					listener.call(identityVersion);
+				}
+
+				@Override
+				public void fail(final AdobeError adobeError) {
+					returnError(listener, adobeError);
+					IdentityLog.debug(
+						LOG_SOURCE,
+						"Failed to dispatch %s event: Error : %s.",
+						IdentityConstants.EventNames.IDENTITY_REQUEST_IDENTITY_VERSION,
+						adobeError.getErrorName()
+					);
+				}
+			};
+
+			MobileCore.dispatchEventWithResponseCallback(event, getEffectiveTimeout(0), callbackWithError);
+		}
+	}
+
+	/**
+	 * Removes a listener registered with {@link #registerIdentityVersionListener(AdobeCallback)}. Once the last
+	 * listener is removed, the extension stops dispatching version changes. Removing a listener that is not
+	 * registered has no effect.
+	 *
+	 * @param listener the {@link AdobeCallback} to remove
+	 */
+	public static void unregisterIdentityVersionListener(@NonNull final AdobeCallback<IdentityVersion> listener) {
+		if (listener == null) {
+			IdentityLog.debug(LOG_SOURCE, "Unexpected null listener, provide the listener to remove.");
+			return;
+		}
+
+		synchronized (identityVersionListeners) {
+			if (!identityVersionListeners.remove(listener) || !identityVersionListeners.isEmpty()) {
+				return;
+			}
+
+			final Event event = new Event.Builder(
+				IdentityConstants.EventNames.IDENTITY_REQUEST_IDENTITY_VERSION,
+				EventType.EDGE_IDENTITY,
+				EventSource.REQUEST_IDENTITY
+			)
+				.setEventData(
+					Collections.<String, Object>singletonMap(
+						IdentityConstants.EventDataKeys.NOTIFY_IDENTITY_VERSION_CHANGES,
+						false
+					)
+				)
+				.build();
+			MobileCore.dispatchEvent(event);
+		}
+	}
+
+	/**
+	 * Removes all identity version listeners and forgets the registered event listener, as the tests mock
+	 * {@link MobileCore} per test.
+	 */
+	@VisibleForTesting
+	static void resetIdentityVersionListeners() {
+		synchronized (identityVersionListeners) {
+			identityVersionListeners.clear();
+			identityVersionEventListenerRegistered = false;
+		}
+	}
+
+	/**
+	 * Returns the identifiers in the given namespaces, or all identifiers when {@code namespaces} is null or empty.
+	 *
+	 * @param timeoutMillis the time in milliseconds to wait for a response
+	 * @param namespaces the namespaces to retrieve; if null or empty, all identifiers are returned
+	 * @param callback {@link AdobeCallback} invoked with the requested {@link IdentityMap}
+	 */
+	private static void getIdentities(
+		final long timeoutMillis,
+		final Set<String> namespaces,
+		final AdobeCallback<IdentityMap> callback
+	) {
+		if (callback == null) {
+			IdentityLog.debug(
+				LOG_SOURCE,
+				"Unexpected null callback, provide a callback to retrieve current IdentityMap."
+			);
+			return;
+		}
+
+		final Event.Builder eventBuilder = new Event.Builder(
+			IdentityConstants.EventNames.REQUEST_IDENTITIES,
+			EventType.EDGE_IDENTITY,
+			EventSource.REQUEST_IDENTITY
+		);
+
+		if (namespaces != null && !namespaces.isEmpty()) {
+			final Map<String, Object> eventData = new HashMap<>();
+			eventData.put(IdentityConstants.EventDataKeys.NAMESPACES, new ArrayList<>(namespaces));
+			eventBuilder.setEventData(eventData);
+		}
+
+		final Event event = eventBuilder.build();
+
+		final AdobeCallbackWithError<Event> callbackWithError = new AdobeCallbackWithError<Event>() {
+			@Override
+			public void call(final Event responseEvent) {
+				IdentityTracer.complete(event.getUniqueIdentifier(), null);
+
 				if (responseEvent == null || responseEvent.getEventData() == null) {
 					returnError(callback, AdobeError.UNEXPECTED_ERROR);
 					return;
@@ -311,8 +945,7 @@ public class Identity {
 				final IdentityMap identityMap = IdentityMap.fromXDMMap(responseEvent.getEventData());
 
 				if (identityMap == null) {
-					Log.debug(
-						LOG_TAG,
+					IdentityLog.debug(
 						LOG_SOURCE,
 						"Failed to read IdentityMap from response event, invoking error callback with AdobeError.UNEXPECTED_ERROR"
 					);
@@ -325,20 +958,59 @@ public class Identity {
 
 			@Override
 			public void fail(final AdobeError adobeError) {
+				IdentityTracer.complete(event.getUniqueIdentifier(), adobeError.getErrorName());
 				returnError(callback, adobeError);
-				Log.debug(
-					LOG_TAG,
+				IdentityLog.debug(
 					LOG_SOURCE,
-					String.format(
-						"Failed to dispatch %s event: Error : %s.",
-						IdentityConstants.EventNames.REQUEST_IDENTITIES,
-						adobeError.getErrorName()
-					)
+					"Failed to dispatch %s event: Error : %s.",
+					IdentityConstants.EventNames.REQUEST_IDENTITIES,
+					adobeError.getErrorName()
 				);
 			}
 		};
 
-		MobileCore.dispatchEventWithResponseCallback(event, CALLBACK_TIMEOUT_MILLIS, callbackWithError);
+		IdentityTracer.begin(event, true);
+		MobileCore.dispatchEventWithResponseCallback(event, getEffectiveTimeout(timeoutMillis), callbackWithError);
+	}
+
+	/**
+	 * Computes the timeout to use for a request event. While the Edge Identity extension has not booted, the request
+	 * is held in the event queue until boot completes, so the boot wait timeout is added to the requested timeout.
+	 *
+	 * @param timeoutMillis the requested timeout in milliseconds
+	 * @return the timeout in milliseconds to pass to {@link MobileCore#dispatchEventWithResponseCallback}
+	 */
+	private static long getEffectiveTimeout(final long timeoutMillis) {
+		final long timeout = timeoutMillis > 0 ? timeoutMillis : callbackTimeoutMillis;
+		final long bootWait = bootWaitTimeoutMillis;
+
+		if (bootWait > 0 && !IdentityState.isBootCompleted()) {
+			return timeout + bootWait;
+		}
+
+		return timeout;
+	}
+
+	/**
+	 * Calls the identity version listeners with the version stamp read from an identity version changed event.
+	 *
+	 * @param event an Edge Identity response event; events other than identity version changes are ignored
+	 */
+	private static void notifyIdentityVersionListeners(final Event event) {
+		if (event == null || !IdentityConstants.EventNames.IDENTITY_VERSION_CHANGED.equals(event.getName())) {
+			return;
+		}
+
+		final IdentityVersion identityVersion = IdentityVersion.fromEventData(event.getEventData());
+
+		if (identityVersion == null) {
+			IdentityLog.debug(LOG_SOURCE, "Failed to read IdentityVersion from identity version changed event.");
+			return;
+		}
+
+		for (final AdobeCallback<IdentityVersion> listener : identityVersionListeners) {
+			listener.call(identityVersion);
+		}
 	}
 
 	/**
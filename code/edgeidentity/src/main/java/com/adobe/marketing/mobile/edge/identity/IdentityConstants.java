@@ -28,10 +28,18 @@ final class IdentityConstants {
 	static final class EventNames {
 
 		static final String CONSENT_UPDATE_REQUEST_AD_ID = "Consent Update Request for Ad ID";
+		static final String IDENTITY_BOOT_TIMEOUT = "Edge Identity Boot Timeout";
+		static final String IDENTITY_EXPIRY_SWEEP = "Edge Identity Expiry Sweep";
+		static final String IDENTITY_FLUSH_AD_ID = "Edge Identity Flush Ad ID";
+		static final String IDENTITY_REQUEST_FIND_NAMESPACES = "Edge Identity Request Find Namespaces";
 		static final String IDENTITY_REQUEST_IDENTITY_ECID = "Edge Identity Request ECID";
+		static final String IDENTITY_REQUEST_IDENTITY_VERSION = "Edge Identity Request Identity Version";
 		static final String IDENTITY_REQUEST_URL_VARIABLES = "Edge Identity Request URL Variables";
 		static final String IDENTITY_RESPONSE_CONTENT_ONE_TIME = "Edge Identity Response Content One Time";
+		static final String IDENTITY_RESPONSE_FIND_NAMESPACES = "Edge Identity Response Find Namespaces";
+		static final String IDENTITY_RESPONSE_IDENTITY_VERSION = "Edge Identity Response Identity Version";
 		static final String IDENTITY_RESPONSE_URL_VARIABLES = "Edge Identity Response URL Variables";
+		static final String IDENTITY_VERSION_CHANGED = "Edge Identity Version Changed";
 		static final String UPDATE_IDENTITIES = "Edge Identity Update Identities";
 		static final String REMOVE_IDENTITIES = "Edge Identity Remove Identities";
 		static final String REQUEST_IDENTITIES = "Edge Identity Request Identities";
@@ -43,6 +51,19 @@ final class IdentityConstants {
 	static final class EventDataKeys {
 
 		static final String ADVERTISING_IDENTIFIER = "advertisingidentifier";
+		static final String BOOT_TIMEOUT = "boottimeout";
+		static final String FLUSH_AD_ID = "flushadid";
+		static final String FLUSH_AD_ID_SEQUENCE = "flushadidsequence";
+		static final String CLEAR_NAMESPACES = "clearnamespaces";
+		static final String EXPIRY_SWEEP = "expirysweep";
+		static final String FIND_NAMESPACES_ID = "findnamespacesid";
+		static final String IDENTITY_EXPIRIES = "identityexpiries";
+		static final String IDENTITY_HASH = "identityhash";
+		static final String IDENTITY_UPDATES = "identityupdates";
+		static final String IDENTITY_VERSION = "identityversion";
+		static final String IF_NONE_MATCH = "ifnonematch";
+		static final String NAMESPACES = "namespaces";
+		static final String NOTIFY_IDENTITY_VERSION_CHANGES = "notifyidentityversionchanges";
 		static final String STATE_OWNER = "stateowner";
 		static final String URL_VARIABLES = "urlvariables";
 
@@ -63,6 +84,11 @@ final class IdentityConstants {
 
 			static final String NAME = "com.adobe.module.configuration";
 			static final String EXPERIENCE_CLOUD_ORGID = "experienceCloud.org";
+			static final String AD_ID_DEBOUNCE_MILLIS = "edgeIdentity.adIdDebounceMillis";
+			static final String BOOT_TIMEOUT_MILLIS = "edgeIdentity.bootTimeoutMillis";
+			static final String MAX_NAMESPACES = "edgeIdentity.maxNamespaces";
+			static final String MAX_ITEMS_PER_NAMESPACE = "edgeIdentity.maxItemsPerNamespace";
+			static final String MAX_TOTAL_BYTES = "edgeIdentity.maxTotalBytes";
 
 			private Configuration() {}
 		}
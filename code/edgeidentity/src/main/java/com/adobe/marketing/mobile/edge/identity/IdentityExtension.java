@@ -11,8 +11,6 @@
 
 package com.adobe.marketing.mobile.edge.identity;
 
-import static com.adobe.marketing.mobile.edge.identity.IdentityConstants.LOG_TAG;
-
 import androidx.annotation.NonNull;
 import androidx.annotation.VisibleForTesting;
 import com.adobe.marketing.mobile.Event;
@@ -20,23 +18,30 @@ import com.adobe.marketing.mobile.EventSource;
 import com.adobe.marketing.mobile.EventType;
 import com.adobe.marketing.mobile.Extension;
 import com.adobe.marketing.mobile.ExtensionApi;
+import com.adobe.marketing.mobile.ExtensionEventListener;
 import com.adobe.marketing.mobile.SharedStateResolution;
 import com.adobe.marketing.mobile.SharedStateResolver;
 import com.adobe.marketing.mobile.SharedStateResult;
 import com.adobe.marketing.mobile.SharedStateStatus;
-import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.util.DataReader;
 import com.adobe.marketing.mobile.util.StringUtils;
 import com.adobe.marketing.mobile.util.TimeUtils;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 class IdentityExtension extends Extension {
 
 	private static final String LOG_SOURCE = "IdentityExtension";
+	private static final long SCHEDULER_THREAD_KEEP_ALIVE_SECONDS = 10L;
 
 	/**
 	 * A {@code SharedStateCallback} to retrieve the last set state of an extension and to
-	 * create an XDM state at the event provided.
+	 * create an XDM state at the event provided, and to dispatch events through the extension API.
 	 */
 	private final SharedStateCallback sharedStateHandle = new SharedStateCallback() {
 		@Override
@@ -47,11 +52,33 @@ class IdentityExtension extends Extension {
 		@Override
 		public void createXDMSharedState(final Map<String, Object> state, final Event event) {
 			getApi().createXDMSharedState(state, event);
+			onIdentitiesShared(event);
+		}
+
+		@Override
+		public void dispatchEvent(final Event event) {
+			getApi().dispatch(event);
 		}
 	};
 
 	private final IdentityState state;
 
+	// Dispatches delayed events to this extension, such as debounced ad ID changes, and runs the direct Identity
+	// ECID prefetch; created when first needed
+	private ScheduledThreadPoolExecutor scheduler;
+
+	// Boot deadline for which a boot timeout event is scheduled, or 0
+	private long scheduledBootDeadlineMillis;
+
+	// Expiry time for which an expiry sweep event is scheduled, or 0
+	private long scheduledExpirySweepMillis;
+
+	// Unique identifiers of the events scheduled by scheduleRequestIdentityEvent and not handled yet
+	private final Set<String> scheduledEventIds = new HashSet<>();
+
+	// Set while an identity version listener is registered; otherwise, version changes are only shared
+	private boolean notifyIdentityVersionChanges;
+
 	/**
 	 * Constructor.
 	 * Invoked on the background thread owned by an extension container that manages this extension.
@@ -109,25 +136,76 @@ class IdentityExtension extends Extension {
 		getApi()
 			.registerEventListener(EventType.GENERIC_IDENTITY, EventSource.REQUEST_CONTENT, this::handleRequestContent);
 
-		getApi().registerEventListener(EventType.GENERIC_IDENTITY, EventSource.REQUEST_RESET, this::handleRequestReset);
+		getApi()
+			.registerEventListener(
+				EventType.GENERIC_IDENTITY,
+				EventSource.REQUEST_RESET,
+				timed(IdentityMetrics.HANDLE_REQUEST_RESET, this::handleRequestReset)
+			);
 
 		// EDGE_IDENTITY event listeners
 		getApi()
 			.registerEventListener(EventType.EDGE_IDENTITY, EventSource.REQUEST_IDENTITY, this::handleRequestIdentity);
 
 		getApi()
-			.registerEventListener(EventType.EDGE_IDENTITY, EventSource.UPDATE_IDENTITY, this::handleUpdateIdentities);
+			.registerEventListener(
+				EventType.EDGE_IDENTITY,
+				EventSource.UPDATE_IDENTITY,
+				timed(IdentityMetrics.HANDLE_UPDATE_IDENTITIES, this::handleUpdateIdentities)
+			);
 
 		getApi()
-			.registerEventListener(EventType.EDGE_IDENTITY, EventSource.REMOVE_IDENTITY, this::handleRemoveIdentity);
+			.registerEventListener(
+				EventType.EDGE_IDENTITY,
+				EventSource.REMOVE_IDENTITY,
+				timed(IdentityMetrics.HANDLE_REMOVE_IDENTITY, this::handleRemoveIdentity)
+			);
 
 		// HUB shared state event listener
 		getApi().registerEventListener(EventType.HUB, EventSource.SHARED_STATE, this::handleIdentityDirectECIDUpdate);
+
+		// On first launch, read the direct Identity persisted ECID while the other extensions register
+		state.prefetchDirectIdentityEcid(command -> getScheduler().execute(command));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>
+	 * Stops the scheduler of delayed events, dropping the events not yet dispatched.
+	 * </p>
+	 */
+	@Override
+	protected void onUnregistered() {
+		super.onUnregistered();
+
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+			scheduler = null;
+		}
 	}
 
 	@Override
 	public boolean readyForEvent(@NonNull Event event) {
-		if (!state.bootupIfReady(sharedStateHandle)) return false;
+		IdentityTracer.mark(event.getUniqueIdentifier(), IdentityTraceSpan.Phase.READY_CHECK);
+
+		if (!isReadyForEvent(event)) return false;
+
+		IdentityTracer.mark(event.getUniqueIdentifier(), IdentityTraceSpan.Phase.READY);
+		return true;
+	}
+
+	private boolean isReadyForEvent(@NonNull final Event event) {
+		if (!state.bootupIfReady(sharedStateHandle)) {
+			// Customer identifiers do not depend on the ECID, so changes to them are applied to the persisted
+			// identifiers while boot waits, and shared with the first shared state created by boot
+			if (EventUtils.isCustomerIdentifiersChangeEvent(event)) {
+				return true;
+			}
+
+			scheduleBootTimeout();
+			return false;
+		}
 
 		// Get url variables request depends on Configuration shared state
 		// Wait for configuration state to be set before processing such an event.
@@ -148,11 +226,66 @@ class IdentityExtension extends Extension {
 	 * @param event the identity request event
 	 */
 	void handleRequestIdentity(@NonNull final Event event) {
+		if (
+			EventUtils.isFlushAdIdEvent(event) ||
+			EventUtils.isBootTimeoutEvent(event) ||
+			EventUtils.isExpirySweepEvent(event)
+		) {
+			// any extension can dispatch an event with the same name and data, so only the scheduled event is handled
+			if (scheduledEventIds.remove(event.getUniqueIdentifier())) {
+				handleScheduledEvent(event);
+			}
+
+			return;
+		}
+
+		IdentityTracer.mark(event.getUniqueIdentifier(), IdentityTraceSpan.Phase.HANDLER_START);
+
+		final Boolean notifyVersionChanges = EventUtils.getNotifyIdentityVersionChanges(event);
+
+		if (notifyVersionChanges != null) {
+			// set when the first identity version listener is registered and cleared when the last one is removed
+			notifyIdentityVersionChanges = notifyVersionChanges;
+
+			if (!notifyVersionChanges) {
+				return;
+			}
+		}
+
+		final long startNanos = IdentityMetrics.startTimer();
+
 		if (EventUtils.isGetUrlVariablesRequestEvent(event)) {
 			handleUrlVariablesRequest(event);
+			IdentityMetrics.recordDuration(IdentityMetrics.HANDLE_URL_VARIABLES_REQUEST, startNanos);
+		} else if (EventUtils.isGetIdentityVersionRequestEvent(event)) {
+			handleIdentityVersionRequest(event);
+			IdentityMetrics.recordDuration(IdentityMetrics.HANDLE_IDENTITY_VERSION_REQUEST, startNanos);
+		} else if (EventUtils.getFindNamespacesId(event) != null) {
+			handleFindNamespacesRequest(event);
+			IdentityMetrics.recordDuration(IdentityMetrics.HANDLE_FIND_NAMESPACES_REQUEST, startNanos);
 		} else {
 			handleGetIdentifiersRequest(event);
+			IdentityMetrics.recordDuration(IdentityMetrics.HANDLE_GET_IDENTIFIERS_REQUEST, startNanos);
+		}
+
+		IdentityTracer.mark(event.getUniqueIdentifier(), IdentityTraceSpan.Phase.HANDLER_END);
+	}
+
+	/**
+	 * Handles an event scheduled by this extension with {@link #scheduleRequestIdentityEvent(String, Map, long)}.
+	 *
+	 * @param event the scheduled ad ID flush, boot timeout or expiry sweep event
+	 */
+	private void handleScheduledEvent(final Event event) {
+		if (EventUtils.isFlushAdIdEvent(event)) {
+			state.flushAdvertisingIdentifier(EventUtils.getFlushAdIdSequence(event), event, sharedStateHandle);
+		} else if (EventUtils.isExpirySweepEvent(event)) {
+			scheduledExpirySweepMillis = 0;
+			removeExpiredIdentifiers(event);
+			// nothing is shared if no identifier expired yet, for example after the expiring identifier was removed
+			scheduleExpirySweep();
 		}
+		// a boot timeout event is only queued to retry boot at the boot deadline
 	}
 
 	/**
@@ -240,85 +373,124 @@ class IdentityExtension extends Extension {
 			.build();
 
 		if (StringUtils.isNullOrEmpty(urlVariables) && !StringUtils.isNullOrEmpty(errorMsg)) {
-			Log.warning(LOG_TAG, LOG_SOURCE, errorMsg);
+			IdentityLog.warning(LOG_SOURCE, errorMsg);
 		}
 
+		IdentityTracer.mark(event.getUniqueIdentifier(), IdentityTraceSpan.Phase.RESPONSE_DISPATCH);
 		getApi().dispatch(responseEvent);
 	}
 
 	/**
 	 * Handles update identity requests to add/update customer identifiers.
+	 * Before boot completes, the identifiers are updated and persisted without creating a shared state.
 	 *
 	 * @param event the edge update identity {@link Event}
 	 */
 	void handleUpdateIdentities(@NonNull final Event event) {
-		// Add pending shared state to avoid race condition between updating and reading identity map
-		final SharedStateResolver resolver = getApi().createPendingXDMSharedState(event);
+		final SharedStateResolver resolver = createPendingIdentityXDMSharedState(event);
 
 		final Map<String, Object> eventData = event.getEventData();
 
 		if (eventData == null) {
-			Log.trace(LOG_TAG, LOG_SOURCE, "Cannot update identifiers, event data is null.");
-			resolver.resolve(state.getIdentityProperties().toXDMData());
+			IdentityLog.trace(LOG_SOURCE, "Cannot update identifiers, event data is null.");
+			resolveIdentityXDMSharedState(resolver, event);
 			return;
 		}
 
 		final IdentityMap map = IdentityMap.fromXDMMap(eventData);
 
 		if (map == null) {
-			Log.debug(
-				LOG_TAG,
+			IdentityLog.debug(
 				LOG_SOURCE,
 				"Failed to update identifiers as no identifiers were found in the event data."
 			);
-			resolver.resolve(state.getIdentityProperties().toXDMData());
+			resolveIdentityXDMSharedState(resolver, event);
 			return;
 		}
 
+		final SharedStateResult configSharedStateResult = sharedStateHandle.getSharedState(
+			IdentityConstants.SharedState.Configuration.NAME,
+			event
+		);
+		state.setIdentityMapLimits(
+			IdentityMapLimits.fromConfiguration(
+				configSharedStateResult != null ? configSharedStateResult.getValue() : null
+			)
+		);
+
 		state.updateCustomerIdentifiers(map);
-		resolver.resolve(state.getIdentityProperties().toXDMData());
+		resolveIdentityXDMSharedState(resolver, event);
 	}
 
 	/**
 	 * Handles remove identity requests to remove customer identifiers.
+	 * Before boot completes, the identifiers are removed and persisted without creating a shared state.
 	 *
 	 * @param event the edge remove identity request {@link Event}
 	 */
 	void handleRemoveIdentity(@NonNull final Event event) {
-		// Add pending shared state to avoid race condition between updating and reading identity map
-		final SharedStateResolver resolver = getApi().createPendingXDMSharedState(event);
+		final SharedStateResolver resolver = createPendingIdentityXDMSharedState(event);
 
 		final Map<String, Object> eventData = event.getEventData();
 
 		if (eventData == null) {
-			Log.trace(LOG_TAG, LOG_SOURCE, "Cannot remove identifiers, event data is null.");
-			resolver.resolve(state.getIdentityProperties().toXDMData());
+			IdentityLog.trace(LOG_SOURCE, "Cannot remove identifiers, event data is null.");
+			resolveIdentityXDMSharedState(resolver, event);
 			return;
 		}
 
 		final IdentityMap map = IdentityMap.fromXDMMap(eventData);
+		final List<String> namespaces = DataReader.optStringList(
+			eventData,
+			IdentityConstants.EventDataKeys.CLEAR_NAMESPACES,
+			null
+		);
 
-		if (map == null) {
-			Log.debug(
-				LOG_TAG,
+		if (map == null && namespaces == null) {
+			IdentityLog.debug(
 				LOG_SOURCE,
 				"Failed to remove identifiers as no identifiers were found in the event data."
 			);
-			resolver.resolve(state.getIdentityProperties().toXDMData());
+			resolveIdentityXDMSharedState(resolver, event);
 			return;
 		}
 
-		state.removeCustomerIdentifiers(map);
-		resolver.resolve(state.getIdentityProperties().toXDMData());
+		if (namespaces == null) {
+			state.removeCustomerIdentifiers(map);
+		} else {
+			// items and whole namespaces are removed together so they share one persistence write and shared state
+			state.removeCustomerIdentifiers(map, namespaces);
+		}
+
+		resolveIdentityXDMSharedState(resolver, event);
 	}
 
 	/**
 	 * Handles events requesting for identifiers. Dispatches response event containing the identifiers. Called by listener registered with event hub.
+	 * <p>
+	 * If the request carries the hash of the identifiers last seen by the caller and the identifiers did not change,
+	 * the response only contains the version stamp and the identifiers are not serialized.
 	 *
 	 * @param event the identity request {@link Event}
 	 */
 	private void handleGetIdentifiersRequest(@NonNull final Event event) {
-		final Map<String, Object> xdmData = state.getIdentityProperties().toXDMData(true);
+		final IdentityVersion identityVersion = state.getIdentityVersion();
+		final Map<String, Object> xdmData;
+
+		if (EventUtils.isIdentityHashMatch(event, identityVersion.getHash())) {
+			xdmData = identityVersion.toEventData();
+		} else {
+			// Only serialize the requested namespaces when the request carries a namespace filter
+			final List<String> namespaces = DataReader.optStringList(
+				event.getEventData(),
+				IdentityConstants.EventDataKeys.NAMESPACES,
+				null
+			);
+			xdmData = state.getIdentityProperties().toXDMData(true, namespaces);
+			// the version stamp covers all identifiers, also when the response is filtered by namespace
+			identityVersion.addTo(xdmData);
+		}
+
 		final Event responseEvent = new Event.Builder(
 			IdentityConstants.EventNames.IDENTITY_RESPONSE_CONTENT_ONE_TIME,
 			EventType.EDGE_IDENTITY,
@@ -328,6 +500,54 @@ class IdentityExtension extends Extension {
 			.inResponseToEvent(event)
 			.build();
 
+		IdentityTracer.mark(event.getUniqueIdentifier(), IdentityTraceSpan.Phase.RESPONSE_DISPATCH);
+		getApi().dispatch(responseEvent);
+	}
+
+	/**
+	 * Handles events requesting the namespaces containing an identifier. Dispatches a response event containing the
+	 * namespaces, read from the reverse index of the current identifiers.
+	 *
+	 * @param event the identity request {@link Event}
+	 */
+	private void handleFindNamespacesRequest(@NonNull final Event event) {
+		final List<String> namespaces = state
+			.getIdentityProperties()
+			.getNamespacesForIdentifier(EventUtils.getFindNamespacesId(event));
+
+		final Map<String, Object> eventData = new HashMap<>();
+		eventData.put(IdentityConstants.EventDataKeys.NAMESPACES, namespaces);
+
+		final Event responseEvent = new Event.Builder(
+			IdentityConstants.EventNames.IDENTITY_RESPONSE_FIND_NAMESPACES,
+			EventType.EDGE_IDENTITY,
+			EventSource.RESPONSE_IDENTITY
+		)
+			.setEventData(eventData)
+			.inResponseToEvent(event)
+			.build();
+
+		IdentityTracer.mark(event.getUniqueIdentifier(), IdentityTraceSpan.Phase.RESPONSE_DISPATCH);
+		getApi().dispatch(responseEvent);
+	}
+
+	/**
+	 * Handles events requesting the version stamp of the identifiers. Dispatches a response event containing the
+	 * version and content hash of the current identifiers.
+	 *
+	 * @param event the identity request {@link Event}
+	 */
+	private void handleIdentityVersionRequest(@NonNull final Event event) {
+		final Event responseEvent = new Event.Builder(
+			IdentityConstants.EventNames.IDENTITY_RESPONSE_IDENTITY_VERSION,
+			EventType.EDGE_IDENTITY,
+			EventSource.RESPONSE_IDENTITY
+		)
+			.setEventData(state.getIdentityVersion().toEventData())
+			.inResponseToEvent(event)
+			.build();
+
+		IdentityTracer.mark(event.getUniqueIdentifier(), IdentityTraceSpan.Phase.RESPONSE_DISPATCH);
 		getApi().dispatch(responseEvent);
 	}
 
@@ -340,7 +560,7 @@ class IdentityExtension extends Extension {
 		// Add pending shared state to avoid race condition between updating and reading identity map
 		final SharedStateResolver resolver = getApi().createPendingXDMSharedState(event);
 		state.resetIdentifiers();
-		resolver.resolve(state.getIdentityProperties().toXDMData());
+		resolveIdentityXDMSharedState(resolver, event);
 
 		// dispatch reset complete event
 		final Event responseEvent = new Event.Builder(
@@ -364,6 +584,19 @@ class IdentityExtension extends Extension {
 			return;
 		}
 
+		// timed here rather than with the listener, so the frequent other shared state events are not recorded
+		final long startNanos = IdentityMetrics.startTimer();
+		updateLegacyExperienceCloudId(event);
+		IdentityMetrics.recordDuration(IdentityMetrics.HANDLE_IDENTITY_DIRECT_ECID_UPDATE, startNanos);
+	}
+
+	/**
+	 * Updates the legacy ECID from the Identity Direct shared state at {@code event} and shares the XDM shared state
+	 * if it changed.
+	 *
+	 * @param event the Identity Direct shared state update {@link Event}
+	 */
+	private void updateLegacyExperienceCloudId(final Event event) {
 		final SharedStateResult identitySharedStateResult = sharedStateHandle.getSharedState(
 			IdentityConstants.SharedState.IdentityDirect.NAME,
 			event
@@ -393,8 +626,154 @@ class IdentityExtension extends Extension {
 		if (!EventUtils.isAdIdEvent(event)) {
 			return;
 		}
-		// Doesn't need event dispatcher because MobileCore can be called directly
-		state.updateAdvertisingIdentifier(event, sharedStateHandle);
+
+		final SharedStateResult configSharedStateResult = sharedStateHandle.getSharedState(
+			IdentityConstants.SharedState.Configuration.NAME,
+			event
+		);
+		final long debounceMillis = EventUtils.getAdIdDebounceMillis(
+			configSharedStateResult != null ? configSharedStateResult.getValue() : null
+		);
+
+		if (debounceMillis <= 0) {
+			state.updateAdvertisingIdentifier(event, sharedStateHandle);
+			return;
+		}
+
+		// Collapse ad ID changes within the debounce window into the last one
+		final long flushSequence = state.deferAdvertisingIdentifier(event);
+
+		if (flushSequence > 0) {
+			scheduleAdIdFlush(flushSequence, debounceMillis);
+		}
+	}
+
+	/**
+	 * Dispatches an event after {@code delayMillis} to apply the ad ID deferred by the ad ID debounce window.
+	 * The event is handled by {@link #handleRequestIdentity(Event)}, so the ad ID is applied on the extension thread.
+	 *
+	 * @param sequence    the debounce window sequence returned by {@code IdentityState.deferAdvertisingIdentifier}
+	 * @param delayMillis the debounce window in milliseconds
+	 */
+	private void scheduleAdIdFlush(final long sequence, final long delayMillis) {
+		final Map<String, Object> data = new HashMap<>();
+		data.put(IdentityConstants.EventDataKeys.FLUSH_AD_ID, true);
+		data.put(IdentityConstants.EventDataKeys.FLUSH_AD_ID_SEQUENCE, sequence);
+		scheduleRequestIdentityEvent(IdentityConstants.EventNames.IDENTITY_FLUSH_AD_ID, data, delayMillis);
+	}
+
+	/**
+	 * Dispatches an event when the boot deadline of {@link IdentityState#getBootDeadlineMillis()} is reached, if not
+	 * already scheduled. Boot is only retried when an event is queued, and the events waiting for boot are already
+	 * queued, so this event lets boot stop waiting on time. It is ignored by {@link #handleRequestIdentity(Event)}.
+	 */
+	private void scheduleBootTimeout() {
+		final long bootDeadlineMillis = state.getBootDeadlineMillis();
+
+		if (bootDeadlineMillis <= 0 || bootDeadlineMillis == scheduledBootDeadlineMillis) {
+			return;
+		}
+
+		scheduledBootDeadlineMillis = bootDeadlineMillis;
+		final Map<String, Object> data = new HashMap<>();
+		data.put(IdentityConstants.EventDataKeys.BOOT_TIMEOUT, true);
+		scheduleRequestIdentityEvent(
+			IdentityConstants.EventNames.IDENTITY_BOOT_TIMEOUT,
+			data,
+			state.getMillisUntil(bootDeadlineMillis)
+		);
+	}
+
+	/**
+	 * Dispatches an event when the earliest expiring identifier of {@link IdentityState#getNextExpiresAt()} expires,
+	 * unless an event is already scheduled at or before that time. Without it, expired identifiers would stay in the
+	 * last shared state until the next event is handled. It is handled by {@link #handleRequestIdentity(Event)}, which
+	 * removes the expired identifiers and shares the remaining ones.
+	 */
+	private void scheduleExpirySweep() {
+		final long nextExpiresAt = state.getNextExpiresAt();
+
+		if (
+			nextExpiresAt == IdentityItem.NO_EXPIRY ||
+			(scheduledExpirySweepMillis > 0 && scheduledExpirySweepMillis <= nextExpiresAt)
+		) {
+			return;
+		}
+
+		scheduledExpirySweepMillis = nextExpiresAt;
+		final Map<String, Object> data = new HashMap<>();
+		data.put(IdentityConstants.EventDataKeys.EXPIRY_SWEEP, true);
+		scheduleRequestIdentityEvent(
+			IdentityConstants.EventNames.IDENTITY_EXPIRY_SWEEP,
+			data,
+			state.getMillisUntil(nextExpiresAt)
+		);
+	}
+
+	/**
+	 * Dispatches an Edge Identity request identity event to this extension after {@code delayMillis}. Only this event
+	 * is handled as the scheduled event, and only once, so an event dispatched by another extension with the same
+	 * name and data has no effect.
+	 *
+	 * @param name        the event name
+	 * @param data        the event data, with a flag identifying the event
+	 * @param delayMillis the delay in milliseconds
+	 */
+	private void scheduleRequestIdentityEvent(
+		final String name,
+		final Map<String, Object> data,
+		final long delayMillis
+	) {
+		final Event event = new Event.Builder(name, EventType.EDGE_IDENTITY, EventSource.REQUEST_IDENTITY)
+			.setEventData(data)
+			.build();
+		scheduledEventIds.add(event.getUniqueIdentifier());
+
+		getScheduler().schedule(() -> getApi().dispatch(event), delayMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * @return the scheduler of this extension's delayed work, created if needed
+	 */
+	private ScheduledThreadPoolExecutor getScheduler() {
+		if (scheduler == null) {
+			final ScheduledThreadPoolExecutor newScheduler = new ScheduledThreadPoolExecutor(1);
+			// work is rarely scheduled after startup, so do not keep an idle thread
+			newScheduler.setKeepAliveTime(SCHEDULER_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+			newScheduler.allowCoreThreadTimeOut(true);
+			scheduler = newScheduler;
+		}
+
+		return scheduler;
+	}
+
+	/**
+	 * Removes expired identifiers and shares a new XDMSharedState if any identifier was removed.
+	 *
+	 * @param event the {@link Event} that triggered the sweep
+	 */
+	private void removeExpiredIdentifiers(final Event event) {
+		if (state.removeExpiredIdentifiers()) {
+			shareIdentityXDMSharedState(event);
+		}
+	}
+
+	/**
+	 * Wraps the given event handler to record its duration in an {@link IdentityMetrics} histogram
+	 * and its start and end in the event's {@link IdentityTraceSpan}.
+	 *
+	 * @param histogram the {@code IdentityMetrics} histogram constant
+	 * @param handler   the event handler to wrap
+	 * @return an {@link ExtensionEventListener} calling {@code handler}
+	 */
+	private static ExtensionEventListener timed(final int histogram, final ExtensionEventListener handler) {
+		return event -> {
+			IdentityTracer.mark(event.getUniqueIdentifier(), IdentityTraceSpan.Phase.HANDLER_START);
+			final long startNanos = IdentityMetrics.startTimer();
+			handler.hear(event);
+			IdentityMetrics.recordDuration(histogram, startNanos);
+			IdentityTracer.mark(event.getUniqueIdentifier(), IdentityTraceSpan.Phase.HANDLER_END);
+		};
 	}
 
 	/**
@@ -405,4 +784,62 @@ class IdentityExtension extends Extension {
 	private void shareIdentityXDMSharedState(final Event event) {
 		sharedStateHandle.createXDMSharedState(state.getIdentityProperties().toXDMData(), event);
 	}
+
+	/**
+	 * Resolves the pending XDM shared state with the latest Identity properties and shares their version stamp.
+	 *
+	 * @param resolver the {@link SharedStateResolver} of the pending XDM shared state; if null, nothing is shared
+	 * @param event the {@link Event} that triggered the XDM shared state change
+	 */
+	private void resolveIdentityXDMSharedState(final SharedStateResolver resolver, final Event event) {
+		if (resolver == null) {
+			return;
+		}
+
+		resolver.resolve(state.getIdentityProperties().toXDMData());
+		onIdentitiesShared(event);
+	}
+
+	/**
+	 * Creates a pending XDM shared state at {@code event} to avoid a race condition between updating and reading
+	 * the identity map. No shared state is created before boot completes, as the first shared state is created by
+	 * boot with the ECID; it then includes the identifiers changed by events handled before boot.
+	 *
+	 * @param event the {@link Event} changing the customer identifiers
+	 * @return the {@link SharedStateResolver} to pass to {@link #resolveIdentityXDMSharedState}, or null before boot
+	 */
+	private SharedStateResolver createPendingIdentityXDMSharedState(final Event event) {
+		return state.hasBooted() ? getApi().createPendingXDMSharedState(event) : null;
+	}
+
+	/**
+	 * Updates the version stamp of the Identity properties after they were shared, shares it in the standard shared
+	 * state of this extension next to the XDM shared state holding the identifiers, and schedules the removal of the
+	 * next expiring identifier from the shared identifiers. The stamp is kept out of the XDM shared state as its
+	 * consumers forward that state as XDM.
+	 * <p>
+	 * While an identity version listener is registered, the version stamp is also dispatched when it changed, so
+	 * listeners are notified without polling and retrieve the identifiers only when they need them.
+	 *
+	 * @param event the {@link Event} that triggered the XDM shared state change; null for the next shared state version
+	 */
+	private void onIdentitiesShared(final Event event) {
+		final boolean versionChanged = state.updateIdentityVersion();
+		getApi().createSharedState(state.getIdentityVersion().toEventData(), event);
+
+		if (versionChanged && notifyIdentityVersionChanges) {
+			getApi()
+				.dispatch(
+					new Event.Builder(
+						IdentityConstants.EventNames.IDENTITY_VERSION_CHANGED,
+						EventType.EDGE_IDENTITY,
+						EventSource.RESPONSE_IDENTITY
+					)
+						.setEventData(state.getIdentityVersion().toEventData())
+						.build()
+				);
+		}
+
+		scheduleExpirySweep();
+	}
 }
@@ -11,16 +11,12 @@
 
 package com.adobe.marketing.mobile.edge.identity;
 
-import static com.adobe.marketing.mobile.edge.identity.IdentityConstants.LOG_TAG;
-
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
-import com.adobe.marketing.mobile.services.Log;
 import com.adobe.marketing.mobile.util.DataReader;
 import com.adobe.marketing.mobile.util.DataReaderException;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Objects;
 
 /**
  * Identity is used to clearly distinguish people that are interacting with digital experiences.
@@ -32,25 +28,36 @@ public final class IdentityItem {
 
 	private static final String LOG_SOURCE = "IdentityItem";
 
+	/**
+	 * Value of {@link #getExpiresAt()} for an {@code IdentityItem} which never expires.
+	 */
+	public static final long NO_EXPIRY = Long.MAX_VALUE;
+
 	private final String id;
 	private final AuthenticatedState authenticatedState;
 	private final boolean primary;
+	private final long expiresAt;
+
+	// case insensitive hash of id, consistent with equals; computed once as items are immutable
+	private final int hash;
 
 	/**
-	 * Creates a new {@link IdentityItem}.
+	 * Creates a new {@link IdentityItem} which expires after the given time to live.
+	 * An expired {@code IdentityItem} is removed from the stored identities and is no longer sent to the Edge Network.
 	 * An {@code IdentityItem} should not have an empty or null {@code id} value. An {@link IdentityMap}
 	 * will reject {@code IdentityItem}s with null or empty identifiers.
 	 *
-	 *
 	 * @param id                 id for the item; should not be null
 	 * @param authenticatedState {@link AuthenticatedState} for the item; if none is provided {@link AuthenticatedState#AMBIGUOUS} is used as default
 	 * @param primary            primary flag for the item
+	 * @param timeToLiveMillis   time in milliseconds from now after which the item expires; zero or less never expires
 	 * @throws IllegalArgumentException if {@code id} is null
 	 */
 	public IdentityItem(
 		@NonNull final String id,
 		@Nullable final AuthenticatedState authenticatedState,
-		final boolean primary
+		final boolean primary,
+		final long timeToLiveMillis
 	) {
 		if (id == null) {
 			throw new IllegalArgumentException("id must be non-null");
@@ -59,6 +66,27 @@ public final class IdentityItem {
 		this.id = id;
 		this.authenticatedState = authenticatedState != null ? authenticatedState : AuthenticatedState.AMBIGUOUS;
 		this.primary = primary;
+		this.expiresAt = toExpiresAt(timeToLiveMillis);
+		this.hash = caseInsensitiveHash(id);
+	}
+
+	/**
+	 * Creates a new {@link IdentityItem}.
+	 * An {@code IdentityItem} should not have an empty or null {@code id} value. An {@link IdentityMap}
+	 * will reject {@code IdentityItem}s with null or empty identifiers.
+	 *
+	 *
+	 * @param id                 id for the item; should not be null
+	 * @param authenticatedState {@link AuthenticatedState} for the item; if none is provided {@link AuthenticatedState#AMBIGUOUS} is used as default
+	 * @param primary            primary flag for the item
+	 * @throws IllegalArgumentException if {@code id} is null
+	 */
+	public IdentityItem(
+		@NonNull final String id,
+		@Nullable final AuthenticatedState authenticatedState,
+		final boolean primary
+	) {
+		this(id, authenticatedState, primary, 0);
 	}
 
 	/**
@@ -81,7 +109,21 @@ public final class IdentityItem {
 	 * @param item A {@link IdentityItem} to be copied; should not be null
 	 */
 	public IdentityItem(@NonNull final IdentityItem item) {
-		this(item.id, item.authenticatedState, item.primary);
+		this(item, item.expiresAt);
+	}
+
+	/**
+	 * Creates a copy of item with the given expiry time.
+	 *
+	 * @param item      A {@link IdentityItem} to be copied; should not be null
+	 * @param expiresAt epoch time in milliseconds when the copy expires, or {@link #NO_EXPIRY}; zero or less never expires
+	 */
+	IdentityItem(@NonNull final IdentityItem item, final long expiresAt) {
+		this.id = item.id;
+		this.authenticatedState = item.authenticatedState;
+		this.primary = item.primary;
+		this.expiresAt = expiresAt > 0 ? expiresAt : NO_EXPIRY;
+		this.hash = item.hash;
 	}
 
 	/**
@@ -114,6 +156,15 @@ public final class IdentityItem {
 		return primary;
 	}
 
+	/**
+	 * The time this identity expires.
+	 *
+	 * @return epoch time in milliseconds after which this item expires, or {@link #NO_EXPIRY} if this item never expires
+	 */
+	public long getExpiresAt() {
+		return expiresAt;
+	}
+
 	@NonNull
 	@Override
 	public String toString() {
@@ -138,18 +189,28 @@ public final class IdentityItem {
 		}
 
 		IdentityItem that = (IdentityItem) o;
-		return id.equalsIgnoreCase(that.id);
+		return hash == that.hash && id.equalsIgnoreCase(that.id);
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(id);
+		return hash;
 	}
 
 	// ========================================================================================
 	// package protected methods
 	// ========================================================================================
 
+	/**
+	 * Determines if this item has expired.
+	 *
+	 * @param now the current epoch time in milliseconds
+	 * @return true if this item has an expiry time which is not after {@code now}
+	 */
+	boolean isExpired(final long now) {
+		return expiresAt != NO_EXPIRY && expiresAt <= now;
+	}
+
 	/**
 	 * Converts this object into a map representation
 	 *
@@ -198,10 +259,9 @@ public final class IdentityItem {
 
 			return new IdentityItem(id, authenticatedState, primary);
 		} catch (final DataReaderException e) {
-			Log.debug(LOG_TAG, LOG_SOURCE, "Failed to create IdentityItem from data.");
+			IdentityLog.debug(LOG_SOURCE, "Failed to create IdentityItem from data.");
 		} catch (final IllegalArgumentException e) {
-			Log.debug(
-				LOG_TAG,
+			IdentityLog.debug(
 				LOG_SOURCE,
 				"Failed to create IdentityItem from data as 'id' is null. %s",
 				e.getLocalizedMessage()
@@ -210,4 +270,34 @@ public final class IdentityItem {
 
 		return null;
 	}
+
+	/**
+	 * Computes a hash of {@code value} which is equal for strings that are equal by {@link String#equalsIgnoreCase(String)}.
+	 * Each code point is folded the same way {@code equalsIgnoreCase} compares characters, by converting it to upper
+	 * case and then to lower case, which does not depend on the default locale.
+	 *
+	 * @param value the string to hash
+	 * @return the case insensitive hash of {@code value}
+	 */
+	static int caseInsensitiveHash(final String value) {
+		int hash = 0;
+		int index = 0;
+
+		while (index < value.length()) {
+			final int codePoint = value.codePointAt(index);
+			hash = 31 * hash + Character.toLowerCase(Character.toUpperCase(codePoint));
+			index += Character.charCount(codePoint);
+		}
+
+		return hash;
+	}
+
+	private static long toExpiresAt(final long timeToLiveMillis) {
+		if (timeToLiveMillis <= 0) {
+			return NO_EXPIRY;
+		}
+
+		final long now = System.currentTimeMillis();
+		return timeToLiveMillis < NO_EXPIRY - now ? now + timeToLiveMillis : NO_EXPIRY;
+	}
 }
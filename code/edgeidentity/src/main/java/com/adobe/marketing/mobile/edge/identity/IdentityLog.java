@@ -0,0 +1,183 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.edge.identity;
+
+import static com.adobe.marketing.mobile.edge.identity.IdentityConstants.LOG_TAG;
+
+import androidx.annotation.VisibleForTesting;
+import com.adobe.marketing.mobile.LoggingMode;
+import com.adobe.marketing.mobile.MobileCore;
+import com.adobe.marketing.mobile.services.Log;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Logging facade of the Identity extension, logging to the SDK {@link Log} with the extension log tag.
+ * <p>
+ * Messages are only formatted when the {@link MobileCore} log level enables them. The parameterized methods take
+ * a fixed number of arguments, so a call with a disabled level allocates neither the message nor an argument array.
+ * Arguments which are expensive to compute should still be guarded with {@link #isDebugEnabled()}.
+ * Repetitive warnings can be rate limited with {@link #warningRateLimited(String, String)}.
+ */
+final class IdentityLog {
+
+	// Minimum time between two logs of the same rate limited message
+	static final long RATE_LIMIT_INTERVAL_MILLIS = 60000L;
+
+	private static final ConcurrentHashMap<String, RateLimit> rateLimits = new ConcurrentHashMap<>();
+
+	private IdentityLog() {}
+
+	/**
+	 * @return true if messages logged with {@link #trace} are logged
+	 */
+	static boolean isTraceEnabled() {
+		return isEnabled(LoggingMode.VERBOSE);
+	}
+
+	/**
+	 * @return true if messages logged with {@link #debug} are logged
+	 */
+	static boolean isDebugEnabled() {
+		return isEnabled(LoggingMode.DEBUG);
+	}
+
+	static void trace(final String source, final String message) {
+		if (isTraceEnabled()) {
+			Log.trace(LOG_TAG, source, "%s", message);
+		}
+	}
+
+	static void trace(final String source, final String format, final Object arg) {
+		if (isTraceEnabled()) {
+			Log.trace(LOG_TAG, source, format, arg);
+		}
+	}
+
+	static void debug(final String source, final String message) {
+		if (isDebugEnabled()) {
+			Log.debug(LOG_TAG, source, "%s", message);
+		}
+	}
+
+	static void debug(final String source, final String format, final Object arg) {
+		if (isDebugEnabled()) {
+			Log.debug(LOG_TAG, source, format, arg);
+		}
+	}
+
+	static void debug(final String source, final String format, final Object arg1, final Object arg2) {
+		if (isDebugEnabled()) {
+			Log.debug(LOG_TAG, source, format, arg1, arg2);
+		}
+	}
+
+	static void debug(
+		final String source,
+		final String format,
+		final Object arg1,
+		final Object arg2,
+		final Object arg3
+	) {
+		if (isDebugEnabled()) {
+			Log.debug(LOG_TAG, source, format, arg1, arg2, arg3);
+		}
+	}
+
+	static void warning(final String source, final String message) {
+		if (isEnabled(LoggingMode.WARNING)) {
+			Log.warning(LOG_TAG, source, "%s", message);
+		}
+	}
+
+	static void warning(final String source, final String format, final Object arg) {
+		if (isEnabled(LoggingMode.WARNING)) {
+			Log.warning(LOG_TAG, source, format, arg);
+		}
+	}
+
+	static void error(final String source, final String message) {
+		Log.error(LOG_TAG, source, "%s", message);
+	}
+
+	static void error(final String source, final String format, final Object arg) {
+		Log.error(LOG_TAG, source, format, arg);
+	}
+
+	/**
+	 * Logs a warning at most once per {@link #RATE_LIMIT_INTERVAL_MILLIS} for the same {@code message}. The number of
+	 * warnings suppressed since the last one logged is appended to the message.
+	 *
+	 * @param source  the source of the message
+	 * @param message the constant warning message, which also identifies the warning
+	 */
+	static void warningRateLimited(final String source, final String message) {
+		if (!isEnabled(LoggingMode.WARNING)) {
+			return;
+		}
+
+		final int suppressed = acquire(message, System.currentTimeMillis());
+
+		if (suppressed == 0) {
+			Log.warning(LOG_TAG, source, "%s", message);
+		} else if (suppressed > 0) {
+			Log.warning(LOG_TAG, source, "%s (%d similar warnings suppressed)", message, suppressed);
+		}
+	}
+
+	/**
+	 * Records an occurrence of a rate limited message.
+	 *
+	 * @param key the message identifying the rate limit
+	 * @param now the current epoch time in milliseconds
+	 * @return the number of occurrences suppressed since the message was last logged if it should be logged now,
+	 *         or -1 if this occurrence is suppressed
+	 */
+	@VisibleForTesting
+	static int acquire(final String key, final long now) {
+		RateLimit rateLimit = rateLimits.get(key);
+
+		if (rateLimit == null) {
+			final RateLimit newRateLimit = new RateLimit();
+			rateLimit = rateLimits.putIfAbsent(key, newRateLimit);
+			rateLimit = rateLimit != null ? rateLimit : newRateLimit;
+		}
+
+		synchronized (rateLimit) {
+			if (now < rateLimit.nextLogMillis) {
+				rateLimit.suppressed++;
+				return -1;
+			}
+
+			final int suppressed = rateLimit.suppressed;
+			rateLimit.nextLogMillis = now + RATE_LIMIT_INTERVAL_MILLIS;
+			rateLimit.suppressed = 0;
+			return suppressed;
+		}
+	}
+
+	@VisibleForTesting
+	static void resetRateLimits() {
+		rateLimits.clear();
+	}
+
+	private static boolean isEnabled(final LoggingMode level) {
+		final LoggingMode logLevel = MobileCore.getLogLevel();
+		// the log level is unknown when MobileCore is not initialized; leave the decision to Log
+		return logLevel == null || logLevel.compareTo(level) >= 0;
+	}
+
+	private static final class RateLimit {
+
+		private long nextLogMillis = Long.MIN_VALUE;
+		private int suppressed;
+	}
+}
@@ -11,15 +11,15 @@
 
 package com.adobe.marketing.mobile.edge.identity;
 
-import static com.adobe.marketing.mobile.edge.identity.IdentityConstants.LOG_TAG;
-
 import androidx.annotation.NonNull;
-import com.adobe.marketing.mobile.services.Log;
 import com.adobe.marketing.mobile.util.DataReader;
 import com.adobe.marketing.mobile.util.MapUtils;
 import com.adobe.marketing.mobile.util.StringUtils;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -36,8 +36,15 @@ public class IdentityMap {
 
 	private static final String LOG_SOURCE = "IdentityMap";
 
+	// 64-bit FNV-1a parameters used by contentHash
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
 	private final Map<String, List<IdentityItem>> identityItems = new HashMap<>();
 
+	// Earliest expiry time of the items in this map; may be earlier than the actual earliest expiry after removals
+	private long nextExpiresAt = IdentityItem.NO_EXPIRY;
+
 	/**
 	 * Gets the {@link IdentityItem}s for the namespace
 	 * returns an empty list if no {@link IdentityItem}s were found for the namespace
@@ -59,8 +66,12 @@ public class IdentityMap {
 			return copyItems;
 		}
 
+		final long now = System.currentTimeMillis();
+
 		for (IdentityItem item : items) {
-			copyItems.add(new IdentityItem(item));
+			if (!item.isExpired(now)) {
+				copyItems.add(new IdentityItem(item));
+			}
 		}
 
 		return copyItems;
@@ -73,7 +84,51 @@ public class IdentityMap {
 	 */
 	@NonNull
 	public List<String> getNamespaces() {
-		return new ArrayList<>(identityItems.keySet());
+		final long now = System.currentTimeMillis();
+
+		if (!hasExpiredItems(now)) {
+			return new ArrayList<>(identityItems.keySet());
+		}
+
+		final List<String> namespaces = new ArrayList<>();
+
+		for (final Map.Entry<String, List<IdentityItem>> entry : identityItems.entrySet()) {
+			if (containsUnexpiredItem(entry.getValue(), now)) {
+				namespaces.add(entry.getKey());
+			}
+		}
+
+		return namespaces;
+	}
+
+	/**
+	 * Returns the namespaces containing an {@link IdentityItem} with the given {@code id}. The {@code id} is matched
+	 * case insensitively, the same way items are matched within a namespace.
+	 *
+	 * @param id the identifier to look up
+	 * @return the namespaces containing {@code id}, or an empty list if no namespace contains it
+	 */
+	@NonNull
+	public List<String> getNamespacesForIdentifier(@NonNull final String id) {
+		final List<String> namespaces = new ArrayList<>();
+
+		if (StringUtils.isNullOrEmpty(id)) {
+			return namespaces;
+		}
+
+		final IdentityItem lookupItem = new IdentityItem(id);
+		final long now = System.currentTimeMillis();
+
+		for (final Map.Entry<String, List<IdentityItem>> entry : identityItems.entrySet()) {
+			final List<IdentityItem> items = entry.getValue();
+			final int index = items.indexOf(lookupItem);
+
+			if (index >= 0 && !items.get(index).isExpired(now)) {
+				namespaces.add(entry.getKey());
+			}
+		}
+
+		return namespaces;
 	}
 
 	/**
@@ -96,12 +151,12 @@ public class IdentityMap {
 	 */
 	public void removeItem(@NonNull final IdentityItem item, @NonNull final String namespace) {
 		if (item == null) {
-			Log.debug(LOG_TAG, LOG_SOURCE, "Remove item ignored as must contain a non-null IdentityItem.");
+			IdentityLog.debug(LOG_SOURCE, "Remove item ignored as must contain a non-null IdentityItem.");
 			return;
 		}
 
 		if (StringUtils.isNullOrEmpty(namespace)) {
-			Log.debug(LOG_TAG, LOG_SOURCE, "Remove item ignored as must contain a non-null/non-empty namespace.");
+			IdentityLog.debug(LOG_SOURCE, "Remove item ignored as must contain a non-null/non-empty namespace.");
 			return;
 		}
 
@@ -114,7 +169,19 @@ public class IdentityMap {
 	 * @return {@code true} if this {@code IdentityMap} contains no identifiers
 	 */
 	public boolean isEmpty() {
-		return identityItems.isEmpty();
+		final long now = System.currentTimeMillis();
+
+		if (!hasExpiredItems(now)) {
+			return identityItems.isEmpty();
+		}
+
+		for (final List<IdentityItem> items : identityItems.values()) {
+			if (containsUnexpiredItem(items, now)) {
+				return false;
+			}
+		}
+
+		return true;
 	}
 
 	@NonNull
@@ -161,18 +228,38 @@ public class IdentityMap {
 	 */
 	void addItem(final IdentityItem item, final String namespace, final boolean isFirstItem) {
 		if (item == null) {
-			Log.debug(LOG_TAG, LOG_SOURCE, "Add item ignored as must contain a non-null IdentityItem.");
+			IdentityLog.debug(LOG_SOURCE, "Add item ignored as must contain a non-null IdentityItem.");
 			return;
 		}
 
 		if (StringUtils.isNullOrEmpty(namespace)) {
-			Log.debug(LOG_TAG, LOG_SOURCE, "Add item ignored as must contain a non-null/non-empty namespace.");
+			IdentityLog.debug(LOG_SOURCE, "Add item ignored as must contain a non-null/non-empty namespace.");
 			return;
 		}
 
 		addItemToMap(item, namespace, isFirstItem);
 	}
 
+	/**
+	 * Adds a namespace with already validated items, without the per-item checks of {@link #addItem(IdentityItem, String)}.
+	 * Used by {@link IdentityMapBuilder}, which validates and de-duplicates all items before building the map.
+	 *
+	 * @param namespace a non-empty namespace not yet in this map
+	 * @param items     non-empty list of unexpired items with non-empty and unique ids; owned by this map afterwards
+	 */
+	void addValidatedItems(final String namespace, final List<IdentityItem> items) {
+		identityItems.put(namespace, items);
+		onNamespaceAdded(namespace);
+
+		for (final IdentityItem item : items) {
+			if (item.getExpiresAt() != IdentityItem.NO_EXPIRY) {
+				nextExpiresAt = Math.min(nextExpiresAt, item.getExpiresAt());
+			}
+
+			onItemAdded(item, namespace, false);
+		}
+	}
+
 	/**
 	 * Merge the given map on to this {@link IdentityMap}. Any {@link IdentityItem} in map which shares the same
 	 * namespace and id as an item in this {@code IdentityMap} will replace that {@code IdentityItem}.
@@ -220,21 +307,214 @@ public class IdentityMap {
 			return false;
 		}
 
-		boolean isRemoved = false;
-		final List<String> filteredNamespaces = new ArrayList<>();
+		final List<String> matchingNamespaces = new ArrayList<>();
 
 		for (final String eachNamespace : identityItems.keySet()) {
 			if (namespace.equalsIgnoreCase(eachNamespace)) {
-				isRemoved = true;
-				filteredNamespaces.add(eachNamespace);
+				matchingNamespaces.add(eachNamespace);
+			}
+		}
+
+		for (final String eachNamespace : matchingNamespaces) {
+			removeItemsForNamespace(eachNamespace);
+		}
+
+		return !matchingNamespaces.isEmpty();
+	}
+
+	/**
+	 * Removes all the {@link IdentityItem} on this {@link IdentityMap} in reserved namespaces (ECID, GAID and IDFA,
+	 * case insensitive), checking each namespace once with {@link NamespaceRegistry#isReserved(String)}.
+	 *
+	 * @return the removed namespaces as written in this map, or an empty list if none was removed
+	 */
+	List<String> removeReservedNamespaces() {
+		List<String> removedNamespaces = Collections.emptyList();
+		final Iterator<Map.Entry<String, List<IdentityItem>>> iterator = identityItems.entrySet().iterator();
+
+		while (iterator.hasNext()) {
+			final Map.Entry<String, List<IdentityItem>> entry = iterator.next();
+			final String namespace = entry.getKey();
+
+			if (!NamespaceRegistry.isReserved(namespace)) {
+				continue;
+			}
+
+			iterator.remove();
+
+			for (final IdentityItem item : entry.getValue()) {
+				onItemRemoved(item, namespace);
+			}
+
+			onNamespaceRemoved(namespace);
+
+			if (removedNamespaces.isEmpty()) {
+				removedNamespaces = new ArrayList<>(1);
 			}
+
+			removedNamespaces.add(namespace);
+		}
+
+		return removedNamespaces;
+	}
+
+	/**
+	 * Removes all the {@link IdentityItem} on this {@link IdentityMap} linked to the specified namespace (case sensitive)
+	 *
+	 * @param namespace the namespace to remove
+	 * @return a {@code boolean} representing a successful removal of all {@code IdentityItem} in a provided namespace
+	 */
+	boolean removeItemsForNamespace(final String namespace) {
+		if (namespace == null) {
+			return false;
+		}
+
+		final List<IdentityItem> removedItems = identityItems.remove(namespace);
+
+		if (removedItems == null) {
+			return false;
+		}
+
+		for (final IdentityItem item : removedItems) {
+			onItemRemoved(item, namespace);
 		}
 
-		for (final String eachNamespace : filteredNamespaces) {
-			identityItems.remove(eachNamespace);
+		onNamespaceRemoved(namespace);
+		return true;
+	}
+
+	/**
+	 * @return the number of {@link IdentityItem}s in this {@link IdentityMap}, including expired items not yet removed
+	 */
+	int getItemCount() {
+		int count = 0;
+
+		for (final List<IdentityItem> items : identityItems.values()) {
+			count += items.size();
 		}
 
-		return isRemoved;
+		return count;
+	}
+
+	/**
+	 * @return the number of namespaces in this {@link IdentityMap}, including namespaces with only expired items
+	 */
+	int getNamespaceCount() {
+		return identityItems.size();
+	}
+
+	/**
+	 * Computes a 64-bit hash of the identifiers in this {@link IdentityMap} as shared by the extension.
+	 * Expired items and item expiry times are excluded, and the hash does not depend on the order in which
+	 * namespaces were added, so maps serializing to the same XDM identity map have equal hashes.
+	 *
+	 * @param now the current epoch time in milliseconds
+	 * @return the content hash of this map
+	 */
+	long contentHash(final long now) {
+		long hash = 0;
+
+		for (final Map.Entry<String, List<IdentityItem>> entry : identityItems.entrySet()) {
+			// namespaces are combined by addition, which is independent of the map iteration order
+			hash += namespaceHash(entry.getKey(), entry.getValue(), now);
+		}
+
+		return hash;
+	}
+
+	/**
+	 * Computes the share of a namespace in {@link #contentHash(long)}.
+	 *
+	 * @param namespace the namespace
+	 * @param items     the items of {@code namespace}
+	 * @param now       the current epoch time in milliseconds
+	 * @return the hash of {@code namespace} and its unexpired items, or 0 if all its items expired
+	 */
+	static long namespaceHash(final String namespace, final List<IdentityItem> items, final long now) {
+		long namespaceHash = fnv(FNV_OFFSET_BASIS, namespace);
+		boolean hasItems = false;
+
+		// item order is significant within a namespace as it is kept in the XDM array
+		for (final IdentityItem item : items) {
+			if (item.isExpired(now)) {
+				continue;
+			}
+
+			hasItems = true;
+			namespaceHash = fnv(namespaceHash, item.getId());
+			namespaceHash = (namespaceHash ^ item.getAuthenticatedState().ordinal()) * FNV_PRIME;
+			namespaceHash = (namespaceHash ^ (item.isPrimary() ? 1 : 0)) * FNV_PRIME;
+		}
+
+		return hasItems ? mix(namespaceHash) : 0;
+	}
+
+	/**
+	 * Determines if this {@link IdentityMap} may contain expired {@link IdentityItem}s.
+	 *
+	 * @param now the current epoch time in milliseconds
+	 * @return true if an item may have expired at {@code now}; false if no item has expired
+	 */
+	boolean hasExpiredItems(final long now) {
+		return now >= nextExpiresAt;
+	}
+
+	/**
+	 * Returns the earliest expiry time of the items in this {@link IdentityMap}. After items were removed, the
+	 * returned time may be earlier than the expiry time of the remaining items until {@link #removeExpiredItems(long)}
+	 * is called at that time.
+	 *
+	 * @return the earliest expiry time in epoch milliseconds, or {@link IdentityItem#NO_EXPIRY} if no item expires
+	 */
+	long getNextExpiresAt() {
+		return nextExpiresAt;
+	}
+
+	/**
+	 * Removes all expired {@link IdentityItem}s from this {@link IdentityMap}.
+	 *
+	 * @param now the current epoch time in milliseconds
+	 * @return the number of removed items
+	 */
+	int removeExpiredItems(final long now) {
+		if (!hasExpiredItems(now)) {
+			return 0;
+		}
+
+		int removed = 0;
+		long earliestExpiresAt = IdentityItem.NO_EXPIRY;
+		final Iterator<Map.Entry<String, List<IdentityItem>>> namespaceIterator = identityItems.entrySet().iterator();
+
+		while (namespaceIterator.hasNext()) {
+			final Map.Entry<String, List<IdentityItem>> entry = namespaceIterator.next();
+			final Iterator<IdentityItem> itemIterator = entry.getValue().iterator();
+
+			while (itemIterator.hasNext()) {
+				final IdentityItem item = itemIterator.next();
+
+				if (item.isExpired(now)) {
+					itemIterator.remove();
+					onItemRemoved(item, entry.getKey());
+					removed++;
+				} else if (item.getExpiresAt() != IdentityItem.NO_EXPIRY) {
+					earliestExpiresAt = Math.min(earliestExpiresAt, item.getExpiresAt());
+				}
+			}
+
+			if (entry.getValue().isEmpty()) {
+				namespaceIterator.remove();
+				onNamespaceRemoved(entry.getKey());
+			}
+		}
+
+		nextExpiresAt = earliestExpiresAt;
+
+		if (removed > 0) {
+			IdentityMetrics.add(IdentityMetrics.EXPIRED_IDENTITIES, removed);
+			IdentityLog.debug(LOG_SOURCE, "Removed %d expired identities.", removed);
+		}
+
+		return removed;
 	}
 
 	/**
@@ -245,17 +525,42 @@ public class IdentityMap {
 	 * @return {@code Map} representation of xdm formatted IdentityMap
 	 */
 	Map<String, Object> asXDMMap(final boolean allowEmpty) {
+		return asXDMMap(allowEmpty, null);
+	}
+
+	/**
+	 * Use this method to cast the {@link IdentityMap} as {@code Map<String,Object>} to be passed as EventData for an SDK Event,
+	 * including only the items in the given namespaces.
+	 *
+	 * @param allowEmpty If true and if the resulting {@code IdentityMap} contains no data, then returns a map with empty xdmFormatted Identity Map.
+	 *                   If false and if the resulting {@code IdentityMap} contains no data, then returns an empty map
+	 * @param namespaces the namespaces to include; if null, all namespaces are included
+	 * @return {@code Map} representation of xdm formatted IdentityMap
+	 */
+	Map<String, Object> asXDMMap(final boolean allowEmpty, final Collection<String> namespaces) {
 		final Map<String, Object> xdmMap = new HashMap<>();
 		final Map<String, List<Map<String, Object>>> identityMap = new HashMap<>();
+		final long now = System.currentTimeMillis();
 
-		for (String namespace : identityItems.keySet()) {
-			final List<Map<String, Object>> namespaceIds = new ArrayList<>();
+		for (String namespace : namespaces != null ? namespaces : identityItems.keySet()) {
+			final List<IdentityItem> items = identityItems.get(namespace);
 
-			for (IdentityItem identityItem : identityItems.get(namespace)) {
-				namespaceIds.add(identityItem.toObjectMap());
+			if (items == null) {
+				continue;
 			}
 
-			identityMap.put(namespace, namespaceIds);
+			final List<Map<String, Object>> namespaceIds = new ArrayList<>(items.size());
+
+			for (IdentityItem identityItem : items) {
+				// expired items are dropped lazily here and removed from the map on the next sweep
+				if (!identityItem.isExpired(now)) {
+					namespaceIds.add(identityItem.toObjectMap());
+				}
+			}
+
+			if (!namespaceIds.isEmpty()) {
+				identityMap.put(namespace, namespaceIds);
+			}
 		}
 
 		if (!identityMap.isEmpty() || allowEmpty) {
@@ -265,6 +570,50 @@ public class IdentityMap {
 		return xdmMap;
 	}
 
+	/**
+	 * Use this method to cast the {@link IdentityMap} as {@code Map<String,Object>} including the expiry time of its
+	 * {@link IdentityItem}s. The expiry times are added under a separate non-XDM key, so this representation must only
+	 * be used for persistence and for events handled by this extension, never for shared state.
+	 *
+	 * @param allowEmpty If true and if this {@code IdentityMap} contains no data, then returns a map with empty xdmFormatted Identity Map.
+	 *                   If false and if this {@code IdentityMap} contains no data, then returns an empty map
+	 * @return {@code Map} representation of xdm formatted IdentityMap with item expiry times
+	 * @see #fromXDMMap(Map)
+	 */
+	Map<String, Object> asXDMMapWithExpiries(final boolean allowEmpty) {
+		final Map<String, Object> xdmMap = asXDMMap(allowEmpty);
+
+		if (nextExpiresAt == IdentityItem.NO_EXPIRY) {
+			return xdmMap;
+		}
+
+		final long now = System.currentTimeMillis();
+		final Map<String, Map<String, Long>> expiries = new HashMap<>();
+
+		for (final Map.Entry<String, List<IdentityItem>> entry : identityItems.entrySet()) {
+			Map<String, Long> namespaceExpiries = null;
+
+			for (final IdentityItem item : entry.getValue()) {
+				if (item.getExpiresAt() == IdentityItem.NO_EXPIRY || item.isExpired(now)) {
+					continue;
+				}
+
+				if (namespaceExpiries == null) {
+					namespaceExpiries = new HashMap<>();
+					expiries.put(entry.getKey(), namespaceExpiries);
+				}
+
+				namespaceExpiries.put(item.getId(), item.getExpiresAt());
+			}
+		}
+
+		if (!expiries.isEmpty()) {
+			xdmMap.put(IdentityConstants.EventDataKeys.IDENTITY_EXPIRIES, expiries);
+		}
+
+		return xdmMap;
+	}
+
 	/**
 	 * Creates an {@link IdentityMap} from the given xdm formatted immutable {@link Map}
 	 * Returns null if the provided map is null/empty.
@@ -273,6 +622,18 @@ public class IdentityMap {
 	 * @return {@code Map<String,Object>} XDM format representation of IdentityMap
 	 */
 	static IdentityMap fromXDMMap(final Map<String, Object> map) {
+		return fromXDMMap(map, new IdentityMap());
+	}
+
+	/**
+	 * Adds the identities of the given xdm formatted immutable {@link Map} to {@code identityMap}, as
+	 * {@link #fromXDMMap(Map)} does.
+	 *
+	 * @param map         the xdm formatted map to read
+	 * @param identityMap the empty {@code IdentityMap} to add the identities to
+	 * @return {@code identityMap}, or null if {@code map} is null, empty or not in Identity Map's XDM format
+	 */
+	static <T extends IdentityMap> T fromXDMMap(final Map<String, Object> map, final T identityMap) {
 		if (MapUtils.isNullOrEmpty(map)) {
 			return null;
 		}
@@ -288,7 +649,13 @@ public class IdentityMap {
 			return null;
 		}
 
-		final IdentityMap identityMap = new IdentityMap();
+		final Map<String, Object> expiries = DataReader.optTypedMap(
+			Object.class,
+			map,
+			IdentityConstants.EventDataKeys.IDENTITY_EXPIRIES,
+			null
+		);
+
 		for (final String namespace : identityMapDict.keySet()) {
 			final List<Map<String, Object>> immutableIdList = DataReader.optTypedListOfMap(
 				Object.class,
@@ -299,11 +666,15 @@ public class IdentityMap {
 
 			if (immutableIdList == null) continue;
 
+			final Map<String, Object> namespaceExpiries = expiries != null
+				? DataReader.optTypedMap(Object.class, expiries, namespace, null)
+				: null;
+
 			for (final Map<String, Object> idMap : immutableIdList) {
 				final IdentityItem item = IdentityItem.fromData(idMap);
 
 				if (item != null) {
-					identityMap.addItemToMap(item, namespace, false);
+					((IdentityMap) identityMap).addItemToMap(withExpiry(item, namespaceExpiries), namespace, false);
 				}
 			}
 		}
@@ -311,14 +682,90 @@ public class IdentityMap {
 		return identityMap;
 	}
 
+	/**
+	 * @return the items of this {@link IdentityMap} keyed on namespace, including expired items not yet removed;
+	 * owned by this map and must not be modified
+	 */
+	Map<String, List<IdentityItem>> getItemsByNamespace() {
+		return identityItems;
+	}
+
+	/**
+	 * Called after {@code item} was added to {@code namespace}, or replaced an equal item in it.
+	 * Subclasses override the {@code on*} methods to keep derived data in sync with the items.
+	 *
+	 * @param item      the added item
+	 * @param namespace the namespace of {@code item}
+	 * @param replaced  true if {@code item} replaced an equal item already in {@code namespace}
+	 */
+	void onItemAdded(final IdentityItem item, final String namespace, final boolean replaced) {}
+
+	/**
+	 * Called after {@code item} was removed from {@code namespace}.
+	 *
+	 * @param item      the removed item
+	 * @param namespace the namespace {@code item} was removed from
+	 */
+	void onItemRemoved(final IdentityItem item, final String namespace) {}
+
+	/**
+	 * Called after {@code namespace} was added, before its items are added.
+	 *
+	 * @param namespace the added namespace
+	 */
+	void onNamespaceAdded(final String namespace) {}
+
+	/**
+	 * Called after {@code namespace} was removed, once its items were removed.
+	 *
+	 * @param namespace the removed namespace
+	 */
+	void onNamespaceRemoved(final String namespace) {}
+
 	// ========================================================================================
 	// private methods
 	// ========================================================================================
 
+	private static IdentityItem withExpiry(final IdentityItem item, final Map<String, Object> namespaceExpiries) {
+		if (namespaceExpiries == null) {
+			return item;
+		}
+
+		final long expiresAt = DataReader.optLong(namespaceExpiries, item.getId(), IdentityItem.NO_EXPIRY);
+		return expiresAt != IdentityItem.NO_EXPIRY ? new IdentityItem(item, expiresAt) : item;
+	}
+
+	private static boolean containsUnexpiredItem(final List<IdentityItem> items, final long now) {
+		for (final IdentityItem item : items) {
+			if (!item.isExpired(now)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	// Folds the length and characters of value into an FNV-1a hash
+	private static long fnv(final long hash, final String value) {
+		long result = (hash ^ value.length()) * FNV_PRIME;
+
+		for (int i = 0; i < value.length(); i++) {
+			result = (result ^ value.charAt(i)) * FNV_PRIME;
+		}
+
+		return result;
+	}
+
+	// Finalizer of the SplitMix64 generator; spreads the bits of a namespace hash before it is combined by addition
+	private static long mix(final long value) {
+		long result = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+		result = (result ^ (result >>> 27)) * 0x94d049bb133111ebL;
+		return result ^ (result >>> 31);
+	}
+
 	private void addItemToMap(final IdentityItem newItem, final String namespace, final boolean isFirstItem) {
 		if (StringUtils.isNullOrEmpty(newItem.getId())) {
-			Log.debug(
-				LOG_TAG,
+			IdentityLog.debug(
 				LOG_SOURCE,
 				"Unable to add IdentityItem to IdentityMap with null or empty identifier value: %s",
 				newItem
@@ -326,13 +773,26 @@ public class IdentityMap {
 			return;
 		}
 
+		if (newItem.getExpiresAt() != IdentityItem.NO_EXPIRY) {
+			if (newItem.isExpired(System.currentTimeMillis())) {
+				IdentityLog.debug(
+					LOG_SOURCE,
+					"Unable to add IdentityItem to IdentityMap as it has expired: %s",
+					newItem
+				);
+				return;
+			}
+
+			nextExpiresAt = Math.min(nextExpiresAt, newItem.getExpiresAt());
+		}
+
 		// check if namespace exists
-		final List<IdentityItem> itemList;
+		List<IdentityItem> itemList = identityItems.get(namespace);
 
-		if (identityItems.containsKey(namespace)) {
-			itemList = identityItems.get(namespace);
-		} else {
+		if (itemList == null) {
 			itemList = new ArrayList<>();
+			identityItems.put(namespace, itemList);
+			onNamespaceAdded(namespace);
 		}
 
 		// Check if the item already exist in the current ItemList
@@ -340,13 +800,15 @@ public class IdentityMap {
 
 		if (index >= 0) {
 			itemList.set(index, newItem);
-		} else if (isFirstItem) {
-			itemList.add(0, newItem);
 		} else {
-			itemList.add(newItem);
+			if (isFirstItem) {
+				itemList.add(0, newItem);
+			} else {
+				itemList.add(newItem);
+			}
 		}
 
-		identityItems.put(namespace, itemList);
+		onItemAdded(newItem, namespace, index >= 0);
 	}
 
 	private void removeItemFromMap(final IdentityItem item, final String namespace) {
@@ -356,10 +818,14 @@ public class IdentityMap {
 		}
 
 		final List<IdentityItem> itemList = identityItems.get(namespace);
-		itemList.remove(item);
+
+		if (itemList.remove(item)) {
+			onItemRemoved(item, namespace);
+		}
 
 		if (itemList.isEmpty()) {
 			identityItems.remove(namespace);
+			onNamespaceRemoved(namespace);
 		}
 	}
 }
@@ -0,0 +1,290 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.edge.identity;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.adobe.marketing.mobile.util.StringUtils;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds an {@link IdentityMap} from identities added one at a time or in bulk per namespace.
+ * <p>
+ * Unlike {@link IdentityMap#addItem(IdentityItem, String)}, adding an identity to the builder only appends it.
+ * All identities are validated and de-duplicated in one pass when {@link #build()} is called, and the identities
+ * which were not added to the map are reported in the returned {@link Result} instead of being logged one by one.
+ * Within a namespace, an identity added again with the same id replaces the earlier one.
+ */
+public final class IdentityMapBuilder {
+
+	private static final String LOG_SOURCE = "IdentityMapBuilder";
+	private static final int DEFAULT_EXPECTED_NAMESPACES = 4;
+
+	private final Map<String, List<IdentityItem>> itemsByNamespace;
+	private final int expectedItemsPerNamespace;
+
+	/**
+	 * Creates a builder for a small {@link IdentityMap}.
+	 */
+	public IdentityMapBuilder() {
+		this(DEFAULT_EXPECTED_NAMESPACES, 1);
+	}
+
+	/**
+	 * Creates a builder presized for the expected size of the {@link IdentityMap}.
+	 *
+	 * @param expectedNamespaces        the expected number of namespaces
+	 * @param expectedItemsPerNamespace the expected number of identities added to each namespace one at a time
+	 */
+	public IdentityMapBuilder(final int expectedNamespaces, final int expectedItemsPerNamespace) {
+		this.itemsByNamespace = new HashMap<>(Utils.hashMapCapacity(Math.max(expectedNamespaces, 0)));
+		this.expectedItemsPerNamespace = Math.max(expectedItemsPerNamespace, 1);
+	}
+
+	/**
+	 * Adds an identity to the given namespace. The identity is validated when the map is built.
+	 *
+	 * @param item      {@link IdentityItem} to be added to the given {@code namespace}
+	 * @param namespace the namespace integration code or namespace ID of the identity
+	 * @return this builder
+	 */
+	@NonNull
+	public IdentityMapBuilder addItem(@Nullable final IdentityItem item, @Nullable final String namespace) {
+		getItems(namespace, expectedItemsPerNamespace).add(item);
+		return this;
+	}
+
+	/**
+	 * Adds identities to the given namespace. The identities are validated when the map is built.
+	 *
+	 * @param namespace the namespace integration code or namespace ID of the identities
+	 * @param items     {@link IdentityItem}s to be added to the given {@code namespace}; null is ignored
+	 * @return this builder
+	 */
+	@NonNull
+	public IdentityMapBuilder addItems(
+		@Nullable final String namespace,
+		@Nullable final Collection<IdentityItem> items
+	) {
+		if (items != null && !items.isEmpty()) {
+			getItems(namespace, items.size()).addAll(items);
+		}
+
+		return this;
+	}
+
+	/**
+	 * Validates and de-duplicates the added identities and builds a new {@link IdentityMap} with the valid ones.
+	 * The builder is not modified and can be built again.
+	 *
+	 * @return the {@link Result} holding the built map and the identities which were not added to it
+	 */
+	@NonNull
+	public Result build() {
+		final IdentityMap map = new IdentityMap();
+		final List<RejectedItem> rejectedItems = new ArrayList<>();
+		final long now = System.currentTimeMillis();
+
+		for (final Map.Entry<String, List<IdentityItem>> entry : itemsByNamespace.entrySet()) {
+			final String namespace = entry.getKey();
+			final List<IdentityItem> items = entry.getValue();
+
+			if (StringUtils.isNullOrEmpty(namespace)) {
+				for (final IdentityItem item : items) {
+					rejectedItems.add(new RejectedItem(item, namespace, RejectReason.INVALID_NAMESPACE));
+				}
+
+				continue;
+			}
+
+			final List<IdentityItem> accepted = new ArrayList<>(items.size());
+			// positions are only needed to find duplicates when there is more than one item
+			final Map<IdentityItem, Integer> positions = items.size() > 1
+				? new HashMap<IdentityItem, Integer>(Utils.hashMapCapacity(items.size()))
+				: null;
+
+			for (final IdentityItem item : items) {
+				final RejectReason reason = validate(item, now);
+
+				if (reason != null) {
+					rejectedItems.add(new RejectedItem(item, namespace, reason));
+					continue;
+				}
+
+				final Integer position = positions != null ? positions.get(item) : null;
+
+				if (position != null) {
+					rejectedItems.add(new RejectedItem(accepted.get(position), namespace, RejectReason.REPLACED));
+					accepted.set(position, item);
+				} else {
+					if (positions != null) {
+						positions.put(item, accepted.size());
+					}
+
+					accepted.add(item);
+				}
+			}
+
+			if (!accepted.isEmpty()) {
+				map.addValidatedItems(namespace, accepted);
+			}
+		}
+
+		if (!rejectedItems.isEmpty()) {
+			IdentityLog.debug(
+				LOG_SOURCE,
+				"Built IdentityMap without %d of the added identities, see the build result for details.",
+				rejectedItems.size()
+			);
+		}
+
+		return new Result(map, rejectedItems);
+	}
+
+	private List<IdentityItem> getItems(final String namespace, final int expectedSize) {
+		List<IdentityItem> items = itemsByNamespace.get(namespace);
+
+		if (items == null) {
+			items = new ArrayList<>(expectedSize);
+			itemsByNamespace.put(namespace, items);
+		}
+
+		return items;
+	}
+
+	private static RejectReason validate(final IdentityItem item, final long now) {
+		if (item == null) {
+			return RejectReason.NULL_ITEM;
+		}
+
+		if (StringUtils.isNullOrEmpty(item.getId())) {
+			return RejectReason.EMPTY_ID;
+		}
+
+		if (item.isExpired(now)) {
+			return RejectReason.EXPIRED;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Reason an added identity was not added to the built {@link IdentityMap}.
+	 */
+	public enum RejectReason {
+		/**
+		 * The identity was null.
+		 */
+		NULL_ITEM,
+
+		/**
+		 * The namespace was null or empty.
+		 */
+		INVALID_NAMESPACE,
+
+		/**
+		 * The identity had an empty id.
+		 */
+		EMPTY_ID,
+
+		/**
+		 * The identity had expired.
+		 */
+		EXPIRED,
+
+		/**
+		 * The identity was replaced by an identity with the same id added later to the same namespace.
+		 */
+		REPLACED
+	}
+
+	/**
+	 * An added identity which was not added to the built {@link IdentityMap}.
+	 */
+	public static final class RejectedItem {
+
+		private final IdentityItem item;
+		private final String namespace;
+		private final RejectReason reason;
+
+		RejectedItem(final IdentityItem item, final String namespace, final RejectReason reason) {
+			this.item = item;
+			this.namespace = namespace;
+			this.reason = reason;
+		}
+
+		/**
+		 * @return the rejected identity; null if the reason is {@link RejectReason#NULL_ITEM}
+		 */
+		@Nullable
+		public IdentityItem getItem() {
+			return item;
+		}
+
+		/**
+		 * @return the namespace the identity was added to
+		 */
+		@Nullable
+		public String getNamespace() {
+			return namespace;
+		}
+
+		/**
+		 * @return the reason the identity was rejected
+		 */
+		@NonNull
+		public RejectReason getReason() {
+			return reason;
+		}
+
+		@NonNull
+		@Override
+		public String toString() {
+			return "{\"namespace\": \"" + namespace + "\", \"item\": " + item + ", \"reason\": \"" + reason + "\"}";
+		}
+	}
+
+	/**
+	 * Result of {@link IdentityMapBuilder#build()}.
+	 */
+	public static final class Result {
+
+		private final IdentityMap identityMap;
+		private final List<RejectedItem> rejectedItems;
+
+		Result(final IdentityMap identityMap, final List<RejectedItem> rejectedItems) {
+			this.identityMap = identityMap;
+			this.rejectedItems = Collections.unmodifiableList(rejectedItems);
+		}
+
+		/**
+		 * @return the built {@link IdentityMap} with the valid identities
+		 */
+		@NonNull
+		public IdentityMap getIdentityMap() {
+			return identityMap;
+		}
+
+		/**
+		 * @return an unmodifiable list of the added identities which are not in the built map
+		 */
+		@NonNull
+		public List<RejectedItem> getRejectedItems() {
+			return rejectedItems;
+		}
+	}
+}
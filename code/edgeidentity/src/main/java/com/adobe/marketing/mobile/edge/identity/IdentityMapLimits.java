@@ -0,0 +1,101 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.edge.identity;
+
+import com.adobe.marketing.mobile.util.DataReader;
+import com.adobe.marketing.mobile.util.MapUtils;
+import java.util.Map;
+
+/**
+ * Capacity limits applied to the customer identifiers of an {@link IdentityMap}.
+ * A limit with a value of zero or less is not enforced.
+ */
+final class IdentityMapLimits {
+
+	static final IdentityMapLimits UNLIMITED = new IdentityMapLimits(0, 0, 0);
+
+	private final int maxNamespaces;
+	private final int maxItemsPerNamespace;
+	private final long maxTotalBytes;
+
+	IdentityMapLimits(final int maxNamespaces, final int maxItemsPerNamespace, final long maxTotalBytes) {
+		this.maxNamespaces = maxNamespaces;
+		this.maxItemsPerNamespace = maxItemsPerNamespace;
+		this.maxTotalBytes = maxTotalBytes;
+	}
+
+	/**
+	 * Reads the identity map limits from the given Configuration shared state.
+	 *
+	 * @param configurationState the Configuration shared state; may be null
+	 * @return the limits found in {@code configurationState}, or {@link #UNLIMITED} if none are configured
+	 */
+	static IdentityMapLimits fromConfiguration(final Map<String, Object> configurationState) {
+		if (MapUtils.isNullOrEmpty(configurationState)) {
+			return UNLIMITED;
+		}
+
+		final int maxNamespaces = DataReader.optInt(
+			configurationState,
+			IdentityConstants.SharedState.Configuration.MAX_NAMESPACES,
+			0
+		);
+		final int maxItemsPerNamespace = DataReader.optInt(
+			configurationState,
+			IdentityConstants.SharedState.Configuration.MAX_ITEMS_PER_NAMESPACE,
+			0
+		);
+		final long maxTotalBytes = DataReader.optLong(
+			configurationState,
+			IdentityConstants.SharedState.Configuration.MAX_TOTAL_BYTES,
+			0
+		);
+
+		if (maxNamespaces <= 0 && maxItemsPerNamespace <= 0 && maxTotalBytes <= 0) {
+			return UNLIMITED;
+		}
+
+		return new IdentityMapLimits(maxNamespaces, maxItemsPerNamespace, maxTotalBytes);
+	}
+
+	int getMaxNamespaces() {
+		return maxNamespaces;
+	}
+
+	int getMaxItemsPerNamespace() {
+		return maxItemsPerNamespace;
+	}
+
+	long getMaxTotalBytes() {
+		return maxTotalBytes;
+	}
+
+	/**
+	 * @return true if none of the limits are enforced
+	 */
+	boolean isUnlimited() {
+		return maxNamespaces <= 0 && maxItemsPerNamespace <= 0 && maxTotalBytes <= 0;
+	}
+
+	@Override
+	public String toString() {
+		return (
+			"IdentityMapLimits{maxNamespaces=" +
+			maxNamespaces +
+			", maxItemsPerNamespace=" +
+			maxItemsPerNamespace +
+			", maxTotalBytes=" +
+			maxTotalBytes +
+			"}"
+		);
+	}
+}
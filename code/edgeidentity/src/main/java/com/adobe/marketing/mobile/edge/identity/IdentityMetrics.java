@@ -0,0 +1,238 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.edge.identity;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Opt-in registry of counters, gauges and latency histograms for this Identity extension.
+ * <p>
+ * Metrics are identified by the {@code int} constants in this class and stored in preallocated atomic arrays,
+ * so recording never allocates. When metrics are disabled every recording method returns after a single volatile read.
+ * Use {@link #startTimer()} to start a latency measurement; it returns {@code 0} when disabled, which makes the
+ * matching {@link #recordDuration(int, long)} a no-op.
+ */
+final class IdentityMetrics {
+
+	// counters
+	static final int PERSISTENCE_READ_BYTES = 0;
+	static final int PERSISTENCE_WRITE_BYTES = 1;
+	static final int BOOT_ATTEMPTS = 2;
+	static final int EVICTED_IDENTITIES = 3;
+	static final int EXPIRED_IDENTITIES = 4;
+	private static final String[] COUNTER_NAMES = {
+		"persistence.read.bytes",
+		"persistence.write.bytes",
+		"boot.attempts",
+		"identitymap.evicted",
+		"identitymap.expired"
+	};
+
+	// gauges
+	static final int IDENTITY_MAP_NAMESPACES = 0;
+	static final int IDENTITY_MAP_ITEMS = 1;
+	private static final String[] GAUGE_NAMES = { "identitymap.namespaces", "identitymap.items" };
+
+	// histograms
+	static final int HANDLE_UPDATE_IDENTITIES = 0;
+	static final int HANDLE_REMOVE_IDENTITY = 1;
+	static final int HANDLE_REQUEST_RESET = 2;
+	static final int HANDLE_URL_VARIABLES_REQUEST = 3;
+	static final int HANDLE_GET_IDENTIFIERS_REQUEST = 4;
+	static final int HANDLE_IDENTITY_VERSION_REQUEST = 5;
+	static final int HANDLE_FIND_NAMESPACES_REQUEST = 6;
+	static final int HANDLE_IDENTITY_DIRECT_ECID_UPDATE = 7;
+	static final int PERSISTENCE_READ = 8;
+	static final int PERSISTENCE_WRITE = 9;
+	static final int BOOT_WAIT = 10;
+	private static final String[] HISTOGRAM_NAMES = {
+		"handler.updateIdentities",
+		"handler.removeIdentity",
+		"handler.requestReset",
+		"handler.urlVariablesRequest",
+		"handler.getIdentifiersRequest",
+		"handler.identityVersionRequest",
+		"handler.findNamespacesRequest",
+		"handler.identityDirectECIDUpdate",
+		"persistence.read",
+		"persistence.write",
+		"boot.wait"
+	};
+
+	// Upper bounds of the histogram buckets in microseconds; the last bucket counts all larger values
+	private static final long[] BUCKET_BOUNDS_MICROS = {
+		50,
+		100,
+		250,
+		500,
+		1_000,
+		2_500,
+		5_000,
+		10_000,
+		25_000,
+		50_000,
+		100_000,
+		250_000,
+		500_000,
+		1_000_000
+	};
+
+	// Layout of each histogram in the histograms array: count, total nanos, max nanos, then one slot per bucket
+	private static final int COUNT_OFFSET = 0;
+	private static final int TOTAL_OFFSET = 1;
+	private static final int MAX_OFFSET = 2;
+	private static final int BUCKETS_OFFSET = 3;
+	private static final int HISTOGRAM_SLOTS = BUCKETS_OFFSET + BUCKET_BOUNDS_MICROS.length + 1;
+
+	private static final AtomicLongArray counters = new AtomicLongArray(COUNTER_NAMES.length);
+	private static final AtomicLongArray gauges = new AtomicLongArray(GAUGE_NAMES.length);
+	private static final AtomicLongArray histograms = new AtomicLongArray(HISTOGRAM_NAMES.length * HISTOGRAM_SLOTS);
+
+	private static volatile boolean enabled;
+
+	private IdentityMetrics() {}
+
+	static boolean isEnabled() {
+		return enabled;
+	}
+
+	static void setEnabled(final boolean isEnabled) {
+		enabled = isEnabled;
+	}
+
+	/**
+	 * @return the current {@link System#nanoTime()} if metrics are enabled, otherwise {@code 0}
+	 */
+	static long startTimer() {
+		return enabled ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Records the time elapsed since {@code startNanos} in the given histogram.
+	 *
+	 * @param histogram  one of the histogram constants of this class
+	 * @param startNanos value returned by {@link #startTimer()}; {@code 0} is ignored
+	 */
+	static void recordDuration(final int histogram, final long startNanos) {
+		if (!enabled || startNanos == 0) {
+			return;
+		}
+
+		final long durationNanos = Math.max(0, System.nanoTime() - startNanos);
+		final int base = histogram * HISTOGRAM_SLOTS;
+		histograms.incrementAndGet(base + COUNT_OFFSET);
+		histograms.addAndGet(base + TOTAL_OFFSET, durationNanos);
+		histograms.incrementAndGet(base + BUCKETS_OFFSET + bucketIndex(durationNanos / 1_000));
+
+		long max = histograms.get(base + MAX_OFFSET);
+
+		while (durationNanos > max && !histograms.compareAndSet(base + MAX_OFFSET, max, durationNanos)) {
+			max = histograms.get(base + MAX_OFFSET);
+		}
+	}
+
+	/**
+	 * Adds {@code delta} to the given counter.
+	 *
+	 * @param counter one of the counter constants of this class
+	 * @param delta   the amount to add
+	 */
+	static void add(final int counter, final long delta) {
+		if (enabled) {
+			counters.addAndGet(counter, delta);
+		}
+	}
+
+	/**
+	 * Sets the given gauge to {@code value}.
+	 *
+	 * @param gauge one of the gauge constants of this class
+	 * @param value the current value
+	 */
+	static void setGauge(final int gauge, final long value) {
+		if (enabled) {
+			gauges.set(gauge, value);
+		}
+	}
+
+	/**
+	 * Resets all recorded metrics to zero.
+	 */
+	static void reset() {
+		for (int i = 0; i < counters.length(); i++) {
+			counters.set(i, 0);
+		}
+
+		for (int i = 0; i < gauges.length(); i++) {
+			gauges.set(i, 0);
+		}
+
+		for (int i = 0; i < histograms.length(); i++) {
+			histograms.set(i, 0);
+		}
+	}
+
+	/**
+	 * Copies the current value of all metrics. Concurrent updates may be partially included.
+	 *
+	 * @return a new {@link IdentityMetricsSnapshot}
+	 */
+	static IdentityMetricsSnapshot snapshot() {
+		final Map<String, Long> counterValues = new HashMap<>();
+
+		for (int i = 0; i < COUNTER_NAMES.length; i++) {
+			counterValues.put(COUNTER_NAMES[i], counters.get(i));
+		}
+
+		final Map<String, Long> gaugeValues = new HashMap<>();
+
+		for (int i = 0; i < GAUGE_NAMES.length; i++) {
+			gaugeValues.put(GAUGE_NAMES[i], gauges.get(i));
+		}
+
+		final Map<String, IdentityMetricsSnapshot.LatencyHistogram> histogramValues = new HashMap<>();
+
+		for (int i = 0; i < HISTOGRAM_NAMES.length; i++) {
+			final int base = i * HISTOGRAM_SLOTS;
+			final long[] bucketCounts = new long[BUCKET_BOUNDS_MICROS.length + 1];
+
+			for (int bucket = 0; bucket < bucketCounts.length; bucket++) {
+				bucketCounts[bucket] = histograms.get(base + BUCKETS_OFFSET + bucket);
+			}
+
+			histogramValues.put(
+				HISTOGRAM_NAMES[i],
+				new IdentityMetricsSnapshot.LatencyHistogram(
+					histograms.get(base + COUNT_OFFSET),
+					histograms.get(base + TOTAL_OFFSET),
+					histograms.get(base + MAX_OFFSET),
+					BUCKET_BOUNDS_MICROS.clone(),
+					bucketCounts
+				)
+			);
+		}
+
+		return new IdentityMetricsSnapshot(counterValues, gaugeValues, histogramValues);
+	}
+
+	private static int bucketIndex(final long durationMicros) {
+		for (int i = 0; i < BUCKET_BOUNDS_MICROS.length; i++) {
+			if (durationMicros <= BUCKET_BOUNDS_MICROS[i]) {
+				return i;
+			}
+		}
+
+		return BUCKET_BOUNDS_MICROS.length;
+	}
+}
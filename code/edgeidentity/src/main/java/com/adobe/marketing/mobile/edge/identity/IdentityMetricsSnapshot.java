@@ -0,0 +1,181 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.edge.identity;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Point-in-time copy of the metrics recorded by the Identity extension.
+ *
+ * @see Identity#getMetricsSnapshot()
+ */
+public final class IdentityMetricsSnapshot {
+
+	private final Map<String, Long> counters;
+	private final Map<String, Long> gauges;
+	private final Map<String, LatencyHistogram> histograms;
+
+	IdentityMetricsSnapshot(
+		final Map<String, Long> counters,
+		final Map<String, Long> gauges,
+		final Map<String, LatencyHistogram> histograms
+	) {
+		this.counters = Collections.unmodifiableMap(counters);
+		this.gauges = Collections.unmodifiableMap(gauges);
+		this.histograms = Collections.unmodifiableMap(histograms);
+	}
+
+	/**
+	 * Counters are cumulative totals, for example {@code persistence.write.bytes}.
+	 *
+	 * @return an unmodifiable map of all counters keyed on name
+	 */
+	@NonNull
+	public Map<String, Long> getCounters() {
+		return counters;
+	}
+
+	/**
+	 * Gauges hold the last recorded value, for example {@code identitymap.items}.
+	 *
+	 * @return an unmodifiable map of all gauges keyed on name
+	 */
+	@NonNull
+	public Map<String, Long> getGauges() {
+		return gauges;
+	}
+
+	/**
+	 * Latency histograms, for example {@code handler.updateIdentities}.
+	 *
+	 * @return an unmodifiable map of all latency histograms keyed on name
+	 */
+	@NonNull
+	public Map<String, LatencyHistogram> getHistograms() {
+		return histograms;
+	}
+
+	/**
+	 * @param name the counter name
+	 * @return the counter value, or 0 if no such counter exists
+	 */
+	public long getCounter(@NonNull final String name) {
+		final Long value = counters.get(name);
+		return value != null ? value : 0;
+	}
+
+	/**
+	 * @param name the gauge name
+	 * @return the gauge value, or 0 if no such gauge exists
+	 */
+	public long getGauge(@NonNull final String name) {
+		final Long value = gauges.get(name);
+		return value != null ? value : 0;
+	}
+
+	/**
+	 * @param name the histogram name
+	 * @return the {@link LatencyHistogram}, or null if no such histogram exists
+	 */
+	@Nullable
+	public LatencyHistogram getHistogram(@NonNull final String name) {
+		return histograms.get(name);
+	}
+
+	@NonNull
+	@Override
+	public String toString() {
+		return "{counters=" + counters + ", gauges=" + gauges + ", histograms=" + histograms + "}";
+	}
+
+	/**
+	 * Distribution of the recorded durations of one operation.
+	 */
+	public static final class LatencyHistogram {
+
+		private final long count;
+		private final long totalNanos;
+		private final long maxNanos;
+		private final long[] bucketUpperBoundsMicros;
+		private final long[] bucketCounts;
+
+		LatencyHistogram(
+			final long count,
+			final long totalNanos,
+			final long maxNanos,
+			final long[] bucketUpperBoundsMicros,
+			final long[] bucketCounts
+		) {
+			this.count = count;
+			this.totalNanos = totalNanos;
+			this.maxNanos = maxNanos;
+			this.bucketUpperBoundsMicros = bucketUpperBoundsMicros;
+			this.bucketCounts = bucketCounts;
+		}
+
+		/**
+		 * @return the number of recorded durations
+		 */
+		public long getCount() {
+			return count;
+		}
+
+		/**
+		 * @return the sum of all recorded durations in nanoseconds
+		 */
+		public long getTotalNanos() {
+			return totalNanos;
+		}
+
+		/**
+		 * @return the longest recorded duration in nanoseconds
+		 */
+		public long getMaxNanos() {
+			return maxNanos;
+		}
+
+		/**
+		 * @return the mean recorded duration in nanoseconds, or 0 if nothing was recorded
+		 */
+		public long getMeanNanos() {
+			return count > 0 ? totalNanos / count : 0;
+		}
+
+		/**
+		 * The inclusive upper bound of each bucket in microseconds.
+		 * There is one more bucket than bounds; the last bucket counts all durations above the last bound.
+		 *
+		 * @return a copy of the bucket upper bounds
+		 */
+		@NonNull
+		public long[] getBucketUpperBoundsMicros() {
+			return bucketUpperBoundsMicros.clone();
+		}
+
+		/**
+		 * @return a copy of the number of durations recorded in each bucket
+		 */
+		@NonNull
+		public long[] getBucketCounts() {
+			return bucketCounts.clone();
+		}
+
+		@NonNull
+		@Override
+		public String toString() {
+			return "{count=" + count + ", meanNanos=" + getMeanNanos() + ", maxNanos=" + maxNanos + "}";
+		}
+	}
+}
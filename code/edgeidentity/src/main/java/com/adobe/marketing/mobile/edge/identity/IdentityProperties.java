@@ -11,11 +11,10 @@
 
 package com.adobe.marketing.mobile.edge.identity;
 
-import static com.adobe.marketing.mobile.edge.identity.IdentityConstants.LOG_TAG;
-
-import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.util.DataReader;
 import com.adobe.marketing.mobile.util.StringUtils;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -31,10 +30,10 @@ class IdentityProperties {
 		IdentityConstants.Namespaces.IDFA
 	);
 
-	private final IdentityMap identityMap;
+	private final IndexedIdentityMap identityMap;
 
 	IdentityProperties() {
-		this.identityMap = new IdentityMap();
+		this.identityMap = new IndexedIdentityMap();
 	}
 
 	/**
@@ -43,8 +42,15 @@ class IdentityProperties {
 	 * @param xdmData a map representing the initialization data for this {@code IdentityProperties} instance
 	 */
 	IdentityProperties(final Map<String, Object> xdmData) {
-		IdentityMap map = IdentityMap.fromXDMMap(xdmData);
-		this.identityMap = map == null ? new IdentityMap() : map; // always keep an empty identity map so there is no need for null check
+		IndexedIdentityMap map = IdentityMap.fromXDMMap(xdmData, new IndexedIdentityMap());
+
+		if (map != null) {
+			map.restoreUpdateTimes(
+				DataReader.optTypedMap(Object.class, xdmData, IdentityConstants.EventDataKeys.IDENTITY_UPDATES, null)
+			);
+		}
+
+		this.identityMap = map == null ? new IndexedIdentityMap() : map; // always keep an empty identity map so there is no need for null check
 	}
 
 	/**
@@ -153,7 +159,7 @@ class IdentityProperties {
 
 		// do not set secondary ECID if primary ECID is not set
 		if (getECID() == null) {
-			Log.debug(LOG_TAG, LOG_SOURCE, "Cannot set secondary ECID value as no primary ECID exists.");
+			IdentityLog.debug(LOG_SOURCE, "Cannot set secondary ECID value as no primary ECID exists.");
 			return;
 		}
 
@@ -208,6 +214,22 @@ class IdentityProperties {
 		identityMap.merge(map);
 	}
 
+	/**
+	 * Update the customer identifiers by merging the passed in {@link IdentityMap} with the current identifiers,
+	 * then evicts the least recently updated customer identifiers until the given {@link IdentityMapLimits} are met.
+	 * Identifiers in the reserved namespaces are never evicted.
+	 *
+	 * @param map    the {@code IdentityMap} containing customer identifiers to add or update with the current customer identifiers
+	 * @param limits the {@code IdentityMapLimits} to enforce on the customer identifiers
+	 * @see #updateCustomerIdentifiers(IdentityMap)
+	 */
+	void updateCustomerIdentifiers(final IdentityMap map, final IdentityMapLimits limits) {
+		updateCustomerIdentifiers(map);
+		// expired identifiers must not take capacity from live ones
+		identityMap.removeExpiredItems(System.currentTimeMillis());
+		identityMap.enforceLimits(limits, reservedNamespaces);
+	}
+
 	/**
 	 * Remove customer identifiers specified in passed in {@link IdentityMap} from the current identifiers.
 	 * <p>
@@ -223,6 +245,32 @@ class IdentityProperties {
 		identityMap.remove(map);
 	}
 
+	/**
+	 * Remove all customer identifiers in the given namespaces from the current identifiers.
+	 * Namespaces are matched case sensitively.
+	 * <p>
+	 * Identifiers with following namespaces are prohibited from removing using the API
+	 * - ECID
+	 * - IDFA
+	 * - GAID
+	 *
+	 * @param namespaces the namespaces to clear
+	 */
+	void clearCustomerNamespaces(final Collection<String> namespaces) {
+		if (namespaces == null) {
+			return;
+		}
+
+		for (final String namespace : namespaces) {
+			if (isReservedNamespace(namespace)) {
+				IdentityLog.debug(LOG_SOURCE, "Clearing identifiers in namespace %s is not allowed.", namespace);
+				continue;
+			}
+
+			identityMap.removeItemsForNamespace(namespace);
+		}
+	}
+
 	/**
 	 * Converts this {@code IdentityProperties} into an event data representation in XDM format
 	 * Use this method to cast the {@link IdentityMap} as {@code Map<String, Object>} to be passed as EventData for an SDK Event.
@@ -245,37 +293,120 @@ class IdentityProperties {
 		return identityMap.asXDMMap(allowEmpty);
 	}
 
+	/**
+	 * Converts the given namespaces of this {@code IdentityProperties} into an event data representation in XDM format
+	 *
+	 * @param allowEmpty If the requested namespaces contain no data, return a dictionary with a single {@link IdentityMap} key,
+	 *                   otherwise an empty map is returned.
+	 * @param namespaces the namespaces to include; if null, all namespaces are included
+	 * @return A {@link Map} representing the requested namespaces in XDM format
+	 */
+	Map<String, Object> toXDMData(final boolean allowEmpty, final Collection<String> namespaces) {
+		return identityMap.asXDMMap(allowEmpty, namespaces);
+	}
+
+	/**
+	 * Returns the namespaces of the current identifiers containing the given identifier, matched case insensitively.
+	 *
+	 * @param id the identifier to look up
+	 * @return the namespaces containing {@code id}, or an empty list if no namespace contains it
+	 */
+	List<String> getNamespacesForIdentifier(final String id) {
+		return identityMap.getNamespacesForIdentifier(id);
+	}
+
+	/**
+	 * @return the 64-bit hash of the current identifiers as shared in the XDM shared state
+	 * @see IdentityMap#contentHash(long)
+	 */
+	long getContentHash() {
+		return identityMap.contentHash(System.currentTimeMillis());
+	}
+
+	/**
+	 * @return the number of namespaces in the current identifiers
+	 */
+	int getNamespaceCount() {
+		return identityMap.getNamespaceCount();
+	}
+
+	/**
+	 * @return the number of identifiers in the current identifiers
+	 */
+	int getItemCount() {
+		return identityMap.getItemCount();
+	}
+
+	/**
+	 * Converts this {@code IdentityProperties} into a representation for persistence.
+	 * Unlike {@link #toXDMData(boolean)}, the result includes the expiry and last update times of the identifiers
+	 * and must not be used as shared state.
+	 *
+	 * @return {@code Map} representation of these properties for persistence
+	 */
+	Map<String, Object> toPersistenceData() {
+		final Map<String, Object> data = identityMap.asXDMMapWithExpiries(false);
+		final Map<String, Object> updateTimes = identityMap.getUpdateTimes(reservedNamespaces);
+
+		if (!data.isEmpty() && !updateTimes.isEmpty()) {
+			data.put(IdentityConstants.EventDataKeys.IDENTITY_UPDATES, updateTimes);
+		}
+
+		return data;
+	}
+
+	/**
+	 * Removes all expired identifiers from the current identifiers.
+	 *
+	 * @param now the current epoch time in milliseconds
+	 * @return true if any identifier was removed
+	 */
+	boolean removeExpiredIdentifiers(final long now) {
+		return identityMap.removeExpiredItems(now) > 0;
+	}
+
+	/**
+	 * @return the earliest expiry time of the current identifiers in epoch milliseconds, or
+	 * {@link IdentityItem#NO_EXPIRY} if no identifier expires
+	 * @see IdentityMap#getNextExpiresAt()
+	 */
+	long getNextExpiresAt() {
+		return identityMap.getNextExpiresAt();
+	}
+
+	/**
+	 * Checks if the given namespace is one of the {@link #reservedNamespaces} (case insensitive).
+	 *
+	 * @param namespace the namespace to check
+	 * @return true if {@code namespace} is reserved
+	 */
+	private boolean isReservedNamespace(final String namespace) {
+		return NamespaceRegistry.isReserved(namespace);
+	}
+
 	/**
 	 * Filter out any items contained in reserved namespaces from the given {@link IdentityMap}.
-	 * The list of reserved namespaces can be found at {@link #reservedNamespaces}.
+	 * The namespaces of the given map are checked once each against the reserved namespaces, case insensitively.
 	 *
 	 * @param identityMap the {@code IdentityMap} to filter out items contained in reserved namespaces.
 	 */
 	private void removeIdentitiesWithReservedNamespaces(final IdentityMap identityMap) {
-		for (final String reservedNamespace : reservedNamespaces) {
-			if (identityMap.clearItemsForNamespace(reservedNamespace)) {
-				if (
-					reservedNamespace.equalsIgnoreCase(IdentityConstants.Namespaces.GAID) ||
-					reservedNamespace.equalsIgnoreCase(IdentityConstants.Namespaces.IDFA)
-				) {
-					Log.debug(
-						LOG_TAG,
-						LOG_SOURCE,
-						String.format(
-							"Operation not allowed for namespace %s; use MobileCore.setAdvertisingIdentifier instead.",
-							reservedNamespace
-						)
-					);
-				} else {
-					Log.debug(
-						LOG_TAG,
-						LOG_SOURCE,
-						String.format(
-							"Updating/Removing identifiers in namespace %s is not allowed.",
-							reservedNamespace
-						)
-					);
-				}
+		for (final String removedNamespace : identityMap.removeReservedNamespaces()) {
+			if (
+				removedNamespace.equalsIgnoreCase(IdentityConstants.Namespaces.GAID) ||
+				removedNamespace.equalsIgnoreCase(IdentityConstants.Namespaces.IDFA)
+			) {
+				IdentityLog.debug(
+					LOG_SOURCE,
+					"Operation not allowed for namespace %s; use MobileCore.setAdvertisingIdentifier instead.",
+					removedNamespace
+				);
+			} else {
+				IdentityLog.debug(
+					LOG_SOURCE,
+					"Updating/Removing identifiers in namespace %s is not allowed.",
+					removedNamespace
+				);
 			}
 		}
 	}
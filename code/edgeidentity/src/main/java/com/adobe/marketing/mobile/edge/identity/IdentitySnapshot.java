@@ -0,0 +1,61 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.edge.identity;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Result of a conditional identities request, holding the current {@link IdentityVersion} and, when the identifiers
+ * changed since the version passed with the request, the current {@link IdentityMap}.
+ *
+ * @see Identity#getIdentitiesIfChanged(IdentityVersion, com.adobe.marketing.mobile.AdobeCallback)
+ */
+public final class IdentitySnapshot {
+
+	private final IdentityVersion version;
+	private final IdentityMap identityMap;
+
+	IdentitySnapshot(final IdentityVersion version, final IdentityMap identityMap) {
+		this.version = version;
+		this.identityMap = identityMap;
+	}
+
+	/**
+	 * @return the version stamp of the current identifiers; pass it with the next conditional request
+	 */
+	@NonNull
+	public IdentityVersion getVersion() {
+		return version;
+	}
+
+	/**
+	 * @return the current identifiers, or null if they did not change since the version passed with the request
+	 */
+	@Nullable
+	public IdentityMap getIdentityMap() {
+		return identityMap;
+	}
+
+	/**
+	 * @return true if the identifiers changed since the version passed with the request
+	 */
+	public boolean isModified() {
+		return identityMap != null;
+	}
+
+	@NonNull
+	@Override
+	public String toString() {
+		return "{\"version\": " + version + ", \"modified\": " + isModified() + "}";
+	}
+}
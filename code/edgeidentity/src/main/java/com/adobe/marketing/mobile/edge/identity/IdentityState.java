@@ -11,22 +11,24 @@
 
 package com.adobe.marketing.mobile.edge.identity;
 
-import static com.adobe.marketing.mobile.edge.identity.IdentityConstants.LOG_TAG;
-
 import androidx.annotation.NonNull;
 import androidx.annotation.VisibleForTesting;
 import com.adobe.marketing.mobile.Event;
 import com.adobe.marketing.mobile.EventSource;
 import com.adobe.marketing.mobile.EventType;
-import com.adobe.marketing.mobile.MobileCore;
 import com.adobe.marketing.mobile.SharedStateResult;
 import com.adobe.marketing.mobile.SharedStateStatus;
-import com.adobe.marketing.mobile.services.Log;
 import com.adobe.marketing.mobile.services.ServiceProvider;
 import com.adobe.marketing.mobile.util.DataReader;
 import com.adobe.marketing.mobile.util.MapUtils;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Manages the business logic of this Identity extension
@@ -35,25 +37,93 @@ class IdentityState {
 
 	private static final String LOG_SOURCE = "IdentityState";
 
+	private static final Clock SYSTEM_CLOCK = System::currentTimeMillis;
+
+	// The ad ID consent request can only carry one of two payloads, so both are built once
+	private static final Map<String, Object> CONSENT_AD_ID_YES_DATA = buildConsentAdIdRequestData(
+		IdentityConstants.XDMKeys.Consent.YES
+	);
+	private static final Map<String, Object> CONSENT_AD_ID_NO_DATA = buildConsentAdIdRequestData(
+		IdentityConstants.XDMKeys.Consent.NO
+	);
+
+	// Set once any IdentityState instance completes boot; read by the public API thread
+	private static volatile boolean bootCompleted;
+
 	private final IdentityStorageManager identityStorageManager;
+	private final Clock clock;
 	private IdentityProperties identityProperties;
+	private IdentityMapLimits identityMapLimits = IdentityMapLimits.UNLIMITED;
 	private boolean hasBooted;
+	private long bootWaitStartNanos;
+
+	// Start and deadline, in epoch milliseconds, of the boot wait for the direct Identity shared state; 0 if not set
+	private long directIdentityWaitStartMillis;
+	private long bootDeadlineMillis;
+
+	// Version and content hash of the identifiers as last returned by getIdentityVersion
+	private long identityVersion;
+	private long identityHash;
+
+	// Background read of the direct Identity persisted ECID started by prefetchDirectIdentityEcid, or null
+	private FutureTask<ECID> directIdentityEcidPrefetch;
+
+	// Latest ad ID deferred by the ad ID debounce window, or null
+	private String pendingAdId;
+
+	// Sequence of the debounce window of pendingAdId; a flush scheduled for an earlier window is ignored
+	private long pendingAdIdSequence;
 
 	IdentityState() {
 		this(new IdentityStorageManager(ServiceProvider.getInstance().getDataStoreService()));
 	}
 
+	@VisibleForTesting
+	IdentityState(final IdentityStorageManager identityStorageManager) {
+		this(identityStorageManager, SYSTEM_CLOCK);
+	}
+
 	/**
-	 * Loads the persisted identities (if any) into {@link #identityProperties}
+	 * Loads the persisted identities (if any) into {@link #identityProperties}.
+	 *
+	 * @param identityStorageManager the {@link IdentityStorageManager} to load and save identities
+	 * @param clock                  the {@link Clock} measuring the boot timeout
 	 */
 	@VisibleForTesting
-	IdentityState(final IdentityStorageManager identityStorageManager) {
+	IdentityState(final IdentityStorageManager identityStorageManager, final Clock clock) {
 		this.identityStorageManager = identityStorageManager;
+		this.clock = clock;
 
 		final IdentityProperties persistedProperties = identityStorageManager.loadPropertiesFromPersistence();
 		this.identityProperties = (persistedProperties != null) ? persistedProperties : new IdentityProperties();
 	}
 
+	/**
+	 * Starts reading the direct Identity extension's persisted ECID on {@code executor} if boot may need it, that is
+	 * if boot has not completed and no ECID is persisted, so that boot does not read it only once the EventHub
+	 * shared state is set. The read is started at most once and its result is used by the next boot attempt;
+	 * if boot needs the ECID before {@code executor} runs the read, boot runs it instead.
+	 *
+	 * @param executor the {@link Executor} reading the ECID in the background
+	 */
+	void prefetchDirectIdentityEcid(@NonNull final Executor executor) {
+		if (hasBooted || directIdentityEcidPrefetch != null || identityProperties.getECID() != null) {
+			return;
+		}
+
+		final FutureTask<ECID> prefetch = new FutureTask<>(
+			identityStorageManager::loadEcidFromDirectIdentityPersistence
+		);
+		directIdentityEcidPrefetch = prefetch;
+
+		try {
+			executor.execute(prefetch);
+		} catch (final RejectedExecutionException e) {
+			// boot runs the read when it needs the ECID
+			IdentityLog.debug(LOG_SOURCE, "Failed to start reading the direct Identity ECID in the background: %s", e);
+		}
+	}
+
 	/**
 	 * @return The current {@link IdentityProperties} for this identity state
 	 */
@@ -62,6 +132,45 @@ class IdentityState {
 		return identityProperties;
 	}
 
+	/**
+	 * Returns the version stamp of the current identifiers, after updating it with {@link #updateIdentityVersion()}.
+	 *
+	 * @return the current {@link IdentityVersion}
+	 */
+	@NonNull
+	IdentityVersion getIdentityVersion() {
+		updateIdentityVersion();
+		return new IdentityVersion(identityVersion, identityHash);
+	}
+
+	/**
+	 * Increases the version of the identifiers when their content hash differs from the hash of the current version,
+	 * so the version changes only when the shared identifiers change. Called each time the identifiers are shared.
+	 * The content hash is maintained by the identity map, which hashes again only the namespaces changed since.
+	 *
+	 * @return true if the version was increased
+	 */
+	boolean updateIdentityVersion() {
+		final long hash = identityProperties.getContentHash();
+
+		if (identityVersion != 0 && hash == identityHash) {
+			return false;
+		}
+
+		identityHash = hash;
+		identityVersion++;
+		return true;
+	}
+
+	/**
+	 * Sets the {@link IdentityMapLimits} enforced on customer identifiers by {@link #updateCustomerIdentifiers(IdentityMap)}.
+	 *
+	 * @param limits the limits to enforce; null removes all limits
+	 */
+	void setIdentityMapLimits(final IdentityMapLimits limits) {
+		identityMapLimits = limits != null ? limits : IdentityMapLimits.UNLIMITED;
+	}
+
 	/**
 	 * Completes init for this Identity extension.
 	 * If no ECID is loaded from persistence (ideally meaning first launch), attempts to migrate existing ECID
@@ -78,6 +187,12 @@ class IdentityState {
 			return true;
 		}
 
+		IdentityMetrics.add(IdentityMetrics.BOOT_ATTEMPTS, 1);
+
+		if (bootWaitStartNanos == 0) {
+			bootWaitStartNanos = IdentityMetrics.startTimer();
+		}
+
 		// Reuse the ECID from Identity Direct (if registered) or generate new ECID on first launch
 		if (identityProperties.getECID() == null) {
 			// Wait for all extensions to be registered as forthcoming logic depends on Identity Direct state.
@@ -92,14 +207,14 @@ class IdentityState {
 			}
 
 			// Attempt to get ECID from direct Identity persistence to migrate an existing ECID
-			final ECID directIdentityEcid = identityStorageManager.loadEcidFromDirectIdentityPersistence();
+			final ECID directIdentityEcid = loadEcidFromDirectIdentityPersistence();
 
 			if (directIdentityEcid != null) {
 				identityProperties.setECID(directIdentityEcid);
-				Log.debug(
-					LOG_TAG,
+				IdentityLog.debug(
 					LOG_SOURCE,
-					"On bootup Loading ECID from direct Identity extension '" + directIdentityEcid + "'"
+					"On bootup Loading ECID from direct Identity extension '%s'",
+					directIdentityEcid
 				);
 			}
 			// If direct Identity has no persisted ECID, check if direct Identity is registered with the SDK
@@ -110,43 +225,125 @@ class IdentityState {
 					null
 				);
 
+				if (sharedStateResult != null && sharedStateResult.getStatus() == SharedStateStatus.SET) {
+					final Map<String, Object> identityDirectSharedState = sharedStateResult.getValue();
+					handleECIDFromIdentityDirect(EventUtils.getECID(identityDirectSharedState));
+				}
 				// If there is no direct Identity shared state, abort boot-up and try again when direct Identity shares its state
-				if (sharedStateResult == null || sharedStateResult.getStatus() != SharedStateStatus.SET) {
-					Log.debug(
-						LOG_TAG,
+				else if (!isBootDeadlinePassed(callback)) {
+					IdentityLog.debug(
 						LOG_SOURCE,
 						"On bootup direct Identity extension is registered, waiting for its state change."
 					);
 					return false;
 				}
-
-				final Map<String, Object> identityDirectSharedState = sharedStateResult.getValue();
-				handleECIDFromIdentityDirect(EventUtils.getECID(identityDirectSharedState));
+				// Stop waiting for a direct Identity state which may never be set, as it blocks all Edge Identity events.
+				// If direct Identity sets its state later, its ECID is kept as the secondary ECID.
+				else {
+					final ECID newEcid = new ECID();
+					identityProperties.setECID(newEcid);
+					IdentityLog.warning(
+						LOG_SOURCE,
+						"On bootup direct Identity extension did not share its state before the boot timeout, generating new ECID '%s'",
+						newEcid
+					);
+				}
 			}
 			// Generate a new ECID as the direct Identity extension is not registered with the SDK and there was no direct Identity persisted ECID
 			else {
-				identityProperties.setECID(new ECID());
-				Log.debug(
-					LOG_TAG,
-					LOG_SOURCE,
-					"Generating new ECID on bootup '" + identityProperties.getECID().toString() + "'"
-				);
+				final ECID newEcid = new ECID();
+				identityProperties.setECID(newEcid);
+				IdentityLog.debug(LOG_SOURCE, "Generating new ECID on bootup '%s'", newEcid);
 			}
 
 			identityStorageManager.savePropertiesToPersistence(identityProperties);
 		}
 
 		hasBooted = true;
-		Log.debug(LOG_TAG, LOG_SOURCE, "Edge Identity has successfully booted up");
+		bootCompleted = true;
+		IdentityMetrics.recordDuration(IdentityMetrics.BOOT_WAIT, bootWaitStartNanos);
+		IdentityLog.debug(LOG_SOURCE, "Edge Identity has successfully booted up");
 		callback.createXDMSharedState(identityProperties.toXDMData(), null);
 
 		return hasBooted;
 	}
 
+	/**
+	 * @return true if this identity state has booted and created its first shared state
+	 */
+	boolean hasBooted() {
+		return hasBooted;
+	}
+
+	/**
+	 * Returns the time at which boot stops waiting for the direct Identity extension's shared state, as set by the
+	 * {@link IdentityConstants.SharedState.Configuration#BOOT_TIMEOUT_MILLIS} configuration.
+	 *
+	 * @return the boot deadline in epoch milliseconds, or 0 if boot is not waiting with a deadline
+	 */
+	long getBootDeadlineMillis() {
+		return hasBooted ? 0 : bootDeadlineMillis;
+	}
+
+	/**
+	 * Returns the time left until the given time, measured with the same {@link Clock} as the boot deadline.
+	 *
+	 * @param epochMillis the time in epoch milliseconds, such as {@link #getBootDeadlineMillis()}
+	 * @return the milliseconds until {@code epochMillis}, or 0 if it has passed
+	 */
+	long getMillisUntil(final long epochMillis) {
+		return Math.max(epochMillis - clock.currentTimeMillis(), 0);
+	}
+
+	/**
+	 * Checks if the boot timeout has elapsed since boot started waiting for the direct Identity shared state.
+	 * The wait starts at the first call, and the timeout is read from the latest Configuration shared state.
+	 *
+	 * @param callback {@link SharedStateCallback} used to get the Configuration shared state
+	 * @return true if a boot timeout is configured and has elapsed
+	 */
+	private boolean isBootDeadlinePassed(final SharedStateCallback callback) {
+		final long now = clock.currentTimeMillis();
+
+		if (directIdentityWaitStartMillis == 0) {
+			directIdentityWaitStartMillis = now;
+		}
+
+		final SharedStateResult configSharedStateResult = callback.getSharedState(
+			IdentityConstants.SharedState.Configuration.NAME,
+			null
+		);
+		final long timeoutMillis = EventUtils.getBootTimeoutMillis(
+			configSharedStateResult != null ? configSharedStateResult.getValue() : null
+		);
+
+		if (timeoutMillis <= 0) {
+			bootDeadlineMillis = 0;
+			return false;
+		}
+
+		bootDeadlineMillis = directIdentityWaitStartMillis + timeoutMillis;
+		return now >= bootDeadlineMillis;
+	}
+
+	/**
+	 * @return true if the Edge Identity extension has completed its boot in this process
+	 */
+	static boolean isBootCompleted() {
+		return bootCompleted;
+	}
+
+	@VisibleForTesting
+	static void resetBootCompleted() {
+		bootCompleted = false;
+	}
+
 	/**
 	 * Clears all identities and regenerates a new ECID value, then saves the new identities to persistence.
 	 */
 	void resetIdentifiers() {
+		// the ad ID is cleared by the reset, so a deferred ad ID change is dropped with it
+		pendingAdId = null;
 		identityProperties = new IdentityProperties();
 		identityProperties.setECID(new ECID());
 		identityProperties.setECIDSecondary(null);
@@ -154,12 +351,13 @@ class IdentityState {
 	}
 
 	/**
-	 * Update the customer identifiers by merging the passed in {@link IdentityMap} with the current identifiers present in {@link #identityProperties}.
+	 * Update the customer identifiers by merging the passed in {@link IdentityMap} with the current identifiers present in {@link #identityProperties},
+	 * evicting the least recently updated identifiers which exceed the current {@link IdentityMapLimits}.
 	 *
 	 * @param map the {@code IdentityMap} containing customer identifiers to add or update with the current customer identifiers
 	 */
 	void updateCustomerIdentifiers(final IdentityMap map) {
-		identityProperties.updateCustomerIdentifiers(map);
+		identityProperties.updateCustomerIdentifiers(map, identityMapLimits);
 		identityStorageManager.savePropertiesToPersistence(identityProperties);
 	}
 
@@ -173,6 +371,47 @@ class IdentityState {
 		identityStorageManager.savePropertiesToPersistence(identityProperties);
 	}
 
+	/**
+	 * Remove customer identifiers specified in passed in {@link IdentityMap} and all customer identifiers in the
+	 * given namespaces from the current identifiers present in {@link #identityProperties}, then saves them to
+	 * persistence once.
+	 *
+	 * @param map the {@code IdentityMap} with items to remove from current identifiers; may be null
+	 * @param namespaces the namespaces to clear from current identifiers; may be null
+	 */
+	void removeCustomerIdentifiers(final IdentityMap map, final List<String> namespaces) {
+		if (map != null) {
+			identityProperties.removeCustomerIdentifiers(map);
+		}
+
+		identityProperties.clearCustomerNamespaces(namespaces);
+		identityStorageManager.savePropertiesToPersistence(identityProperties);
+	}
+
+	/**
+	 * Removes expired customer identifiers from {@link #identityProperties} and saves them to persistence if any were removed.
+	 *
+	 * @return true if any identifier was removed and a new shared state should be created
+	 */
+	boolean removeExpiredIdentifiers() {
+		if (!identityProperties.removeExpiredIdentifiers(clock.currentTimeMillis())) {
+			return false;
+		}
+
+		identityStorageManager.savePropertiesToPersistence(identityProperties);
+		return true;
+	}
+
+	/**
+	 * Returns the time at which {@link #removeExpiredIdentifiers()} should next be called to remove the earliest
+	 * expiring customer identifier.
+	 *
+	 * @return the earliest expiry time in epoch milliseconds, or {@link IdentityItem#NO_EXPIRY} if no identifier expires
+	 */
+	long getNextExpiresAt() {
+		return identityProperties.getNextExpiresAt();
+	}
+
 	/**
 	 * This is the main entrypoint for handling ad ID changes. When an ad ID change is detected, it will:
 	 * <ul>
@@ -180,12 +419,57 @@ class IdentityState {
 	 *	   <li>Share the XDM state</li>
 	 * 	   <li>Dispatch consent event - only when ad ID changes from invalid/valid and vice versa</li>
 	 * </ul>
+	 * Any ad ID deferred by {@link #deferAdvertisingIdentifier(Event)} is discarded, as it is older than {@code event}.
 	 *
 	 * @param event the {@link Event} containing the advertising identifier
 	 * @param callback {@link SharedStateCallback} used to create a shared state on the EventHub; should not be null
 	 */
 	void updateAdvertisingIdentifier(final Event event, final SharedStateCallback callback) {
-		final String newAdId = EventUtils.getAdId(event);
+		pendingAdId = null;
+		applyAdvertisingIdentifier(EventUtils.getAdId(event), event, callback);
+	}
+
+	/**
+	 * Defers the ad ID change in {@code event} until
+	 * {@link #flushAdvertisingIdentifier(long, Event, SharedStateCallback)} is called, replacing any ad ID deferred earlier. Ad ID changes deferred between two flushes are collapsed into
+	 * the last one, so a flapping ad ID results in at most one persistence write, one shared state and one consent
+	 * event, and in none if it flaps back to the current ad ID.
+	 *
+	 * @param event the {@link Event} containing the advertising identifier
+	 * @return if no ad ID was deferred yet, the sequence of the new debounce window, for which a flush needs to be
+	 * scheduled; otherwise 0
+	 */
+	long deferAdvertisingIdentifier(final Event event) {
+		final boolean scheduleFlush = pendingAdId == null;
+		pendingAdId = EventUtils.getAdId(event);
+		return scheduleFlush ? ++pendingAdIdSequence : 0;
+	}
+
+	/**
+	 * Applies the ad ID deferred by {@link #deferAdvertisingIdentifier(Event)}, if any, as
+	 * {@link #updateAdvertisingIdentifier(Event, SharedStateCallback)} does. The ad ID is only applied by the flush
+	 * of its own debounce window; a flush scheduled before a reset or an immediate ad ID update is ignored.
+	 *
+	 * @param sequence the sequence returned by {@code deferAdvertisingIdentifier} when the flush was scheduled
+	 * @param event the {@link Event} at which to share the XDM state
+	 * @param callback {@link SharedStateCallback} used to create a shared state on the EventHub; should not be null
+	 */
+	void flushAdvertisingIdentifier(final long sequence, final Event event, final SharedStateCallback callback) {
+		final String newAdId = pendingAdId;
+
+		if (newAdId == null || sequence != pendingAdIdSequence) {
+			return;
+		}
+
+		pendingAdId = null;
+		applyAdvertisingIdentifier(newAdId, event, callback);
+	}
+
+	private void applyAdvertisingIdentifier(
+		final String newAdId,
+		final Event event,
+		final SharedStateCallback callback
+	) {
 		if (identityProperties == null) {
 			identityProperties = new IdentityProperties();
 		}
@@ -201,16 +485,18 @@ class IdentityState {
 		// Ad ID has changed:
 		// Ad ID updated in local state first
 		identityProperties.setAdId(newAdId);
-		// Consent has changed
-		if (newAdId.isEmpty() || currentAdId.isEmpty()) {
-			dispatchAdIdConsentRequestEvent(
-				newAdId.isEmpty() ? IdentityConstants.XDMKeys.Consent.NO : IdentityConstants.XDMKeys.Consent.YES
-			);
-		}
 
 		// Save to persistence
 		identityStorageManager.savePropertiesToPersistence(identityProperties);
 		callback.createXDMSharedState(identityProperties.toXDMData(), event);
+
+		// Consent has changed, dispatched after the shared state so it is read with the new ad ID
+		if (newAdId.isEmpty() || currentAdId.isEmpty()) {
+			dispatchAdIdConsentRequestEvent(
+				newAdId.isEmpty() ? IdentityConstants.XDMKeys.Consent.NO : IdentityConstants.XDMKeys.Consent.YES,
+				callback
+			);
+		}
 	}
 
 	/**
@@ -235,11 +521,7 @@ class IdentityState {
 
 		identityProperties.setECIDSecondary(legacyEcid);
 		identityStorageManager.savePropertiesToPersistence(identityProperties);
-		Log.debug(
-			LOG_TAG,
-			LOG_SOURCE,
-			"Identity direct ECID updated to '" + legacyEcid + "', updating the IdentityMap"
-		);
+		IdentityLog.debug(LOG_SOURCE, "Identity direct ECID updated to '%s', updating the IdentityMap", legacyEcid);
 		return true;
 	}
 
@@ -253,23 +535,49 @@ class IdentityState {
 	private void handleECIDFromIdentityDirect(final ECID legacyEcid) {
 		if (legacyEcid != null) {
 			identityProperties.setECID(legacyEcid); // migrate legacy ECID
-			Log.debug(
-				LOG_TAG,
+			IdentityLog.debug(
 				LOG_SOURCE,
-				"Identity direct ECID '" + legacyEcid + "' " + "was migrated to Edge Identity, updating the IdentityMap"
+				"Identity direct ECID '%s' was migrated to Edge Identity, updating the IdentityMap",
+				legacyEcid
 			);
 		} else { // opt-out scenario or an unexpected state for Identity direct, generate new ECID
-			identityProperties.setECID(new ECID());
-			Log.debug(
-				LOG_TAG,
+			final ECID newEcid = new ECID();
+			identityProperties.setECID(newEcid);
+			IdentityLog.debug(
 				LOG_SOURCE,
-				"Identity direct ECID is null, generating new ECID '" +
-				identityProperties.getECID() +
-				"', updating the IdentityMap"
+				"Identity direct ECID is null, generating new ECID '%s', updating the IdentityMap",
+				newEcid
 			);
 		}
 	}
 
+	/**
+	 * Returns the direct Identity extension's persisted ECID, read by {@link #prefetchDirectIdentityEcid(Executor)}
+	 * if the read was started, otherwise read now. The background read is used once; a later boot attempt reads the
+	 * ECID again in case the direct Identity extension persisted it in the meantime.
+	 *
+	 * @return the direct Identity persisted {@link ECID}, or null if none is persisted
+	 */
+	private ECID loadEcidFromDirectIdentityPersistence() {
+		final FutureTask<ECID> prefetch = directIdentityEcidPrefetch;
+
+		if (prefetch != null) {
+			directIdentityEcidPrefetch = null;
+
+			try {
+				// usually complete by the time the EventHub shared state is set; runs the read here if not yet started
+				prefetch.run();
+				return prefetch.get();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (final ExecutionException e) {
+				IdentityLog.debug(LOG_SOURCE, "Failed to read the direct Identity ECID in the background: %s", e);
+			}
+		}
+
+		return identityStorageManager.loadEcidFromDirectIdentityPersistence();
+	}
+
 	/**
 	 * Check if the Identity direct extension is registered by checking the EventHub's shared state list of registered extensions.
 	 *
@@ -302,20 +610,20 @@ class IdentityState {
 	 * Construct the advertising identifier consent request event data using the provided consent value
 	 * @param consentVal the consent value defined by {@link IdentityConstants.XDMKeys.Consent#YES}
 	 *                   or {@link IdentityConstants.XDMKeys.Consent#NO}
-	 * @return the event data for advertising identifier consent request
+	 * @return the unmodifiable event data for advertising identifier consent request
 	 */
-	private Map<String, Object> buildConsentAdIdRequestData(final String consentVal) {
+	private static Map<String, Object> buildConsentAdIdRequestData(final String consentVal) {
 		// build the map from the bottom level -> up
 		Map<String, Object> consentValMap = new HashMap<>();
 		consentValMap.put(IdentityConstants.XDMKeys.Consent.VAL, consentVal);
 		consentValMap.put(IdentityConstants.XDMKeys.Consent.ID_TYPE, IdentityConstants.Namespaces.GAID);
 
 		Map<String, Object> adIDMap = new HashMap<>();
-		adIDMap.put(IdentityConstants.XDMKeys.Consent.AD_ID, consentValMap);
+		adIDMap.put(IdentityConstants.XDMKeys.Consent.AD_ID, Collections.unmodifiableMap(consentValMap));
 
 		Map<String, Object> consentMap = new HashMap<>();
-		consentMap.put(IdentityConstants.XDMKeys.Consent.CONSENTS, adIDMap);
-		return consentMap;
+		consentMap.put(IdentityConstants.XDMKeys.Consent.CONSENTS, Collections.unmodifiableMap(adIDMap));
+		return Collections.unmodifiableMap(consentMap);
 	}
 
 	/**
@@ -323,9 +631,12 @@ class IdentityState {
 	 *
 	 * @param consentVal the consent value to send in the event, from
 	 * {@link IdentityConstants.XDMKeys.Consent#YES}/{@link IdentityConstants.XDMKeys.Consent#NO}
+	 * @param callback {@link SharedStateCallback} used to dispatch the event through the extension API
 	 */
-	private void dispatchAdIdConsentRequestEvent(final String consentVal) {
-		Map<String, Object> consentData = buildConsentAdIdRequestData(consentVal);
+	private static void dispatchAdIdConsentRequestEvent(final String consentVal, final SharedStateCallback callback) {
+		final Map<String, Object> consentData = IdentityConstants.XDMKeys.Consent.YES.equals(consentVal)
+			? CONSENT_AD_ID_YES_DATA
+			: CONSENT_AD_ID_NO_DATA;
 
 		final Event consentEvent = new Event.Builder(
 			IdentityConstants.EventNames.CONSENT_UPDATE_REQUEST_AD_ID,
@@ -335,6 +646,16 @@ class IdentityState {
 			.setEventData(consentData)
 			.build();
 
-		MobileCore.dispatchEvent(consentEvent);
+		callback.dispatchEvent(consentEvent);
+	}
+
+	/**
+	 * Source of the current time, replaced in tests.
+	 */
+	interface Clock {
+		/**
+		 * @return the current time in epoch milliseconds
+		 */
+		long currentTimeMillis();
 	}
 }
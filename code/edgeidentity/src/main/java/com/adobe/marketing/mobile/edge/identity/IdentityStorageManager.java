@@ -11,10 +11,7 @@
 
 package com.adobe.marketing.mobile.edge.identity;
 
-import static com.adobe.marketing.mobile.edge.identity.IdentityConstants.LOG_TAG;
-
 import com.adobe.marketing.mobile.services.DataStoring;
-import com.adobe.marketing.mobile.services.Log;
 import com.adobe.marketing.mobile.services.NamedCollection;
 import com.adobe.marketing.mobile.util.JSONUtils;
 import com.adobe.marketing.mobile.util.StringUtils;
@@ -46,18 +43,22 @@ class IdentityStorageManager {
 	 */
 	IdentityProperties loadPropertiesFromPersistence() {
 		if (edgeIdentityStore == null) {
-			Log.warning(
-				LOG_TAG,
+			IdentityLog.warningRateLimited(
 				LOG_SOURCE,
 				"EdgeIdentity named collection is null. Unable to load saved identity properties from persistence."
 			);
 			return null;
 		}
+		final long startNanos = IdentityMetrics.startTimer();
 		final String jsonString = edgeIdentityStore.getString(IdentityConstants.DataStoreKey.IDENTITY_PROPERTIES, null);
+		IdentityMetrics.recordDuration(IdentityMetrics.PERSISTENCE_READ, startNanos);
+
+		if (IdentityMetrics.isEnabled()) {
+			IdentityMetrics.add(IdentityMetrics.PERSISTENCE_READ_BYTES, Utils.utf8Length(jsonString));
+		}
 
 		if (jsonString == null) {
-			Log.debug(
-				LOG_TAG,
+			IdentityLog.debug(
 				LOG_SOURCE,
 				"No previous properties were stored in persistence. Current identity properties are null"
 			);
@@ -69,8 +70,7 @@ class IdentityStorageManager {
 			final Map<String, Object> propertyMap = JSONUtils.toMap(jsonObject);
 			return new IdentityProperties(propertyMap);
 		} catch (JSONException exception) {
-			Log.debug(
-				LOG_TAG,
+			IdentityLog.debug(
 				LOG_SOURCE,
 				"Serialization error while reading properties jsonString from persistence. Unable to load saved identity properties from persistence."
 			);
@@ -85,8 +85,7 @@ class IdentityStorageManager {
 	 */
 	void savePropertiesToPersistence(final IdentityProperties properties) {
 		if (edgeIdentityStore == null) {
-			Log.warning(
-				LOG_TAG,
+			IdentityLog.warningRateLimited(
 				LOG_SOURCE,
 				"EdgeIdentity named collection is null. Unable to write identity properties to persistence."
 			);
@@ -94,14 +93,23 @@ class IdentityStorageManager {
 		}
 
 		if (properties == null) {
-			Log.debug(LOG_TAG, LOG_SOURCE, "Identity Properties are null, removing them from persistence.");
+			IdentityLog.debug(LOG_SOURCE, "Identity Properties are null, removing them from persistence.");
 			edgeIdentityStore.remove(IdentityConstants.DataStoreKey.IDENTITY_PROPERTIES);
 			return;
 		}
 
-		final JSONObject jsonObject = new JSONObject(properties.toXDMData());
+		final long startNanos = IdentityMetrics.startTimer();
+		final JSONObject jsonObject = new JSONObject(properties.toPersistenceData());
 		final String jsonString = jsonObject.toString();
 		edgeIdentityStore.setString(IdentityConstants.DataStoreKey.IDENTITY_PROPERTIES, jsonString);
+		IdentityMetrics.recordDuration(IdentityMetrics.PERSISTENCE_WRITE, startNanos);
+
+		if (IdentityMetrics.isEnabled()) {
+			// every change to the identities is persisted, so this is where the map size gauges are kept current
+			IdentityMetrics.add(IdentityMetrics.PERSISTENCE_WRITE_BYTES, Utils.utf8Length(jsonString));
+			IdentityMetrics.setGauge(IdentityMetrics.IDENTITY_MAP_NAMESPACES, properties.getNamespaceCount());
+			IdentityMetrics.setGauge(IdentityMetrics.IDENTITY_MAP_ITEMS, properties.getItemCount());
+		}
 	}
 
 	/**
@@ -111,8 +119,7 @@ class IdentityStorageManager {
 	 */
 	ECID loadEcidFromDirectIdentityPersistence() {
 		if (directIdentityStore == null) {
-			Log.debug(
-				LOG_TAG,
+			IdentityLog.debug(
 				LOG_SOURCE,
 				"Identity direct named collection is null. Unable to load ECID from Identity Direct persistence."
 			);
@@ -0,0 +1,99 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.edge.identity;
+
+import androidx.annotation.NonNull;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An {@link IdentityTraceSink} keeping the most recent {@link IdentityTraceSpan}s in memory.
+ * When the buffer is full, the oldest span is replaced.
+ */
+public class IdentityTraceBuffer implements IdentityTraceSink {
+
+	/**
+	 * The capacity used by {@link #IdentityTraceBuffer()}.
+	 */
+	public static final int DEFAULT_CAPACITY = 256;
+
+	private final IdentityTraceSpan[] spans;
+	private int next;
+	private int size;
+
+	/**
+	 * Creates a buffer holding up to {@link #DEFAULT_CAPACITY} spans.
+	 */
+	public IdentityTraceBuffer() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a buffer holding up to {@code capacity} spans.
+	 *
+	 * @param capacity the maximum number of spans to keep; values less than 1 use a capacity of 1
+	 */
+	public IdentityTraceBuffer(final int capacity) {
+		spans = new IdentityTraceSpan[Math.max(1, capacity)];
+	}
+
+	@Override
+	public synchronized void onSpan(@NonNull final IdentityTraceSpan span) {
+		spans[next] = span;
+		next = (next + 1) % spans.length;
+
+		if (size < spans.length) {
+			size++;
+		}
+	}
+
+	/**
+	 * @return the buffered spans, oldest first
+	 */
+	@NonNull
+	public synchronized List<IdentityTraceSpan> getSpans() {
+		final List<IdentityTraceSpan> result = new ArrayList<>(size);
+		final int start = (next - size + spans.length) % spans.length;
+
+		for (int i = 0; i < size; i++) {
+			result.add(spans[(start + i) % spans.length]);
+		}
+
+		return result;
+	}
+
+	/**
+	 * @return the buffered spans, oldest first, one {@link IdentityTraceSpan#toString()} per line
+	 */
+	@NonNull
+	public String dump() {
+		final StringBuilder builder = new StringBuilder();
+
+		for (final IdentityTraceSpan span : getSpans()) {
+			builder.append(span).append('\n');
+		}
+
+		return builder.toString();
+	}
+
+	/**
+	 * Removes all buffered spans.
+	 */
+	public synchronized void clear() {
+		for (int i = 0; i < spans.length; i++) {
+			spans[i] = null;
+		}
+
+		next = 0;
+		size = 0;
+	}
+}
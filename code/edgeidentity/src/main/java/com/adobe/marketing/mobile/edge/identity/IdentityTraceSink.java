@@ -0,0 +1,30 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.edge.identity;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Receives the {@link IdentityTraceSpan}s of traced Identity API calls.
+ *
+ * @see Identity#setTraceSink(IdentityTraceSink)
+ * @see IdentityTraceBuffer
+ */
+public interface IdentityTraceSink {
+	/**
+	 * Called once for each completed API call. This method is called on SDK threads, so implementations
+	 * must be thread safe and should return quickly.
+	 *
+	 * @param span the completed {@link IdentityTraceSpan}
+	 */
+	void onSpan(@NonNull final IdentityTraceSpan span);
+}
@@ -0,0 +1,138 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.edge.identity;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.Locale;
+
+/**
+ * The phase timestamps of a single traced Identity API call, keyed by the unique identifier of the request event.
+ * Timestamps are {@link System#nanoTime()} values; phases the call did not reach are {@link #NOT_REACHED}.
+ */
+public final class IdentityTraceSpan {
+
+	/**
+	 * The timestamp of a phase the traced call did not reach.
+	 */
+	public static final long NOT_REACHED = -1;
+
+	/**
+	 * The phases of a traced API call, in the order they usually occur.
+	 */
+	public enum Phase {
+		/** The request event was dispatched by the {@link Identity} API. */
+		DISPATCH,
+		/** The event hub first asked the extension whether it is ready for the request event. */
+		READY_CHECK,
+		/** The extension reported it is ready for the request event. */
+		READY,
+		/** The extension started handling the request event. */
+		HANDLER_START,
+		/** The extension dispatched the response event. */
+		RESPONSE_DISPATCH,
+		/** The extension finished handling the request event. */
+		HANDLER_END,
+		/** The {@link Identity} API received the response, or the error, in its callback. */
+		CALLBACK
+	}
+
+	private final String eventId;
+	private final String eventName;
+	private final long[] timestamps;
+	private final String error;
+
+	IdentityTraceSpan(final String eventId, final String eventName, final long[] timestamps, final String error) {
+		this.eventId = eventId;
+		this.eventName = eventName;
+		this.timestamps = timestamps;
+		this.error = error;
+	}
+
+	/**
+	 * @return the unique identifier of the request event
+	 */
+	@NonNull
+	public String getEventId() {
+		return eventId;
+	}
+
+	/**
+	 * @return the name of the request event
+	 */
+	@NonNull
+	public String getEventName() {
+		return eventName;
+	}
+
+	/**
+	 * @param phase the {@link Phase} to get the timestamp for
+	 * @return the {@link System#nanoTime()} when the phase was reached, or {@link #NOT_REACHED}
+	 */
+	public long getNanos(@NonNull final Phase phase) {
+		return timestamps[phase.ordinal()];
+	}
+
+	/**
+	 * @param from the start {@link Phase}
+	 * @param to   the end {@link Phase}
+	 * @return the nanoseconds elapsed between the two phases, or {@link #NOT_REACHED} if either phase was not reached
+	 */
+	public long getElapsedNanos(@NonNull final Phase from, @NonNull final Phase to) {
+		final long start = getNanos(from);
+		final long end = getNanos(to);
+		return start == NOT_REACHED || end == NOT_REACHED ? NOT_REACHED : end - start;
+	}
+
+	/**
+	 * @return the name of the {@link com.adobe.marketing.mobile.AdobeError} returned to the callback, or null if
+	 * the call succeeded
+	 */
+	@Nullable
+	public String getError() {
+		return error;
+	}
+
+	/**
+	 * Returns a single line describing this span, with each reached phase as microseconds elapsed since
+	 * {@link Phase#DISPATCH}.
+	 */
+	@NonNull
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder();
+		builder.append(eventName).append(" [").append(eventId).append(']');
+
+		final long dispatch = timestamps[Phase.DISPATCH.ordinal()];
+
+		for (final Phase phase : Phase.values()) {
+			final long timestamp = timestamps[phase.ordinal()];
+
+			if (phase == Phase.DISPATCH || timestamp == NOT_REACHED) {
+				continue;
+			}
+
+			builder
+				.append(' ')
+				.append(phase.name().toLowerCase(Locale.ROOT))
+				.append("=+")
+				.append((timestamp - dispatch) / 1000)
+				.append("us");
+		}
+
+		if (error != null) {
+			builder.append(" error=").append(error);
+		}
+
+		return builder.toString();
+	}
+}
@@ -0,0 +1,167 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.edge.identity;
+
+import com.adobe.marketing.mobile.Event;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records {@link IdentityTraceSpan}s for Identity API calls and reports them to the configured
+ * {@link IdentityTraceSink}.
+ * <p>
+ * A span is started by {@link #begin(Event, boolean)} when an {@link Identity} API dispatches its request event,
+ * and every later phase is looked up by the request event's unique identifier. Events which were not started by
+ * {@code begin} are ignored, and when no sink is set every method returns after a single volatile read.
+ */
+final class IdentityTracer {
+
+	private static final String LOG_SOURCE = "IdentityTracer";
+
+	// Upper bound of in-flight spans, in case request events are never handled
+	static final int MAX_ACTIVE_SPANS = 128;
+
+	private static final Map<String, ActiveSpan> activeSpans = new ConcurrentHashMap<>();
+	private static volatile IdentityTraceSink sink;
+
+	private IdentityTracer() {}
+
+	/**
+	 * Sets the sink receiving completed spans. Spans in flight are discarded.
+	 *
+	 * @param traceSink the {@link IdentityTraceSink}, or null to disable tracing
+	 */
+	static void setSink(final IdentityTraceSink traceSink) {
+		sink = traceSink;
+		activeSpans.clear();
+	}
+
+	static boolean isEnabled() {
+		return sink != null;
+	}
+
+	/**
+	 * Starts a span for the given request event at {@link IdentityTraceSpan.Phase#DISPATCH}.
+	 *
+	 * @param event            the request {@link Event} about to be dispatched
+	 * @param expectsCallback  true if the span completes at the response callback, false if it completes when
+	 *                         the extension finishes handling the event
+	 */
+	static void begin(final Event event, final boolean expectsCallback) {
+		if (sink == null) {
+			return;
+		}
+
+		if (activeSpans.size() >= MAX_ACTIVE_SPANS) {
+			IdentityLog.debug(LOG_SOURCE, "Not tracing event %s, too many spans in flight.", event.getName());
+			return;
+		}
+
+		final ActiveSpan span = new ActiveSpan(event.getName(), expectsCallback);
+		span.mark(IdentityTraceSpan.Phase.DISPATCH, System.nanoTime());
+		activeSpans.put(event.getUniqueIdentifier(), span);
+	}
+
+	/**
+	 * Records the first time the given phase is reached for a traced event.
+	 * When a span not expecting a callback reaches {@link IdentityTraceSpan.Phase#HANDLER_END}, it is completed.
+	 *
+	 * @param eventId the unique identifier of the request event
+	 * @param phase   the {@link IdentityTraceSpan.Phase} reached
+	 */
+	static void mark(final String eventId, final IdentityTraceSpan.Phase phase) {
+		if (sink == null || eventId == null) {
+			return;
+		}
+
+		final ActiveSpan span = activeSpans.get(eventId);
+
+		if (span == null) {
+			return;
+		}
+
+		span.mark(phase, System.nanoTime());
+
+		if (phase == IdentityTraceSpan.Phase.HANDLER_END && !span.expectsCallback) {
+			complete(eventId, null);
+		}
+	}
+
+	/**
+	 * Records {@link IdentityTraceSpan.Phase#CALLBACK} for a traced event and reports its span to the sink.
+	 *
+	 * @param eventId the unique identifier of the request event
+	 * @param error   the name of the error returned to the callback, or null on success
+	 */
+	static void complete(final String eventId, final String error) {
+		final IdentityTraceSink traceSink = sink;
+
+		if (traceSink == null || eventId == null) {
+			return;
+		}
+
+		final ActiveSpan span = activeSpans.remove(eventId);
+
+		if (span == null) {
+			return;
+		}
+
+		if (span.expectsCallback) {
+			span.mark(IdentityTraceSpan.Phase.CALLBACK, System.nanoTime());
+		}
+
+		try {
+			traceSink.onSpan(span.toSpan(eventId, error));
+		} catch (final Exception e) {
+			IdentityLog.debug(LOG_SOURCE, "Trace sink failed to handle span: %s", e.getLocalizedMessage());
+		}
+	}
+
+	/**
+	 * @return the number of spans in flight
+	 */
+	static int getActiveSpanCount() {
+		return activeSpans.size();
+	}
+
+	private static final class ActiveSpan {
+
+		private final String eventName;
+		private final boolean expectsCallback;
+		private final AtomicLongArray timestamps = new AtomicLongArray(IdentityTraceSpan.Phase.values().length);
+
+		ActiveSpan(final String eventName, final boolean expectsCallback) {
+			this.eventName = eventName;
+			this.expectsCallback = expectsCallback;
+
+			for (int i = 0; i < timestamps.length(); i++) {
+				timestamps.set(i, IdentityTraceSpan.NOT_REACHED);
+			}
+		}
+
+		void mark(final IdentityTraceSpan.Phase phase, final long nanos) {
+			// keep the first time a phase is reached, e.g. the first of several readyForEvent calls
+			timestamps.compareAndSet(phase.ordinal(), IdentityTraceSpan.NOT_REACHED, nanos);
+		}
+
+		IdentityTraceSpan toSpan(final String eventId, final String error) {
+			final long[] values = new long[timestamps.length()];
+
+			for (int i = 0; i < values.length; i++) {
+				values[i] = timestamps.get(i);
+			}
+
+			return new IdentityTraceSpan(eventId, eventName, values, error);
+		}
+	}
+}
@@ -0,0 +1,119 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.edge.identity;
+
+import androidx.annotation.NonNull;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Version stamp of the identifiers held by the Identity extension.
+ * <p>
+ * The version increases each time the identifiers change and starts over when the application is launched.
+ * The hash is computed from the identifiers themselves, so it is equal for equal identifiers across launches.
+ * Callers can compare either value with a previously seen stamp to skip re-processing unchanged identifiers.
+ *
+ * @see Identity#getIdentityVersion(com.adobe.marketing.mobile.AdobeCallback)
+ */
+public final class IdentityVersion {
+
+	private final long version;
+	private final long hash;
+
+	IdentityVersion(final long version, final long hash) {
+		this.version = version;
+		this.hash = hash;
+	}
+
+	/**
+	 * Returns the version of the identifiers, increased each time the identifiers change. The version is not
+	 * persisted and starts over when the application is launched, so only compare versions read in the same
+	 * process; use {@link #getHash()} to compare identifiers across launches.
+	 *
+	 * @return the version of the identifiers
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * @return the 64-bit hash of the identifiers
+	 */
+	public long getHash() {
+		return hash;
+	}
+
+	@NonNull
+	@Override
+	public String toString() {
+		return "{\"version\": " + version + ", \"hash\": " + hash + "}";
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		if (this == o) {
+			return true;
+		}
+
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+
+		final IdentityVersion that = (IdentityVersion) o;
+		return version == that.version && hash == that.hash;
+	}
+
+	@Override
+	public int hashCode() {
+		return (int) (version ^ (version >>> 32)) * 31 + (int) (hash ^ (hash >>> 32));
+	}
+
+	/**
+	 * Adds this version stamp to the given event data.
+	 *
+	 * @param data the event data to add the version and hash to
+	 * @return {@code data}
+	 */
+	Map<String, Object> addTo(final Map<String, Object> data) {
+		data.put(IdentityConstants.EventDataKeys.IDENTITY_VERSION, version);
+		data.put(IdentityConstants.EventDataKeys.IDENTITY_HASH, hash);
+		return data;
+	}
+
+	/**
+	 * @return this version stamp as event data
+	 */
+	Map<String, Object> toEventData() {
+		return addTo(new HashMap<String, Object>());
+	}
+
+	/**
+	 * Reads a version stamp from event data.
+	 *
+	 * @param data the event data to read
+	 * @return the version stamp, or null if {@code data} does not contain a version and hash
+	 */
+	static IdentityVersion fromEventData(final Map<String, Object> data) {
+		if (data == null) {
+			return null;
+		}
+
+		final Object version = data.get(IdentityConstants.EventDataKeys.IDENTITY_VERSION);
+		final Object hash = data.get(IdentityConstants.EventDataKeys.IDENTITY_HASH);
+
+		if (!(version instanceof Number) || !(hash instanceof Number)) {
+			return null;
+		}
+
+		return new IdentityVersion(((Number) version).longValue(), ((Number) hash).longValue());
+	}
+}
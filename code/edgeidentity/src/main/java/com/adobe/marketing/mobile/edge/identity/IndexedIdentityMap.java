@@ -0,0 +1,499 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.edge.identity;
+
+import androidx.annotation.NonNull;
+import com.adobe.marketing.mobile.util.DataReader;
+import com.adobe.marketing.mobile.util.StringUtils;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link IdentityMap} of the identity state, which indexes its items for reverse and case insensitive namespace
+ * lookups and tracks when they were last updated to evict the least recently updated items.
+ * The update times are persisted with the identities, see {@link #getUpdateTimes(Collection)}; items restored
+ * without an update time are treated as least recently updated, in their stored order.
+ * Not thread safe; used by the extension thread only.
+ */
+class IndexedIdentityMap extends IdentityMap {
+
+	private static final String LOG_SOURCE = "IndexedIdentityMap";
+
+	// Approximate serialized size of an item excluding its id and authenticated state
+	// {"id":"","authenticatedState":"","primary":false},
+	private static final int ITEM_OVERHEAD_BYTES = 50;
+	// Approximate serialized size of a namespace entry excluding its name: "":[],
+	private static final int NAMESPACE_OVERHEAD_BYTES = 6;
+
+	private static final Comparator<UpdatedEntry> LEAST_RECENT_FIRST = new Comparator<UpdatedEntry>() {
+		@Override
+		public int compare(final UpdatedEntry first, final UpdatedEntry second) {
+			return Long.compare(first.updatedAt, second.updatedAt);
+		}
+	};
+
+	// Last update time of each item keyed on namespace then item; used for LRU eviction
+	private final Map<String, Map<IdentityItem, Long>> itemUpdateTimes = new HashMap<>();
+	// Latest update time handed out; later updates get a later time even within the same millisecond
+	private long lastUpdatedAt;
+
+	// Namespaces containing each item keyed on the item, which hashes its id case insensitively;
+	// answers reverse lookups without scanning the namespaces
+	private final Map<IdentityItem, List<String>> namespacesByItem = new HashMap<>();
+
+	// Namespaces as stored, keyed on their canonical case folded key; answers case insensitive namespace lookups
+	private final Map<String, List<String>> namespacesByKey = new HashMap<>();
+
+	// Hash of each namespace as last computed, their sum, and the namespaces changed since
+	private final Map<String, Long> namespaceHashes = new HashMap<>();
+	private final Set<String> changedNamespaces = new HashSet<>();
+	private long contentHash;
+
+	@NonNull
+	@Override
+	public List<String> getNamespacesForIdentifier(@NonNull final String id) {
+		if (StringUtils.isNullOrEmpty(id)) {
+			return new ArrayList<>();
+		}
+
+		final IdentityItem lookupItem = new IdentityItem(id);
+		final List<String> namespaces = namespacesByItem.get(lookupItem);
+
+		if (namespaces == null) {
+			return new ArrayList<>();
+		}
+
+		final long now = System.currentTimeMillis();
+
+		if (!hasExpiredItems(now)) {
+			return new ArrayList<>(namespaces);
+		}
+
+		final Map<String, List<IdentityItem>> itemsByNamespace = getItemsByNamespace();
+		final List<String> unexpiredNamespaces = new ArrayList<>(namespaces.size());
+
+		for (final String namespace : namespaces) {
+			final List<IdentityItem> items = itemsByNamespace.get(namespace);
+			final int index = items.indexOf(lookupItem);
+
+			if (index >= 0 && !items.get(index).isExpired(now)) {
+				unexpiredNamespaces.add(namespace);
+			}
+		}
+
+		return unexpiredNamespaces;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The hash of each namespace is kept and only namespaces changed since the last call are hashed again,
+	 * unless items may have expired.
+	 */
+	@Override
+	long contentHash(final long now) {
+		if (hasExpiredItems(now)) {
+			return super.contentHash(now);
+		}
+
+		if (changedNamespaces.isEmpty()) {
+			return contentHash;
+		}
+
+		final Map<String, List<IdentityItem>> itemsByNamespace = getItemsByNamespace();
+
+		for (final String namespace : changedNamespaces) {
+			final Long previousHash = namespaceHashes.remove(namespace);
+
+			if (previousHash != null) {
+				contentHash -= previousHash;
+			}
+
+			final List<IdentityItem> items = itemsByNamespace.get(namespace);
+
+			if (items != null) {
+				final long namespaceHash = namespaceHash(namespace, items, now);
+				namespaceHashes.put(namespace, namespaceHash);
+				contentHash += namespaceHash;
+			}
+		}
+
+		changedNamespaces.clear();
+		return contentHash;
+	}
+
+	@Override
+	boolean clearItemsForNamespace(final String namespace) {
+		if (StringUtils.isNullOrEmpty(namespace)) {
+			return false;
+		}
+
+		final List<String> matchingNamespaces = namespacesByKey.get(NamespaceRegistry.fold(namespace));
+
+		if (matchingNamespaces == null) {
+			return false;
+		}
+
+		// removing a namespace removes it from matchingNamespaces, so iterate from the end
+		for (int i = matchingNamespaces.size() - 1; i >= 0; i--) {
+			removeItemsForNamespace(matchingNamespaces.get(i));
+		}
+
+		return true;
+	}
+
+	/**
+	 * Evicts the least recently updated {@link IdentityItem}s until this map is within the given limits.
+	 * Limits are applied in order: items per namespace, number of namespaces, then total size.
+	 * Items in {@code excludedNamespaces} (case insensitive) are never evicted and are not counted against the limits.
+	 *
+	 * @param limits             the {@link IdentityMapLimits} to enforce
+	 * @param excludedNamespaces namespaces which are exempt from the limits
+	 * @return the number of evicted items
+	 */
+	int enforceLimits(final IdentityMapLimits limits, final Collection<String> excludedNamespaces) {
+		if (limits == null || limits.isUnlimited()) {
+			return 0;
+		}
+
+		final Map<String, List<IdentityItem>> itemsByNamespace = getItemsByNamespace();
+		final List<String> namespaces = new ArrayList<>();
+
+		for (final String namespace : itemsByNamespace.keySet()) {
+			if (!containsIgnoreCase(excludedNamespaces, namespace)) {
+				namespaces.add(namespace);
+			}
+		}
+
+		int itemLimitEvictions = 0;
+		int namespaceLimitEvictions = 0;
+		int sizeLimitEvictions = 0;
+
+		if (limits.getMaxItemsPerNamespace() > 0) {
+			for (final String namespace : namespaces) {
+				final List<IdentityItem> items = itemsByNamespace.get(namespace);
+				final int excess = items.size() - limits.getMaxItemsPerNamespace();
+
+				if (excess <= 0) {
+					continue;
+				}
+
+				final List<UpdatedEntry> leastRecentFirst = new ArrayList<>(items.size());
+				addUpdatedItems(leastRecentFirst, namespace);
+				Collections.sort(leastRecentFirst, LEAST_RECENT_FIRST);
+
+				for (int i = 0; i < excess; i++) {
+					removeItem(leastRecentFirst.get(i).item, namespace);
+				}
+
+				itemLimitEvictions += excess;
+			}
+		}
+
+		if (limits.getMaxNamespaces() > 0 && namespaces.size() > limits.getMaxNamespaces()) {
+			final List<UpdatedEntry> leastRecentFirst = new ArrayList<>(namespaces.size());
+
+			for (final String namespace : namespaces) {
+				leastRecentFirst.add(new UpdatedEntry(namespace, null, getLastUpdateTime(namespace)));
+			}
+
+			Collections.sort(leastRecentFirst, LEAST_RECENT_FIRST);
+			final int excess = namespaces.size() - limits.getMaxNamespaces();
+
+			for (int i = 0; i < excess; i++) {
+				final String namespace = leastRecentFirst.get(i).namespace;
+				namespaceLimitEvictions += itemsByNamespace.get(namespace).size();
+				removeItemsForNamespace(namespace);
+				namespaces.remove(namespace);
+			}
+		}
+
+		if (limits.getMaxTotalBytes() > 0) {
+			sizeLimitEvictions = enforceSizeLimit(namespaces, limits.getMaxTotalBytes());
+		}
+
+		final int evicted = itemLimitEvictions + namespaceLimitEvictions + sizeLimitEvictions;
+
+		if (evicted > 0) {
+			IdentityMetrics.add(IdentityMetrics.EVICTED_IDENTITIES, evicted);
+
+			IdentityLog.debug(
+				LOG_SOURCE,
+				"Evicted %d least recently updated identities to stay within %s.",
+				evicted,
+				limits
+			);
+		}
+
+		return evicted;
+	}
+
+	/**
+	 * Returns the last update time of each item, to be persisted with the identities and passed to
+	 * {@link #restoreUpdateTimes(Map)} when they are loaded.
+	 *
+	 * @param excludedNamespaces namespaces which are exempt from the limits and need no update times
+	 * @return the epoch time in milliseconds of the last update of each item, keyed on namespace then item id
+	 */
+	Map<String, Object> getUpdateTimes(final Collection<String> excludedNamespaces) {
+		final Map<String, Object> updateTimes = new HashMap<>();
+
+		for (final Map.Entry<String, List<IdentityItem>> entry : getItemsByNamespace().entrySet()) {
+			final Map<IdentityItem, Long> itemTimes = itemUpdateTimes.get(entry.getKey());
+
+			if (itemTimes == null || containsIgnoreCase(excludedNamespaces, entry.getKey())) {
+				continue;
+			}
+
+			final Map<String, Long> namespaceTimes = new HashMap<>(Utils.hashMapCapacity(entry.getValue().size()));
+
+			// keyed on the ids as stored, which may differ in case from the ids the times were first recorded for
+			for (final IdentityItem item : entry.getValue()) {
+				final Long updatedAt = itemTimes.get(item);
+
+				if (updatedAt != null && updatedAt > 0) {
+					namespaceTimes.put(item.getId(), updatedAt);
+				}
+			}
+
+			if (!namespaceTimes.isEmpty()) {
+				updateTimes.put(entry.getKey(), namespaceTimes);
+			}
+		}
+
+		return updateTimes;
+	}
+
+	/**
+	 * Replaces the update times of the items with the persisted times returned by {@link #getUpdateTimes(Collection)}.
+	 * Items without a persisted time, for example those stored by a previous version, get the earliest time.
+	 *
+	 * @param updateTimes the persisted update times keyed on namespace then item id; may be null
+	 */
+	void restoreUpdateTimes(final Map<String, Object> updateTimes) {
+		for (final Map.Entry<String, Map<IdentityItem, Long>> entry : itemUpdateTimes.entrySet()) {
+			final Map<String, Object> namespaceTimes = updateTimes != null
+				? DataReader.optTypedMap(Object.class, updateTimes, entry.getKey(), null)
+				: null;
+
+			for (final Map.Entry<IdentityItem, Long> itemTime : entry.getValue().entrySet()) {
+				final long updatedAt = namespaceTimes != null
+					? DataReader.optLong(namespaceTimes, itemTime.getKey().getId(), 0)
+					: 0;
+				itemTime.setValue(updatedAt);
+				lastUpdatedAt = Math.max(lastUpdatedAt, updatedAt);
+			}
+		}
+	}
+
+	@Override
+	void onItemAdded(final IdentityItem item, final String namespace, final boolean replaced) {
+		if (!replaced) {
+			indexNamespace(item, namespace);
+		}
+
+		Map<IdentityItem, Long> updateTimes = itemUpdateTimes.get(namespace);
+
+		if (updateTimes == null) {
+			updateTimes = new HashMap<>();
+			itemUpdateTimes.put(namespace, updateTimes);
+		}
+
+		lastUpdatedAt = Math.max(System.currentTimeMillis(), lastUpdatedAt + 1);
+		updateTimes.put(item, lastUpdatedAt);
+		changedNamespaces.add(namespace);
+	}
+
+	@Override
+	void onItemRemoved(final IdentityItem item, final String namespace) {
+		final Map<IdentityItem, Long> updateTimes = itemUpdateTimes.get(namespace);
+
+		if (updateTimes != null) {
+			updateTimes.remove(item);
+		}
+
+		changedNamespaces.add(namespace);
+
+		unindexNamespace(item, namespace);
+	}
+
+	@Override
+	void onNamespaceAdded(final String namespace) {
+		final String key = NamespaceRegistry.fold(namespace);
+		List<String> namespaces = namespacesByKey.get(key);
+
+		if (namespaces == null) {
+			namespaces = new ArrayList<>(1);
+			namespacesByKey.put(key, namespaces);
+		}
+
+		namespaces.add(namespace);
+	}
+
+	@Override
+	void onNamespaceRemoved(final String namespace) {
+		itemUpdateTimes.remove(namespace);
+		changedNamespaces.add(namespace);
+
+		final String key = NamespaceRegistry.fold(namespace);
+		final List<String> namespaces = namespacesByKey.get(key);
+
+		if (namespaces == null) {
+			return;
+		}
+
+		namespaces.remove(namespace);
+
+		if (namespaces.isEmpty()) {
+			namespacesByKey.remove(key);
+		}
+	}
+
+	// ========================================================================================
+	// private methods
+	// ========================================================================================
+
+	/**
+	 * Evicts the least recently updated items across {@code namespaces} until their approximate serialized size
+	 * is within {@code maxTotalBytes}.
+	 *
+	 * @return the number of evicted items
+	 */
+	private int enforceSizeLimit(final List<String> namespaces, final long maxTotalBytes) {
+		final Map<String, List<IdentityItem>> itemsByNamespace = getItemsByNamespace();
+		long totalBytes = 0;
+		final List<UpdatedEntry> leastRecentFirst = new ArrayList<>();
+
+		for (final String namespace : namespaces) {
+			totalBytes += Utils.utf8Length(namespace) + NAMESPACE_OVERHEAD_BYTES;
+
+			for (final IdentityItem item : itemsByNamespace.get(namespace)) {
+				totalBytes += estimateSize(item);
+			}
+
+			addUpdatedItems(leastRecentFirst, namespace);
+		}
+
+		if (totalBytes <= maxTotalBytes) {
+			return 0;
+		}
+
+		Collections.sort(leastRecentFirst, LEAST_RECENT_FIRST);
+
+		int evicted = 0;
+		final Iterator<UpdatedEntry> iterator = leastRecentFirst.iterator();
+
+		while (totalBytes > maxTotalBytes && iterator.hasNext()) {
+			final UpdatedEntry entry = iterator.next();
+			totalBytes -= estimateSize(entry.item);
+			removeItem(entry.item, entry.namespace);
+
+			if (!itemsByNamespace.containsKey(entry.namespace)) {
+				totalBytes -= Utils.utf8Length(entry.namespace) + NAMESPACE_OVERHEAD_BYTES;
+			}
+
+			evicted++;
+		}
+
+		return evicted;
+	}
+
+	// Adds the items of namespace with their update time to entries, in their stored order so that the stable sort
+	// keeps that order for items with the same time
+	private void addUpdatedItems(final List<UpdatedEntry> entries, final String namespace) {
+		final Map<IdentityItem, Long> updateTimes = itemUpdateTimes.get(namespace);
+
+		for (final IdentityItem item : getItemsByNamespace().get(namespace)) {
+			final Long updatedAt = updateTimes != null ? updateTimes.get(item) : null;
+			entries.add(new UpdatedEntry(namespace, item, updatedAt != null ? updatedAt : 0));
+		}
+	}
+
+	private long getLastUpdateTime(final String namespace) {
+		final Map<IdentityItem, Long> updateTimes = itemUpdateTimes.get(namespace);
+		long lastUpdate = 0;
+
+		if (updateTimes != null) {
+			for (final Long updatedAt : updateTimes.values()) {
+				lastUpdate = Math.max(lastUpdate, updatedAt);
+			}
+		}
+
+		return lastUpdate;
+	}
+
+	private void indexNamespace(final IdentityItem item, final String namespace) {
+		List<String> namespaces = namespacesByItem.get(item);
+
+		if (namespaces == null) {
+			// most identifiers are in a single namespace
+			namespaces = new ArrayList<>(1);
+			namespacesByItem.put(item, namespaces);
+		}
+
+		namespaces.add(namespace);
+	}
+
+	private void unindexNamespace(final IdentityItem item, final String namespace) {
+		final List<String> namespaces = namespacesByItem.get(item);
+
+		if (namespaces == null) {
+			return;
+		}
+
+		namespaces.remove(namespace);
+
+		if (namespaces.isEmpty()) {
+			namespacesByItem.remove(item);
+		}
+	}
+
+	private static boolean containsIgnoreCase(final Collection<String> values, final String value) {
+		if (values == null) {
+			return false;
+		}
+
+		for (final String each : values) {
+			if (each.equalsIgnoreCase(value)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static long estimateSize(final IdentityItem item) {
+		return Utils.utf8Length(item.getId()) + item.getAuthenticatedState().getName().length() + ITEM_OVERHEAD_BYTES;
+	}
+
+	// Eviction candidate with its update time, computed once before sorting; item is null for a namespace
+	private static final class UpdatedEntry {
+
+		private final String namespace;
+		private final IdentityItem item;
+		private final long updatedAt;
+
+		private UpdatedEntry(final String namespace, final IdentityItem item, final long updatedAt) {
+			this.namespace = namespace;
+			this.item = item;
+			this.updatedAt = updatedAt;
+		}
+	}
+}
@@ -0,0 +1,108 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.edge.identity;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Symbol table of namespaces, mapping each namespace as written to its canonical case folded key.
+ * <p>
+ * Namespaces are stored case sensitively in {@link IdentityMap}, which keeps the original case for display and
+ * serialization, while operations matching namespaces case insensitively use the canonical key. Keys are interned,
+ * so folding a namespace seen before returns the same instance without allocating.
+ */
+final class NamespaceRegistry {
+
+	// Bounds the registry when apps use generated namespaces; namespaces past the bound are folded without interning
+	static final int MAX_INTERNED_NAMESPACES = 512;
+
+	private static final ConcurrentHashMap<String, String> canonicalKeys = new ConcurrentHashMap<>();
+
+	private static final Set<String> reservedKeys = new HashSet<>();
+
+	static {
+		reservedKeys.add(fold(IdentityConstants.Namespaces.ECID));
+		reservedKeys.add(fold(IdentityConstants.Namespaces.GAID));
+		reservedKeys.add(fold(IdentityConstants.Namespaces.IDFA));
+	}
+
+	private NamespaceRegistry() {}
+
+	/**
+	 * Returns the canonical case folded key of the given namespace. Namespaces which differ only in case
+	 * have equal keys. Each code point is folded as {@code Character.toLowerCase(Character.toUpperCase(codePoint))},
+	 * so two namespaces have equal keys exactly when they are equal by {@link String#equalsIgnoreCase(String)},
+	 * independent of the default locale.
+	 *
+	 * @param namespace the namespace to fold; should not be null
+	 * @return the canonical key of {@code namespace}
+	 */
+	static String fold(final String namespace) {
+		final String cached = canonicalKeys.get(namespace);
+
+		if (cached != null) {
+			return cached;
+		}
+
+		String key = foldCase(namespace);
+
+		if (canonicalKeys.size() < MAX_INTERNED_NAMESPACES) {
+			// all spellings of a namespace share the instance registered for its folded spelling
+			final String existingKey = canonicalKeys.putIfAbsent(key, key);
+			key = existingKey != null ? existingKey : key;
+			canonicalKeys.putIfAbsent(namespace, key);
+		}
+
+		return key;
+	}
+
+	private static String foldCase(final String value) {
+		final StringBuilder builder = new StringBuilder(value.length());
+		int index = 0;
+
+		while (index < value.length()) {
+			final int codePoint = value.codePointAt(index);
+			// same per code point fold as IdentityItem.caseInsensitiveHash and String.equalsIgnoreCase
+			builder.appendCodePoint(Character.toLowerCase(Character.toUpperCase(codePoint)));
+			index += Character.charCount(codePoint);
+		}
+
+		return builder.toString();
+	}
+
+	/**
+	 * Checks if the given namespace is reserved for identifiers managed by the extension (ECID, GAID and IDFA),
+	 * matched case insensitively.
+	 *
+	 * @param namespace the namespace to check
+	 * @return true if {@code namespace} is reserved
+	 */
+	static boolean isReserved(final String namespace) {
+		return namespace != null && reservedKeys.contains(fold(namespace));
+	}
+
+	/**
+	 * @return the number of interned namespace spellings
+	 */
+	static int size() {
+		return canonicalKeys.size();
+	}
+
+	/**
+	 * Removes all interned namespaces. Keys returned before remain valid but may no longer be the canonical instance.
+	 */
+	static void reset() {
+		canonicalKeys.clear();
+	}
+}
@@ -35,4 +35,11 @@ interface SharedStateCallback {
 	 * @param event current event for which to set the shared state; if null is passed, the next shared state version will be set
 	 */
 	void createXDMSharedState(final Map<String, Object> state, final Event event);
+
+	/**
+	 * Dispatches the provided {@code event} to the EventHub, in order with the shared states created by this extension.
+	 *
+	 * @param event the {@link Event} to dispatch
+	 */
+	void dispatchEvent(final Event event);
 }
@@ -11,9 +11,6 @@
 
 package com.adobe.marketing.mobile.edge.identity;
 
-import static com.adobe.marketing.mobile.edge.identity.IdentityConstants.LOG_TAG;
-
-import com.adobe.marketing.mobile.services.Log;
 import com.adobe.marketing.mobile.util.StringUtils;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
@@ -58,7 +55,7 @@ class URLUtils {
 			}
 		} catch (UnsupportedEncodingException | IllegalArgumentException e) {
 			urlFragment.append("null");
-			Log.debug(LOG_TAG, LOG_SOURCE, String.format("Failed to encode urlVariable string: %s", e));
+			IdentityLog.debug(LOG_SOURCE, "Failed to encode urlVariable string: %s", e);
 		}
 		return urlFragment.toString();
 	}
@@ -26,4 +26,45 @@ class Utils {
 	static boolean isNullOrEmpty(final List<?> list) {
 		return list == null || list.isEmpty();
 	}
+
+	/**
+	 * Computes the number of bytes of the UTF-8 encoding of the given {@code String} without encoding it.
+	 *
+	 * @param value the {@code String} to measure
+	 * @return the UTF-8 encoded length of {@code value} in bytes, or 0 if {@code value} is null
+	 */
+	static int utf8Length(final String value) {
+		if (value == null) {
+			return 0;
+		}
+
+		int length = 0;
+
+		for (int i = 0; i < value.length(); i++) {
+			final char c = value.charAt(i);
+
+			if (c < 0x80) {
+				length += 1;
+			} else if (c < 0x800) {
+				length += 2;
+			} else if (Character.isHighSurrogate(c)) {
+				length += 4;
+				i++;
+			} else {
+				length += 3;
+			}
+		}
+
+		return length;
+	}
+
+	/**
+	 * Computes the initial capacity of a {@code HashMap} holding the given number of entries without resizing.
+	 *
+	 * @param expectedSize the number of entries the map will hold
+	 * @return the initial capacity for a map with the default load factor
+	 */
+	static int hashMapCapacity(final int expectedSize) {
+		return expectedSize < 3 ? expectedSize + 1 : (int) (expectedSize / 0.75f + 1.0f);
+	}
 }
@@ -0,0 +1,46 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.edge.identity;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Reads the per-thread allocation counter of the JVM, when available.
+ */
+final class AllocationCounter {
+
+	private AllocationCounter() {}
+
+	/**
+	 * @return true if the JVM can measure the bytes allocated by a thread
+	 */
+	static boolean isSupported() {
+		final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+		return (
+			threadMXBean instanceof com.sun.management.ThreadMXBean &&
+			((com.sun.management.ThreadMXBean) threadMXBean).isThreadAllocatedMemoryEnabled()
+		);
+	}
+
+	/**
+	 * @return the bytes allocated by the current thread, or 0 if the JVM cannot measure allocations
+	 */
+	static long getAllocatedBytes() {
+		if (!isSupported()) {
+			return 0;
+		}
+
+		final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+		return ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+}
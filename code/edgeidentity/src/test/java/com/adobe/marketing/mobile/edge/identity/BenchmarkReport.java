@@ -0,0 +1,62 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.edge.identity;
+
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+/**
+ * Writes benchmark results to a report file, one line per result.
+ * <p>
+ * Reports are written to the directory set in the {@code benchmark.reportDir} system property, which the Gradle
+ * build points to {@code build/reports/benchmarks}, or to {@code build/reports/benchmarks} under the working
+ * directory when the property is not set. Each report is named after its benchmark and results are appended,
+ * so the benchmark tasks in the Makefile remove the directory before a run.
+ */
+final class BenchmarkReport {
+
+	private static final String REPORT_DIR_PROPERTY = "benchmark.reportDir";
+	private static final String DEFAULT_REPORT_DIR = "build/reports/benchmarks";
+
+	private BenchmarkReport() {}
+
+	/**
+	 * Appends a result line to the report of the given benchmark, failing the test if it cannot be written.
+	 *
+	 * @param benchmark the benchmark name, used as the report file name
+	 * @param line the result line
+	 */
+	static void append(final String benchmark, final String line) {
+		final File directory = new File(System.getProperty(REPORT_DIR_PROPERTY, DEFAULT_REPORT_DIR));
+
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			fail("Unable to create benchmark report directory " + directory);
+		}
+
+		final File report = new File(directory, benchmark + ".txt");
+
+		try (
+			Writer writer = new OutputStreamWriter(new FileOutputStream(report, true), Charset.forName("UTF-8"))
+		) {
+			writer.write(line);
+			writer.write('\n');
+		} catch (final IOException e) {
+			fail("Unable to write benchmark report " + report + ": " + e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,179 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.edge.identity;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+/**
+ * Compares building an {@link IdentityMap} from multiple threads with {@link ConcurrentIdentityMapBuilder} against
+ * adding to a shared {@code IdentityMap} wrapped in a {@code synchronized} block.
+ * <p>
+ * Each iteration starts all threads at once, and each thread adds its own identities to a few shared namespaces.
+ * The builder timing includes {@link ConcurrentIdentityMapBuilder#build()}. Results are written to the
+ * {@code ConcurrentIdentityMapBuilderBenchmark} report of {@link BenchmarkReport}, one line per thread count, and are
+ * meant to be compared between runs on the same machine.
+ * <p>
+ * The benchmark is excluded from the unit tests and runs with {@code make benchmark-concurrent-builder}.
+ */
+public class ConcurrentIdentityMapBuilderBenchmarkTests {
+
+	private static final int WARMUP_ITERATIONS = 10;
+	private static final int MEASURED_ITERATIONS = 30;
+	private static final int ITEMS_PER_THREAD = 2000;
+	private static final int NAMESPACES = 8;
+
+	private interface Target {
+		void addItem(final IdentityItem item, final String namespace);
+
+		IdentityMap build();
+	}
+
+	private interface TargetFactory {
+		Target create();
+	}
+
+	@Test
+	public void benchmark_singleThread() throws Exception {
+		run(1);
+	}
+
+	@Test
+	public void benchmark_fourThreads() throws Exception {
+		run(4);
+	}
+
+	@Test
+	public void benchmark_eightThreads() throws Exception {
+		run(8);
+	}
+
+	private static void run(final int threadCount) throws Exception {
+		final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+
+		try {
+			final long builderNanos = measure(
+				executor,
+				threadCount,
+				() -> {
+					final ConcurrentIdentityMapBuilder builder = new ConcurrentIdentityMapBuilder();
+					return new Target() {
+						@Override
+						public void addItem(final IdentityItem item, final String namespace) {
+							builder.addItem(item, namespace);
+						}
+
+						@Override
+						public IdentityMap build() {
+							return builder.build();
+						}
+					};
+				}
+			);
+			final long synchronizedNanos = measure(
+				executor,
+				threadCount,
+				() -> {
+					final IdentityMap map = new IdentityMap();
+					return new Target() {
+						@Override
+						public void addItem(final IdentityItem item, final String namespace) {
+							synchronized (map) {
+								map.addItem(item, namespace);
+							}
+						}
+
+						@Override
+						public IdentityMap build() {
+							return map;
+						}
+					};
+				}
+			);
+
+			BenchmarkReport.append(
+				"ConcurrentIdentityMapBuilderBenchmark",
+				String.format(
+					"[%d threads, %d items]: builder p50 %d us, synchronized p50 %d us",
+					threadCount,
+					threadCount * ITEMS_PER_THREAD,
+					TimeUnit.NANOSECONDS.toMicros(builderNanos),
+					TimeUnit.NANOSECONDS.toMicros(synchronizedNanos)
+				)
+			);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Runs the warmup and measured iterations for a target.
+	 *
+	 * @return the median time in nanoseconds from starting the threads until the map is built
+	 */
+	private static long measure(final ExecutorService executor, final int threadCount, final TargetFactory factory)
+		throws Exception {
+		final long[] nanos = new long[MEASURED_ITERATIONS];
+
+		for (int iteration = -WARMUP_ITERATIONS; iteration < MEASURED_ITERATIONS; iteration++) {
+			final Target target = factory.create();
+			final CountDownLatch ready = new CountDownLatch(threadCount);
+			final CountDownLatch start = new CountDownLatch(1);
+			final List<Future<?>> futures = new ArrayList<>(threadCount);
+
+			for (int t = 0; t < threadCount; t++) {
+				final int thread = t;
+				futures.add(
+					executor.submit(() -> {
+						ready.countDown();
+						start.await();
+
+						for (int i = 0; i < ITEMS_PER_THREAD; i++) {
+							target.addItem(new IdentityItem("id-" + thread + "-" + i), "namespace" + (i % NAMESPACES));
+						}
+
+						return null;
+					})
+				);
+			}
+
+			ready.await();
+			final long startNanos = System.nanoTime();
+			start.countDown();
+
+			for (final Future<?> future : futures) {
+				future.get();
+			}
+
+			final IdentityMap map = target.build();
+			final long elapsedNanos = System.nanoTime() - startNanos;
+
+			assertEquals(threadCount * ITEMS_PER_THREAD, map.getItemCount());
+
+			if (iteration >= 0) {
+				nanos[iteration] = elapsedNanos;
+			}
+		}
+
+		Arrays.sort(nanos);
+		return nanos[MEASURED_ITERATIONS / 2];
+	}
+}
@@ -0,0 +1,117 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.edge.identity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+public class ConcurrentIdentityMapBuilderTests {
+
+	@Test
+	public void test_build_containsAddedItems() {
+		// setup
+		final ConcurrentIdentityMapBuilder builder = new ConcurrentIdentityMapBuilder();
+		assertTrue(builder.isEmpty());
+
+		// test
+		builder.addItem(new IdentityItem("id1"), "space1");
+		builder.addItem(new IdentityItem("id2", AuthenticatedState.AUTHENTICATED, true), "space1");
+		builder.addItem(new IdentityItem("id3"), "space2");
+		final IdentityMap map = builder.build();
+
+		// verify
+		assertFalse(builder.isEmpty());
+		assertEquals(2, map.getIdentityItemsForNamespace("space1").size());
+		assertEquals("id1", map.getIdentityItemsForNamespace("space1").get(0).getId());
+		assertTrue(map.getIdentityItemsForNamespace("space1").get(1).isPrimary());
+		assertEquals("id3", map.getIdentityItemsForNamespace("space2").get(0).getId());
+	}
+
+	@Test
+	public void test_build_laterItemReplacesEarlierItemWithSameId() {
+		// setup
+		final ConcurrentIdentityMapBuilder builder = new ConcurrentIdentityMapBuilder();
+
+		// test
+		builder.addItem(new IdentityItem("id", AuthenticatedState.AMBIGUOUS, false), "space");
+		builder.addItem(new IdentityItem("ID", AuthenticatedState.LOGGED_OUT, false), "space");
+
+		// verify
+		final List<IdentityItem> items = builder.build().getIdentityItemsForNamespace("space");
+		assertEquals(1, items.size());
+		assertEquals(AuthenticatedState.LOGGED_OUT, items.get(0).getAuthenticatedState());
+	}
+
+	@Test
+	public void test_addItem_invalidItems_ignored() {
+		// setup
+		final ConcurrentIdentityMapBuilder builder = new ConcurrentIdentityMapBuilder();
+
+		// test
+		builder.addItem(null, "space");
+		builder.addItem(new IdentityItem("id"), null);
+		builder.addItem(new IdentityItem("id"), "");
+
+		// verify
+		assertTrue(builder.isEmpty());
+		assertTrue(builder.build().isEmpty());
+	}
+
+	@Test
+	public void test_addItem_fromMultipleThreads_buildsAllItems() throws Exception {
+		// setup
+		final int threadCount = 8;
+		final int itemsPerThread = 500;
+		final ConcurrentIdentityMapBuilder builder = new ConcurrentIdentityMapBuilder();
+		final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		final CountDownLatch start = new CountDownLatch(1);
+		final List<Future<?>> futures = new ArrayList<>();
+
+		// test
+		for (int t = 0; t < threadCount; t++) {
+			final int thread = t;
+			futures.add(
+				executor.submit(() -> {
+					start.await();
+
+					for (int i = 0; i < itemsPerThread; i++) {
+						builder.addItem(new IdentityItem("id-" + thread + "-" + i), "space" + (i % 4));
+					}
+
+					return null;
+				})
+			);
+		}
+
+		start.countDown();
+
+		for (final Future<?> future : futures) {
+			future.get();
+		}
+
+		executor.shutdown();
+
+		// verify
+		final IdentityMap map = builder.build();
+		assertEquals(4, map.getNamespaces().size());
+		assertEquals(threadCount * itemsPerThread, map.getItemCount());
+	}
+}
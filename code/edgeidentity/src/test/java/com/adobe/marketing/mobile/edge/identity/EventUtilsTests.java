@@ -383,6 +383,47 @@ public class EventUtilsTests {
 		assertNull(EventUtils.getECID(identityDirectState));
 	}
 
+	@Test
+	public void test_isExpirySweepEvent_requiresEventNameAndFlag() {
+		final Map<String, Object> data = Collections.<String, Object>singletonMap(
+			IdentityConstants.EventDataKeys.EXPIRY_SWEEP,
+			true
+		);
+
+		assertTrue(
+			EventUtils.isExpirySweepEvent(
+				new Event.Builder(
+					IdentityConstants.EventNames.IDENTITY_EXPIRY_SWEEP,
+					EventType.EDGE_IDENTITY,
+					EventSource.REQUEST_IDENTITY
+				)
+					.setEventData(data)
+					.build()
+			)
+		);
+		assertFalse(
+			EventUtils.isExpirySweepEvent(
+				new Event.Builder(
+					IdentityConstants.EventNames.REQUEST_IDENTITIES,
+					EventType.EDGE_IDENTITY,
+					EventSource.REQUEST_IDENTITY
+				)
+					.setEventData(data)
+					.build()
+			)
+		);
+		assertFalse(
+			EventUtils.isExpirySweepEvent(
+				new Event.Builder(
+					IdentityConstants.EventNames.IDENTITY_EXPIRY_SWEEP,
+					EventType.EDGE_IDENTITY,
+					EventSource.REQUEST_IDENTITY
+				)
+					.build()
+			)
+		);
+	}
+
 	// Test helpers
 
 	/**
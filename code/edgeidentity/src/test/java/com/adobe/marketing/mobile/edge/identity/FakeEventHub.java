@@ -0,0 +1,403 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.edge.identity;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+import com.adobe.marketing.mobile.AdobeCallbackWithError;
+import com.adobe.marketing.mobile.AdobeError;
+import com.adobe.marketing.mobile.Event;
+import com.adobe.marketing.mobile.EventSource;
+import com.adobe.marketing.mobile.EventType;
+import com.adobe.marketing.mobile.ExtensionApi;
+import com.adobe.marketing.mobile.ExtensionEventListener;
+import com.adobe.marketing.mobile.SharedStateResolver;
+import com.adobe.marketing.mobile.SharedStateResult;
+import com.adobe.marketing.mobile.SharedStateStatus;
+import com.adobe.marketing.mobile.services.DataStoring;
+import com.adobe.marketing.mobile.services.NamedCollection;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * In-memory event hub driving a single {@link IdentityExtension} on the JVM, for end-to-end and performance tests
+ * which would otherwise need the emulator.
+ * <p>
+ * Events are processed in order on a single hub thread, the way the Core event hub drives an extension container:
+ * {@link IdentityExtension#readyForEvent(Event)} is checked before each event and a not-ready event blocks the queue
+ * until the next event or shared state update. Shared states are kept per owner and always resolve to the last set
+ * state. Response callbacks are invoked on the hub thread when the extension dispatches the matching response event.
+ * Persistence is an in-memory {@link DataStoring}.
+ * <p>
+ * The {@link ExtensionApi} and {@link NamedCollection}s are stub-only Mockito mocks, which do not record invocations,
+ * so the harness can process many thousands of events without growing memory.
+ */
+class FakeEventHub {
+
+	static final String SHARED_STATE_CHANGE = "Shared state change";
+	static final String XDM_SHARED_STATE_CHANGE = "Shared state change (XDM)";
+
+	private final ScheduledExecutorService hubThread = Executors.newSingleThreadScheduledExecutor();
+	private final ArrayDeque<Event> queue = new ArrayDeque<>();
+	private final Map<String, List<ExtensionEventListener>> listeners = new ConcurrentHashMap<>();
+	private final Map<String, AdobeCallbackWithError<Event>> responseCallbacks = new ConcurrentHashMap<>();
+	private final Map<String, Map<String, Object>> sharedStates = new ConcurrentHashMap<>();
+	private final Map<String, Map<String, Object>> xdmSharedStates = new ConcurrentHashMap<>();
+	private final Map<String, NamedCollection> namedCollections = new ConcurrentHashMap<>();
+	private final List<Event> dispatchedEvents = Collections.synchronizedList(new ArrayList<Event>());
+	private final DataStoring dataStore;
+	private final ExtensionApi extensionApi;
+	private IdentityExtension extension;
+	private volatile boolean recordDispatchedEvents = true;
+	private volatile boolean paused;
+
+	FakeEventHub() {
+		dataStore = mock(DataStoring.class, withSettings().stubOnly());
+		doAnswer(invocation -> getNamedCollection(invocation.getArgument(0)))
+			.when(dataStore)
+			.getNamedCollection(anyString());
+
+		extensionApi = mock(ExtensionApi.class, withSettings().stubOnly());
+		doAnswer(invocation -> {
+				addListener(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2));
+				return null;
+			})
+			.when(extensionApi)
+			.registerEventListener(anyString(), anyString(), any());
+		doAnswer(invocation -> {
+				final Event event = invocation.getArgument(0);
+
+				if (recordDispatchedEvents) {
+					dispatchedEvents.add(event);
+				}
+
+				dispatch(event);
+				return null;
+			})
+			.when(extensionApi)
+			.dispatch(any());
+		doAnswer(invocation -> {
+				setXDMSharedState(IdentityConstants.EXTENSION_NAME, invocation.getArgument(0));
+				return null;
+			})
+			.when(extensionApi)
+			.createXDMSharedState(any(), any());
+		doAnswer(invocation -> {
+				setSharedState(IdentityConstants.EXTENSION_NAME, invocation.getArgument(0));
+				return null;
+			})
+			.when(extensionApi)
+			.createSharedState(any(), any());
+		doAnswer(invocation ->
+				(SharedStateResolver) state -> setXDMSharedState(IdentityConstants.EXTENSION_NAME, state)
+			)
+			.when(extensionApi)
+			.createPendingXDMSharedState(any());
+		doAnswer(invocation -> toResult(sharedStates.get(invocation.<String>getArgument(0))))
+			.when(extensionApi)
+			.getSharedState(anyString(), any(), anyBoolean(), any());
+		doAnswer(invocation -> toResult(xdmSharedStates.get(invocation.<String>getArgument(0))))
+			.when(extensionApi)
+			.getXDMSharedState(anyString(), any(), anyBoolean(), any());
+	}
+
+	/**
+	 * Creates an {@link IdentityExtension} backed by this hub's persistence and registers its listeners.
+	 * The extension loads its persisted properties, so seed persistence before calling this method.
+	 *
+	 * @return the registered {@code IdentityExtension}
+	 */
+	IdentityExtension registerIdentityExtension() {
+		final IdentityState state = new IdentityState(new IdentityStorageManager(dataStore));
+		extension = new IdentityExtension(extensionApi, state);
+		extension.onRegistered();
+		return extension;
+	}
+
+	/**
+	 * Sets the Event Hub shared state, which lets the Identity extension boot.
+	 *
+	 * @param identityDirectRegistered true to list the Identity direct extension as registered
+	 */
+	void shareEventHubState(final boolean identityDirectRegistered) {
+		final Map<String, Object> extensionInfo = Collections.singletonMap("version", "test");
+		final Map<String, Object> extensions = new HashMap<>();
+		extensions.put(IdentityConstants.EXTENSION_NAME, extensionInfo);
+
+		if (identityDirectRegistered) {
+			extensions.put(IdentityConstants.SharedState.IdentityDirect.NAME, extensionInfo);
+		}
+
+		final Map<String, Object> state = new HashMap<>();
+		state.put(IdentityConstants.SharedState.Hub.EXTENSIONS, extensions);
+		setSharedState(IdentityConstants.SharedState.Hub.NAME, state);
+	}
+
+	/**
+	 * Sets the standard shared state of the given owner and dispatches a hub shared state change event.
+	 */
+	void setSharedState(final String owner, final Map<String, Object> state) {
+		sharedStates.put(owner, state);
+		dispatch(buildSharedStateChangeEvent(SHARED_STATE_CHANGE, owner));
+	}
+
+	/**
+	 * @return the last standard shared state set by the given owner, or null
+	 */
+	Map<String, Object> getSharedState(final String owner) {
+		return sharedStates.get(owner);
+	}
+
+	/**
+	 * @return the last XDM shared state set by the given owner, or null
+	 */
+	Map<String, Object> getXDMSharedState(final String owner) {
+		return xdmSharedStates.get(owner);
+	}
+
+	/**
+	 * @return the in-memory {@link DataStoring} used by the registered extension
+	 */
+	DataStoring getDataStore() {
+		return dataStore;
+	}
+
+	/**
+	 * @return the in-memory {@link NamedCollection} with the given name
+	 */
+	synchronized NamedCollection getNamedCollection(final String name) {
+		NamedCollection collection = namedCollections.get(name);
+
+		if (collection == null) {
+			collection = createNamedCollection();
+			namedCollections.put(name, collection);
+		}
+
+		return collection;
+	}
+
+	/**
+	 * @return the events dispatched by the extension, in dispatch order
+	 */
+	List<Event> getDispatchedEvents() {
+		synchronized (dispatchedEvents) {
+			return new ArrayList<>(dispatchedEvents);
+		}
+	}
+
+	/**
+	 * Sets whether events dispatched by the extension are kept for {@link #getDispatchedEvents()}.
+	 * Disable for long running scenarios. Enabled by default.
+	 */
+	void setRecordDispatchedEvents(final boolean record) {
+		recordDispatchedEvents = record;
+	}
+
+	/**
+	 * Pauses or resumes event processing. While paused, events are queued but the hub thread does not call the
+	 * extension, so a test can call the extension directly on its own thread, e.g. to measure boot.
+	 */
+	void setPaused(final boolean isPaused) {
+		paused = isPaused;
+
+		if (!isPaused) {
+			hubThread.execute(this::processQueue);
+		}
+	}
+
+	/**
+	 * Adds the event to the end of the event queue. May be called from any thread.
+	 */
+	void dispatch(final Event event) {
+		if (event.getResponseID() != null) {
+			final AdobeCallbackWithError<Event> callback = responseCallbacks.remove(event.getResponseID());
+
+			if (callback != null) {
+				callback.call(event);
+			}
+		}
+
+		synchronized (queue) {
+			queue.add(event);
+		}
+
+		hubThread.execute(this::processQueue);
+	}
+
+	/**
+	 * Adds the event to the end of the event queue and calls {@code callback} with its response event,
+	 * or with {@link AdobeError#CALLBACK_TIMEOUT} if there is no response within {@code timeoutMillis}.
+	 * May be called from any thread.
+	 */
+	void dispatch(final Event event, final long timeoutMillis, final AdobeCallbackWithError<Event> callback) {
+		final String eventId = event.getUniqueIdentifier();
+		responseCallbacks.put(eventId, callback);
+		hubThread.schedule(
+			() -> {
+				final AdobeCallbackWithError<Event> pending = responseCallbacks.remove(eventId);
+
+				if (pending != null) {
+					pending.fail(AdobeError.CALLBACK_TIMEOUT);
+				}
+			},
+			timeoutMillis,
+			TimeUnit.MILLISECONDS
+		);
+		dispatch(event);
+	}
+
+	/**
+	 * Waits until all events dispatched so far, and the events they caused, were processed or are blocked by
+	 * {@link IdentityExtension#readyForEvent(Event)}.
+	 *
+	 * @return true if the event queue is empty
+	 */
+	boolean awaitIdle(final long timeoutMillis) throws InterruptedException, TimeoutException {
+		try {
+			hubThread.submit(() -> {}).get(timeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (final ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+
+		synchronized (queue) {
+			return queue.isEmpty();
+		}
+	}
+
+	/**
+	 * Unregisters the Identity extension and stops the hub thread. Pending response callbacks are not called.
+	 */
+	void shutdown() {
+		if (extension != null) {
+			extension.onUnregistered();
+		}
+
+		hubThread.shutdownNow();
+	}
+
+	private void processQueue() {
+		while (!paused) {
+			final Event event;
+
+			synchronized (queue) {
+				event = queue.peek();
+			}
+
+			if (event == null || extension == null || !extension.readyForEvent(event)) {
+				return;
+			}
+
+			synchronized (queue) {
+				queue.poll();
+			}
+
+			deliver(event, event.getType() + "|" + event.getSource());
+			deliver(event, EventType.WILDCARD + "|" + EventSource.WILDCARD);
+		}
+	}
+
+	private void deliver(final Event event, final String key) {
+		final List<ExtensionEventListener> eventListeners = listeners.get(key);
+
+		if (eventListeners == null) {
+			return;
+		}
+
+		for (final ExtensionEventListener listener : eventListeners) {
+			listener.hear(event);
+		}
+	}
+
+	private void addListener(final String type, final String source, final ExtensionEventListener listener) {
+		final String key = type + "|" + source;
+		List<ExtensionEventListener> eventListeners = listeners.get(key);
+
+		if (eventListeners == null) {
+			eventListeners = new ArrayList<>();
+			listeners.put(key, eventListeners);
+		}
+
+		eventListeners.add(listener);
+	}
+
+	private void setXDMSharedState(final String owner, final Map<String, Object> state) {
+		xdmSharedStates.put(owner, state);
+		dispatch(buildSharedStateChangeEvent(XDM_SHARED_STATE_CHANGE, owner));
+	}
+
+	private static Event buildSharedStateChangeEvent(final String name, final String owner) {
+		return new Event.Builder(name, EventType.HUB, EventSource.SHARED_STATE)
+			.setEventData(Collections.<String, Object>singletonMap(IdentityConstants.EventDataKeys.STATE_OWNER, owner))
+			.build();
+	}
+
+	private static SharedStateResult toResult(final Map<String, Object> state) {
+		return state != null
+			? new SharedStateResult(SharedStateStatus.SET, state)
+			: new SharedStateResult(SharedStateStatus.NONE, null);
+	}
+
+	private static NamedCollection createNamedCollection() {
+		final Map<String, Object> values = new ConcurrentHashMap<>();
+		final NamedCollection collection = mock(NamedCollection.class, withSettings().stubOnly());
+		doAnswer(invocation -> {
+				final Object value = values.get(invocation.<String>getArgument(0));
+				return value instanceof String ? value : invocation.getArgument(1);
+			})
+			.when(collection)
+			.getString(anyString(), any());
+		doAnswer(invocation -> {
+				final String value = invocation.getArgument(1);
+
+				if (value == null) {
+					values.remove(invocation.<String>getArgument(0));
+				} else {
+					values.put(invocation.getArgument(0), value);
+				}
+
+				return null;
+			})
+			.when(collection)
+			.setString(anyString(), any());
+		doAnswer(invocation -> values.containsKey(invocation.<String>getArgument(0)))
+			.when(collection)
+			.contains(anyString());
+		doAnswer(invocation -> {
+				values.remove(invocation.<String>getArgument(0));
+				return null;
+			})
+			.when(collection)
+			.remove(anyString());
+		doAnswer(invocation -> {
+				values.clear();
+				return null;
+			})
+			.when(collection)
+			.removeAll();
+		return collection;
+	}
+}
@@ -0,0 +1,192 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.edge.identity;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import com.adobe.marketing.mobile.LoggingMode;
+import com.adobe.marketing.mobile.MobileCore;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Properties;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Fails when an identity hot path allocates more bytes per operation than its budget in
+ * {@code allocation-budgets.properties}.
+ * <p>
+ * Each operation is warmed up so the measurement reflects JIT compiled code, then run repeatedly on the test
+ * thread while its allocation counter is read, and the bytes are averaged per operation. The bytes allocated by
+ * reading the counter itself are measured with an empty operation and subtracted. The tests are skipped when the
+ * JVM cannot measure allocations; a failure reports the measured allocation and the budget.
+ */
+public class IdentityAllocationBudgetTests {
+
+	private static final String BUDGETS_RESOURCE = "allocation-budgets.properties";
+	private static final int WARMUP_ITERATIONS = 5000;
+	private static final int MEASURED_ITERATIONS = 1000;
+
+	// measures the allocations of reading the counter, which are not counted against the budgets
+	private static final Operation EMPTY_OPERATION = () -> 1;
+
+	private static Properties budgets;
+
+	// consumes operation results so they are not optimized away
+	private int sink;
+
+	private interface Operation {
+		int run();
+	}
+
+	@BeforeClass
+	public static void loadBudgets() throws IOException {
+		budgets = new Properties();
+		final InputStream stream = IdentityAllocationBudgetTests.class.getClassLoader()
+			.getResourceAsStream(BUDGETS_RESOURCE);
+		assertNotNull("Missing " + BUDGETS_RESOURCE, stream);
+
+		try {
+			budgets.load(stream);
+		} finally {
+			stream.close();
+		}
+	}
+
+	@Before
+	public void setup() {
+		assumeTrue("JVM cannot measure allocations", AllocationCounter.isSupported());
+	}
+
+	@Test
+	public void identityItem_toObjectMap() {
+		final IdentityItem item = new IdentityItem("identifier", AuthenticatedState.AUTHENTICATED, true);
+
+		assertWithinBudget("identityItem.toObjectMap", () -> item.toObjectMap().size());
+	}
+
+	@Test
+	public void identityItem_fromData() {
+		final Map<String, Object> data = new IdentityItem("identifier", AuthenticatedState.AUTHENTICATED, true)
+			.toObjectMap();
+
+		assertWithinBudget("identityItem.fromData", () -> IdentityItem.fromData(data).hashCode());
+	}
+
+	@Test
+	public void identityMap_asXDMMap() {
+		final IdentityMap map = buildMap(20, 4);
+
+		assertWithinBudget("identityMap.asXDMMap", () -> map.asXDMMap(false).size());
+	}
+
+	@Test
+	public void identityMap_fromXDMMap() {
+		final Map<String, Object> xdmMap = buildMap(20, 4).asXDMMap(false);
+
+		assertWithinBudget("identityMap.fromXDMMap", () -> IdentityMap.fromXDMMap(xdmMap).getItemCount());
+	}
+
+	@Test
+	public void identityMap_merge() {
+		final IdentityMap map = buildMap(20, 4);
+		final IdentityMap update = buildMap(5, 4);
+
+		assertWithinBudget(
+			"identityMap.merge",
+			() -> {
+				map.merge(update);
+				return map.getItemCount();
+			}
+		);
+	}
+
+	@Test
+	public void urlUtils_generateURLVariablesPayload() {
+		final String ecid = new ECID().toString();
+
+		assertWithinBudget(
+			"urlUtils.generateURLVariablesPayload",
+			() -> URLUtils.generateURLVariablesPayload("1700000000", ecid, "orgId@AdobeOrg").length()
+		);
+	}
+
+	@Test
+	public void identityLog_debugAtDefaultLevel() {
+		MobileCore.setLogLevel(LoggingMode.ERROR);
+		final String ecid = new ECID().toString();
+		final String namespace = "namespace";
+
+		assertWithinBudget(
+			"identityLog.debugAtDefaultLevel",
+			() -> {
+				IdentityLog.debug("AllocationBudget", "Updating ECID '%s' in namespace %s", ecid, namespace);
+				return 1;
+			}
+		);
+	}
+
+	private void assertWithinBudget(final String name, final Operation operation) {
+		final String budgetValue = budgets.getProperty(name);
+		assertNotNull("No allocation budget for " + name + " in " + BUDGETS_RESOURCE, budgetValue);
+		final long budget = Long.parseLong(budgetValue.trim());
+
+		final long bytesPerOperation = Math.max(
+			0,
+			(measureAllocatedBytes(operation) - measureAllocatedBytes(EMPTY_OPERATION)) / MEASURED_ITERATIONS
+		);
+
+		assertTrue(
+			String.format(
+				"%s allocated %d bytes per operation, over its budget of %d bytes in %s",
+				name,
+				bytesPerOperation,
+				budget,
+				BUDGETS_RESOURCE
+			),
+			bytesPerOperation <= budget
+		);
+	}
+
+	/**
+	 * Warms up the operation, then runs it {@link #MEASURED_ITERATIONS} times.
+	 *
+	 * @return the bytes allocated by the test thread while the operation was measured
+	 */
+	private long measureAllocatedBytes(final Operation operation) {
+		for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+			sink += operation.run();
+		}
+
+		final long startBytes = AllocationCounter.getAllocatedBytes();
+
+		for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+			sink += operation.run();
+		}
+
+		return AllocationCounter.getAllocatedBytes() - startBytes;
+	}
+
+	private static IdentityMap buildMap(final int itemCount, final int namespaceCount) {
+		final IdentityMap map = new IdentityMap();
+
+		for (int i = 0; i < itemCount; i++) {
+			map.addItem(new IdentityItem("identifier-" + i), "namespace" + (i % namespaceCount));
+		}
+
+		return map;
+	}
+}
@@ -0,0 +1,193 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.edge.identity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import com.adobe.marketing.mobile.Event;
+import com.adobe.marketing.mobile.EventSource;
+import com.adobe.marketing.mobile.EventType;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Measures the time and allocations of {@link IdentityExtension} from construction to its first XDM shared state,
+ * which are on the app launch path. Construction loads and parses the persisted properties; boot migrates or
+ * generates the ECID and creates the first shared state.
+ * <p>
+ * In the app, the EventHub shared state which lets the extension boot is set once all extensions are registered.
+ * The benchmark models this with a short pause between construction and boot, which is not included in the times,
+ * so that a direct Identity ECID read started at registration can complete before boot as it would in the app.
+ * Allocations of that background read are not counted.
+ * <p>
+ * Each iteration uses a new {@link FakeEventHub} with paused event processing, and runs construction and boot
+ * on the test thread so the thread's allocation counter covers both. The stub persistence and {@code ExtensionApi}
+ * add a small, constant overhead. Results are written to the {@code IdentityColdStartBenchmark} report of
+ * {@link BenchmarkReport}, one line per scenario, and are meant to be compared between runs on the same machine.
+ * <p>
+ * The benchmark is excluded from the unit tests and runs with {@code make benchmark-cold-start}.
+ */
+public class IdentityColdStartBenchmarkTests {
+
+	private static final int WARMUP_ITERATIONS = 20;
+	private static final int MEASURED_ITERATIONS = 50;
+	private static final int LARGE_MAP_ITEMS = 200;
+	private static final String LEGACY_ECID = "12345678901234567890123456789012345678";
+	private static final long REGISTRATION_PAUSE_MILLIS = 1;
+
+	private interface Scenario {
+		void seed(final FakeEventHub hub);
+	}
+
+	@After
+	public void teardown() {
+		IdentityState.resetBootCompleted();
+	}
+
+	@Test
+	public void benchmark_freshInstall() {
+		run("fresh install", false, hub -> {});
+	}
+
+	@Test
+	public void benchmark_warmInstall_smallMap() {
+		run("warm install, 5 items", false, hub -> seedPersistedProperties(hub, 5));
+	}
+
+	@Test
+	public void benchmark_warmInstall_largeMap() {
+		run(
+			"warm install, " + LARGE_MAP_ITEMS + " items",
+			false,
+			hub -> seedPersistedProperties(hub, LARGE_MAP_ITEMS)
+		);
+	}
+
+	@Test
+	public void benchmark_migrationFromIdentityDirect() {
+		assertMigrated(run("migration from Identity direct", true, IdentityColdStartBenchmarkTests::seedLegacyEcid));
+	}
+
+	private static void assertMigrated(final FakeEventHub hub) {
+		final IdentityMap sharedMap = IdentityMap.fromXDMMap(hub.getXDMSharedState(IdentityConstants.EXTENSION_NAME));
+		final IdentityItem ecidItem = sharedMap.getIdentityItemsForNamespace(IdentityConstants.Namespaces.ECID).get(0);
+		assertEquals(LEGACY_ECID, ecidItem.getId());
+	}
+
+	/**
+	 * Runs the warmup and measured iterations of a scenario and reports the results.
+	 *
+	 * @return the {@link FakeEventHub} of the last iteration
+	 */
+	private static FakeEventHub run(
+		final String name,
+		final boolean identityDirectRegistered,
+		final Scenario scenario
+	) {
+		final long[] constructNanos = new long[MEASURED_ITERATIONS];
+		final long[] bootNanos = new long[MEASURED_ITERATIONS];
+		final long[] totalNanos = new long[MEASURED_ITERATIONS];
+		long allocatedBytes = 0;
+		FakeEventHub hub = null;
+
+		for (int i = -WARMUP_ITERATIONS; i < MEASURED_ITERATIONS; i++) {
+			hub = new FakeEventHub();
+			hub.setPaused(true);
+			scenario.seed(hub);
+			hub.shareEventHubState(identityDirectRegistered);
+			IdentityState.resetBootCompleted();
+			final Event event = new Event.Builder("Benchmark", EventType.EDGE_IDENTITY, EventSource.REQUEST_IDENTITY)
+				.build();
+
+			final long startBytes = AllocationCounter.getAllocatedBytes();
+			final long startNanos = System.nanoTime();
+			final IdentityExtension extension = hub.registerIdentityExtension();
+			final long constructedNanos = System.nanoTime();
+			final long constructedBytes = AllocationCounter.getAllocatedBytes();
+			pause(REGISTRATION_PAUSE_MILLIS);
+			final long resumedBytes = AllocationCounter.getAllocatedBytes();
+			final long resumedNanos = System.nanoTime();
+			final boolean ready = extension.readyForEvent(event);
+			final long bootedNanos = System.nanoTime();
+			final long endBytes = AllocationCounter.getAllocatedBytes();
+
+			assertTrue(ready);
+			assertNotNull(hub.getXDMSharedState(IdentityConstants.EXTENSION_NAME));
+			hub.shutdown();
+
+			if (i >= 0) {
+				constructNanos[i] = constructedNanos - startNanos;
+				bootNanos[i] = bootedNanos - resumedNanos;
+				totalNanos[i] = constructNanos[i] + bootNanos[i];
+				allocatedBytes += (constructedBytes - startBytes) + (endBytes - resumedBytes);
+			}
+		}
+
+		BenchmarkReport.append(
+			"IdentityColdStartBenchmark",
+			String.format(
+				"[%s]: construct p50 %d us, boot p50 %d us, to shared state p50 %d us, p90 %d us, %s",
+				name,
+				toMicros(percentile(constructNanos, 50)),
+				toMicros(percentile(bootNanos, 50)),
+				toMicros(percentile(totalNanos, 50)),
+				toMicros(percentile(totalNanos, 90)),
+				AllocationCounter.isSupported()
+					? (allocatedBytes / MEASURED_ITERATIONS) + " bytes allocated"
+					: "allocations not measured"
+			)
+		);
+
+		return hub;
+	}
+
+	private static void seedLegacyEcid(final FakeEventHub hub) {
+		hub
+			.getNamedCollection(IdentityConstants.DataStoreKey.IDENTITY_DIRECT_DATASTORE_NAME)
+			.setString(IdentityConstants.DataStoreKey.IDENTITY_DIRECT_ECID_KEY, LEGACY_ECID);
+	}
+
+	private static void pause(final long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void seedPersistedProperties(final FakeEventHub hub, final int itemCount) {
+		final IdentityMap map = new IdentityMap();
+
+		for (int i = 0; i < itemCount; i++) {
+			map.addItem(new IdentityItem("identifier-" + i), "namespace" + (i % 20));
+		}
+
+		final IdentityProperties properties = new IdentityProperties();
+		properties.setECID(new ECID());
+		properties.updateCustomerIdentifiers(map);
+		new IdentityStorageManager(hub.getDataStore()).savePropertiesToPersistence(properties);
+	}
+
+	private static long percentile(final long[] values, final int percentile) {
+		final long[] sorted = values.clone();
+		Arrays.sort(sorted);
+		return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)];
+	}
+
+	private static long toMicros(final long nanos) {
+		return TimeUnit.NANOSECONDS.toMicros(nanos);
+	}
+}
@@ -0,0 +1,126 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.edge.identity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.adobe.marketing.mobile.AdobeCallbackWithError;
+import com.adobe.marketing.mobile.AdobeError;
+import com.adobe.marketing.mobile.Event;
+import com.adobe.marketing.mobile.EventSource;
+import com.adobe.marketing.mobile.EventType;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Measures the event throughput of {@link IdentityExtension} through the {@link FakeEventHub}, dispatching an
+ * update, a remove and a get identities request per iteration.
+ * <p>
+ * Results are written to the {@code IdentityEventHubBenchmark} report of {@link BenchmarkReport} and are meant to
+ * be compared between runs on the same machine. The benchmark is excluded from the unit tests and runs with
+ * {@code make benchmark-event-hub}.
+ */
+public class IdentityEventHubBenchmarkTests {
+
+	private static final int ITERATIONS = 2000;
+	private static final long TIMEOUT_MILLIS = 60000;
+
+	private FakeEventHub hub;
+
+	@Before
+	public void setup() {
+		IdentityState.resetBootCompleted();
+		hub = new FakeEventHub();
+	}
+
+	@After
+	public void teardown() {
+		hub.shutdown();
+	}
+
+	@Test
+	public void benchmark_updateRemoveGet() throws Exception {
+		// setup
+		hub.registerIdentityExtension();
+		hub.shareEventHubState(false);
+		hub.setRecordDispatchedEvents(false);
+		assertTrue(hub.awaitIdle(TIMEOUT_MILLIS));
+
+		final AtomicInteger responses = new AtomicInteger();
+		final long[] latencies = new long[ITERATIONS];
+
+		// test
+		final long startNanos = System.nanoTime();
+
+		for (int i = 0; i < ITERATIONS; i++) {
+			final int index = i;
+			final long requestNanos = System.nanoTime();
+			hub.dispatch(buildUpdateEvent("space" + (i % 10), "id" + i));
+			hub.dispatch(buildRemoveEvent("space" + (i % 10), "id" + (i - 10)));
+			hub.dispatch(
+				new Event.Builder(
+					IdentityConstants.EventNames.REQUEST_IDENTITIES,
+					EventType.EDGE_IDENTITY,
+					EventSource.REQUEST_IDENTITY
+				)
+					.build(),
+				TIMEOUT_MILLIS,
+				new AdobeCallbackWithError<Event>() {
+					@Override
+					public void fail(final AdobeError adobeError) {}
+
+					@Override
+					public void call(final Event event) {
+						latencies[index] = System.nanoTime() - requestNanos;
+						responses.incrementAndGet();
+					}
+				}
+			);
+		}
+
+		assertTrue(hub.awaitIdle(TIMEOUT_MILLIS));
+		final long elapsedNanos = System.nanoTime() - startNanos;
+
+		// verify
+		assertEquals(ITERATIONS, responses.get());
+		Arrays.sort(latencies);
+		BenchmarkReport.append(
+			"IdentityEventHubBenchmark",
+			String.format(
+				"[update, remove, get]: %d events in %d ms, get p50 %d us, p99 %d us",
+				ITERATIONS * 3,
+				TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+				TimeUnit.NANOSECONDS.toMicros(latencies[ITERATIONS / 2]),
+				TimeUnit.NANOSECONDS.toMicros(latencies[ITERATIONS * 99 / 100])
+			)
+		);
+	}
+
+	private static Event buildUpdateEvent(final String namespace, final String id) {
+		return IdentityTestUtil.buildUpdateIdentityRequest(buildMap(namespace, id).asXDMMap(false));
+	}
+
+	private static Event buildRemoveEvent(final String namespace, final String id) {
+		return IdentityTestUtil.buildRemoveIdentityRequest(buildMap(namespace, id).asXDMMap(false));
+	}
+
+	private static IdentityMap buildMap(final String namespace, final String id) {
+		final IdentityMap map = new IdentityMap();
+		map.addItem(new IdentityItem(id), namespace);
+		return map;
+	}
+}
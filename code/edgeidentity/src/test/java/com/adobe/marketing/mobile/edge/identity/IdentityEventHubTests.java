@@ -0,0 +1,410 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.edge.identity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.adobe.marketing.mobile.AdobeCallbackWithError;
+import com.adobe.marketing.mobile.AdobeError;
+import com.adobe.marketing.mobile.Event;
+import com.adobe.marketing.mobile.EventSource;
+import com.adobe.marketing.mobile.EventType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * End-to-end tests driving {@link IdentityExtension} through the {@link FakeEventHub}.
+ */
+public class IdentityEventHubTests {
+
+	private static final long TIMEOUT_MILLIS = 5000;
+
+	private FakeEventHub hub;
+
+	@Before
+	public void setup() {
+		IdentityState.resetBootCompleted();
+		hub = new FakeEventHub();
+	}
+
+	@After
+	public void teardown() {
+		hub.shutdown();
+	}
+
+	@Test
+	public void test_requestBeforeBoot_isHandledAfterEventHubState() throws Exception {
+		// setup
+		hub.registerIdentityExtension();
+		final AtomicReference<IdentityMap> response = new AtomicReference<>();
+
+		// test
+		requestIdentities(response);
+		assertFalse(hub.awaitIdle(TIMEOUT_MILLIS));
+		assertNull(response.get());
+
+		hub.shareEventHubState(false);
+
+		// verify
+		assertTrue(hub.awaitIdle(TIMEOUT_MILLIS));
+		assertNotNull(response.get());
+		final IdentityMap responseMap = response.get();
+		final String ecid = responseMap.getIdentityItemsForNamespace(IdentityConstants.Namespaces.ECID).get(0).getId();
+		assertEquals(ecid, getSharedStateECID());
+	}
+
+	@Test
+	public void test_updateBeforeBoot_isHandledBeforeBootAndShared() throws Exception {
+		// setup
+		hub.registerIdentityExtension();
+
+		// test
+		hub.dispatch(buildUpdateEvent("space", "id1"));
+
+		// verify the update does not wait for boot, but is only shared by boot
+		assertTrue(hub.awaitIdle(TIMEOUT_MILLIS));
+		assertNull(hub.getXDMSharedState(IdentityConstants.EXTENSION_NAME));
+		final IdentityProperties persisted = new IdentityStorageManager(hub.getDataStore())
+			.loadPropertiesFromPersistence();
+		final IdentityMap persistedMap = IdentityMap.fromXDMMap(persisted.toXDMData());
+		assertEquals("id1", persistedMap.getIdentityItemsForNamespace("space").get(0).getId());
+
+		hub.shareEventHubState(false);
+
+		assertTrue(hub.awaitIdle(TIMEOUT_MILLIS));
+		final IdentityMap sharedMap = IdentityMap.fromXDMMap(hub.getXDMSharedState(IdentityConstants.EXTENSION_NAME));
+		assertEquals("id1", sharedMap.getIdentityItemsForNamespace("space").get(0).getId());
+		assertNotNull(getSharedStateECID());
+	}
+
+	@Test
+	public void test_updateAndRemove_updatesSharedStateAndPersistence() throws Exception {
+		// setup
+		hub.registerIdentityExtension();
+		hub.shareEventHubState(false);
+
+		// test
+		hub.dispatch(buildUpdateEvent("space", "id1", "id2"));
+		hub.dispatch(buildRemoveEvent("space", "id1"));
+
+		// verify
+		assertTrue(hub.awaitIdle(TIMEOUT_MILLIS));
+		final IdentityMap sharedMap = IdentityMap.fromXDMMap(hub.getXDMSharedState(IdentityConstants.EXTENSION_NAME));
+		assertEquals(1, sharedMap.getIdentityItemsForNamespace("space").size());
+		assertEquals("id2", sharedMap.getIdentityItemsForNamespace("space").get(0).getId());
+
+		final IdentityProperties persisted = new IdentityStorageManager(hub.getDataStore())
+			.loadPropertiesFromPersistence();
+		final IdentityMap persistedMap = IdentityMap.fromXDMMap(persisted.toXDMData());
+		assertEquals(1, persistedMap.getIdentityItemsForNamespace("space").size());
+
+		// boot, update and remove each update the version stamp, which is shared in the standard shared state
+		final IdentityVersion expectedVersion = new IdentityVersion(3L, persisted.getContentHash());
+		assertEquals(expectedVersion.toEventData(), hub.getSharedState(IdentityConstants.EXTENSION_NAME));
+		assertEquals(expectedVersion, requestIdentityVersion());
+	}
+
+	@Test
+	public void test_notifyIdentityVersionChangesRequest_dispatchesVersionChangesUntilCleared() throws Exception {
+		// setup
+		hub.registerIdentityExtension();
+		hub.shareEventHubState(false);
+		hub.dispatch(buildUpdateEvent("space", "id1"));
+		assertTrue(hub.awaitIdle(TIMEOUT_MILLIS));
+		assertTrue(getIdentityVersionChangedEvents().isEmpty());
+
+		// test
+		final Map<String, Object> eventData = new HashMap<>();
+		eventData.put(IdentityConstants.EventDataKeys.IDENTITY_VERSION, true);
+		eventData.put(IdentityConstants.EventDataKeys.NOTIFY_IDENTITY_VERSION_CHANGES, true);
+		final AtomicReference<Event> response = new AtomicReference<>();
+		hub.dispatch(
+			new Event.Builder(
+				IdentityConstants.EventNames.IDENTITY_REQUEST_IDENTITY_VERSION,
+				EventType.EDGE_IDENTITY,
+				EventSource.REQUEST_IDENTITY
+			)
+				.setEventData(eventData)
+				.build(),
+			TIMEOUT_MILLIS,
+			new AdobeCallbackWithError<Event>() {
+				@Override
+				public void fail(final AdobeError adobeError) {}
+
+				@Override
+				public void call(final Event event) {
+					response.set(event);
+				}
+			}
+		);
+		hub.dispatch(buildUpdateEvent("space", "id2"));
+		hub.dispatch(buildUpdateEvent("space", "id2"));
+
+		// verify the response holds the current version and only the change is dispatched, without identifiers
+		assertTrue(hub.awaitIdle(TIMEOUT_MILLIS));
+		assertEquals(2L, IdentityVersion.fromEventData(response.get().getEventData()).getVersion());
+
+		final List<Event> changes = getIdentityVersionChangedEvents();
+		assertEquals(1, changes.size());
+		assertEquals(EventSource.RESPONSE_IDENTITY, changes.get(0).getSource());
+		assertEquals(hub.getSharedState(IdentityConstants.EXTENSION_NAME), changes.get(0).getEventData());
+		assertEquals(3L, IdentityVersion.fromEventData(changes.get(0).getEventData()).getVersion());
+
+		// test
+		hub.dispatch(
+			new Event.Builder(
+				IdentityConstants.EventNames.IDENTITY_REQUEST_IDENTITY_VERSION,
+				EventType.EDGE_IDENTITY,
+				EventSource.REQUEST_IDENTITY
+			)
+				.setEventData(
+					Collections.<String, Object>singletonMap(
+						IdentityConstants.EventDataKeys.NOTIFY_IDENTITY_VERSION_CHANGES,
+						false
+					)
+				)
+				.build()
+		);
+		hub.dispatch(buildUpdateEvent("space", "id3"));
+
+		// verify later changes are only shared
+		assertTrue(hub.awaitIdle(TIMEOUT_MILLIS));
+		assertEquals(1, getIdentityVersionChangedEvents().size());
+		assertEquals(
+			4L,
+			IdentityVersion.fromEventData(hub.getSharedState(IdentityConstants.EXTENSION_NAME)).getVersion()
+		);
+	}
+
+	@Test
+	public void test_boot_migratesECIDFromIdentityDirectPersistence() throws Exception {
+		// setup
+		final ECID legacyEcid = new ECID();
+		hub
+			.getNamedCollection(IdentityConstants.DataStoreKey.IDENTITY_DIRECT_DATASTORE_NAME)
+			.setString(IdentityConstants.DataStoreKey.IDENTITY_DIRECT_ECID_KEY, legacyEcid.toString());
+		hub.registerIdentityExtension();
+
+		// test
+		hub.shareEventHubState(true);
+
+		// verify
+		assertTrue(hub.awaitIdle(TIMEOUT_MILLIS));
+		assertEquals(legacyEcid.toString(), getSharedStateECID());
+	}
+
+	@Test
+	public void test_requestWithoutBoot_timesOut() throws Exception {
+		// setup
+		hub.registerIdentityExtension();
+		final CountDownLatch latch = new CountDownLatch(1);
+		final AtomicReference<AdobeError> error = new AtomicReference<>();
+
+		// test
+		hub.dispatch(
+			buildRequestEvent(),
+			50,
+			new AdobeCallbackWithError<Event>() {
+				@Override
+				public void fail(final AdobeError adobeError) {
+					error.set(adobeError);
+					latch.countDown();
+				}
+
+				@Override
+				public void call(final Event event) {
+					latch.countDown();
+				}
+			}
+		);
+
+		// verify
+		assertTrue(latch.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+		assertEquals(AdobeError.CALLBACK_TIMEOUT, error.get());
+	}
+
+	@Test
+	public void test_bootTimeoutEventBeforeDeadline_doesNotCompleteBoot() throws Exception {
+		// setup
+		hub.registerIdentityExtension();
+		hub.setSharedState(
+			IdentityConstants.SharedState.Configuration.NAME,
+			Collections.<String, Object>singletonMap(
+				IdentityConstants.SharedState.Configuration.BOOT_TIMEOUT_MILLIS,
+				60000L
+			)
+		);
+		hub.shareEventHubState(true);
+
+		// test
+		hub.dispatch(
+			new Event.Builder(
+				IdentityConstants.EventNames.IDENTITY_BOOT_TIMEOUT,
+				EventType.EDGE_IDENTITY,
+				EventSource.REQUEST_IDENTITY
+			)
+				.setEventData(Collections.<String, Object>singletonMap(IdentityConstants.EventDataKeys.BOOT_TIMEOUT, true))
+				.build()
+		);
+
+		// verify boot keeps waiting for the direct Identity state until the deadline
+		assertFalse(hub.awaitIdle(TIMEOUT_MILLIS));
+		assertFalse(IdentityState.isBootCompleted());
+		assertNull(hub.getXDMSharedState(IdentityConstants.EXTENSION_NAME));
+	}
+
+	@Test
+	public void test_updateRemoveGet_respondsInOrderWithoutDroppingEvents() throws Exception {
+		// setup
+		final int iterations = 100;
+		hub.registerIdentityExtension();
+		hub.shareEventHubState(false);
+		assertTrue(hub.awaitIdle(TIMEOUT_MILLIS));
+
+		final List<String> responseIds = Collections.synchronizedList(new ArrayList<String>());
+		final CountDownLatch latch = new CountDownLatch(iterations);
+
+		// test
+		for (int i = 0; i < iterations; i++) {
+			hub.dispatch(buildUpdateEvent("space", "id" + i));
+			hub.dispatch(buildRemoveEvent("space", "id" + (i - 1)));
+			hub.dispatch(
+				buildRequestEvent(),
+				TIMEOUT_MILLIS,
+				new AdobeCallbackWithError<Event>() {
+					@Override
+					public void fail(final AdobeError adobeError) {}
+
+					@Override
+					public void call(final Event event) {
+						final List<IdentityItem> items = IdentityMap
+							.fromXDMMap(event.getEventData())
+							.getIdentityItemsForNamespace("space");
+						responseIds.add(items.size() == 1 ? items.get(0).getId() : String.valueOf(items));
+						latch.countDown();
+					}
+				}
+			);
+		}
+
+		// verify each get sees the update and remove dispatched just before it, and only those
+		assertTrue(latch.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+		assertTrue(hub.awaitIdle(TIMEOUT_MILLIS));
+		assertEquals(iterations, responseIds.size());
+
+		for (int i = 0; i < iterations; i++) {
+			assertEquals("id" + i, responseIds.get(i));
+		}
+	}
+
+	private void requestIdentities(final AtomicReference<IdentityMap> response) {
+		hub.dispatch(
+			buildRequestEvent(),
+			TIMEOUT_MILLIS,
+			new AdobeCallbackWithError<Event>() {
+				@Override
+				public void fail(final AdobeError adobeError) {}
+
+				@Override
+				public void call(final Event event) {
+					response.set(IdentityMap.fromXDMMap(event.getEventData()));
+				}
+			}
+		);
+	}
+
+	private IdentityVersion requestIdentityVersion() throws InterruptedException {
+		final AtomicReference<IdentityVersion> response = new AtomicReference<>();
+		final CountDownLatch latch = new CountDownLatch(1);
+		hub.dispatch(
+			new Event.Builder(
+				IdentityConstants.EventNames.IDENTITY_REQUEST_IDENTITY_VERSION,
+				EventType.EDGE_IDENTITY,
+				EventSource.REQUEST_IDENTITY
+			)
+				.setEventData(Collections.singletonMap(IdentityConstants.EventDataKeys.IDENTITY_VERSION, true))
+				.build(),
+			TIMEOUT_MILLIS,
+			new AdobeCallbackWithError<Event>() {
+				@Override
+				public void fail(final AdobeError adobeError) {
+					latch.countDown();
+				}
+
+				@Override
+				public void call(final Event event) {
+					response.set(IdentityVersion.fromEventData(event.getEventData()));
+					latch.countDown();
+				}
+			}
+		);
+		assertTrue(latch.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+		return response.get();
+	}
+
+	private List<Event> getIdentityVersionChangedEvents() {
+		final List<Event> events = new ArrayList<>();
+
+		for (final Event event : hub.getDispatchedEvents()) {
+			if (IdentityConstants.EventNames.IDENTITY_VERSION_CHANGED.equals(event.getName())) {
+				events.add(event);
+			}
+		}
+
+		return events;
+	}
+
+	private String getSharedStateECID() {
+		final IdentityMap sharedMap = IdentityMap.fromXDMMap(hub.getXDMSharedState(IdentityConstants.EXTENSION_NAME));
+		return sharedMap.getIdentityItemsForNamespace(IdentityConstants.Namespaces.ECID).get(0).getId();
+	}
+
+	private static Event buildRequestEvent() {
+		return new Event.Builder(
+			IdentityConstants.EventNames.REQUEST_IDENTITIES,
+			EventType.EDGE_IDENTITY,
+			EventSource.REQUEST_IDENTITY
+		)
+			.build();
+	}
+
+	private static Event buildUpdateEvent(final String namespace, final String... ids) {
+		return IdentityTestUtil.buildUpdateIdentityRequest(buildMap(namespace, ids).asXDMMap(false));
+	}
+
+	private static Event buildRemoveEvent(final String namespace, final String... ids) {
+		return IdentityTestUtil.buildRemoveIdentityRequest(buildMap(namespace, ids).asXDMMap(false));
+	}
+
+	private static IdentityMap buildMap(final String namespace, final String... ids) {
+		final IdentityMap map = new IdentityMap();
+
+		for (final String id : ids) {
+			map.addItem(new IdentityItem(id), namespace);
+		}
+
+		return map;
+	}
+}
@@ -19,9 +19,13 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -30,13 +34,17 @@ import com.adobe.marketing.mobile.Event;
 import com.adobe.marketing.mobile.EventSource;
 import com.adobe.marketing.mobile.EventType;
 import com.adobe.marketing.mobile.ExtensionApi;
+import com.adobe.marketing.mobile.ExtensionEventListener;
 import com.adobe.marketing.mobile.SharedStateResolution;
 import com.adobe.marketing.mobile.SharedStateResolver;
 import com.adobe.marketing.mobile.SharedStateResult;
 import com.adobe.marketing.mobile.SharedStateStatus;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
@@ -61,6 +69,14 @@ public class IdentityExtensionTests {
 	@Before
 	public void setup() {
 		MockitoAnnotations.openMocks(this);
+		when(mockIdentityState.getIdentityVersion()).thenReturn(new IdentityVersion(1L, 42L));
+		when(mockIdentityState.hasBooted()).thenReturn(true);
+		when(mockIdentityState.getNextExpiresAt()).thenReturn(IdentityItem.NO_EXPIRY);
+	}
+
+	@After
+	public void teardown() {
+		IdentityTracer.setSink(null);
 	}
 
 	// ========================================================================================
@@ -139,7 +155,69 @@ public class IdentityExtensionTests {
 
 		// test and verify
 		extension = new IdentityExtension(mockExtensionApi, mockIdentityState);
-		assertFalse(extension.readyForEvent(buildUpdateIdentityRequest(Collections.EMPTY_MAP)));
+		assertFalse(extension.readyForEvent(buildGetIdentitiesRequest()));
+	}
+
+	@Test
+	public void test_readyForEvent_cannotBootWithDeadline_schedulesBootTimeoutEventOnce() {
+		extension = new IdentityExtension(mockExtensionApi, mockIdentityState);
+		when(mockIdentityState.bootupIfReady(any())).thenReturn(false);
+		when(mockIdentityState.getBootDeadlineMillis()).thenReturn(6000L);
+		when(mockIdentityState.getMillisUntil(6000L)).thenReturn(10L);
+
+		assertFalse(extension.readyForEvent(buildGetIdentitiesRequest()));
+		assertFalse(extension.readyForEvent(buildGetIdentitiesRequest()));
+		verify(mockIdentityState, times(1)).getMillisUntil(6000L);
+
+		final ArgumentCaptor<Event> timeoutEventCaptor = ArgumentCaptor.forClass(Event.class);
+		verify(mockExtensionApi, timeout(1000)).dispatch(timeoutEventCaptor.capture());
+		final Event timeoutEvent = timeoutEventCaptor.getValue();
+		assertEquals(IdentityConstants.EventNames.IDENTITY_BOOT_TIMEOUT, timeoutEvent.getName());
+		assertEquals(EventType.EDGE_IDENTITY, timeoutEvent.getType());
+		assertEquals(EventSource.REQUEST_IDENTITY, timeoutEvent.getSource());
+		assertTrue(EventUtils.isBootTimeoutEvent(timeoutEvent));
+
+		// the boot timeout event only wakes up the event queue
+		extension.handleRequestIdentity(timeoutEvent);
+		verify(mockExtensionApi, times(1)).dispatch(any(Event.class));
+		verify(mockIdentityState, never()).getIdentityProperties();
+	}
+
+	@Test
+	public void test_onUnregistered_dropsScheduledBootTimeoutEvent() throws Exception {
+		extension = new IdentityExtension(mockExtensionApi, mockIdentityState);
+		when(mockIdentityState.bootupIfReady(any())).thenReturn(false);
+		when(mockIdentityState.getBootDeadlineMillis()).thenReturn(6000L);
+		when(mockIdentityState.getMillisUntil(6000L)).thenReturn(200L);
+
+		assertFalse(extension.readyForEvent(buildGetIdentitiesRequest()));
+		extension.onUnregistered();
+
+		Thread.sleep(400);
+		verify(mockExtensionApi, never()).dispatch(any(Event.class));
+	}
+
+	@Test
+	public void test_readyForEvent_cannotBootWithoutDeadline_doesNotScheduleBootTimeoutEvent() {
+		extension = new IdentityExtension(mockExtensionApi, mockIdentityState);
+		when(mockIdentityState.bootupIfReady(any())).thenReturn(false);
+		when(mockIdentityState.getBootDeadlineMillis()).thenReturn(0L);
+
+		assertFalse(extension.readyForEvent(buildGetIdentitiesRequest()));
+
+		verify(mockExtensionApi, never()).dispatch(any(Event.class));
+	}
+
+	@Test
+	public void test_readyForEvent_cannotBoot_customerIdentifiersChangeEvents_returnsTrue() {
+		// setup
+		when(mockIdentityState.bootupIfReady(any())).thenReturn(false);
+
+		// test and verify
+		extension = new IdentityExtension(mockExtensionApi, mockIdentityState);
+		assertTrue(extension.readyForEvent(buildUpdateIdentityRequest(Collections.EMPTY_MAP)));
+		assertTrue(extension.readyForEvent(buildRemoveIdentityRequest(Collections.EMPTY_MAP)));
+		assertFalse(extension.readyForEvent(buildGetIdentitiesRequest()));
 	}
 
 	@Test
@@ -271,6 +349,399 @@ public class IdentityExtensionTests {
 		assertNotNull(identityMap);
 		final String ecid = identityMap.getIdentityItemsForNamespace("ECID").get(0).getId();
 		assertEquals(ecid, properties.getECID().toString());
+
+		// verify that the response carries the version stamp of the identifiers
+		assertEquals(new IdentityVersion(1L, 42L), IdentityVersion.fromEventData(ecidResponseEvent.getEventData()));
+	}
+
+	@Test
+	public void test_handleRequestIdentity_ifNoneMatchUnchanged_DispatchesResponseEventWithoutIdentities() {
+		// setup
+		final IdentityProperties properties = new IdentityProperties();
+		properties.setECID(new ECID());
+		when(mockIdentityState.getIdentityProperties()).thenReturn(properties);
+
+		extension = new IdentityExtension(mockExtensionApi, mockIdentityState);
+
+		Event event = new Event.Builder("Test event", EventType.EDGE_IDENTITY, EventSource.REQUEST_IDENTITY)
+			.setEventData(
+				new HashMap<String, Object>() {
+					{
+						put(IdentityConstants.EventDataKeys.IF_NONE_MATCH, 42L);
+					}
+				}
+			)
+			.build();
+		final ArgumentCaptor<Event> responseEventCaptor = ArgumentCaptor.forClass(Event.class);
+
+		// test
+		extension.handleRequestIdentity(event);
+
+		// verify
+		verify(mockExtensionApi).dispatch(responseEventCaptor.capture());
+		final Event capturedResponseEvent = responseEventCaptor.getValue();
+		assertEquals(capturedResponseEvent.getResponseID(), event.getUniqueIdentifier());
+		assertEquals(new IdentityVersion(1L, 42L).toEventData(), capturedResponseEvent.getEventData());
+	}
+
+	@Test
+	public void test_handleRequestIdentity_ifNoneMatchChanged_DispatchesResponseEventWithIdentities() {
+		// setup
+		final IdentityProperties properties = new IdentityProperties();
+		properties.setECID(new ECID());
+		when(mockIdentityState.getIdentityProperties()).thenReturn(properties);
+
+		extension = new IdentityExtension(mockExtensionApi, mockIdentityState);
+
+		Event event = new Event.Builder("Test event", EventType.EDGE_IDENTITY, EventSource.REQUEST_IDENTITY)
+			.setEventData(
+				new HashMap<String, Object>() {
+					{
+						put(IdentityConstants.EventDataKeys.IF_NONE_MATCH, 7L);
+					}
+				}
+			)
+			.build();
+		final ArgumentCaptor<Event> responseEventCaptor = ArgumentCaptor.forClass(Event.class);
+
+		// test
+		extension.handleRequestIdentity(event);
+
+		// verify
+		verify(mockExtensionApi).dispatch(responseEventCaptor.capture());
+		final Event capturedResponseEvent = responseEventCaptor.getValue();
+		final IdentityMap identityMap = IdentityMap.fromXDMMap(capturedResponseEvent.getEventData());
+		assertNotNull(identityMap);
+		assertEquals(
+			properties.getECID().toString(),
+			identityMap.getIdentityItemsForNamespace("ECID").get(0).getId()
+		);
+		assertEquals(new IdentityVersion(1L, 42L), IdentityVersion.fromEventData(capturedResponseEvent.getEventData()));
+	}
+
+	@Test
+	public void test_handleRequestIdentity_identityVersion_DispatchesResponseEventWithVersion() {
+		// setup
+		extension = new IdentityExtension(mockExtensionApi, mockIdentityState);
+		when(mockIdentityState.getIdentityProperties()).thenReturn(new IdentityProperties());
+
+		Event event = new Event.Builder("Test event", EventType.EDGE_IDENTITY, EventSource.REQUEST_IDENTITY)
+			.setEventData(
+				new HashMap<String, Object>() {
+					{
+						put(IdentityConstants.EventDataKeys.IDENTITY_VERSION, true);
+					}
+				}
+			)
+			.build();
+		final ArgumentCaptor<Event> responseEventCaptor = ArgumentCaptor.forClass(Event.class);
+
+		// test
+		extension.handleRequestIdentity(event);
+
+		// verify
+		verify(mockExtensionApi).dispatch(responseEventCaptor.capture());
+		final Event capturedResponseEvent = responseEventCaptor.getValue();
+		assertEquals(IdentityConstants.EventNames.IDENTITY_RESPONSE_IDENTITY_VERSION, capturedResponseEvent.getName());
+		assertEquals(capturedResponseEvent.getResponseID(), event.getUniqueIdentifier());
+		assertEquals(new IdentityVersion(1L, 42L).toEventData(), capturedResponseEvent.getEventData());
+	}
+
+	@Test
+	public void test_handleRequestIdentity_identityVersion_recordsOwnHistogram() {
+		// setup
+		IdentityMetrics.reset();
+		IdentityMetrics.setEnabled(true);
+		extension = new IdentityExtension(mockExtensionApi, mockIdentityState);
+		when(mockIdentityState.getIdentityProperties()).thenReturn(new IdentityProperties());
+
+		final Event event = new Event.Builder("Test event", EventType.EDGE_IDENTITY, EventSource.REQUEST_IDENTITY)
+			.setEventData(
+				new HashMap<String, Object>() {
+					{
+						put(IdentityConstants.EventDataKeys.IDENTITY_VERSION, true);
+					}
+				}
+			)
+			.build();
+
+		try {
+			// test
+			extension.handleRequestIdentity(event);
+
+			// verify
+			final IdentityMetricsSnapshot snapshot = IdentityMetrics.snapshot();
+			assertEquals(1, snapshot.getHistogram("handler.identityVersionRequest").getCount());
+			assertEquals(0, snapshot.getHistogram("handler.getIdentifiersRequest").getCount());
+		} finally {
+			IdentityMetrics.setEnabled(false);
+			IdentityMetrics.reset();
+		}
+	}
+
+	@Test
+	public void test_handleRequestIdentity_withNamespaces_DispatchesResponseEventWithRequestedNamespaces() {
+		// setup
+		final IdentityProperties properties = new IdentityProperties(
+			createXDMIdentityMap(
+				new TestItem("CRMID", "crm-1"),
+				new TestItem("Email", "user@example.com"),
+				new TestItem("PushId", "token")
+			)
+		);
+		properties.setECID(new ECID());
+		when(mockIdentityState.getIdentityProperties()).thenReturn(properties);
+
+		extension = new IdentityExtension(mockExtensionApi, mockIdentityState);
+
+		Event event = new Event.Builder("Test event", EventType.EDGE_IDENTITY, EventSource.REQUEST_IDENTITY)
+			.setEventData(
+				new HashMap<String, Object>() {
+					{
+						put(IdentityConstants.EventDataKeys.NAMESPACES, Arrays.asList("CRMID", "Email"));
+					}
+				}
+			)
+			.build();
+		final ArgumentCaptor<Event> responseEventCaptor = ArgumentCaptor.forClass(Event.class);
+
+		// test
+		extension.handleRequestIdentity(event);
+
+		// verify
+		verify(mockExtensionApi).dispatch(responseEventCaptor.capture());
+		final Event capturedResponseEvent = responseEventCaptor.getValue();
+		assertEquals(capturedResponseEvent.getResponseID(), event.getUniqueIdentifier());
+
+		final IdentityMap identityMap = IdentityMap.fromXDMMap(capturedResponseEvent.getEventData());
+		assertNotNull(identityMap);
+		assertEquals(2, identityMap.getNamespaces().size());
+		assertEquals("crm-1", identityMap.getIdentityItemsForNamespace("CRMID").get(0).getId());
+		assertEquals("user@example.com", identityMap.getIdentityItemsForNamespace("Email").get(0).getId());
+		assertTrue(identityMap.getIdentityItemsForNamespace("ECID").isEmpty());
+	}
+
+	@Test
+	public void test_handleRequestIdentity_findNamespaces_DispatchesResponseEventWithNamespaces() {
+		// setup
+		final IdentityProperties properties = new IdentityProperties(
+			createXDMIdentityMap(
+				new TestItem("Email", "user@example.com"),
+				new TestItem("HashedEmail", "USER@example.com"),
+				new TestItem("CRMID", "crm-1")
+			)
+		);
+		properties.setECID(new ECID());
+		when(mockIdentityState.getIdentityProperties()).thenReturn(properties);
+
+		extension = new IdentityExtension(mockExtensionApi, mockIdentityState);
+
+		Event event = new Event.Builder("Test event", EventType.EDGE_IDENTITY, EventSource.REQUEST_IDENTITY)
+			.setEventData(
+				new HashMap<String, Object>() {
+					{
+						put(IdentityConstants.EventDataKeys.FIND_NAMESPACES_ID, "user@example.com");
+					}
+				}
+			)
+			.build();
+		final ArgumentCaptor<Event> responseEventCaptor = ArgumentCaptor.forClass(Event.class);
+
+		// test
+		extension.handleRequestIdentity(event);
+
+		// verify
+		verify(mockExtensionApi).dispatch(responseEventCaptor.capture());
+		final Event capturedResponseEvent = responseEventCaptor.getValue();
+		assertEquals(IdentityConstants.EventNames.IDENTITY_RESPONSE_FIND_NAMESPACES, capturedResponseEvent.getName());
+		assertEquals(capturedResponseEvent.getResponseID(), event.getUniqueIdentifier());
+
+		final List<String> namespaces = (List<String>) capturedResponseEvent
+			.getEventData()
+			.get(IdentityConstants.EventDataKeys.NAMESPACES);
+		assertEquals(2, namespaces.size());
+		assertTrue(namespaces.containsAll(Arrays.asList("Email", "HashedEmail")));
+	}
+
+	@Test
+	public void test_sharedState_withExpiringIdentifier_schedulesExpirySweepOnce() {
+		// setup
+		when(mockIdentityState.getIdentityProperties()).thenReturn(new IdentityProperties());
+		when(mockIdentityState.getNextExpiresAt()).thenReturn(5000L);
+		when(mockIdentityState.getMillisUntil(5000L)).thenReturn(10L);
+		when(mockExtensionApi.createPendingXDMSharedState(any())).thenReturn(mockSharedStateResolver);
+
+		extension = new IdentityExtension(mockExtensionApi, mockIdentityState);
+		final Event event = new Event.Builder("Test event", EventType.EDGE_IDENTITY, EventSource.UPDATE_IDENTITY)
+			.build();
+
+		// test
+		extension.handleUpdateIdentities(event);
+		extension.handleUpdateIdentities(event);
+
+		// verify
+		verify(mockSharedStateResolver, times(2)).resolve(any());
+		verify(mockIdentityState, times(1)).getMillisUntil(5000L);
+		final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+		verify(mockExtensionApi, timeout(1000).times(1)).dispatch(eventCaptor.capture());
+		final Event sweepEvent = eventCaptor.getValue();
+		assertEquals(IdentityConstants.EventNames.IDENTITY_EXPIRY_SWEEP, sweepEvent.getName());
+		assertEquals(EventType.EDGE_IDENTITY, sweepEvent.getType());
+		assertEquals(EventSource.REQUEST_IDENTITY, sweepEvent.getSource());
+		assertTrue(EventUtils.isExpirySweepEvent(sweepEvent));
+	}
+
+	@Test
+	public void test_handleRequestIdentity_expirySweep_sharesRemainingIdentifiersWithoutResponse() {
+		// setup
+		final IdentityProperties properties = new IdentityProperties();
+		properties.setECID(new ECID());
+		when(mockIdentityState.getIdentityProperties()).thenReturn(properties);
+		when(mockIdentityState.removeExpiredIdentifiers()).thenReturn(true);
+
+		extension = new IdentityExtension(mockExtensionApi, mockIdentityState);
+		final Event sweepEvent = shareAndCaptureExpirySweepEvent();
+		when(mockIdentityState.getNextExpiresAt()).thenReturn(IdentityItem.NO_EXPIRY);
+
+		// test
+		extension.handleRequestIdentity(sweepEvent);
+
+		// verify
+		verify(mockIdentityState).removeExpiredIdentifiers();
+		verify(mockExtensionApi).createXDMSharedState(eq(properties.toXDMData(false)), eq(sweepEvent));
+		verify(mockExtensionApi, never()).dispatch(any());
+	}
+
+	@Test
+	public void test_handleRequestIdentity_expirySweep_beforeIdentifierExpired_schedulesAgain() {
+		// setup
+		when(mockIdentityState.getIdentityProperties()).thenReturn(new IdentityProperties());
+		when(mockIdentityState.removeExpiredIdentifiers()).thenReturn(false);
+
+		extension = new IdentityExtension(mockExtensionApi, mockIdentityState);
+		final Event sweepEvent = shareAndCaptureExpirySweepEvent();
+
+		// test
+		extension.handleRequestIdentity(sweepEvent);
+
+		// verify
+		verify(mockExtensionApi, never()).createXDMSharedState(any(), any());
+		final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+		verify(mockExtensionApi, timeout(1000)).dispatch(eventCaptor.capture());
+		assertTrue(EventUtils.isExpirySweepEvent(eventCaptor.getValue()));
+	}
+
+	@Test
+	public void test_handleRequestIdentity_expirySweepNotScheduled_isIgnored() {
+		// setup
+		when(mockIdentityState.getIdentityProperties()).thenReturn(new IdentityProperties());
+		when(mockIdentityState.removeExpiredIdentifiers()).thenReturn(true);
+
+		extension = new IdentityExtension(mockExtensionApi, mockIdentityState);
+		final Event sweepEvent = shareAndCaptureExpirySweepEvent();
+		final Event forgedSweepEvent = new Event.Builder(
+			IdentityConstants.EventNames.IDENTITY_EXPIRY_SWEEP,
+			EventType.EDGE_IDENTITY,
+			EventSource.REQUEST_IDENTITY
+		)
+			.setEventData(Collections.singletonMap(IdentityConstants.EventDataKeys.EXPIRY_SWEEP, true))
+			.build();
+
+		// test
+		extension.handleRequestIdentity(forgedSweepEvent);
+		extension.handleRequestIdentity(sweepEvent);
+		extension.handleRequestIdentity(sweepEvent);
+
+		// verify only the scheduled event is handled, once, and no event is answered
+		verify(mockIdentityState, times(1)).removeExpiredIdentifiers();
+		verify(mockExtensionApi, times(1)).createXDMSharedState(any(), eq(sweepEvent));
+		verify(mockExtensionApi, never()).createXDMSharedState(any(), eq(forgedSweepEvent));
+	}
+
+	@Test
+	public void test_handleRequestIdentity_doesNotSweepExpiredIdentifiers() {
+		// setup
+		final IdentityProperties properties = new IdentityProperties();
+		when(mockIdentityState.getIdentityProperties()).thenReturn(properties);
+		when(mockIdentityState.removeExpiredIdentifiers()).thenReturn(true);
+
+		extension = new IdentityExtension(mockExtensionApi, mockIdentityState);
+
+		Event event = new Event.Builder("Test event", EventType.EDGE_IDENTITY, EventSource.REQUEST_IDENTITY).build();
+
+		// test
+		extension.handleRequestIdentity(event);
+
+		// verify
+		verify(mockIdentityState, never()).removeExpiredIdentifiers();
+		verify(mockExtensionApi, never()).createXDMSharedState(any(), any());
+	}
+
+	@Test
+	public void test_handleRequestIdentity_whenTracing_recordsExtensionPhases() {
+		// setup
+		final IdentityTraceBuffer buffer = new IdentityTraceBuffer();
+		IdentityTracer.setSink(buffer);
+		when(mockIdentityState.bootupIfReady(any())).thenReturn(false, true);
+		when(mockIdentityState.getIdentityProperties()).thenReturn(new IdentityProperties());
+
+		extension = new IdentityExtension(mockExtensionApi, mockIdentityState);
+
+		Event event = new Event.Builder("Test event", EventType.EDGE_IDENTITY, EventSource.REQUEST_IDENTITY).build();
+		IdentityTracer.begin(event, true);
+
+		// test
+		assertFalse(extension.readyForEvent(event));
+		assertTrue(extension.readyForEvent(event));
+		extension.handleRequestIdentity(event);
+		IdentityTracer.complete(event.getUniqueIdentifier(), null);
+
+		// verify
+		assertEquals(1, buffer.getSpans().size());
+		final IdentityTraceSpan span = buffer.getSpans().get(0);
+		assertEquals(event.getUniqueIdentifier(), span.getEventId());
+
+		long previous = span.getNanos(IdentityTraceSpan.Phase.DISPATCH);
+
+		for (final IdentityTraceSpan.Phase phase : IdentityTraceSpan.Phase.values()) {
+			final long nanos = span.getNanos(phase);
+			assertTrue("phase " + phase + " was not reached in order", nanos >= previous);
+			previous = nanos;
+		}
+	}
+
+	@Test
+	public void test_handleUpdateIdentities_whenTracing_completesSpanAtHandlerEnd() {
+		// setup
+		final IdentityTraceBuffer buffer = new IdentityTraceBuffer();
+		IdentityTracer.setSink(buffer);
+		when(mockIdentityState.getIdentityProperties()).thenReturn(new IdentityProperties());
+		when(mockExtensionApi.createPendingXDMSharedState(any())).thenReturn(mockSharedStateResolver);
+
+		extension = new IdentityExtension(mockExtensionApi, mockIdentityState);
+		extension.onRegistered();
+		final ArgumentCaptor<ExtensionEventListener> listenerCaptor = ArgumentCaptor.forClass(
+			ExtensionEventListener.class
+		);
+		verify(mockExtensionApi)
+			.registerEventListener(
+				eq(EventType.EDGE_IDENTITY),
+				eq(EventSource.UPDATE_IDENTITY),
+				listenerCaptor.capture()
+			);
+
+		final Event event = buildUpdateIdentityRequest(Collections.EMPTY_MAP);
+		IdentityTracer.begin(event, false);
+
+		// test
+		listenerCaptor.getValue().hear(event);
+
+		// verify
+		assertEquals(1, buffer.getSpans().size());
+		final IdentityTraceSpan span = buffer.getSpans().get(0);
+		assertTrue(span.getNanos(IdentityTraceSpan.Phase.HANDLER_END) != IdentityTraceSpan.NOT_REACHED);
+		assertEquals(IdentityTraceSpan.NOT_REACHED, span.getNanos(IdentityTraceSpan.Phase.CALLBACK));
+		assertEquals(0, IdentityTracer.getActiveSpanCount());
 	}
 
 	// ========================================================================================
@@ -301,6 +772,55 @@ public class IdentityExtensionTests {
 		verify(mockExtensionApi, never()).createXDMSharedState(any(), any());
 	}
 
+	@Test
+	public void test_handleIdentityDirectECIDUpdate_notAnIdentityDirectStateUpdate_doesNotSweepExpiredIdentifiers() {
+		final Event event = new Event.Builder(
+			"Not an IdentityDirect State event",
+			EventType.HUB,
+			EventSource.SHARED_STATE
+		)
+			.setEventData(
+				new HashMap<String, Object>() {
+					{
+						put(IdentityConstants.EventDataKeys.STATE_OWNER, "Some.Other.Extension.Name");
+					}
+				}
+			)
+			.build();
+		final IdentityProperties properties = new IdentityProperties();
+		when(mockIdentityState.getIdentityProperties()).thenReturn(properties);
+		when(mockIdentityState.removeExpiredIdentifiers()).thenReturn(true);
+
+		extension = new IdentityExtension(mockExtensionApi, mockIdentityState);
+		extension.handleIdentityDirectECIDUpdate(event);
+
+		verify(mockIdentityState, never()).removeExpiredIdentifiers();
+		verify(mockExtensionApi, never()).createXDMSharedState(any(), any());
+	}
+
+	@Test
+	public void test_handleIdentityDirectECIDUpdate_recordsHistogramForIdentityDirectStateUpdatesOnly() {
+		// setup
+		IdentityMetrics.reset();
+		IdentityMetrics.setEnabled(true);
+		when(mockIdentityState.getIdentityProperties()).thenReturn(new IdentityProperties());
+		extension = new IdentityExtension(mockExtensionApi, mockIdentityState);
+
+		try {
+			// test
+			extension.handleIdentityDirectECIDUpdate(buildSharedStateUpdateEvent("Some.Other.Extension.Name"));
+			extension.handleIdentityDirectECIDUpdate(
+				buildSharedStateUpdateEvent(IdentityConstants.SharedState.IdentityDirect.NAME)
+			);
+
+			// verify
+			assertEquals(1, IdentityMetrics.snapshot().getHistogram("handler.identityDirectECIDUpdate").getCount());
+		} finally {
+			IdentityMetrics.setEnabled(false);
+			IdentityMetrics.reset();
+		}
+	}
+
 	@Test
 	public void test_handleIdentityDirectECIDUpdate_identityDirectStateResultIsNull() {
 		final Event event = new Event.Builder("IdentityDirect State event", EventType.HUB, EventSource.SHARED_STATE)
@@ -691,9 +1211,70 @@ public class IdentityExtensionTests {
 		verify(mockExtensionApi).createPendingXDMSharedState(eq(updateIdentityEvent));
 		verify(mockSharedStateResolver).resolve(eq(properties.toXDMData(false)));
 
+		// verify the version stamp is updated and shared next to the XDM shared state
+		verify(mockIdentityState).updateIdentityVersion();
+		verify(mockExtensionApi)
+			.createSharedState(eq(new IdentityVersion(1L, 42L).toEventData()), eq(updateIdentityEvent));
+
 		verify(mockExtensionApi, never()).dispatch(any());
 	}
 
+	@Test
+	public void test_handleUpdateIdentities_beforeBoot_updatesCustomerIdentifiers_doesNotUpdateSharedState() {
+		// setup
+		when(mockIdentityState.hasBooted()).thenReturn(false);
+		extension = new IdentityExtension(mockExtensionApi, mockIdentityState);
+
+		// test
+		final Map<String, Object> identityXDM = createXDMIdentityMap(new TestItem("id1", "somevalue"));
+		extension.handleUpdateIdentities(buildUpdateIdentityRequest(identityXDM));
+
+		// verify identifiers updated
+		final ArgumentCaptor<IdentityMap> identityMapCaptor = ArgumentCaptor.forClass(IdentityMap.class);
+		verify(mockIdentityState).updateCustomerIdentifiers(identityMapCaptor.capture());
+		assertEquals(identityXDM, identityMapCaptor.getValue().asXDMMap(false));
+
+		// verify no shared state is created before boot
+		verify(mockExtensionApi, never()).createPendingXDMSharedState(any());
+		verify(mockExtensionApi, never()).createSharedState(any(), any());
+	}
+
+	@Test
+	public void test_handleUpdateIdentities_setsIdentityMapLimitsFromConfiguration() {
+		// setup
+		final Map<String, Object> configuration = new HashMap<>();
+		configuration.put("edgeIdentity.maxNamespaces", 5);
+		configuration.put("edgeIdentity.maxItemsPerNamespace", 2);
+		configuration.put("edgeIdentity.maxTotalBytes", 1024);
+		when(
+			mockExtensionApi.getSharedState(
+				eq(IdentityConstants.SharedState.Configuration.NAME),
+				any(),
+				eq(false),
+				eq(SharedStateResolution.LAST_SET)
+			)
+		)
+			.thenReturn(new SharedStateResult(SharedStateStatus.SET, configuration));
+		when(mockIdentityState.getIdentityProperties()).thenReturn(new IdentityProperties());
+		when(mockExtensionApi.createPendingXDMSharedState(any())).thenReturn(mockSharedStateResolver);
+
+		extension = new IdentityExtension(mockExtensionApi, mockIdentityState);
+
+		// test
+		final Event updateIdentityEvent = buildUpdateIdentityRequest(
+			createXDMIdentityMap(new TestItem("id1", "somevalue"))
+		);
+		extension.handleUpdateIdentities(updateIdentityEvent);
+
+		// verify limits are set before identifiers are updated
+		final ArgumentCaptor<IdentityMapLimits> limitsCaptor = ArgumentCaptor.forClass(IdentityMapLimits.class);
+		verify(mockIdentityState).setIdentityMapLimits(limitsCaptor.capture());
+		verify(mockIdentityState).updateCustomerIdentifiers(any());
+		assertEquals(5, limitsCaptor.getValue().getMaxNamespaces());
+		assertEquals(2, limitsCaptor.getValue().getMaxItemsPerNamespace());
+		assertEquals(1024, limitsCaptor.getValue().getMaxTotalBytes());
+	}
+
 	@Test
 	public void test_handleUpdateIdentities_nullEventData_returns() {
 		// setup
@@ -797,6 +1378,83 @@ public class IdentityExtensionTests {
 		verify(mockSharedStateResolver).resolve(eq(properties.toXDMData(false)));
 	}
 
+	@Test
+	public void test_handleRemoveIdentity_beforeBoot_removesCustomerIdentifiers_doesNotUpdateSharedState() {
+		// setup
+		when(mockIdentityState.hasBooted()).thenReturn(false);
+		extension = new IdentityExtension(mockExtensionApi, mockIdentityState);
+
+		// test
+		final Map<String, Object> identityXDM = createXDMIdentityMap(new TestItem("id1", "somevalue"));
+		extension.handleRemoveIdentity(buildRemoveIdentityRequest(identityXDM));
+
+		// verify identifiers removed
+		final ArgumentCaptor<IdentityMap> identityMapCaptor = ArgumentCaptor.forClass(IdentityMap.class);
+		verify(mockIdentityState).removeCustomerIdentifiers(identityMapCaptor.capture());
+		assertEquals(identityXDM, identityMapCaptor.getValue().asXDMMap(false));
+
+		// verify no shared state is created before boot
+		verify(mockExtensionApi, never()).createPendingXDMSharedState(any());
+		verify(mockExtensionApi, never()).createSharedState(any(), any());
+	}
+
+	@Test
+	public void test_handleRemoveIdentity_withClearNamespaces_removesItemsAndNamespaces_updatesSharedState() {
+		// setup
+		Map<String, Object> identityXDM = createXDMIdentityMap(
+			new TestItem("UserId", "secretID"),
+			new TestItem("Email", "a@example.com"),
+			new TestItem("PushId", "token")
+		);
+		final IdentityProperties properties = new IdentityProperties(identityXDM);
+		when(mockIdentityState.getIdentityProperties()).thenReturn(properties);
+		when(mockExtensionApi.createPendingXDMSharedState(any())).thenReturn(mockSharedStateResolver);
+
+		extension = new IdentityExtension(mockExtensionApi, mockIdentityState);
+
+		// test
+		final Map<String, Object> eventData = new HashMap<>(
+			createXDMIdentityMap(new TestItem("UserId", "secretID"))
+		);
+		eventData.put(IdentityConstants.EventDataKeys.CLEAR_NAMESPACES, Arrays.asList("Email", "Phone"));
+		final Event removeIdentityEvent = buildRemoveIdentityRequest(eventData);
+		extension.handleRemoveIdentity(removeIdentityEvent);
+
+		// verify a single removal call with both items and namespaces
+		final ArgumentCaptor<IdentityMap> removedIdentityMapCaptor = ArgumentCaptor.forClass(IdentityMap.class);
+		verify(mockIdentityState)
+			.removeCustomerIdentifiers(removedIdentityMapCaptor.capture(), eq(Arrays.asList("Email", "Phone")));
+		verify(mockIdentityState, never()).removeCustomerIdentifiers(any());
+		assertEquals(
+			IdentityMap.fromXDMMap(createXDMIdentityMap(new TestItem("UserId", "secretID"))).toString(),
+			removedIdentityMapCaptor.getValue().toString()
+		);
+
+		// verify pending state is created and resolved once
+		verify(mockExtensionApi).createPendingXDMSharedState(eq(removeIdentityEvent));
+		verify(mockSharedStateResolver).resolve(any());
+	}
+
+	@Test
+	public void test_handleRemoveIdentity_withOnlyClearNamespaces_removesNamespaces() {
+		// setup
+		final IdentityProperties properties = new IdentityProperties();
+		when(mockIdentityState.getIdentityProperties()).thenReturn(properties);
+		when(mockExtensionApi.createPendingXDMSharedState(any())).thenReturn(mockSharedStateResolver);
+		extension = new IdentityExtension(mockExtensionApi, mockIdentityState);
+
+		// test
+		final Map<String, Object> eventData = new HashMap<>();
+		eventData.put(IdentityConstants.EventDataKeys.CLEAR_NAMESPACES, Collections.singletonList("Email"));
+		final Event removeIdentityEvent = buildRemoveIdentityRequest(eventData);
+		extension.handleRemoveIdentity(removeIdentityEvent);
+
+		// verify
+		verify(mockIdentityState).removeCustomerIdentifiers(eq(null), eq(Collections.singletonList("Email")));
+		verify(mockExtensionApi).createPendingXDMSharedState(eq(removeIdentityEvent));
+		verify(mockSharedStateResolver).resolve(eq(properties.toXDMData(false)));
+	}
+
 	@Test
 	public void test_handleRemoveIdentity_whenNullData_returns() {
 		// setup
@@ -895,6 +1553,98 @@ public class IdentityExtensionTests {
 		verify(mockIdentityState, never()).updateAdvertisingIdentifier(eq(event), any(SharedStateCallback.class));
 	}
 
+	@Test
+	public void test_handleRequestContent_withAdIdDebounce_defersAdIdAndDispatchesFlushEvent() {
+		// Setup
+		final Event event = new Event.Builder(
+			"Test Ad ID event",
+			EventType.GENERIC_IDENTITY,
+			EventSource.REQUEST_CONTENT
+		)
+			.setEventData(
+				new HashMap<String, Object>() {
+					{
+						put(IdentityConstants.EventDataKeys.ADVERTISING_IDENTIFIER, "adId");
+					}
+				}
+			)
+			.build();
+		when(
+			mockExtensionApi.getSharedState(
+				IdentityConstants.SharedState.Configuration.NAME,
+				event,
+				false,
+				SharedStateResolution.LAST_SET
+			)
+		)
+			.thenReturn(
+				new SharedStateResult(
+					SharedStateStatus.SET,
+					new HashMap<String, Object>() {
+						{
+							put(IdentityConstants.SharedState.Configuration.AD_ID_DEBOUNCE_MILLIS, 10L);
+						}
+					}
+				)
+			);
+		when(mockIdentityState.deferAdvertisingIdentifier(event)).thenReturn(3L);
+
+		extension = new IdentityExtension(mockExtensionApi, mockIdentityState);
+
+		// Test
+		extension.handleRequestContent(event);
+
+		verify(mockIdentityState).deferAdvertisingIdentifier(event);
+		verify(mockIdentityState, never()).updateAdvertisingIdentifier(any(Event.class), any(SharedStateCallback.class));
+
+		final ArgumentCaptor<Event> flushEventCaptor = ArgumentCaptor.forClass(Event.class);
+		verify(mockExtensionApi, timeout(1000)).dispatch(flushEventCaptor.capture());
+		final Event flushEvent = flushEventCaptor.getValue();
+		assertEquals(IdentityConstants.EventNames.IDENTITY_FLUSH_AD_ID, flushEvent.getName());
+		assertEquals(EventType.EDGE_IDENTITY, flushEvent.getType());
+		assertEquals(EventSource.REQUEST_IDENTITY, flushEvent.getSource());
+		assertTrue(EventUtils.isFlushAdIdEvent(flushEvent));
+		assertEquals(3L, EventUtils.getFlushAdIdSequence(flushEvent));
+
+		// Test flush
+		extension.handleRequestIdentity(flushEvent);
+
+		verify(mockIdentityState).flushAdvertisingIdentifier(eq(3L), eq(flushEvent), any(SharedStateCallback.class));
+		verify(mockIdentityState, never()).getIdentityProperties();
+	}
+
+	@Test
+	public void test_handleRequestIdentity_flushAdIdNotScheduled_isIgnored() {
+		// setup
+		extension = new IdentityExtension(mockExtensionApi, mockIdentityState);
+		final Event flushEvent = deferAdIdAndCaptureFlushEvent(3L);
+		final Map<String, Object> forgedData = new HashMap<>();
+		forgedData.put(IdentityConstants.EventDataKeys.FLUSH_AD_ID, true);
+		forgedData.put(IdentityConstants.EventDataKeys.FLUSH_AD_ID_SEQUENCE, 3L);
+		final Event forgedFlushEvent = new Event.Builder(
+			IdentityConstants.EventNames.IDENTITY_FLUSH_AD_ID,
+			EventType.EDGE_IDENTITY,
+			EventSource.REQUEST_IDENTITY
+		)
+			.setEventData(forgedData)
+			.build();
+
+		// test
+		extension.handleRequestIdentity(forgedFlushEvent);
+
+		// verify the ad ID is not applied before the end of its debounce window
+		verify(mockIdentityState, never()).flushAdvertisingIdentifier(anyLong(), any(), any());
+		verify(mockExtensionApi, never()).dispatch(any());
+
+		// test
+		extension.handleRequestIdentity(flushEvent);
+		extension.handleRequestIdentity(flushEvent);
+
+		// verify
+		verify(mockIdentityState, times(1))
+			.flushAdvertisingIdentifier(eq(3L), eq(flushEvent), any(SharedStateCallback.class));
+	}
+
 	// ========================================================================================
 	// handleRequestReset
 	// ========================================================================================
@@ -918,4 +1668,73 @@ public class IdentityExtensionTests {
 		verify(mockExtensionApi).createPendingXDMSharedState(eq(resetEvent));
 		verify(mockSharedStateResolver).resolve(eq(properties.toXDMData(false)));
 	}
+
+	private static Event buildGetIdentitiesRequest() {
+		return new Event.Builder("Get Identities Event", EventType.EDGE_IDENTITY, EventSource.REQUEST_IDENTITY).build();
+	}
+
+	/**
+	 * Shares the identifiers with an identifier expiring in 10 milliseconds, waits for the expiry sweep event scheduled
+	 * by the extension and clears the invocations of the mocks.
+	 *
+	 * @return the dispatched expiry sweep event
+	 */
+	private Event shareAndCaptureExpirySweepEvent() {
+		when(mockIdentityState.getNextExpiresAt()).thenReturn(5000L);
+		when(mockIdentityState.getMillisUntil(5000L)).thenReturn(10L);
+		when(mockExtensionApi.createPendingXDMSharedState(any())).thenReturn(mockSharedStateResolver);
+		extension.handleUpdateIdentities(
+			new Event.Builder("Test event", EventType.EDGE_IDENTITY, EventSource.UPDATE_IDENTITY).build()
+		);
+
+		final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+		verify(mockExtensionApi, timeout(1000)).dispatch(eventCaptor.capture());
+		clearInvocations(mockExtensionApi, mockIdentityState);
+		return eventCaptor.getValue();
+	}
+
+	/**
+	 * Handles an ad ID event with a debounce window of 10 milliseconds, waits for the flush event scheduled by the
+	 * extension and clears the invocations of the mocks.
+	 *
+	 * @param sequence the debounce window sequence returned by {@link IdentityState#deferAdvertisingIdentifier(Event)}
+	 * @return the dispatched flush event
+	 */
+	private Event deferAdIdAndCaptureFlushEvent(final long sequence) {
+		final Event event = new Event.Builder("Test Ad ID event", EventType.GENERIC_IDENTITY, EventSource.REQUEST_CONTENT)
+			.setEventData(
+				Collections.<String, Object>singletonMap(IdentityConstants.EventDataKeys.ADVERTISING_IDENTIFIER, "adId")
+			)
+			.build();
+		when(
+			mockExtensionApi.getSharedState(
+				IdentityConstants.SharedState.Configuration.NAME,
+				event,
+				false,
+				SharedStateResolution.LAST_SET
+			)
+		)
+			.thenReturn(
+				new SharedStateResult(
+					SharedStateStatus.SET,
+					Collections.<String, Object>singletonMap(
+						IdentityConstants.SharedState.Configuration.AD_ID_DEBOUNCE_MILLIS,
+						10L
+					)
+				)
+			);
+		when(mockIdentityState.deferAdvertisingIdentifier(event)).thenReturn(sequence);
+		extension.handleRequestContent(event);
+
+		final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+		verify(mockExtensionApi, timeout(1000)).dispatch(eventCaptor.capture());
+		clearInvocations(mockExtensionApi, mockIdentityState);
+		return eventCaptor.getValue();
+	}
+
+	private static Event buildSharedStateUpdateEvent(final String stateOwner) {
+		return new Event.Builder("Shared State event", EventType.HUB, EventSource.SHARED_STATE)
+			.setEventData(Collections.<String, Object>singletonMap(IdentityConstants.EventDataKeys.STATE_OWNER, stateOwner))
+			.build();
+	}
 }
@@ -16,8 +16,14 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Random;
+import java.util.Set;
 import org.junit.Test;
 
 public class IdentityItemTests {
@@ -181,4 +187,237 @@ public class IdentityItemTests {
 
 		assertFalse(item1.equals(item2));
 	}
+
+	@Test
+	public void testIdentityItem_withTimeToLive_setsExpiresAt() {
+		long before = System.currentTimeMillis();
+		IdentityItem item = new IdentityItem("id", AuthenticatedState.AMBIGUOUS, false, 60000);
+		long after = System.currentTimeMillis();
+
+		assertTrue(item.getExpiresAt() >= before + 60000);
+		assertTrue(item.getExpiresAt() <= after + 60000);
+		assertFalse(item.isExpired(after));
+		assertTrue(item.isExpired(item.getExpiresAt()));
+	}
+
+	@Test
+	public void testIdentityItem_withoutTimeToLive_neverExpires() {
+		assertEquals(IdentityItem.NO_EXPIRY, new IdentityItem("id").getExpiresAt());
+		assertEquals(
+			IdentityItem.NO_EXPIRY,
+			new IdentityItem("id", AuthenticatedState.AMBIGUOUS, false, 0).getExpiresAt()
+		);
+		assertEquals(
+			IdentityItem.NO_EXPIRY,
+			new IdentityItem("id", AuthenticatedState.AMBIGUOUS, false, -1).getExpiresAt()
+		);
+		assertFalse(new IdentityItem("id").isExpired(Long.MAX_VALUE));
+	}
+
+	@Test
+	public void testIdentityItem_withMaxTimeToLive_doesNotOverflow() {
+		IdentityItem item = new IdentityItem("id", AuthenticatedState.AMBIGUOUS, false, Long.MAX_VALUE);
+
+		assertEquals(IdentityItem.NO_EXPIRY, item.getExpiresAt());
+		assertFalse(item.isExpired(System.currentTimeMillis()));
+	}
+
+	@Test
+	public void testIdentityItem_copyWithUnsetExpiresAt_neverExpires() {
+		IdentityItem item = new IdentityItem("id");
+
+		assertEquals(IdentityItem.NO_EXPIRY, new IdentityItem(item, 0).getExpiresAt());
+		assertEquals(IdentityItem.NO_EXPIRY, new IdentityItem(item, -1).getExpiresAt());
+		assertFalse(new IdentityItem(item, 0).isExpired(System.currentTimeMillis()));
+	}
+
+	@Test
+	public void testIdentityItem_copy_keepsExpiresAt() {
+		IdentityItem item = new IdentityItem("id", AuthenticatedState.AUTHENTICATED, true, 60000);
+		IdentityItem copy = new IdentityItem(item);
+
+		assertEquals(item.getExpiresAt(), copy.getExpiresAt());
+		assertEquals("id", copy.getId());
+		assertEquals(AuthenticatedState.AUTHENTICATED, copy.getAuthenticatedState());
+		assertTrue(copy.isPrimary());
+	}
+
+	@Test
+	public void testIdentityItem_expiresAt_notPartOfEqualityOrObjectMap() {
+		IdentityItem item = new IdentityItem("id", AuthenticatedState.AMBIGUOUS, false, 60000);
+		IdentityItem other = new IdentityItem("id");
+
+		assertTrue(item.equals(other));
+		assertEquals(other.toObjectMap(), item.toObjectMap());
+	}
+
+	// ========================================================================================
+	// equals/hashCode contract
+	// ========================================================================================
+
+	// code points whose case mappings differ between locales, are not one-to-one, or are outside the BMP
+	private static final String TRICKY_CODE_POINTS =
+		"aAiIzZ\u0131\u0130\u00df\u1e9e\u03c3\u03c2\u03a3kK\u212a\u01c4\u01c5\u01c6\u10a0\u2d00\u00b5\u039c" +
+		new String(Character.toChars(0x10400)) +
+		new String(Character.toChars(0x10428));
+
+	private static final Locale[] LOCALES = {
+		Locale.ROOT,
+		Locale.ENGLISH,
+		new Locale("tr", "TR"),
+		new Locale("az"),
+		new Locale("lt"),
+		new Locale("el", "GR"),
+		Locale.GERMAN
+	};
+
+	@Test
+	public void testIdentityItem_equalItems_haveEqualHashCodes() {
+		final Random random = new Random(20260101);
+		final int[] codePoints = TRICKY_CODE_POINTS.codePoints().toArray();
+
+		for (int i = 0; i < 2000; i++) {
+			final String id = randomString(random, codePoints);
+			final String variant = randomCaseVariant(random, id);
+			final IdentityItem item = new IdentityItem(id);
+			final IdentityItem variantItem = new IdentityItem(variant);
+
+			assertEquals(id.equalsIgnoreCase(variant), item.equals(variantItem));
+
+			if (item.equals(variantItem)) {
+				assertEquals(id + " / " + variant, item.hashCode(), variantItem.hashCode());
+			}
+		}
+	}
+
+	@Test
+	public void testIdentityItem_randomPairs_equalImpliesEqualHashCodes() {
+		final Random random = new Random(42);
+		final int[] codePoints = TRICKY_CODE_POINTS.codePoints().toArray();
+		int equalPairs = 0;
+
+		for (int i = 0; i < 20000; i++) {
+			final IdentityItem first = new IdentityItem(randomString(random, codePoints, 2));
+			final IdentityItem second = new IdentityItem(randomString(random, codePoints, 2));
+
+			if (first.equals(second)) {
+				equalPairs++;
+				assertEquals(first.getId() + " / " + second.getId(), first.hashCode(), second.hashCode());
+			}
+
+			assertEquals(first.equals(second), second.equals(first));
+		}
+
+		// the alphabet is small enough that case-variant pairs occur
+		assertTrue(equalPairs > 0);
+	}
+
+	@Test
+	public void testIdentityItem_hashCode_independentOfDefaultLocale() {
+		final Random random = new Random(7);
+		final int[] codePoints = TRICKY_CODE_POINTS.codePoints().toArray();
+		final List<String> ids = new ArrayList<>();
+
+		for (int i = 0; i < 200; i++) {
+			ids.add(randomString(random, codePoints));
+		}
+
+		final Locale defaultLocale = Locale.getDefault();
+		final int[] expectedHashCodes = new int[ids.size()];
+
+		try {
+			for (int i = 0; i < ids.size(); i++) {
+				expectedHashCodes[i] = new IdentityItem(ids.get(i)).hashCode();
+			}
+
+			for (final Locale locale : LOCALES) {
+				Locale.setDefault(locale);
+
+				for (int i = 0; i < ids.size(); i++) {
+					final String id = ids.get(i);
+					assertEquals(locale + ": " + id, expectedHashCodes[i], new IdentityItem(id).hashCode());
+				}
+			}
+		} finally {
+			Locale.setDefault(defaultLocale);
+		}
+	}
+
+	@Test
+	public void testIdentityItem_hashSet_deduplicatesLikeEquals() {
+		final Random random = new Random(99);
+		final int[] codePoints = TRICKY_CODE_POINTS.codePoints().toArray();
+		final List<IdentityItem> items = new ArrayList<>();
+
+		for (int i = 0; i < 300; i++) {
+			final String id = randomString(random, codePoints, 2);
+			items.add(new IdentityItem(id));
+			items.add(new IdentityItem(randomCaseVariant(random, id)));
+		}
+
+		final Set<IdentityItem> set = new HashSet<>(items);
+		final List<IdentityItem> distinct = new ArrayList<>();
+
+		for (final IdentityItem item : items) {
+			if (!distinct.contains(item)) {
+				distinct.add(item);
+			}
+		}
+
+		assertEquals(distinct.size(), set.size());
+
+		for (final IdentityItem item : items) {
+			assertTrue(set.contains(item));
+		}
+	}
+
+	@Test
+	public void testIdentityItem_copy_keepsHashCode() {
+		final IdentityItem item = new IdentityItem("User@Example.com", AuthenticatedState.AUTHENTICATED, true, 60000);
+
+		assertEquals(item.hashCode(), new IdentityItem(item).hashCode());
+		assertEquals(item.hashCode(), new IdentityItem("user@example.COM").hashCode());
+	}
+
+	private static String randomString(final Random random, final int[] codePoints) {
+		return randomString(random, codePoints, 6);
+	}
+
+	private static String randomString(final Random random, final int[] codePoints, final int maxLength) {
+		final StringBuilder builder = new StringBuilder();
+		final int length = 1 + random.nextInt(maxLength);
+
+		for (int i = 0; i < length; i++) {
+			builder.appendCodePoint(codePoints[random.nextInt(codePoints.length)]);
+		}
+
+		return builder.toString();
+	}
+
+	private static String randomCaseVariant(final Random random, final String value) {
+		final StringBuilder builder = new StringBuilder();
+		int index = 0;
+
+		while (index < value.length()) {
+			final int codePoint = value.codePointAt(index);
+
+			switch (random.nextInt(4)) {
+				case 0:
+					builder.appendCodePoint(Character.toUpperCase(codePoint));
+					break;
+				case 1:
+					builder.appendCodePoint(Character.toLowerCase(codePoint));
+					break;
+				case 2:
+					builder.appendCodePoint(Character.toTitleCase(codePoint));
+					break;
+				default:
+					builder.appendCodePoint(codePoint);
+			}
+
+			index += Character.charCount(codePoint);
+		}
+
+		return builder.toString();
+	}
 }
@@ -0,0 +1,59 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.edge.identity;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class IdentityLogTests {
+
+	private static final long NOW = 1700000000000L;
+
+	@Before
+	public void setup() {
+		IdentityLog.resetRateLimits();
+	}
+
+	@Test
+	public void test_acquire_firstOccurrence_isLogged() {
+		assertEquals(0, IdentityLog.acquire("message", NOW));
+	}
+
+	@Test
+	public void test_acquire_withinInterval_isSuppressed() {
+		IdentityLog.acquire("message", NOW);
+
+		assertEquals(-1, IdentityLog.acquire("message", NOW + 1));
+		assertEquals(-1, IdentityLog.acquire("message", NOW + IdentityLog.RATE_LIMIT_INTERVAL_MILLIS - 1));
+	}
+
+	@Test
+	public void test_acquire_afterInterval_isLoggedWithSuppressedCount() {
+		IdentityLog.acquire("message", NOW);
+		IdentityLog.acquire("message", NOW + 1);
+		IdentityLog.acquire("message", NOW + 2);
+
+		assertEquals(2, IdentityLog.acquire("message", NOW + IdentityLog.RATE_LIMIT_INTERVAL_MILLIS));
+		// the count starts over once logged
+		assertEquals(-1, IdentityLog.acquire("message", NOW + IdentityLog.RATE_LIMIT_INTERVAL_MILLIS + 1));
+		assertEquals(1, IdentityLog.acquire("message", NOW + 2 * IdentityLog.RATE_LIMIT_INTERVAL_MILLIS));
+	}
+
+	@Test
+	public void test_acquire_differentMessages_areLimitedSeparately() {
+		IdentityLog.acquire("message", NOW);
+
+		assertEquals(0, IdentityLog.acquire("other message", NOW + 1));
+	}
+}
@@ -0,0 +1,157 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.edge.identity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+public class IdentityMapBuilderTests {
+
+	@Test
+	public void test_build_containsItemsAddedOneAtATimeAndInBulk() {
+		// test
+		final IdentityMapBuilder.Result result = new IdentityMapBuilder(2, 4)
+			.addItem(new IdentityItem("id1"), "space1")
+			.addItems(
+				"space2",
+				Arrays.asList(new IdentityItem("id2"), new IdentityItem("id3", AuthenticatedState.AUTHENTICATED, true))
+			)
+			.build();
+
+		// verify
+		final IdentityMap map = result.getIdentityMap();
+		assertTrue(result.getRejectedItems().isEmpty());
+		assertEquals(3, map.getItemCount());
+		assertEquals("id1", map.getIdentityItemsForNamespace("space1").get(0).getId());
+		assertEquals("id2", map.getIdentityItemsForNamespace("space2").get(0).getId());
+		assertTrue(map.getIdentityItemsForNamespace("space2").get(1).isPrimary());
+		assertEquals(Collections.singletonList("space2"), map.getNamespacesForIdentifier("ID3"));
+	}
+
+	@Test
+	public void test_build_sameAsAddingToIdentityMap() {
+		// setup
+		final List<IdentityItem> items = Arrays.asList(
+			new IdentityItem("a"),
+			new IdentityItem("b", AuthenticatedState.LOGGED_OUT, false),
+			new IdentityItem("A", AuthenticatedState.AUTHENTICATED, true),
+			new IdentityItem("c")
+		);
+		final IdentityMap expected = new IdentityMap();
+
+		for (final IdentityItem item : items) {
+			expected.addItem(item, "space");
+		}
+
+		// test
+		final IdentityMap map = new IdentityMapBuilder().addItems("space", items).build().getIdentityMap();
+
+		// verify
+		assertEquals(expected.asXDMMap(false), map.asXDMMap(false));
+	}
+
+	@Test
+	public void test_build_reportsRejectedItems() {
+		// setup
+		final long now = System.currentTimeMillis();
+		final IdentityItem replaced = new IdentityItem("dup");
+		final IdentityItem expired = new IdentityItem(new IdentityItem("expired"), now - 1);
+		final IdentityItem empty = new IdentityItem("");
+
+		// test
+		final IdentityMapBuilder.Result result = new IdentityMapBuilder()
+			.addItem(replaced, "space")
+			.addItem(null, "space")
+			.addItem(expired, "space")
+			.addItem(empty, "space")
+			.addItem(new IdentityItem("DUP", AuthenticatedState.AUTHENTICATED, false), "space")
+			.addItem(new IdentityItem("id"), "")
+			.addItem(new IdentityItem("id"), null)
+			.build();
+
+		// verify
+		final List<IdentityItem> items = result.getIdentityMap().getIdentityItemsForNamespace("space");
+		assertEquals(1, items.size());
+		assertEquals(AuthenticatedState.AUTHENTICATED, items.get(0).getAuthenticatedState());
+		assertEquals(1, result.getIdentityMap().getNamespaces().size());
+
+		final List<IdentityMapBuilder.RejectedItem> rejected = result.getRejectedItems();
+		assertEquals(6, rejected.size());
+		assertEquals(1, countRejected(rejected, IdentityMapBuilder.RejectReason.NULL_ITEM));
+		assertEquals(1, countRejected(rejected, IdentityMapBuilder.RejectReason.EXPIRED));
+		assertEquals(1, countRejected(rejected, IdentityMapBuilder.RejectReason.EMPTY_ID));
+		assertEquals(2, countRejected(rejected, IdentityMapBuilder.RejectReason.INVALID_NAMESPACE));
+		assertEquals(1, countRejected(rejected, IdentityMapBuilder.RejectReason.REPLACED));
+
+		for (final IdentityMapBuilder.RejectedItem rejectedItem : rejected) {
+			if (rejectedItem.getReason() == IdentityMapBuilder.RejectReason.REPLACED) {
+				assertTrue(rejectedItem.getItem() == replaced);
+				assertEquals("space", rejectedItem.getNamespace());
+			} else if (rejectedItem.getReason() == IdentityMapBuilder.RejectReason.NULL_ITEM) {
+				assertNull(rejectedItem.getItem());
+			}
+		}
+	}
+
+	@Test
+	public void test_build_tracksExpiryOfBuiltItems() {
+		// setup
+		final long now = System.currentTimeMillis();
+
+		// test
+		final IdentityMap map = new IdentityMapBuilder()
+			.addItem(new IdentityItem(new IdentityItem("expiring"), now + 1000), "space")
+			.addItem(new IdentityItem("kept"), "space")
+			.build()
+			.getIdentityMap();
+
+		// verify
+		assertEquals(1, map.removeExpiredItems(now + 2000));
+		assertEquals("kept", map.getIdentityItemsForNamespace("space").get(0).getId());
+	}
+
+	@Test
+	public void test_build_canBeCalledAgain() {
+		// setup
+		final IdentityMapBuilder builder = new IdentityMapBuilder().addItem(new IdentityItem("id"), "space");
+
+		// test
+		final IdentityMap first = builder.build().getIdentityMap();
+		first.removeItem(new IdentityItem("id"), "space");
+		final IdentityMap second = builder.build().getIdentityMap();
+
+		// verify
+		assertTrue(first.isEmpty());
+		assertEquals(1, second.getItemCount());
+	}
+
+	private static int countRejected(
+		final List<IdentityMapBuilder.RejectedItem> rejectedItems,
+		final IdentityMapBuilder.RejectReason reason
+	) {
+		int count = 0;
+
+		for (final IdentityMapBuilder.RejectedItem rejectedItem : rejectedItems) {
+			if (rejectedItem.getReason() == reason) {
+				count++;
+			}
+		}
+
+		return count;
+	}
+}
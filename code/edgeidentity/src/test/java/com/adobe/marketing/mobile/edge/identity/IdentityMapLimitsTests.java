@@ -0,0 +1,74 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.edge.identity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+
+public class IdentityMapLimitsTests {
+
+	@Test
+	public void test_fromConfiguration_nullOrEmpty_returnsUnlimited() {
+		assertSame(IdentityMapLimits.UNLIMITED, IdentityMapLimits.fromConfiguration(null));
+		assertSame(IdentityMapLimits.UNLIMITED, IdentityMapLimits.fromConfiguration(Collections.emptyMap()));
+	}
+
+	@Test
+	public void test_fromConfiguration_noLimitKeys_returnsUnlimited() {
+		// setup
+		Map<String, Object> configuration = new HashMap<>();
+		configuration.put("experienceCloud.org", "orgid");
+
+		// test & verify
+		assertSame(IdentityMapLimits.UNLIMITED, IdentityMapLimits.fromConfiguration(configuration));
+	}
+
+	@Test
+	public void test_fromConfiguration_readsLimits() {
+		// setup
+		Map<String, Object> configuration = new HashMap<>();
+		configuration.put("edgeIdentity.maxNamespaces", 10);
+		configuration.put("edgeIdentity.maxItemsPerNamespace", 5L);
+		configuration.put("edgeIdentity.maxTotalBytes", 4096.0);
+
+		// test
+		IdentityMapLimits limits = IdentityMapLimits.fromConfiguration(configuration);
+
+		// verify
+		assertFalse(limits.isUnlimited());
+		assertEquals(10, limits.getMaxNamespaces());
+		assertEquals(5, limits.getMaxItemsPerNamespace());
+		assertEquals(4096, limits.getMaxTotalBytes());
+	}
+
+	@Test
+	public void test_fromConfiguration_invalidValues_notEnforced() {
+		// setup
+		Map<String, Object> configuration = new HashMap<>();
+		configuration.put("edgeIdentity.maxNamespaces", "ten");
+		configuration.put("edgeIdentity.maxItemsPerNamespace", 3);
+
+		// test
+		IdentityMapLimits limits = IdentityMapLimits.fromConfiguration(configuration);
+
+		// verify
+		assertEquals(0, limits.getMaxNamespaces());
+		assertEquals(3, limits.getMaxItemsPerNamespace());
+		assertEquals(0, limits.getMaxTotalBytes());
+	}
+}
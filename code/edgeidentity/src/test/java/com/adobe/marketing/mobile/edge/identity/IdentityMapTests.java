@@ -12,11 +12,16 @@
 package com.adobe.marketing.mobile.edge.identity;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import com.adobe.marketing.mobile.util.JSONUtils;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import org.json.JSONObject;
@@ -205,6 +210,56 @@ public class IdentityMapTests {
 		assertEquals(3, castedMap.get("login").size());
 	}
 
+	@Test
+	public void test_clearItemsForNamespace_removesAllSpellingsOnly() {
+		// setup
+		IdentityMap map = new IdentityMap();
+		map.addItem(new IdentityItem("id1"), "crmid");
+		map.addItem(new IdentityItem("id2"), "CRMID");
+		map.addItem(new IdentityItem("id3"), "CrmId");
+		map.addItem(new IdentityItem("id4"), "Email");
+
+		// test
+		assertTrue(map.clearItemsForNamespace("CRMid"));
+
+		// verify
+		assertEquals(Collections.singletonList("Email"), map.getNamespaces());
+		assertFalse(map.clearItemsForNamespace("crmid"));
+	}
+
+	@Test
+	public void test_removeReservedNamespaces_removesAllReservedSpellingsOnly() {
+		// setup
+		IdentityMap map = new IdentityMap();
+		map.addItem(new IdentityItem("id1"), "ecid");
+		map.addItem(new IdentityItem("id2"), "GAID");
+		map.addItem(new IdentityItem("id3"), "IdFa");
+		map.addItem(new IdentityItem("id4"), "Email");
+
+		// test
+		final List<String> removed = map.removeReservedNamespaces();
+
+		// verify
+		assertEquals(new HashSet<>(Arrays.asList("ecid", "GAID", "IdFa")), new HashSet<>(removed));
+		assertEquals(Collections.singletonList("Email"), map.getNamespaces());
+		assertTrue(map.removeReservedNamespaces().isEmpty());
+	}
+
+	@Test
+	public void test_clearItemsForNamespace_afterNamespaceEmptiedAndReAdded() {
+		// setup
+		IdentityMap map = new IdentityMap();
+		map.addItem(new IdentityItem("id1"), "crmid");
+		map.removeItem(new IdentityItem("id1"), "crmid");
+		map.addItem(new IdentityItem("id2"), "CRMID");
+
+		// test
+		assertTrue(map.clearItemsForNamespace("crmid"));
+
+		// verify
+		assertTrue(map.isEmpty());
+	}
+
 	@Test
 	public void test_removeAllIdentityItemsForNamespace_InvalidNamespace() {
 		// setup
@@ -493,6 +548,35 @@ public class IdentityMapTests {
 		return (Map<String, List<IdentityItem>>) xdmMap.get(IdentityConstants.XDMKeys.IDENTITY_MAP);
 	}
 
+	@Test
+	public void test_asXDMMap_withNamespaces_onlyIncludesRequestedNamespaces() {
+		// setup
+		IdentityMap sampleUserMap = buildSampleIdentityMap(); // 2 items with namespace "Location", 3 items with namespace "Login"
+
+		// test
+		Map<String, String> flattenedMap = IdentityTestUtil.flattenMap(
+			sampleUserMap.asXDMMap(true, Arrays.asList("location", "unknown"))
+		);
+
+		// verify
+		assertEquals(6, flattenedMap.size()); // 2 items * 3 fields
+		assertEquals("280 Highway Lane", flattenedMap.get("identityMap.location[0].id"));
+		assertEquals("California", flattenedMap.get("identityMap.location[1].id"));
+	}
+
+	@Test
+	public void test_asXDMMap_withNamespacesNotFound_allowEmpty() {
+		// setup
+		IdentityMap sampleUserMap = buildSampleIdentityMap();
+
+		// test
+		Map<String, Object> xdmMap = sampleUserMap.asXDMMap(true, Collections.singletonList("unknown"));
+
+		// verify
+		assertEquals(Collections.singletonMap("identityMap", new HashMap<>()), xdmMap);
+		assertTrue(sampleUserMap.asXDMMap(false, Collections.singletonList("unknown")).isEmpty());
+	}
+
 	private IdentityMap buildSampleIdentityMap() {
 		// User Login Identity Items
 		IdentityItem email = new IdentityItem("john@doe", AuthenticatedState.AUTHENTICATED, true);
@@ -512,4 +596,256 @@ public class IdentityMapTests {
 		adobeIdentityMap.addItem(state, "location");
 		return adobeIdentityMap;
 	}
+
+	@Test
+	public void test_expiredItems_droppedOnRead() {
+		// setup
+		IdentityMap map = new IdentityMap();
+		map.addItem(new IdentityItem("live"), "space1");
+		map.addItem(new IdentityItem("expiring", AuthenticatedState.AMBIGUOUS, false, 60000), "space1");
+		map.addItem(new IdentityItem("expiring2", AuthenticatedState.AMBIGUOUS, false, 60000), "space2");
+		long later = System.currentTimeMillis() + 120000;
+
+		// verify items are returned before they expire
+		assertEquals(2, map.getIdentityItemsForNamespace("space1").size());
+		assertFalse(map.hasExpiredItems(System.currentTimeMillis()));
+
+		// test
+		assertTrue(map.hasExpiredItems(later));
+		assertEquals(2, map.removeExpiredItems(later));
+
+		// verify
+		assertFalse(map.hasExpiredItems(later));
+		assertEquals(Collections.singletonList("space1"), map.getNamespaces());
+		assertEquals(1, map.getIdentityItemsForNamespace("space1").size());
+		assertEquals("live", map.getIdentityItemsForNamespace("space1").get(0).getId());
+	}
+
+	@Test
+	public void test_expiredItems_droppedOnSerialize() {
+		// setup
+		IdentityMap map = new IdentityMap();
+		map.addItem(new IdentityItem("live"), "space1");
+		map.addItem(new IdentityItem("expiring", AuthenticatedState.AMBIGUOUS, false, 50), "space1");
+		map.addItem(new IdentityItem("expiring2", AuthenticatedState.AMBIGUOUS, false, 50), "space2");
+		sleep(100);
+
+		// test
+		Map<String, Object> xdmMap = map.asXDMMap(false);
+
+		// verify
+		Map<String, String> flattenedMap = IdentityTestUtil.flattenMap(xdmMap);
+		assertEquals(3, flattenedMap.size()); // 1 item * 3 fields
+		assertEquals("live", flattenedMap.get("identityMap.space1[0].id"));
+		assertEquals(Collections.singletonList("space1"), map.getNamespaces());
+		assertTrue(map.getIdentityItemsForNamespace("space2").isEmpty());
+		assertFalse(map.isEmpty());
+	}
+
+	@Test
+	public void test_isEmpty_whenAllItemsExpired() {
+		// setup
+		IdentityMap map = new IdentityMap();
+		map.addItem(new IdentityItem("expiring", AuthenticatedState.AMBIGUOUS, false, 50), "space1");
+		assertFalse(map.isEmpty());
+		sleep(100);
+
+		// test & verify
+		assertTrue(map.isEmpty());
+		assertTrue(map.getNamespaces().isEmpty());
+		assertTrue(map.asXDMMap(false).isEmpty());
+	}
+
+	@Test
+	public void test_addItem_alreadyExpired_ignored() {
+		// setup
+		IdentityMap map = new IdentityMap();
+		IdentityItem expired = new IdentityItem(new IdentityItem("expired"), System.currentTimeMillis() - 1);
+
+		// test
+		map.addItem(expired, "space");
+
+		// verify
+		assertTrue(map.isEmpty());
+		assertFalse(map.hasExpiredItems(System.currentTimeMillis()));
+	}
+
+	@Test
+	public void test_addItem_withoutExpiry_replacesExpiringItem() {
+		// setup
+		IdentityMap map = new IdentityMap();
+		map.addItem(new IdentityItem("id", AuthenticatedState.AMBIGUOUS, false, 60000), "space");
+
+		// test
+		map.addItem(new IdentityItem("id"), "space");
+
+		// verify
+		assertEquals(IdentityItem.NO_EXPIRY, map.getIdentityItemsForNamespace("space").get(0).getExpiresAt());
+		assertEquals(0, map.removeExpiredItems(System.currentTimeMillis() + 120000));
+	}
+
+	@Test
+	public void test_asXDMMapWithExpiries_roundTrip() {
+		// setup
+		IdentityMap map = new IdentityMap();
+		IdentityItem expiring = new IdentityItem("expiring", AuthenticatedState.AUTHENTICATED, true, 60000);
+		map.addItem(new IdentityItem("live"), "space1");
+		map.addItem(expiring, "space1");
+
+		// test
+		Map<String, Object> data = map.asXDMMapWithExpiries(false);
+		IdentityMap restored = IdentityMap.fromXDMMap(data);
+
+		// verify
+		assertEquals(map.asXDMMap(false), restored.asXDMMap(false));
+		List<IdentityItem> items = restored.getIdentityItemsForNamespace("space1");
+		assertEquals(IdentityItem.NO_EXPIRY, items.get(0).getExpiresAt());
+		assertEquals(expiring.getExpiresAt(), items.get(1).getExpiresAt());
+	}
+
+	@Test
+	public void test_asXDMMapWithExpiries_noExpiringItems_equalsXDMMap() {
+		IdentityMap sampleUserMap = buildSampleIdentityMap();
+
+		assertEquals(sampleUserMap.asXDMMap(false), sampleUserMap.asXDMMapWithExpiries(false));
+	}
+
+	@Test
+	public void test_fromXDMMap_dropsExpiredItems() {
+		// setup
+		Map<String, Object> data = new HashMap<>(
+			IdentityTestUtil.createXDMIdentityMap(
+				new IdentityTestUtil.TestItem("space", "expired"),
+				new IdentityTestUtil.TestItem("space", "live")
+			)
+		);
+		Map<String, Object> expiries = new HashMap<>();
+		expiries.put("space", Collections.singletonMap("expired", System.currentTimeMillis() - 1));
+		data.put(IdentityConstants.EventDataKeys.IDENTITY_EXPIRIES, expiries);
+
+		// test
+		IdentityMap map = IdentityMap.fromXDMMap(data);
+
+		// verify
+		List<IdentityItem> items = map.getIdentityItemsForNamespace("space");
+		assertEquals(1, items.size());
+		assertEquals("live", items.get(0).getId());
+	}
+
+	@Test
+	public void test_getNamespacesForIdentifier_caseInsensitiveAcrossNamespaces() {
+		// setup
+		IdentityMap map = new IdentityMap();
+		map.addItem(new IdentityItem("user@example.com"), "Email");
+		map.addItem(new IdentityItem("USER@example.com"), "HashedEmail");
+		map.addItem(new IdentityItem("other"), "Email");
+
+		// test
+		List<String> namespaces = map.getNamespacesForIdentifier("User@Example.com");
+
+		// verify
+		assertEquals(new HashSet<>(Arrays.asList("Email", "HashedEmail")), new HashSet<>(namespaces));
+		assertEquals(Collections.singletonList("Email"), map.getNamespacesForIdentifier("other"));
+		assertTrue(map.getNamespacesForIdentifier("unknown").isEmpty());
+		assertTrue(map.getNamespacesForIdentifier("").isEmpty());
+	}
+
+	@Test
+	public void test_getNamespacesForIdentifier_updatedOnRemoveAndClear() {
+		// setup
+		IdentityMap map = new IdentityMap();
+		map.addItem(new IdentityItem("id"), "space1");
+		map.addItem(new IdentityItem("id"), "space2");
+		map.addItem(new IdentityItem("id"), "space3");
+		map.addItem(new IdentityItem("ID"), "space1");
+
+		// test
+		map.removeItem(new IdentityItem("Id"), "space1");
+		map.clearItemsForNamespace("SPACE2");
+
+		// verify
+		assertEquals(Collections.singletonList("space3"), map.getNamespacesForIdentifier("id"));
+
+		map.removeItemsForNamespace("space3");
+		assertTrue(map.getNamespacesForIdentifier("id").isEmpty());
+	}
+
+	@Test
+	public void test_getNamespacesForIdentifier_excludesExpiredItems() {
+		// setup
+		IdentityMap map = new IdentityMap();
+		map.addItem(new IdentityItem("id", AuthenticatedState.AMBIGUOUS, false, 1), "expiring");
+		map.addItem(new IdentityItem("id"), "live");
+
+		sleep(5);
+
+		// verify
+		assertEquals(Collections.singletonList("live"), map.getNamespacesForIdentifier("id"));
+
+		map.removeExpiredItems(System.currentTimeMillis());
+		assertEquals(Collections.singletonList("live"), map.getNamespacesForIdentifier("id"));
+	}
+
+	private static void sleep(final long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Test
+	public void test_contentHash_equalForSameItemsAddedInDifferentOrder() {
+		final IdentityMap first = new IdentityMap();
+		first.addItem(new IdentityItem("id1"), "space1");
+		first.addItem(new IdentityItem("id2", AuthenticatedState.LOGGED_OUT, true), "space2");
+
+		final IdentityMap second = new IdentityMap();
+		second.addItem(new IdentityItem("id2", AuthenticatedState.LOGGED_OUT, true), "space2");
+		second.addItem(new IdentityItem("id1"), "space1");
+
+		final long now = System.currentTimeMillis();
+		assertEquals(first.contentHash(now), second.contentHash(now));
+		assertEquals(0, new IdentityMap().contentHash(now));
+	}
+
+	@Test
+	public void test_contentHash_changesWithItemProperties() {
+		final long now = System.currentTimeMillis();
+		final IdentityMap base = new IdentityMap();
+		base.addItem(new IdentityItem("id1", AuthenticatedState.AMBIGUOUS, false), "space1");
+
+		final IdentityMap differentId = new IdentityMap();
+		differentId.addItem(new IdentityItem("id2", AuthenticatedState.AMBIGUOUS, false), "space1");
+
+		final IdentityMap differentState = new IdentityMap();
+		differentState.addItem(new IdentityItem("id1", AuthenticatedState.AUTHENTICATED, false), "space1");
+
+		final IdentityMap differentPrimary = new IdentityMap();
+		differentPrimary.addItem(new IdentityItem("id1", AuthenticatedState.AMBIGUOUS, true), "space1");
+
+		final IdentityMap differentNamespace = new IdentityMap();
+		differentNamespace.addItem(new IdentityItem("id1", AuthenticatedState.AMBIGUOUS, false), "space2");
+
+		final long hash = base.contentHash(now);
+		assertNotEquals(hash, differentId.contentHash(now));
+		assertNotEquals(hash, differentState.contentHash(now));
+		assertNotEquals(hash, differentPrimary.contentHash(now));
+		assertNotEquals(hash, differentNamespace.contentHash(now));
+	}
+
+	@Test
+	public void test_contentHash_ignoresExpiryTimesAndExpiredItems() {
+		final long now = System.currentTimeMillis();
+		final IdentityMap withoutExpiry = new IdentityMap();
+		withoutExpiry.addItem(new IdentityItem("id1"), "space1");
+
+		final IdentityMap withExpiry = new IdentityMap();
+		withExpiry.addItem(new IdentityItem(new IdentityItem("id1"), now + 60000), "space1");
+		withExpiry.addItem(new IdentityItem(new IdentityItem("expiring"), now + 1000), "space1");
+		withExpiry.addItem(new IdentityItem(new IdentityItem("expiring"), now + 1000), "space2");
+
+		assertNotEquals(withoutExpiry.contentHash(now), withExpiry.contentHash(now));
+		assertEquals(withoutExpiry.contentHash(now + 2000), withExpiry.contentHash(now + 2000));
+	}
 }
@@ -0,0 +1,185 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.edge.identity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.adobe.marketing.mobile.services.DataStoring;
+import com.adobe.marketing.mobile.services.NamedCollection;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IdentityMetricsTests {
+
+	@Before
+	public void setup() {
+		IdentityMetrics.reset();
+	}
+
+	@After
+	public void teardown() {
+		IdentityMetrics.setEnabled(false);
+		IdentityMetrics.reset();
+	}
+
+	@Test
+	public void test_disabled_recordsNothing() {
+		// test
+		final long startNanos = IdentityMetrics.startTimer();
+		IdentityMetrics.recordDuration(IdentityMetrics.HANDLE_UPDATE_IDENTITIES, System.nanoTime());
+		IdentityMetrics.add(IdentityMetrics.PERSISTENCE_WRITE_BYTES, 100);
+		IdentityMetrics.setGauge(IdentityMetrics.IDENTITY_MAP_ITEMS, 5);
+
+		// verify
+		assertEquals(0, startNanos);
+		final IdentityMetricsSnapshot snapshot = IdentityMetrics.snapshot();
+		assertEquals(0, snapshot.getHistogram("handler.updateIdentities").getCount());
+		assertEquals(0, snapshot.getCounter("persistence.write.bytes"));
+		assertEquals(0, snapshot.getGauge("identitymap.items"));
+	}
+
+	@Test
+	public void test_enabled_recordsCountersAndGauges() {
+		// setup
+		IdentityMetrics.setEnabled(true);
+
+		// test
+		IdentityMetrics.add(IdentityMetrics.PERSISTENCE_WRITE_BYTES, 100);
+		IdentityMetrics.add(IdentityMetrics.PERSISTENCE_WRITE_BYTES, 50);
+		IdentityMetrics.setGauge(IdentityMetrics.IDENTITY_MAP_ITEMS, 5);
+		IdentityMetrics.setGauge(IdentityMetrics.IDENTITY_MAP_ITEMS, 3);
+
+		// verify
+		final IdentityMetricsSnapshot snapshot = IdentityMetrics.snapshot();
+		assertEquals(150, snapshot.getCounter("persistence.write.bytes"));
+		assertEquals(3, snapshot.getGauge("identitymap.items"));
+	}
+
+	@Test
+	public void test_enabled_recordsDurations() {
+		// setup
+		IdentityMetrics.setEnabled(true);
+
+		// test
+		final long startNanos = IdentityMetrics.startTimer();
+		IdentityMetrics.recordDuration(IdentityMetrics.HANDLE_REMOVE_IDENTITY, startNanos);
+		IdentityMetrics.recordDuration(IdentityMetrics.HANDLE_REMOVE_IDENTITY, System.nanoTime() - 2_000_000_000L);
+
+		// verify
+		final IdentityMetricsSnapshot.LatencyHistogram histogram = IdentityMetrics
+			.snapshot()
+			.getHistogram("handler.removeIdentity");
+		assertNotNull(histogram);
+		assertEquals(2, histogram.getCount());
+		assertTrue(histogram.getMaxNanos() >= 2_000_000_000L);
+		assertTrue(histogram.getTotalNanos() >= histogram.getMaxNanos());
+		assertEquals(histogram.getTotalNanos() / 2, histogram.getMeanNanos());
+
+		final long[] bucketCounts = histogram.getBucketCounts();
+		assertEquals(histogram.getBucketUpperBoundsMicros().length + 1, bucketCounts.length);
+		assertEquals(1, bucketCounts[bucketCounts.length - 1]); // 2 seconds is above the last bound
+
+		long total = 0;
+		for (long count : bucketCounts) {
+			total += count;
+		}
+		assertEquals(2, total);
+	}
+
+	@Test
+	public void test_recordDuration_timerStartedWhileDisabled_ignored() {
+		// setup
+		final long startNanos = IdentityMetrics.startTimer();
+		IdentityMetrics.setEnabled(true);
+
+		// test
+		IdentityMetrics.recordDuration(IdentityMetrics.BOOT_WAIT, startNanos);
+
+		// verify
+		assertEquals(0, IdentityMetrics.snapshot().getHistogram("boot.wait").getCount());
+	}
+
+	@Test
+	public void test_reset_clearsAllMetrics() {
+		// setup
+		IdentityMetrics.setEnabled(true);
+		IdentityMetrics.add(IdentityMetrics.BOOT_ATTEMPTS, 1);
+		IdentityMetrics.setGauge(IdentityMetrics.IDENTITY_MAP_NAMESPACES, 2);
+		IdentityMetrics.recordDuration(IdentityMetrics.PERSISTENCE_READ, IdentityMetrics.startTimer());
+
+		// test
+		IdentityMetrics.reset();
+
+		// verify
+		final IdentityMetricsSnapshot snapshot = IdentityMetrics.snapshot();
+		assertEquals(0, snapshot.getCounter("boot.attempts"));
+		assertEquals(0, snapshot.getGauge("identitymap.namespaces"));
+		assertEquals(0, snapshot.getHistogram("persistence.read").getCount());
+		assertEquals(0, snapshot.getHistogram("persistence.read").getMaxNanos());
+	}
+
+	@Test
+	public void test_snapshot_containsAllMetricNames() {
+		final IdentityMetricsSnapshot snapshot = IdentityMetrics.snapshot();
+
+		assertEquals(5, snapshot.getCounters().size());
+		assertEquals(2, snapshot.getGauges().size());
+		assertEquals(11, snapshot.getHistograms().size());
+		assertNotNull(snapshot.getHistogram("handler.updateIdentities"));
+		assertNotNull(snapshot.getHistogram("handler.removeIdentity"));
+		assertNotNull(snapshot.getHistogram("handler.requestReset"));
+		assertNotNull(snapshot.getHistogram("handler.urlVariablesRequest"));
+		assertNotNull(snapshot.getHistogram("handler.getIdentifiersRequest"));
+		assertNotNull(snapshot.getHistogram("handler.identityVersionRequest"));
+		assertNotNull(snapshot.getHistogram("handler.findNamespacesRequest"));
+		assertNotNull(snapshot.getHistogram("handler.identityDirectECIDUpdate"));
+		assertNotNull(snapshot.getHistogram("persistence.write"));
+		assertNull(snapshot.getHistogram("unknown"));
+		assertEquals(0, snapshot.getCounter("unknown"));
+	}
+
+	@Test
+	public void test_persistence_recordsBytesDurationAndGauges() {
+		// setup
+		IdentityMetrics.setEnabled(true);
+		final IdentityProperties properties = new IdentityProperties();
+		properties.setECID(new ECID());
+		final IdentityMap map = new IdentityMap();
+		map.addItem(new IdentityItem("id1"), "space");
+		map.addItem(new IdentityItem("id2"), "space");
+		properties.updateCustomerIdentifiers(map);
+
+		final DataStoring dataStoring = mock(DataStoring.class);
+		when(dataStoring.getNamedCollection(anyString())).thenReturn(mock(NamedCollection.class));
+
+		// test
+		new IdentityStorageManager(dataStoring).savePropertiesToPersistence(properties);
+
+		// verify
+		final IdentityMetricsSnapshot snapshot = IdentityMetrics.snapshot();
+		assertEquals(1, snapshot.getHistogram("persistence.write").getCount());
+		assertEquals(
+			Utils.utf8Length(new JSONObject(properties.toPersistenceData()).toString()),
+			snapshot.getCounter("persistence.write.bytes")
+		);
+		assertEquals(2, snapshot.getGauge("identitymap.namespaces"));
+		assertEquals(3, snapshot.getGauge("identitymap.items"));
+	}
+}
@@ -19,6 +19,8 @@ import static org.junit.Assert.assertTrue;
 
 import com.adobe.marketing.mobile.util.DataReader;
 import com.adobe.marketing.mobile.util.DataReaderException;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Map;
 import org.junit.Test;
 
@@ -538,4 +540,100 @@ public class IdentityPropertiesTests {
 
 		assertEquals(expectedIdentityXDM, props.toXDMData(false));
 	}
+
+	// ======================================================================================================================
+	// Tests for clearCustomerNamespaces()
+	// ======================================================================================================================
+
+	@Test
+	public void test_clearCustomerNamespaces_removesAllItemsInNamespace() {
+		// Setup
+		IdentityProperties props = new IdentityProperties();
+		props.setECID(new ECID("internalECID"));
+		final Map<String, Object> customerIdentifierUpdate = createXDMIdentityMap(
+			new IdentityTestUtil.TestItem("UserId", "secretID"),
+			new IdentityTestUtil.TestItem("UserId", "otherID"),
+			new IdentityTestUtil.TestItem("PushId", "token")
+		);
+		props.updateCustomerIdentifiers(IdentityMap.fromXDMMap(customerIdentifierUpdate));
+
+		// test
+		props.clearCustomerNamespaces(Collections.singletonList("UserId"));
+
+		// Verify
+		final Map<String, Object> expectedProperties = createXDMIdentityMap(
+			new IdentityTestUtil.TestItem("ECID", "internalECID"),
+			new IdentityTestUtil.TestItem("PushId", "token")
+		);
+		assertEquals(expectedProperties, props.toXDMData(false));
+	}
+
+	@Test
+	public void test_clearCustomerNamespaces_doesNotClearReservedNamespaces() {
+		// Setup
+		IdentityProperties props = new IdentityProperties();
+		final ECID initialECID = new ECID();
+		props.setECID(initialECID);
+		props.setAdId("initialADID");
+
+		// test
+		props.clearCustomerNamespaces(Arrays.asList("ECID", "gaid", "IDFA"));
+
+		// Verify
+		IdentityProperties expectedProperties = new IdentityProperties();
+		expectedProperties.setECID(initialECID);
+		expectedProperties.setAdId("initialADID");
+
+		assertEquals(expectedProperties.toXDMData(false), props.toXDMData(false));
+	}
+
+	@Test
+	public void test_clearCustomerNamespaces_clearsCaseSensitively() {
+		// Setup
+		IdentityProperties props = new IdentityProperties();
+		final Map<String, Object> customerIdentifierUpdate = createXDMIdentityMap(
+			new IdentityTestUtil.TestItem("caseSensitive", "somevalue"),
+			new IdentityTestUtil.TestItem("CASESENSITIVE", "SOMEVALUE")
+		);
+		props.updateCustomerIdentifiers(IdentityMap.fromXDMMap(customerIdentifierUpdate));
+
+		// test
+		props.clearCustomerNamespaces(Arrays.asList("caseSensitive", "notExisting"));
+
+		// verify
+		final Map<String, Object> expectedIdentityXDM = createXDMIdentityMap(
+			new IdentityTestUtil.TestItem("CASESENSITIVE", "SOMEVALUE")
+		);
+		assertEquals(expectedIdentityXDM, props.toXDMData(false));
+	}
+
+	@Test
+	public void test_toPersistenceData_keepsLeastRecentlyUpdatedAcrossReload() {
+		// Setup
+		IdentityProperties props = new IdentityProperties();
+		props.updateCustomerIdentifiers(
+			IdentityMap.fromXDMMap(createXDMIdentityMap(new IdentityTestUtil.TestItem("session", "first")))
+		);
+		props.updateCustomerIdentifiers(
+			IdentityMap.fromXDMMap(createXDMIdentityMap(new IdentityTestUtil.TestItem("session", "second")))
+		);
+		props.updateCustomerIdentifiers(
+			IdentityMap.fromXDMMap(createXDMIdentityMap(new IdentityTestUtil.TestItem("session", "first")))
+		);
+
+		// test
+		IdentityProperties reloaded = new IdentityProperties(props.toPersistenceData());
+		reloaded.updateCustomerIdentifiers(
+			IdentityMap.fromXDMMap(createXDMIdentityMap(new IdentityTestUtil.TestItem("session", "third"))),
+			new IdentityMapLimits(0, 2, 0)
+		);
+
+		// verify
+		final Map<String, Object> expectedIdentityXDM = createXDMIdentityMap(
+			new IdentityTestUtil.TestItem("session", "first"),
+			new IdentityTestUtil.TestItem("session", "third")
+		);
+		assertEquals(expectedIdentityXDM, reloaded.toXDMData(false));
+		assertNull(reloaded.toXDMData(false).get(IdentityConstants.EventDataKeys.IDENTITY_UPDATES));
+	}
 }
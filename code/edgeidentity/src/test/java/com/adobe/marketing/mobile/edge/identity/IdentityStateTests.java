@@ -20,6 +20,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -35,12 +36,16 @@ import com.adobe.marketing.mobile.SharedStateResult;
 import com.adobe.marketing.mobile.SharedStateStatus;
 import com.adobe.marketing.mobile.services.DataStoring;
 import com.adobe.marketing.mobile.services.NamedCollection;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
@@ -73,6 +78,12 @@ public class IdentityStateTests {
 			.thenReturn(mockDirectIdentityNamedCollection);
 	}
 
+	@After
+	public void after() {
+		IdentityMetrics.setEnabled(false);
+		IdentityMetrics.reset();
+	}
+
 	@Test
 	public void testBootUpIfReady_persistedECIDIsReused() {
 		final IdentityProperties persistedProperties = new IdentityProperties();
@@ -162,6 +173,206 @@ public class IdentityStateTests {
 			.createXDMSharedState(identityState.getIdentityProperties().toXDMData(false), null);
 	}
 
+	@Test
+	public void testBootUpIfReady_whenNoPersistedEcid_usesPrefetchedIdentityDirectEcid() {
+		final ECID persistedDirectIdentityECID = new ECID();
+		when(mockIdentityStorageManager.loadEcidFromDirectIdentityPersistence())
+			.thenReturn(persistedDirectIdentityECID);
+		final List<Runnable> prefetches = new ArrayList<>();
+
+		final IdentityState identityState = new IdentityState(mockIdentityStorageManager);
+		identityState.prefetchDirectIdentityEcid(prefetches::add);
+		identityState.prefetchDirectIdentityEcid(prefetches::add);
+
+		// started once
+		assertEquals(1, prefetches.size());
+		prefetches.get(0).run();
+		verify(mockIdentityStorageManager, times(1)).loadEcidFromDirectIdentityPersistence();
+
+		when(mockSharedStateCallback.getSharedState(IdentityConstants.SharedState.Hub.NAME, null))
+			.thenReturn(new SharedStateResult(SharedStateStatus.SET, new HashMap<>()));
+
+		assertTrue(identityState.bootupIfReady(mockSharedStateCallback));
+		assertEquals(persistedDirectIdentityECID, identityState.getIdentityProperties().getECID());
+		// the prefetched ECID is used, persistence is not read again
+		verify(mockIdentityStorageManager, times(1)).loadEcidFromDirectIdentityPersistence();
+	}
+
+	@Test
+	public void testBootUpIfReady_whenPrefetchNotStarted_readsIdentityDirectEcidOnce() {
+		final ECID persistedDirectIdentityECID = new ECID();
+		when(mockIdentityStorageManager.loadEcidFromDirectIdentityPersistence())
+			.thenReturn(persistedDirectIdentityECID);
+		final List<Runnable> prefetches = new ArrayList<>();
+
+		final IdentityState identityState = new IdentityState(mockIdentityStorageManager);
+		identityState.prefetchDirectIdentityEcid(prefetches::add);
+
+		when(mockSharedStateCallback.getSharedState(IdentityConstants.SharedState.Hub.NAME, null))
+			.thenReturn(new SharedStateResult(SharedStateStatus.SET, new HashMap<>()));
+
+		// boot runs the read the executor has not started yet, and the executor's run is a no-op
+		assertTrue(identityState.bootupIfReady(mockSharedStateCallback));
+		prefetches.get(0).run();
+
+		assertEquals(persistedDirectIdentityECID, identityState.getIdentityProperties().getECID());
+		verify(mockIdentityStorageManager, times(1)).loadEcidFromDirectIdentityPersistence();
+	}
+
+	@Test
+	public void testBootUpIfReady_whenPersistedEcid_doesNotPrefetchIdentityDirectEcid() {
+		final IdentityProperties persistedProperties = new IdentityProperties();
+		persistedProperties.setECID(new ECID());
+		when(mockIdentityStorageManager.loadPropertiesFromPersistence()).thenReturn(persistedProperties);
+		final List<Runnable> prefetches = new ArrayList<>();
+
+		final IdentityState identityState = new IdentityState(mockIdentityStorageManager);
+		identityState.prefetchDirectIdentityEcid(prefetches::add);
+
+		assertTrue(prefetches.isEmpty());
+		assertTrue(identityState.bootupIfReady(mockSharedStateCallback));
+		verify(mockIdentityStorageManager, never()).loadEcidFromDirectIdentityPersistence();
+	}
+
+	@Test
+	public void testBootUpIfReady_whenWaitingForIdentityDirectState_readsIdentityDirectEcidAgainOnRetry() {
+		final IdentityState identityState = new IdentityState(mockIdentityStorageManager);
+		identityState.prefetchDirectIdentityEcid(Runnable::run);
+
+		final Map<String, Object> hubSharedState = new HashMap<>();
+		hubSharedState.put(
+			IdentityConstants.SharedState.Hub.EXTENSIONS,
+			Collections.singletonMap(
+				IdentityConstants.SharedState.IdentityDirect.NAME,
+				Collections.singletonMap("version", "2.0.0")
+			)
+		);
+		when(mockSharedStateCallback.getSharedState(IdentityConstants.SharedState.Hub.NAME, null))
+			.thenReturn(new SharedStateResult(SharedStateStatus.SET, hubSharedState));
+
+		// prefetched with no direct Identity ECID persisted, and no direct Identity state yet
+		assertFalse(identityState.bootupIfReady(mockSharedStateCallback));
+
+		final ECID persistedDirectIdentityECID = new ECID();
+		when(mockIdentityStorageManager.loadEcidFromDirectIdentityPersistence())
+			.thenReturn(persistedDirectIdentityECID);
+
+		assertTrue(identityState.bootupIfReady(mockSharedStateCallback));
+		assertEquals(persistedDirectIdentityECID, identityState.getIdentityProperties().getECID());
+		verify(mockIdentityStorageManager, times(2)).loadEcidFromDirectIdentityPersistence();
+	}
+
+	@Test
+	public void testBootUpIfReady_whenIdentityDirectStateNotSetBeforeBootTimeout_generatesEcidAtDeadline() {
+		final long[] now = { 1000L };
+		final IdentityState identityState = new IdentityState(mockIdentityStorageManager, () -> now[0]);
+		mockIdentityDirectRegistered();
+		mockConfigurationBootTimeout(5000L);
+
+		assertFalse(identityState.bootupIfReady(mockSharedStateCallback));
+		assertEquals(6000L, identityState.getBootDeadlineMillis());
+
+		now[0] = 5999L;
+		assertFalse(identityState.bootupIfReady(mockSharedStateCallback));
+		assertNull(identityState.getIdentityProperties().getECID());
+
+		now[0] = 6000L;
+		assertTrue(identityState.bootupIfReady(mockSharedStateCallback));
+		final ECID generatedEcid = identityState.getIdentityProperties().getECID();
+		assertNotNull(generatedEcid);
+		assertEquals(0L, identityState.getBootDeadlineMillis());
+		verify(mockIdentityStorageManager).savePropertiesToPersistence(identityState.getIdentityProperties());
+		verify(mockSharedStateCallback)
+			.createXDMSharedState(identityState.getIdentityProperties().toXDMData(false), null);
+
+		// direct Identity shares its state later, its ECID is kept as secondary ECID
+		final ECID legacyEcid = new ECID();
+		assertTrue(identityState.updateLegacyExperienceCloudId(legacyEcid));
+		assertEquals(generatedEcid, identityState.getIdentityProperties().getECID());
+		assertEquals(legacyEcid, identityState.getIdentityProperties().getECIDSecondary());
+	}
+
+	@Test
+	public void testGetMillisUntil_usesClock() {
+		final long[] now = { 1000L };
+		final IdentityState identityState = new IdentityState(mockIdentityStorageManager, () -> now[0]);
+
+		assertEquals(5000L, identityState.getMillisUntil(6000L));
+
+		now[0] = 7000L;
+		assertEquals(0L, identityState.getMillisUntil(6000L));
+	}
+
+	@Test
+	public void testRemoveExpiredIdentifiers_usesClock() {
+		final long[] now = { System.currentTimeMillis() };
+		final IdentityState identityState = new IdentityState(mockIdentityStorageManager, () -> now[0]);
+		final IdentityMap map = new IdentityMap();
+		map.addItem(new IdentityItem("expiring", AuthenticatedState.AMBIGUOUS, false, 60000), "space");
+		map.addItem(new IdentityItem("live"), "space");
+		identityState.updateCustomerIdentifiers(map);
+		final long expiresAt = identityState.getNextExpiresAt();
+
+		assertFalse(identityState.removeExpiredIdentifiers());
+
+		now[0] = expiresAt;
+		assertTrue(identityState.removeExpiredIdentifiers());
+		assertEquals(IdentityItem.NO_EXPIRY, identityState.getNextExpiresAt());
+		assertEquals(1, identityState.getIdentityProperties().getItemCount());
+	}
+
+	@Test
+	public void testBootUpIfReady_whenIdentityDirectStateSetBeforeBootTimeout_migratesEcid() {
+		final long[] now = { 1000L };
+		final IdentityState identityState = new IdentityState(mockIdentityStorageManager, () -> now[0]);
+		mockIdentityDirectRegistered();
+		mockConfigurationBootTimeout(5000L);
+
+		assertFalse(identityState.bootupIfReady(mockSharedStateCallback));
+
+		final ECID legacyEcid = new ECID();
+		when(mockSharedStateCallback.getSharedState(IdentityConstants.SharedState.IdentityDirect.NAME, null))
+			.thenReturn(
+				new SharedStateResult(
+					SharedStateStatus.SET,
+					Collections.singletonMap(IdentityConstants.SharedState.IdentityDirect.ECID, legacyEcid.toString())
+				)
+			);
+		now[0] = 2000L;
+
+		assertTrue(identityState.bootupIfReady(mockSharedStateCallback));
+		assertEquals(legacyEcid, identityState.getIdentityProperties().getECID());
+	}
+
+	@Test
+	public void testBootUpIfReady_whenNoBootTimeoutConfigured_waitsForIdentityDirectState() {
+		final long[] now = { 1000L };
+		final IdentityState identityState = new IdentityState(mockIdentityStorageManager, () -> now[0]);
+		mockIdentityDirectRegistered();
+
+		assertFalse(identityState.bootupIfReady(mockSharedStateCallback));
+		assertEquals(0L, identityState.getBootDeadlineMillis());
+
+		now[0] = Long.MAX_VALUE / 2;
+		assertFalse(identityState.bootupIfReady(mockSharedStateCallback));
+		assertNull(identityState.getIdentityProperties().getECID());
+	}
+
+	@Test
+	public void testBootUpIfReady_whenBootTimeoutConfiguredWhileWaiting_countsFromFirstWait() {
+		final long[] now = { 1000L };
+		final IdentityState identityState = new IdentityState(mockIdentityStorageManager, () -> now[0]);
+		mockIdentityDirectRegistered();
+
+		assertFalse(identityState.bootupIfReady(mockSharedStateCallback));
+
+		now[0] = 4000L;
+		mockConfigurationBootTimeout(2000L);
+
+		assertTrue(identityState.bootupIfReady(mockSharedStateCallback));
+		assertNotNull(identityState.getIdentityProperties().getECID());
+	}
+
 	@Test
 	public void testBootUpIfReady_prefersPersistedIdentityDirectEcidOverFetchingFromState() {
 		final IdentityState identityState = new IdentityState(mockIdentityStorageManager);
@@ -422,6 +633,38 @@ public class IdentityStateTests {
 		}
 	}
 
+	// ======================================================================================================================
+	// Tests for method : getIdentityVersion()
+	// ======================================================================================================================
+
+	@Test
+	public void testGetIdentityVersion_increasesOnlyWhenIdentifiersChange() {
+		// setup
+		final IdentityState state = new IdentityState(mockIdentityStorageManager);
+
+		// test
+		final IdentityVersion initial = state.getIdentityVersion();
+		final IdentityVersion unchanged = state.getIdentityVersion();
+
+		state.updateCustomerIdentifiers(
+			IdentityMap.fromXDMMap(createXDMIdentityMap(new IdentityTestUtil.TestItem("UserId", "secretID")))
+		);
+		final IdentityVersion updated = state.getIdentityVersion();
+
+		state.removeCustomerIdentifiers(
+			IdentityMap.fromXDMMap(createXDMIdentityMap(new IdentityTestUtil.TestItem("UserId", "secretID")))
+		);
+		final IdentityVersion removed = state.getIdentityVersion();
+
+		// verify
+		assertEquals(1, initial.getVersion());
+		assertEquals(initial, unchanged);
+		assertEquals(2, updated.getVersion());
+		assertNotEquals(initial.getHash(), updated.getHash());
+		assertEquals(3, removed.getVersion());
+		assertEquals(initial.getHash(), removed.getHash());
+	}
+
 	// ======================================================================================================================
 	// Tests for method : updateCustomerIdentifiers(final IdentityMap map)
 	// ======================================================================================================================
@@ -446,6 +689,64 @@ public class IdentityStateTests {
 		assertEquals(identityXDM, capturedIdentityProperties.toXDMData(false));
 	}
 
+	@Test
+	public void testUpdateCustomerIdentifiers_withLimits_evictsAndCounts() throws Exception {
+		// setup
+		IdentityMetrics.setEnabled(true);
+		final IdentityState state = new IdentityState(mockIdentityStorageManager);
+		state.getIdentityProperties().setECID(new ECID("internalECID"));
+		state.setIdentityMapLimits(new IdentityMapLimits(0, 2, 0));
+
+		// test
+		state.updateCustomerIdentifiers(
+			IdentityMap.fromXDMMap(
+				createXDMIdentityMap(
+					new IdentityTestUtil.TestItem("session", "s1"),
+					new IdentityTestUtil.TestItem("session", "s2")
+				)
+			)
+		);
+		state.updateCustomerIdentifiers(
+			IdentityMap.fromXDMMap(createXDMIdentityMap(new IdentityTestUtil.TestItem("session", "s3")))
+		);
+
+		// verify
+		final Map<String, Object> expectedIdentityXDM = createXDMIdentityMap(
+			new IdentityTestUtil.TestItem("ECID", "internalECID"),
+			new IdentityTestUtil.TestItem("session", "s2"),
+			new IdentityTestUtil.TestItem("session", "s3")
+		);
+		assertEquals(expectedIdentityXDM, state.getIdentityProperties().toXDMData(false));
+		assertEquals(1, IdentityMetrics.snapshot().getCounter("identitymap.evicted"));
+	}
+
+	@Test
+	public void testUpdateCustomerIdentifiers_afterLimitsRemoved_doesNotEvict() throws Exception {
+		// setup
+		IdentityMetrics.setEnabled(true);
+		final IdentityState state = new IdentityState(mockIdentityStorageManager);
+		state.setIdentityMapLimits(new IdentityMapLimits(0, 1, 0));
+		state.setIdentityMapLimits(null);
+
+		// test
+		state.updateCustomerIdentifiers(
+			IdentityMap.fromXDMMap(
+				createXDMIdentityMap(
+					new IdentityTestUtil.TestItem("session", "s1"),
+					new IdentityTestUtil.TestItem("session", "s2")
+				)
+			)
+		);
+
+		// verify
+		final Map<String, Object> expectedIdentityXDM = createXDMIdentityMap(
+			new IdentityTestUtil.TestItem("session", "s1"),
+			new IdentityTestUtil.TestItem("session", "s2")
+		);
+		assertEquals(expectedIdentityXDM, state.getIdentityProperties().toXDMData(false));
+		assertEquals(0, IdentityMetrics.snapshot().getCounter("identitymap.evicted"));
+	}
+
 	@Test
 	public void testUpdateCustomerIdentifiers_doesNotUpdateReservedNamespace() throws Exception {
 		// setup
@@ -560,6 +861,63 @@ public class IdentityStateTests {
 		assertEquals(initialProperties.toXDMData(false), capturedProperties.toXDMData(false));
 	}
 
+	@Test
+	public void testRemoveCustomerIdentifiers_withNamespaces_savesOnce() throws Exception {
+		// setup
+		final Map<String, Object> initialIdentityXDM = createXDMIdentityMap(
+			new IdentityTestUtil.TestItem("UserId", "secretID"),
+			new IdentityTestUtil.TestItem("Email", "a@example.com"),
+			new IdentityTestUtil.TestItem("Email", "b@example.com"),
+			new IdentityTestUtil.TestItem("PushId", "token")
+		);
+		final IdentityState state = new IdentityState(mockIdentityStorageManager);
+		state.getIdentityProperties().updateCustomerIdentifiers(IdentityMap.fromXDMMap(initialIdentityXDM));
+		state.getIdentityProperties().setECID(new ECID("internalECID"));
+
+		// test
+		final Map<String, Object> removedIdentityXDM = createXDMIdentityMap(
+			new IdentityTestUtil.TestItem("UserId", "secretID")
+		);
+		state.removeCustomerIdentifiers(
+			IdentityMap.fromXDMMap(removedIdentityXDM),
+			Collections.singletonList("Email")
+		);
+
+		final ArgumentCaptor<IdentityProperties> identityPropertiesArgumentCaptor = ArgumentCaptor.forClass(
+			IdentityProperties.class
+		);
+		verify(mockIdentityStorageManager, times(1))
+			.savePropertiesToPersistence(identityPropertiesArgumentCaptor.capture());
+		final Map<String, Object> expectedIdentityXDM = createXDMIdentityMap(
+			new IdentityTestUtil.TestItem("ECID", "internalECID"),
+			new IdentityTestUtil.TestItem("PushId", "token")
+		);
+		assertEquals(expectedIdentityXDM, identityPropertiesArgumentCaptor.getValue().toXDMData(false));
+	}
+
+	@Test
+	public void testRemoveCustomerIdentifiers_withNullMapAndNamespaces() throws Exception {
+		// setup
+		final Map<String, Object> initialIdentityXDM = createXDMIdentityMap(
+			new IdentityTestUtil.TestItem("UserId", "secretID"),
+			new IdentityTestUtil.TestItem("PushId", "token")
+		);
+		final IdentityState state = new IdentityState(mockIdentityStorageManager);
+		state.getIdentityProperties().updateCustomerIdentifiers(IdentityMap.fromXDMMap(initialIdentityXDM));
+
+		// test
+		state.removeCustomerIdentifiers(null, Collections.singletonList("PushId"));
+
+		final ArgumentCaptor<IdentityProperties> identityPropertiesArgumentCaptor = ArgumentCaptor.forClass(
+			IdentityProperties.class
+		);
+		verify(mockIdentityStorageManager).savePropertiesToPersistence(identityPropertiesArgumentCaptor.capture());
+		final Map<String, Object> expectedIdentityXDM = createXDMIdentityMap(
+			new IdentityTestUtil.TestItem("UserId", "secretID")
+		);
+		assertEquals(expectedIdentityXDM, identityPropertiesArgumentCaptor.getValue().toXDMData(false));
+	}
+
 	// ======================================================================================================================
 	// Tests for method : updateLegacyExperienceCloudId(final IdentityMap map)
 	// ======================================================================================================================
@@ -700,6 +1058,128 @@ public class IdentityStateTests {
 		assertUpdateAdvertisingIdentifier("adId", "adId", "adId", null, false);
 	}
 
+	@Test
+	public void testUpdateAdvertisingIdentifier_dispatchesConsentEventAfterSharedState() {
+		final IdentityState state = new IdentityState(mockIdentityStorageManager);
+		state.getIdentityProperties().setECID(new ECID());
+		final Event event = fakeGenericIdentityEvent("adId");
+
+		state.updateAdvertisingIdentifier(event, mockSharedStateCallback);
+
+		final InOrder inOrder = Mockito.inOrder(mockSharedStateCallback);
+		inOrder.verify(mockSharedStateCallback).createXDMSharedState(any(), eq(event));
+		inOrder.verify(mockSharedStateCallback).dispatchEvent(any());
+	}
+
+	@Test
+	public void testUpdateAdvertisingIdentifier_sameConsentValue_dispatchesSamePayloadInNewEvent() {
+		final IdentityState state = new IdentityState(mockIdentityStorageManager);
+		state.getIdentityProperties().setECID(new ECID());
+
+		state.updateAdvertisingIdentifier(fakeGenericIdentityEvent("adId"), mockSharedStateCallback);
+		state.updateAdvertisingIdentifier(fakeGenericIdentityEvent(""), mockSharedStateCallback);
+		state.updateAdvertisingIdentifier(fakeGenericIdentityEvent("otherAdId"), mockSharedStateCallback);
+
+		final ArgumentCaptor<Event> consentEventCaptor = ArgumentCaptor.forClass(Event.class);
+		verify(mockSharedStateCallback, times(3)).dispatchEvent(consentEventCaptor.capture());
+		final List<Event> consentEvents = consentEventCaptor.getAllValues();
+		assertEquals("y", flattenMap(consentEvents.get(0).getEventData()).get("consents.adID.val"));
+		assertEquals("n", flattenMap(consentEvents.get(1).getEventData()).get("consents.adID.val"));
+		assertEquals(consentEvents.get(0).getEventData(), consentEvents.get(2).getEventData());
+		assertNotEquals(consentEvents.get(0).getUniqueIdentifier(), consentEvents.get(2).getUniqueIdentifier());
+	}
+
+	@Test
+	public void testFlushAdvertisingIdentifier_whenFlapping_thenAppliesLastAdIdOnce() {
+		final IdentityState state = new IdentityState(mockIdentityStorageManager);
+		state.getIdentityProperties().setECID(new ECID());
+		final Event flushEvent = fakeGenericIdentityEvent(null);
+
+		final long sequence = state.deferAdvertisingIdentifier(fakeGenericIdentityEvent("adId"));
+		assertTrue(sequence > 0);
+		assertEquals(0, state.deferAdvertisingIdentifier(fakeGenericIdentityEvent("")));
+		assertEquals(0, state.deferAdvertisingIdentifier(fakeGenericIdentityEvent("adId")));
+
+		state.flushAdvertisingIdentifier(sequence, flushEvent, mockSharedStateCallback);
+		state.flushAdvertisingIdentifier(sequence, flushEvent, mockSharedStateCallback);
+
+		final ArgumentCaptor<Event> consentEventCaptor = ArgumentCaptor.forClass(Event.class);
+		verify(mockSharedStateCallback, times(1)).dispatchEvent(consentEventCaptor.capture());
+		assertEquals("y", flattenMap(consentEventCaptor.getValue().getEventData()).get("consents.adID.val"));
+
+		verify(mockIdentityStorageManager, times(1)).savePropertiesToPersistence(any());
+		verify(mockSharedStateCallback, times(1)).createXDMSharedState(any(), eq(flushEvent));
+		assertEquals("adId", state.getIdentityProperties().getAdId());
+	}
+
+	@Test
+	public void testFlushAdvertisingIdentifier_whenFlappingBackToCurrent_thenNoOp() {
+		final IdentityState state = new IdentityState(mockIdentityStorageManager);
+		state.getIdentityProperties().setECID(new ECID());
+		state.getIdentityProperties().setAdId("adId");
+
+		final long sequence = state.deferAdvertisingIdentifier(fakeGenericIdentityEvent(""));
+		state.deferAdvertisingIdentifier(fakeGenericIdentityEvent("adId"));
+
+		state.flushAdvertisingIdentifier(sequence, fakeGenericIdentityEvent(null), mockSharedStateCallback);
+
+		verify(mockSharedStateCallback, never()).dispatchEvent(any());
+
+		verify(mockIdentityStorageManager, never()).savePropertiesToPersistence(any());
+		verify(mockSharedStateCallback, never()).createXDMSharedState(any(), any());
+		assertEquals("adId", state.getIdentityProperties().getAdId());
+	}
+
+	@Test
+	public void testResetIdentifiers_dropsDeferredAdvertisingIdentifier() {
+		final IdentityState state = new IdentityState(mockIdentityStorageManager);
+		state.getIdentityProperties().setECID(new ECID());
+		final long sequence = state.deferAdvertisingIdentifier(fakeGenericIdentityEvent("adId"));
+
+		state.resetIdentifiers();
+		state.flushAdvertisingIdentifier(sequence, fakeGenericIdentityEvent(null), mockSharedStateCallback);
+
+		verify(mockSharedStateCallback, never()).createXDMSharedState(any(), any());
+		assertNull(state.getIdentityProperties().getAdId());
+		// a deferred ad ID was dropped, so the next one schedules a flush again
+		assertTrue(state.deferAdvertisingIdentifier(fakeGenericIdentityEvent("adId")) > 0);
+	}
+
+	@Test
+	public void testFlushAdvertisingIdentifier_flushScheduledBeforeReset_doesNotApplyNewerDeferredAdId() {
+		final IdentityState state = new IdentityState(mockIdentityStorageManager);
+		state.getIdentityProperties().setECID(new ECID());
+		final long staleSequence = state.deferAdvertisingIdentifier(fakeGenericIdentityEvent("adId"));
+		state.resetIdentifiers();
+		final long sequence = state.deferAdvertisingIdentifier(fakeGenericIdentityEvent("newAdId"));
+
+		// the flush scheduled before the reset fires early in the new debounce window
+		state.flushAdvertisingIdentifier(staleSequence, fakeGenericIdentityEvent(null), mockSharedStateCallback);
+
+		verify(mockSharedStateCallback, never()).createXDMSharedState(any(), any());
+		assertNull(state.getIdentityProperties().getAdId());
+
+		// the flush of the new debounce window applies it
+		final Event flushEvent = fakeGenericIdentityEvent(null);
+		state.flushAdvertisingIdentifier(sequence, flushEvent, mockSharedStateCallback);
+
+		verify(mockSharedStateCallback, times(1)).createXDMSharedState(any(), eq(flushEvent));
+		assertEquals("newAdId", state.getIdentityProperties().getAdId());
+	}
+
+	@Test
+	public void testFlushAdvertisingIdentifier_flushScheduledBeforeImmediateUpdate_isIgnored() {
+		final IdentityState state = new IdentityState(mockIdentityStorageManager);
+		state.getIdentityProperties().setECID(new ECID());
+		final long staleSequence = state.deferAdvertisingIdentifier(fakeGenericIdentityEvent("adId"));
+		state.updateAdvertisingIdentifier(fakeGenericIdentityEvent("otherAdId"), mockSharedStateCallback);
+		state.deferAdvertisingIdentifier(fakeGenericIdentityEvent("newAdId"));
+
+		state.flushAdvertisingIdentifier(staleSequence, fakeGenericIdentityEvent(null), mockSharedStateCallback);
+
+		assertEquals("otherAdId", state.getIdentityProperties().getAdId());
+	}
+
 	// Check:
 	// 1. Shared state only updated once
 	//     mockSharedPreferenceEditor times(1) check
@@ -743,23 +1223,21 @@ public class IdentityStateTests {
 		state.getIdentityProperties().setECID(new ECID());
 		state.getIdentityProperties().setAdId(persistedAdId);
 		final Event event = fakeGenericIdentityEvent(newAdId);
-		try (MockedStatic<MobileCore> mockedStaticMobileCore = Mockito.mockStatic(MobileCore.class)) {
-			state.updateAdvertisingIdentifier(event, mockSharedStateCallback);
-
-			// Verify consent event
-			if (expectedConsent == null) {
-				mockedStaticMobileCore.verify(() -> MobileCore.dispatchEvent(any()), never());
-			} else {
-				final ArgumentCaptor<Event> consentEventCaptor = ArgumentCaptor.forClass(Event.class);
-				mockedStaticMobileCore.verify(() -> MobileCore.dispatchEvent(consentEventCaptor.capture()), times(1));
-
-				final Event consentEvent = consentEventCaptor.getValue();
-
-				final Map<String, String> consentEventData = flattenMap(consentEvent.getEventData());
-				// `flattenMap` allows for checking the keys' hierarchy and literal values simultaneously
-				assertEquals("GAID", consentEventData.get("consents.adID.idType"));
-				assertEquals(expectedConsent, consentEventData.get("consents.adID.val"));
-			}
+		state.updateAdvertisingIdentifier(event, mockSharedStateCallback);
+
+		// Verify consent event
+		if (expectedConsent == null) {
+			verify(mockSharedStateCallback, never()).dispatchEvent(any());
+		} else {
+			final ArgumentCaptor<Event> consentEventCaptor = ArgumentCaptor.forClass(Event.class);
+			verify(mockSharedStateCallback, times(1)).dispatchEvent(consentEventCaptor.capture());
+
+			final Event consentEvent = consentEventCaptor.getValue();
+
+			final Map<String, String> consentEventData = flattenMap(consentEvent.getEventData());
+			// `flattenMap` allows for checking the keys' hierarchy and literal values simultaneously
+			assertEquals("GAID", consentEventData.get("consents.adID.idType"));
+			assertEquals(expectedConsent, consentEventData.get("consents.adID.val"));
 		}
 
 		if (isSharedStateUpdateExpected) {
@@ -784,6 +1262,32 @@ public class IdentityStateTests {
 
 	// Test helpers
 
+	private void mockIdentityDirectRegistered() {
+		final Map<String, Object> hubSharedState = new HashMap<>();
+		hubSharedState.put(
+			IdentityConstants.SharedState.Hub.EXTENSIONS,
+			Collections.singletonMap(
+				IdentityConstants.SharedState.IdentityDirect.NAME,
+				Collections.singletonMap("version", "2.0.0")
+			)
+		);
+		when(mockSharedStateCallback.getSharedState(IdentityConstants.SharedState.Hub.NAME, null))
+			.thenReturn(new SharedStateResult(SharedStateStatus.SET, hubSharedState));
+	}
+
+	private void mockConfigurationBootTimeout(final long timeoutMillis) {
+		when(mockSharedStateCallback.getSharedState(IdentityConstants.SharedState.Configuration.NAME, null))
+			.thenReturn(
+				new SharedStateResult(
+					SharedStateStatus.SET,
+					Collections.singletonMap(
+						IdentityConstants.SharedState.Configuration.BOOT_TIMEOUT_MILLIS,
+						(Object) timeoutMillis
+					)
+				)
+			);
+	}
+
 	/**
 	 * Creates an event with the given adId in data
 	 * @param adId
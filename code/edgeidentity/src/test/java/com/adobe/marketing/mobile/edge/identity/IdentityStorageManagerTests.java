@@ -12,8 +12,10 @@
 package com.adobe.marketing.mobile.edge.identity;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -26,6 +28,7 @@ import org.json.JSONObject;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
@@ -160,6 +163,42 @@ public class IdentityStorageManagerTests {
 			.setString(IdentityConstants.DataStoreKey.IDENTITY_PROPERTIES, expectedJSON);
 	}
 
+	@Test
+	public void testSaveAndLoadPropertiesToPersistence_keepsExpiresAt() {
+		// setup
+		final IdentityProperties properties = new IdentityProperties();
+		properties.setECID(new ECID());
+		final IdentityMap map = new IdentityMap();
+		final IdentityItem expiringItem = new IdentityItem("clickid", AuthenticatedState.AMBIGUOUS, false, 60000);
+		map.addItem(expiringItem, "campaign");
+		properties.updateCustomerIdentifiers(map);
+
+		final IdentityStorageManager identityStorageManager = new IdentityStorageManager(mockDataStoreService);
+
+		// test
+		identityStorageManager.savePropertiesToPersistence(properties);
+
+		final ArgumentCaptor<String> jsonCaptor = ArgumentCaptor.forClass(String.class);
+		verify(mockEdgeIdentityNamedCollection)
+			.setString(eq(IdentityConstants.DataStoreKey.IDENTITY_PROPERTIES), jsonCaptor.capture());
+		when(mockEdgeIdentityNamedCollection.getString(IdentityConstants.DataStoreKey.IDENTITY_PROPERTIES, null))
+			.thenReturn(jsonCaptor.getValue());
+		final IdentityProperties loadedProperties = identityStorageManager.loadPropertiesFromPersistence();
+
+		// verify
+		assertEquals(properties.toXDMData(false), loadedProperties.toXDMData(false));
+		assertFalse(loadedProperties.toXDMData(false).containsKey(IdentityConstants.EventDataKeys.IDENTITY_EXPIRIES));
+		assertEquals(properties.toPersistenceData(), loadedProperties.toPersistenceData());
+		assertEquals(
+			expiringItem.getExpiresAt(),
+			IdentityMap
+				.fromXDMMap(loadedProperties.toPersistenceData())
+				.getIdentityItemsForNamespace("campaign")
+				.get(0)
+				.getExpiresAt()
+		);
+	}
+
 	@Test
 	public void testLoadEcidFromDirectIdentityPersistence_DirectIdentityStoreIsNull() {
 		when(mockDataStoreService.getNamedCollection(IdentityConstants.DataStoreKey.IDENTITY_DIRECT_DATASTORE_NAME))
@@ -12,6 +12,7 @@
 package com.adobe.marketing.mobile.edge.identity;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -33,10 +34,14 @@ import com.adobe.marketing.mobile.ExtensionErrorCallback;
 import com.adobe.marketing.mobile.MobileCore;
 import com.adobe.marketing.mobile.util.JSONUtils;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import org.json.JSONObject;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
@@ -51,6 +56,14 @@ public class IdentityTests {
 		MockitoAnnotations.openMocks(this);
 	}
 
+	@After
+	public void teardown() {
+		Identity.setCallbackTimeout(500L);
+		Identity.setBootWaitTimeout(0L);
+		Identity.setTraceSink(null);
+		Identity.resetIdentityVersionListeners();
+	}
+
 	// ========================================================================================
 	// extensionVersion
 	// ========================================================================================
@@ -631,6 +644,39 @@ public class IdentityTests {
 		assertEquals(map.asXDMMap(false), dispatchedEvent.getEventData());
 	}
 
+	@Test
+	public void testUpdateIdentities_withExpiringItem_includesExpiries() {
+		// setup
+		final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+		final IdentityMap map = new IdentityMap();
+		final IdentityItem expiringItem = new IdentityItem("clickid", AuthenticatedState.AMBIGUOUS, false, 3600000);
+		map.addItem(expiringItem, "campaign");
+		map.addItem(new IdentityItem("id"), "mainspace");
+
+		try (MockedStatic<MobileCore> mockedStaticMobileCore = Mockito.mockStatic(MobileCore.class)) {
+			// test
+			Identity.updateIdentities(map);
+
+			mockedStaticMobileCore.verify(() -> MobileCore.dispatchEvent(eventCaptor.capture()));
+		} catch (Exception e) {
+			fail(e.getMessage());
+		}
+
+		// verify the expiry is sent with the identities
+		final Event dispatchedEvent = eventCaptor.getValue();
+		assertTrue(dispatchedEvent.getEventData().containsKey(IdentityConstants.EventDataKeys.IDENTITY_EXPIRIES));
+		final IdentityMap dispatchedMap = IdentityMap.fromXDMMap(dispatchedEvent.getEventData());
+		assertEquals(map.asXDMMap(false), dispatchedMap.asXDMMap(false));
+		assertEquals(
+			expiringItem.getExpiresAt(),
+			dispatchedMap.getIdentityItemsForNamespace("campaign").get(0).getExpiresAt()
+		);
+		assertEquals(
+			IdentityItem.NO_EXPIRY,
+			dispatchedMap.getIdentityItemsForNamespace("mainspace").get(0).getExpiresAt()
+		);
+	}
+
 	@Test
 	public void testUpdateIdentitiesNullMap() {
 		// test
@@ -688,6 +734,83 @@ public class IdentityTests {
 		assertEquals(expectedIdentityMap.asXDMMap(false), dispatchedEvent.getEventData());
 	}
 
+	@Test
+	public void testRemoveIdentities() {
+		// setup
+		final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+		final IdentityMap identityMap = new IdentityMap();
+		identityMap.addItem(new IdentityItem("id1"), "namespace1");
+		identityMap.addItem(new IdentityItem("id2"), "namespace1");
+		identityMap.addItem(new IdentityItem("id3"), "namespace2");
+
+		try (MockedStatic<MobileCore> mockedStaticMobileCore = Mockito.mockStatic(MobileCore.class)) {
+			// test
+			Identity.removeIdentities(identityMap);
+
+			mockedStaticMobileCore.verify(() -> MobileCore.dispatchEvent(eventCaptor.capture()), times(1));
+		} catch (Exception e) {
+			fail(e.getMessage());
+		}
+
+		final Event dispatchedEvent = eventCaptor.getValue();
+		assertEquals(IdentityConstants.EventNames.REMOVE_IDENTITIES, dispatchedEvent.getName());
+		assertEquals(EventType.EDGE_IDENTITY, dispatchedEvent.getType());
+		assertEquals(EventSource.REMOVE_IDENTITY, dispatchedEvent.getSource());
+		assertEquals(identityMap.asXDMMap(false), dispatchedEvent.getEventData());
+	}
+
+	@Test
+	public void testRemoveIdentities_WithInvalidInputs() {
+		try (MockedStatic<MobileCore> mockedStaticMobileCore = Mockito.mockStatic(MobileCore.class)) {
+			// test
+			Identity.removeIdentities(null);
+			Identity.removeIdentities(new IdentityMap());
+
+			// verify that no event is dispatched
+			mockedStaticMobileCore.verify(() -> MobileCore.dispatchEvent(any(Event.class)), never());
+		} catch (Exception e) {
+			fail(e.getMessage());
+		}
+	}
+
+	@Test
+	public void testClearNamespace() {
+		// setup
+		final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+
+		try (MockedStatic<MobileCore> mockedStaticMobileCore = Mockito.mockStatic(MobileCore.class)) {
+			// test
+			Identity.clearNamespace("Email");
+
+			mockedStaticMobileCore.verify(() -> MobileCore.dispatchEvent(eventCaptor.capture()));
+		} catch (Exception e) {
+			fail(e.getMessage());
+		}
+
+		final Event dispatchedEvent = eventCaptor.getValue();
+		assertEquals(IdentityConstants.EventNames.REMOVE_IDENTITIES, dispatchedEvent.getName());
+		assertEquals(EventType.EDGE_IDENTITY, dispatchedEvent.getType());
+		assertEquals(EventSource.REMOVE_IDENTITY, dispatchedEvent.getSource());
+		assertEquals(
+			Collections.singletonList("Email"),
+			dispatchedEvent.getEventData().get(IdentityConstants.EventDataKeys.CLEAR_NAMESPACES)
+		);
+	}
+
+	@Test
+	public void testClearNamespace_WithInvalidInputs() {
+		try (MockedStatic<MobileCore> mockedStaticMobileCore = Mockito.mockStatic(MobileCore.class)) {
+			// test
+			Identity.clearNamespace(null);
+			Identity.clearNamespace("");
+
+			// verify that no event is dispatched
+			mockedStaticMobileCore.verify(() -> MobileCore.dispatchEvent(any(Event.class)), never());
+		} catch (Exception e) {
+			fail(e.getMessage());
+		}
+	}
+
 	@Test
 	public void testRemoveIdentity_WithInvalidInputs() {
 		// setup
@@ -990,16 +1113,736 @@ public class IdentityTests {
 		assertEquals(AdobeError.UNEXPECTED_ERROR, errorCapture.get(KEY_CAPTURED_ERROR_CALLBACK));
 	}
 
+	@Test
+	public void testGetIdentities_withNamespaces_dispatchesNamespacesInEventData() {
+		// setup
+		final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+
+		try (MockedStatic<MobileCore> mockedStaticMobileCore = Mockito.mockStatic(MobileCore.class)) {
+			// test
+			Identity.getIdentities(new HashSet<>(Arrays.asList("CRMID", "Email")), map -> {});
+
+			// verify
+			mockedStaticMobileCore.verify(() ->
+				MobileCore.dispatchEventWithResponseCallback(eventCaptor.capture(), eq(500L), any())
+			);
+		}
+
+		final Event dispatchedEvent = eventCaptor.getValue();
+		assertEquals(IdentityConstants.EventNames.REQUEST_IDENTITIES, dispatchedEvent.getName());
+		assertEquals(EventType.EDGE_IDENTITY, dispatchedEvent.getType());
+		assertEquals(EventSource.REQUEST_IDENTITY, dispatchedEvent.getSource());
+
+		final List<String> namespaces = (List<String>) dispatchedEvent
+			.getEventData()
+			.get(IdentityConstants.EventDataKeys.NAMESPACES);
+		assertEquals(2, namespaces.size());
+		assertTrue(namespaces.containsAll(Arrays.asList("CRMID", "Email")));
+	}
+
+	@Test
+	public void testGetIdentities_withEmptyNamespaces_requestsAllIdentities() {
+		// setup
+		final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+
+		try (MockedStatic<MobileCore> mockedStaticMobileCore = Mockito.mockStatic(MobileCore.class)) {
+			// test
+			Identity.getIdentities(new HashSet<>(), map -> {});
+
+			// verify
+			mockedStaticMobileCore.verify(() ->
+				MobileCore.dispatchEventWithResponseCallback(eventCaptor.capture(), eq(500L), any())
+			);
+		}
+
+		assertNull(eventCaptor.getValue().getEventData());
+	}
+
 	// ========================================================================================
-	// Private methods
+	// findNamespaces API
 	// ========================================================================================
-	private Event buildIdentityResponseEvent(final Map<String, Object> eventData) {
-		return new Event.Builder(
-			IdentityConstants.EventNames.IDENTITY_REQUEST_IDENTITY_ECID,
-			EventType.EDGE_IDENTITY,
-			EventSource.RESPONSE_IDENTITY
-		)
-			.setEventData(eventData)
+	@Test
+	public void testFindNamespaces() {
+		// setup
+		final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+		final ArgumentCaptor<AdobeCallbackWithError> adobeCallbackCaptor = ArgumentCaptor.forClass(
+			AdobeCallbackWithError.class
+		);
+		final List<List<String>> callbackReturnValues = new ArrayList<>();
+
+		try (MockedStatic<MobileCore> mockedStaticMobileCore = Mockito.mockStatic(MobileCore.class)) {
+			// test
+			Identity.findNamespaces("user@example.com", callbackReturnValues::add);
+
+			// verify
+			mockedStaticMobileCore.verify(() ->
+				MobileCore.dispatchEventWithResponseCallback(
+					eventCaptor.capture(),
+					eq(500L),
+					adobeCallbackCaptor.capture()
+				)
+			);
+		}
+
+		// verify the dispatched event details
+		final Event dispatchedEvent = eventCaptor.getValue();
+		assertEquals(IdentityConstants.EventNames.IDENTITY_REQUEST_FIND_NAMESPACES, dispatchedEvent.getName());
+		assertEquals(EventType.EDGE_IDENTITY, dispatchedEvent.getType());
+		assertEquals(EventSource.REQUEST_IDENTITY, dispatchedEvent.getSource());
+		assertEquals(
+			"user@example.com",
+			dispatchedEvent.getEventData().get(IdentityConstants.EventDataKeys.FIND_NAMESPACES_ID)
+		);
+
+		// verify callback responses
+		final Map<String, Object> responseData = new HashMap<>();
+		responseData.put(IdentityConstants.EventDataKeys.NAMESPACES, Arrays.asList("Email", "HashedEmail"));
+		adobeCallbackCaptor.getValue().call(buildIdentityResponseEvent(responseData));
+
+		assertEquals(1, callbackReturnValues.size());
+		assertEquals(Arrays.asList("Email", "HashedEmail"), callbackReturnValues.get(0));
+	}
+
+	@Test
+	public void testFindNamespaces_emptyId_returnsEmptyListWithoutDispatch() {
+		// setup
+		final List<List<String>> callbackReturnValues = new ArrayList<>();
+
+		try (MockedStatic<MobileCore> mockedStaticMobileCore = Mockito.mockStatic(MobileCore.class)) {
+			// test
+			Identity.findNamespaces("", callbackReturnValues::add);
+
+			// verify
+			mockedStaticMobileCore.verify(
+				() -> MobileCore.dispatchEventWithResponseCallback(any(Event.class), anyLong(), any()),
+				never()
+			);
+		}
+
+		assertEquals(1, callbackReturnValues.size());
+		assertTrue(callbackReturnValues.get(0).isEmpty());
+	}
+
+	@Test
+	public void testFindNamespaces_missingNamespaces_callsErrorCallback() {
+		// setup
+		final ArgumentCaptor<AdobeCallbackWithError> adobeCallbackCaptor = ArgumentCaptor.forClass(
+			AdobeCallbackWithError.class
+		);
+		final List<AdobeError> errors = new ArrayList<>();
+
+		try (MockedStatic<MobileCore> mockedStaticMobileCore = Mockito.mockStatic(MobileCore.class)) {
+			// test
+			Identity.findNamespaces(
+				"id",
+				new AdobeCallbackWithError<List<String>>() {
+					@Override
+					public void fail(final AdobeError adobeError) {
+						errors.add(adobeError);
+					}
+
+					@Override
+					public void call(final List<String> namespaces) {}
+				}
+			);
+
+			mockedStaticMobileCore.verify(() ->
+				MobileCore.dispatchEventWithResponseCallback(any(Event.class), eq(500L), adobeCallbackCaptor.capture())
+			);
+		}
+
+		adobeCallbackCaptor.getValue().call(buildIdentityResponseEvent(new HashMap<String, Object>()));
+
+		// verify
+		assertEquals(Collections.singletonList(AdobeError.UNEXPECTED_ERROR), errors);
+	}
+
+	// ========================================================================================
+	// getIdentityVersion API
+	// ========================================================================================
+	@Test
+	public void testGetIdentityVersion() {
+		// setup
+		final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+		final ArgumentCaptor<AdobeCallbackWithError> adobeCallbackCaptor = ArgumentCaptor.forClass(
+			AdobeCallbackWithError.class
+		);
+		final List<IdentityVersion> callbackReturnValues = new ArrayList<>();
+
+		try (MockedStatic<MobileCore> mockedStaticMobileCore = Mockito.mockStatic(MobileCore.class)) {
+			// test
+			Identity.getIdentityVersion(callbackReturnValues::add);
+
+			// verify
+			mockedStaticMobileCore.verify(() ->
+				MobileCore.dispatchEventWithResponseCallback(
+					eventCaptor.capture(),
+					eq(500L),
+					adobeCallbackCaptor.capture()
+				)
+			);
+		}
+
+		// verify the dispatched event details
+		final Event dispatchedEvent = eventCaptor.getValue();
+		assertEquals(IdentityConstants.EventNames.IDENTITY_REQUEST_IDENTITY_VERSION, dispatchedEvent.getName());
+		assertEquals(EventType.EDGE_IDENTITY, dispatchedEvent.getType());
+		assertEquals(EventSource.REQUEST_IDENTITY, dispatchedEvent.getSource());
+		assertEquals(true, dispatchedEvent.getEventData().get(IdentityConstants.EventDataKeys.IDENTITY_VERSION));
+
+		// verify callback responses
+		adobeCallbackCaptor.getValue().call(buildIdentityResponseEvent(new IdentityVersion(3L, -42L).toEventData()));
+
+		assertEquals(1, callbackReturnValues.size());
+		assertEquals(3L, callbackReturnValues.get(0).getVersion());
+		assertEquals(-42L, callbackReturnValues.get(0).getHash());
+	}
+
+	@Test
+	public void testGetIdentityVersion_missingVersion_callsErrorCallback() {
+		// setup
+		final ArgumentCaptor<AdobeCallbackWithError> adobeCallbackCaptor = ArgumentCaptor.forClass(
+			AdobeCallbackWithError.class
+		);
+		final List<AdobeError> errors = new ArrayList<>();
+
+		try (MockedStatic<MobileCore> mockedStaticMobileCore = Mockito.mockStatic(MobileCore.class)) {
+			// test
+			Identity.getIdentityVersion(
+				new AdobeCallbackWithError<IdentityVersion>() {
+					@Override
+					public void fail(final AdobeError adobeError) {
+						errors.add(adobeError);
+					}
+
+					@Override
+					public void call(final IdentityVersion identityVersion) {}
+				}
+			);
+
+			mockedStaticMobileCore.verify(() ->
+				MobileCore.dispatchEventWithResponseCallback(any(Event.class), eq(500L), adobeCallbackCaptor.capture())
+			);
+		}
+
+		adobeCallbackCaptor.getValue().call(buildIdentityResponseEvent(new HashMap<String, Object>()));
+
+		// verify
+		assertEquals(Collections.singletonList(AdobeError.UNEXPECTED_ERROR), errors);
+	}
+
+	// ========================================================================================
+	// getIdentitiesIfChanged API
+	// ========================================================================================
+	@Test
+	public void testGetIdentitiesIfChanged_whenModified_returnsIdentityMap() {
+		// setup
+		final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+		final ArgumentCaptor<AdobeCallbackWithError> adobeCallbackCaptor = ArgumentCaptor.forClass(
+			AdobeCallbackWithError.class
+		);
+		final List<IdentitySnapshot> callbackReturnValues = new ArrayList<>();
+
+		try (MockedStatic<MobileCore> mockedStaticMobileCore = Mockito.mockStatic(MobileCore.class)) {
+			// test
+			Identity.getIdentitiesIfChanged(new IdentityVersion(2L, 1234L), callbackReturnValues::add);
+
+			// verify
+			mockedStaticMobileCore.verify(() ->
+				MobileCore.dispatchEventWithResponseCallback(
+					eventCaptor.capture(),
+					eq(500L),
+					adobeCallbackCaptor.capture()
+				)
+			);
+		}
+
+		// verify the dispatched event details
+		final Event dispatchedEvent = eventCaptor.getValue();
+		assertEquals(IdentityConstants.EventNames.REQUEST_IDENTITIES, dispatchedEvent.getName());
+		assertEquals(EventType.EDGE_IDENTITY, dispatchedEvent.getType());
+		assertEquals(EventSource.REQUEST_IDENTITY, dispatchedEvent.getSource());
+		assertEquals(1234L, dispatchedEvent.getEventData().get(IdentityConstants.EventDataKeys.IF_NONE_MATCH));
+
+		// verify callback responses
+		final IdentityMap responseMap = new IdentityMap();
+		responseMap.addItem(new IdentityItem("id"), "space");
+		final Map<String, Object> responseData = new IdentityVersion(3L, 5678L).addTo(responseMap.asXDMMap(false));
+		adobeCallbackCaptor.getValue().call(buildIdentityResponseEvent(responseData));
+
+		assertEquals(1, callbackReturnValues.size());
+		final IdentitySnapshot snapshot = callbackReturnValues.get(0);
+		assertTrue(snapshot.isModified());
+		assertEquals(new IdentityVersion(3L, 5678L), snapshot.getVersion());
+		assertEquals("id", snapshot.getIdentityMap().getIdentityItemsForNamespace("space").get(0).getId());
+	}
+
+	@Test
+	public void testGetIdentitiesIfChanged_whenNotModified_returnsVersionOnly() {
+		// setup
+		final ArgumentCaptor<AdobeCallbackWithError> adobeCallbackCaptor = ArgumentCaptor.forClass(
+			AdobeCallbackWithError.class
+		);
+		final List<IdentitySnapshot> callbackReturnValues = new ArrayList<>();
+
+		try (MockedStatic<MobileCore> mockedStaticMobileCore = Mockito.mockStatic(MobileCore.class)) {
+			// test
+			Identity.getIdentitiesIfChanged(new IdentityVersion(2L, 1234L), callbackReturnValues::add);
+
+			mockedStaticMobileCore.verify(() ->
+				MobileCore.dispatchEventWithResponseCallback(any(Event.class), eq(500L), adobeCallbackCaptor.capture())
+			);
+		}
+
+		adobeCallbackCaptor.getValue().call(buildIdentityResponseEvent(new IdentityVersion(2L, 1234L).toEventData()));
+
+		// verify
+		assertEquals(1, callbackReturnValues.size());
+		assertFalse(callbackReturnValues.get(0).isModified());
+		assertNull(callbackReturnValues.get(0).getIdentityMap());
+		assertEquals(new IdentityVersion(2L, 1234L), callbackReturnValues.get(0).getVersion());
+	}
+
+	@Test
+	public void testGetIdentitiesIfChanged_nullVersion_requestsIdentitiesUnconditionally() {
+		// setup
+		final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+
+		try (MockedStatic<MobileCore> mockedStaticMobileCore = Mockito.mockStatic(MobileCore.class)) {
+			// test
+			Identity.getIdentitiesIfChanged(null, snapshot -> {});
+
+			mockedStaticMobileCore.verify(() ->
+				MobileCore.dispatchEventWithResponseCallback(eventCaptor.capture(), eq(500L), any())
+			);
+		}
+
+		// verify
+		assertNull(eventCaptor.getValue().getEventData());
+	}
+
+	// ========================================================================================
+	// registerIdentityVersionListener / unregisterIdentityVersionListener API
+	// ========================================================================================
+	@Test
+	public void testRegisterIdentityVersionListener_callsListenerWithResponseAndChanges() {
+		// setup
+		final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+		final ArgumentCaptor<AdobeCallbackWithError> adobeCallbackCaptor = ArgumentCaptor.forClass(
+			AdobeCallbackWithError.class
+		);
+		final ArgumentCaptor<AdobeCallback> listenerCaptor = ArgumentCaptor.forClass(AdobeCallback.class);
+		final List<IdentityVersion> callbackReturnValues = new ArrayList<>();
+
+		try (MockedStatic<MobileCore> mockedStaticMobileCore = Mockito.mockStatic(MobileCore.class)) {
+			// test
+			Identity.registerIdentityVersionListener(callbackReturnValues::add);
+
+			// verify
+			mockedStaticMobileCore.verify(() ->
+				MobileCore.registerEventListener(
+					eq(EventType.EDGE_IDENTITY),
+					eq(EventSource.RESPONSE_IDENTITY),
+					listenerCaptor.capture()
+				)
+			);
+			mockedStaticMobileCore.verify(() ->
+				MobileCore.dispatchEventWithResponseCallback(
+					eventCaptor.capture(),
+					eq(500L),
+					adobeCallbackCaptor.capture()
+				)
+			);
+		}
+
+		// verify the dispatched event details
+		final Event dispatchedEvent = eventCaptor.getValue();
+		assertEquals(IdentityConstants.EventNames.IDENTITY_REQUEST_IDENTITY_VERSION, dispatchedEvent.getName());
+		assertEquals(EventType.EDGE_IDENTITY, dispatchedEvent.getType());
+		assertEquals(EventSource.REQUEST_IDENTITY, dispatchedEvent.getSource());
+		assertEquals(true, dispatchedEvent.getEventData().get(IdentityConstants.EventDataKeys.IDENTITY_VERSION));
+		assertEquals(
+			true,
+			dispatchedEvent.getEventData().get(IdentityConstants.EventDataKeys.NOTIFY_IDENTITY_VERSION_CHANGES)
+		);
+
+		// verify the response and the version changed events are passed to the listener
+		adobeCallbackCaptor.getValue().call(buildIdentityResponseEvent(new IdentityVersion(1L, 1234L).toEventData()));
+		listenerCaptor.getValue().call(buildIdentityVersionChangedEvent(new IdentityVersion(2L, 5678L)));
+
+		assertEquals(
+			Arrays.asList(new IdentityVersion(1L, 1234L), new IdentityVersion(2L, 5678L)),
+			callbackReturnValues
+		);
+	}
+
+	@Test
+	public void testRegisterIdentityVersionListener_ignoresOtherIdentityResponses() {
+		// setup
+		final ArgumentCaptor<AdobeCallback> listenerCaptor = ArgumentCaptor.forClass(AdobeCallback.class);
+		final List<IdentityVersion> callbackReturnValues = new ArrayList<>();
+
+		try (MockedStatic<MobileCore> mockedStaticMobileCore = Mockito.mockStatic(MobileCore.class)) {
+			Identity.registerIdentityVersionListener(callbackReturnValues::add);
+
+			mockedStaticMobileCore.verify(() ->
+				MobileCore.registerEventListener(
+					eq(EventType.EDGE_IDENTITY),
+					eq(EventSource.RESPONSE_IDENTITY),
+					listenerCaptor.capture()
+				)
+			);
+		}
+
+		// test
+		listenerCaptor.getValue().call(buildIdentityResponseEvent(new IdentityVersion(1L, 1234L).toEventData()));
+
+		// verify
+		assertTrue(callbackReturnValues.isEmpty());
+	}
+
+	@Test
+	public void testRegisterIdentityVersionListener_responseWithoutVersion_returnsError() {
+		// setup
+		final ArgumentCaptor<AdobeCallbackWithError> adobeCallbackCaptor = ArgumentCaptor.forClass(
+			AdobeCallbackWithError.class
+		);
+		final List<AdobeError> errors = new ArrayList<>();
+
+		try (MockedStatic<MobileCore> mockedStaticMobileCore = Mockito.mockStatic(MobileCore.class)) {
+			// test
+			Identity.registerIdentityVersionListener(
+				new AdobeCallbackWithError<IdentityVersion>() {
+					@Override
+					public void fail(final AdobeError adobeError) {
+						errors.add(adobeError);
+					}
+
+					@Override
+					public void call(final IdentityVersion identityVersion) {}
+				}
+			);
+
+			mockedStaticMobileCore.verify(() ->
+				MobileCore.dispatchEventWithResponseCallback(any(Event.class), eq(500L), adobeCallbackCaptor.capture())
+			);
+		}
+
+		adobeCallbackCaptor.getValue().call(buildIdentityResponseEvent(new HashMap<String, Object>()));
+
+		// verify
+		assertEquals(Collections.singletonList(AdobeError.UNEXPECTED_ERROR), errors);
+	}
+
+	@Test
+	public void testRegisterIdentityVersionListener_multipleListeners_registerOneEventListener() {
+		// setup
+		final ArgumentCaptor<AdobeCallback> listenerCaptor = ArgumentCaptor.forClass(AdobeCallback.class);
+		final List<IdentityVersion> firstValues = new ArrayList<>();
+		final List<IdentityVersion> secondValues = new ArrayList<>();
+		final AdobeCallback<IdentityVersion> first = firstValues::add;
+
+		try (MockedStatic<MobileCore> mockedStaticMobileCore = Mockito.mockStatic(MobileCore.class)) {
+			// test
+			Identity.registerIdentityVersionListener(first);
+			Identity.registerIdentityVersionListener(first);
+			Identity.registerIdentityVersionListener(secondValues::add);
+
+			// verify a listener registered twice is only registered once
+			mockedStaticMobileCore.verify(
+				() ->
+					MobileCore.registerEventListener(
+						eq(EventType.EDGE_IDENTITY),
+						eq(EventSource.RESPONSE_IDENTITY),
+						listenerCaptor.capture()
+					),
+				times(1)
+			);
+			mockedStaticMobileCore.verify(
+				() -> MobileCore.dispatchEventWithResponseCallback(any(Event.class), anyLong(), any()),
+				times(2)
+			);
+		}
+
+		listenerCaptor.getValue().call(buildIdentityVersionChangedEvent(new IdentityVersion(2L, 5678L)));
+
+		// verify
+		assertEquals(Collections.singletonList(new IdentityVersion(2L, 5678L)), firstValues);
+		assertEquals(Collections.singletonList(new IdentityVersion(2L, 5678L)), secondValues);
+	}
+
+	@Test
+	public void testUnregisterIdentityVersionListener_lastListener_stopsNotifications() {
+		// setup
+		final ArgumentCaptor<AdobeCallback> listenerCaptor = ArgumentCaptor.forClass(AdobeCallback.class);
+		final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+		final List<IdentityVersion> firstValues = new ArrayList<>();
+		final List<IdentityVersion> secondValues = new ArrayList<>();
+		final AdobeCallback<IdentityVersion> first = firstValues::add;
+		final AdobeCallback<IdentityVersion> second = secondValues::add;
+
+		try (MockedStatic<MobileCore> mockedStaticMobileCore = Mockito.mockStatic(MobileCore.class)) {
+			Identity.registerIdentityVersionListener(first);
+			Identity.registerIdentityVersionListener(second);
+
+			mockedStaticMobileCore.verify(() ->
+				MobileCore.registerEventListener(
+					eq(EventType.EDGE_IDENTITY),
+					eq(EventSource.RESPONSE_IDENTITY),
+					listenerCaptor.capture()
+				)
+			);
+
+			// test
+			Identity.unregisterIdentityVersionListener(first);
+
+			// verify the extension keeps notifying while a listener is registered
+			mockedStaticMobileCore.verify(() -> MobileCore.dispatchEvent(any(Event.class)), never());
+			listenerCaptor.getValue().call(buildIdentityVersionChangedEvent(new IdentityVersion(2L, 5678L)));
+
+			// test
+			Identity.unregisterIdentityVersionListener(second);
+			Identity.unregisterIdentityVersionListener(second);
+
+			// verify the extension is asked to stop notifying once
+			mockedStaticMobileCore.verify(() -> MobileCore.dispatchEvent(eventCaptor.capture()), times(1));
+		}
+
+		listenerCaptor.getValue().call(buildIdentityVersionChangedEvent(new IdentityVersion(3L, 9012L)));
+
+		// verify
+		assertTrue(firstValues.isEmpty());
+		assertEquals(Collections.singletonList(new IdentityVersion(2L, 5678L)), secondValues);
+
+		final Event dispatchedEvent = eventCaptor.getValue();
+		assertEquals(IdentityConstants.EventNames.IDENTITY_REQUEST_IDENTITY_VERSION, dispatchedEvent.getName());
+		assertEquals(EventType.EDGE_IDENTITY, dispatchedEvent.getType());
+		assertEquals(EventSource.REQUEST_IDENTITY, dispatchedEvent.getSource());
+		assertEquals(
+			Collections.singletonMap(IdentityConstants.EventDataKeys.NOTIFY_IDENTITY_VERSION_CHANGES, false),
+			dispatchedEvent.getEventData()
+		);
+	}
+
+	// ========================================================================================
+	// callback timeouts
+	// ========================================================================================
+	@Test
+	public void testGetExperienceCloudId_withTimeout_usesProvidedTimeout() {
+		try (MockedStatic<MobileCore> mockedStaticMobileCore = Mockito.mockStatic(MobileCore.class)) {
+			// test
+			Identity.getExperienceCloudId(2000L, s -> {});
+
+			// verify
+			mockedStaticMobileCore.verify(() ->
+				MobileCore.dispatchEventWithResponseCallback(any(Event.class), eq(2000L), any())
+			);
+		}
+	}
+
+	@Test
+	public void testGetUrlVariables_withInvalidTimeout_usesDefaultTimeout() {
+		try (MockedStatic<MobileCore> mockedStaticMobileCore = Mockito.mockStatic(MobileCore.class)) {
+			// test
+			Identity.getUrlVariables(0L, s -> {});
+
+			// verify
+			mockedStaticMobileCore.verify(() ->
+				MobileCore.dispatchEventWithResponseCallback(any(Event.class), eq(500L), any())
+			);
+		}
+	}
+
+	@Test
+	public void testGetIdentities_withTimeout_usesProvidedTimeout() {
+		try (MockedStatic<MobileCore> mockedStaticMobileCore = Mockito.mockStatic(MobileCore.class)) {
+			// test
+			Identity.getIdentities(1500L, map -> {});
+
+			// verify
+			mockedStaticMobileCore.verify(() ->
+				MobileCore.dispatchEventWithResponseCallback(any(Event.class), eq(1500L), any())
+			);
+		}
+	}
+
+	@Test
+	public void testFindNamespaces_withTimeout_usesProvidedTimeout() {
+		try (MockedStatic<MobileCore> mockedStaticMobileCore = Mockito.mockStatic(MobileCore.class)) {
+			// test
+			Identity.findNamespaces(1500L, "id", namespaces -> {});
+
+			// verify
+			mockedStaticMobileCore.verify(() ->
+				MobileCore.dispatchEventWithResponseCallback(any(Event.class), eq(1500L), any())
+			);
+		}
+	}
+
+	@Test
+	public void testGetIdentityVersion_withTimeout_usesProvidedTimeout() {
+		try (MockedStatic<MobileCore> mockedStaticMobileCore = Mockito.mockStatic(MobileCore.class)) {
+			// test
+			Identity.getIdentityVersion(1500L, version -> {});
+
+			// verify
+			mockedStaticMobileCore.verify(() ->
+				MobileCore.dispatchEventWithResponseCallback(any(Event.class), eq(1500L), any())
+			);
+		}
+	}
+
+	@Test
+	public void testGetIdentitiesIfChanged_withInvalidTimeout_usesDefaultTimeout() {
+		try (MockedStatic<MobileCore> mockedStaticMobileCore = Mockito.mockStatic(MobileCore.class)) {
+			// test
+			Identity.getIdentitiesIfChanged(-1L, null, snapshot -> {});
+
+			// verify
+			mockedStaticMobileCore.verify(() ->
+				MobileCore.dispatchEventWithResponseCallback(any(Event.class), eq(500L), any())
+			);
+		}
+	}
+
+	@Test
+	public void testSetCallbackTimeout_updatesDefaultTimeoutOfFindNamespaces() {
+		try (MockedStatic<MobileCore> mockedStaticMobileCore = Mockito.mockStatic(MobileCore.class)) {
+			// test
+			Identity.setCallbackTimeout(3000L);
+			Identity.findNamespaces("id", namespaces -> {});
+
+			// verify
+			mockedStaticMobileCore.verify(() ->
+				MobileCore.dispatchEventWithResponseCallback(any(Event.class), eq(3000L), any())
+			);
+		}
+	}
+
+	@Test
+	public void testSetCallbackTimeout_updatesDefaultTimeout() {
+		try (MockedStatic<MobileCore> mockedStaticMobileCore = Mockito.mockStatic(MobileCore.class)) {
+			// test
+			Identity.setCallbackTimeout(3000L);
+			Identity.setCallbackTimeout(-1L); // ignored
+			Identity.getIdentities(map -> {});
+
+			// verify
+			mockedStaticMobileCore.verify(() ->
+				MobileCore.dispatchEventWithResponseCallback(any(Event.class), eq(3000L), any())
+			);
+		}
+	}
+
+	@Test
+	public void testSetBootWaitTimeout_extensionNotBooted_extendsTimeout() {
+		IdentityState.resetBootCompleted();
+
+		try (MockedStatic<MobileCore> mockedStaticMobileCore = Mockito.mockStatic(MobileCore.class)) {
+			// test
+			Identity.setBootWaitTimeout(5000L);
+			Identity.getExperienceCloudId(s -> {});
+
+			// verify
+			mockedStaticMobileCore.verify(() ->
+				MobileCore.dispatchEventWithResponseCallback(any(Event.class), eq(5500L), any())
+			);
+		}
+	}
+
+	@Test
+	public void testSetBootWaitTimeout_extensionBooted_usesCallbackTimeout() {
+		final IdentityState identityState = new IdentityState(Mockito.mock(IdentityStorageManager.class));
+		identityState.getIdentityProperties().setECID(new ECID());
+		identityState.bootupIfReady(Mockito.mock(SharedStateCallback.class));
+
+		try (MockedStatic<MobileCore> mockedStaticMobileCore = Mockito.mockStatic(MobileCore.class)) {
+			// test
+			Identity.setBootWaitTimeout(5000L);
+			Identity.getExperienceCloudId(s -> {});
+
+			// verify
+			mockedStaticMobileCore.verify(() ->
+				MobileCore.dispatchEventWithResponseCallback(any(Event.class), eq(500L), any())
+			);
+		}
+	}
+
+	// ========================================================================================
+	// tracing
+	// ========================================================================================
+	@Test
+	public void testGetIdentities_whenTracing_recordsDispatchAndCallback() {
+		// setup
+		final IdentityTraceBuffer buffer = new IdentityTraceBuffer();
+		Identity.setTraceSink(buffer);
+		final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+		final ArgumentCaptor<AdobeCallbackWithError> adobeCallbackCaptor = ArgumentCaptor.forClass(
+			AdobeCallbackWithError.class
+		);
+
+		try (MockedStatic<MobileCore> mockedStaticMobileCore = Mockito.mockStatic(MobileCore.class)) {
+			// test
+			Identity.getIdentities(map -> {});
+
+			mockedStaticMobileCore.verify(() ->
+				MobileCore.dispatchEventWithResponseCallback(
+					eventCaptor.capture(),
+					anyLong(),
+					adobeCallbackCaptor.capture()
+				)
+			);
+		}
+
+		assertEquals(0, buffer.getSpans().size());
+		adobeCallbackCaptor.getValue().fail(AdobeError.CALLBACK_TIMEOUT);
+
+		// verify
+		assertEquals(1, buffer.getSpans().size());
+		final IdentityTraceSpan span = buffer.getSpans().get(0);
+		assertEquals(eventCaptor.getValue().getUniqueIdentifier(), span.getEventId());
+		assertEquals(IdentityConstants.EventNames.REQUEST_IDENTITIES, span.getEventName());
+		assertEquals(AdobeError.CALLBACK_TIMEOUT.getErrorName(), span.getError());
+		assertTrue(span.getElapsedNanos(IdentityTraceSpan.Phase.DISPATCH, IdentityTraceSpan.Phase.CALLBACK) >= 0);
+		assertEquals(IdentityTraceSpan.NOT_REACHED, span.getNanos(IdentityTraceSpan.Phase.HANDLER_START));
+	}
+
+	@Test
+	public void testUpdateIdentities_whenTracing_beginsSpan() {
+		// setup
+		Identity.setTraceSink(new IdentityTraceBuffer());
+		final IdentityMap map = new IdentityMap();
+		map.addItem(new IdentityItem("id"), "namespace");
+
+		try (MockedStatic<MobileCore> mockedStaticMobileCore = Mockito.mockStatic(MobileCore.class)) {
+			// test
+			Identity.updateIdentities(map);
+		}
+
+		// verify
+		assertEquals(1, IdentityTracer.getActiveSpanCount());
+	}
+
+	// ========================================================================================
+	// Private methods
+	// ========================================================================================
+	private Event buildIdentityResponseEvent(final Map<String, Object> eventData) {
+		return new Event.Builder(
+			IdentityConstants.EventNames.IDENTITY_REQUEST_IDENTITY_ECID,
+			EventType.EDGE_IDENTITY,
+			EventSource.RESPONSE_IDENTITY
+		)
+			.setEventData(eventData)
+			.build();
+	}
+
+	private Event buildIdentityVersionChangedEvent(final IdentityVersion identityVersion) {
+		return new Event.Builder(
+			IdentityConstants.EventNames.IDENTITY_VERSION_CHANGED,
+			EventType.EDGE_IDENTITY,
+			EventSource.RESPONSE_IDENTITY
+		)
+			.setEventData(identityVersion.toEventData())
 			.build();
 	}
 
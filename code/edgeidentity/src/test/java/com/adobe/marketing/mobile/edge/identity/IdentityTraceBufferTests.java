@@ -0,0 +1,114 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.edge.identity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import org.junit.Test;
+
+public class IdentityTraceBufferTests {
+
+	@Test
+	public void test_getSpans_returnsSpansOldestFirst() {
+		// setup
+		final IdentityTraceBuffer buffer = new IdentityTraceBuffer(3);
+
+		// test
+		buffer.onSpan(buildSpan("1"));
+		buffer.onSpan(buildSpan("2"));
+
+		// verify
+		final List<IdentityTraceSpan> spans = buffer.getSpans();
+		assertEquals(2, spans.size());
+		assertEquals("1", spans.get(0).getEventId());
+		assertEquals("2", spans.get(1).getEventId());
+	}
+
+	@Test
+	public void test_onSpan_whenFull_replacesOldestSpan() {
+		// setup
+		final IdentityTraceBuffer buffer = new IdentityTraceBuffer(3);
+
+		// test
+		for (int i = 1; i <= 5; i++) {
+			buffer.onSpan(buildSpan(String.valueOf(i)));
+		}
+
+		// verify
+		final List<IdentityTraceSpan> spans = buffer.getSpans();
+		assertEquals(3, spans.size());
+		assertEquals("3", spans.get(0).getEventId());
+		assertEquals("4", spans.get(1).getEventId());
+		assertEquals("5", spans.get(2).getEventId());
+	}
+
+	@Test
+	public void test_invalidCapacity_keepsOneSpan() {
+		// setup
+		final IdentityTraceBuffer buffer = new IdentityTraceBuffer(0);
+
+		// test
+		buffer.onSpan(buildSpan("1"));
+		buffer.onSpan(buildSpan("2"));
+
+		// verify
+		assertEquals(1, buffer.getSpans().size());
+		assertEquals("2", buffer.getSpans().get(0).getEventId());
+	}
+
+	@Test
+	public void test_clear_removesSpans() {
+		// setup
+		final IdentityTraceBuffer buffer = new IdentityTraceBuffer(3);
+		buffer.onSpan(buildSpan("1"));
+
+		// test
+		buffer.clear();
+		buffer.onSpan(buildSpan("2"));
+
+		// verify
+		assertEquals(1, buffer.getSpans().size());
+		assertEquals("2", buffer.getSpans().get(0).getEventId());
+	}
+
+	@Test
+	public void test_dump_writesOneLinePerSpan() {
+		// setup
+		final IdentityTraceBuffer buffer = new IdentityTraceBuffer(3);
+		buffer.onSpan(buildSpan("1"));
+		buffer.onSpan(buildSpan("2"));
+
+		// test
+		final String dump = buffer.dump();
+
+		// verify
+		final String[] lines = dump.split("\n");
+		assertEquals(2, lines.length);
+		assertEquals("Test event [1] ready=+2us handler_start=+3us", lines[0]);
+		assertTrue(lines[1].startsWith("Test event [2]"));
+	}
+
+	private static IdentityTraceSpan buildSpan(final String eventId) {
+		final long[] timestamps = new long[IdentityTraceSpan.Phase.values().length];
+
+		for (int i = 0; i < timestamps.length; i++) {
+			timestamps[i] = IdentityTraceSpan.NOT_REACHED;
+		}
+
+		timestamps[IdentityTraceSpan.Phase.DISPATCH.ordinal()] = 1_000;
+		timestamps[IdentityTraceSpan.Phase.READY.ordinal()] = 3_000;
+		timestamps[IdentityTraceSpan.Phase.HANDLER_START.ordinal()] = 4_000;
+		return new IdentityTraceSpan(eventId, "Test event", timestamps, null);
+	}
+}
@@ -0,0 +1,191 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.edge.identity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.adobe.marketing.mobile.Event;
+import com.adobe.marketing.mobile.EventSource;
+import com.adobe.marketing.mobile.EventType;
+import org.junit.After;
+import org.junit.Test;
+
+public class IdentityTracerTests {
+
+	@After
+	public void teardown() {
+		IdentityTracer.setSink(null);
+	}
+
+	@Test
+	public void test_noSink_doesNotTrackSpans() {
+		// test
+		final Event event = buildEvent();
+		IdentityTracer.begin(event, true);
+		IdentityTracer.mark(event.getUniqueIdentifier(), IdentityTraceSpan.Phase.READY);
+		IdentityTracer.complete(event.getUniqueIdentifier(), null);
+
+		// verify
+		assertFalse(IdentityTracer.isEnabled());
+		assertEquals(0, IdentityTracer.getActiveSpanCount());
+	}
+
+	@Test
+	public void test_completeWithCallback_reportsSpan() {
+		// setup
+		final IdentityTraceBuffer buffer = new IdentityTraceBuffer();
+		IdentityTracer.setSink(buffer);
+		final Event event = buildEvent();
+
+		// test
+		IdentityTracer.begin(event, true);
+		IdentityTracer.mark(event.getUniqueIdentifier(), IdentityTraceSpan.Phase.READY_CHECK);
+		IdentityTracer.mark(event.getUniqueIdentifier(), IdentityTraceSpan.Phase.HANDLER_START);
+		IdentityTracer.mark(event.getUniqueIdentifier(), IdentityTraceSpan.Phase.HANDLER_END);
+		assertEquals(0, buffer.getSpans().size());
+		IdentityTracer.complete(event.getUniqueIdentifier(), null);
+
+		// verify
+		assertEquals(1, buffer.getSpans().size());
+		final IdentityTraceSpan span = buffer.getSpans().get(0);
+		assertEquals(event.getUniqueIdentifier(), span.getEventId());
+		assertEquals("Test event", span.getEventName());
+		assertNull(span.getError());
+		assertEquals(IdentityTraceSpan.NOT_REACHED, span.getNanos(IdentityTraceSpan.Phase.READY));
+		assertEquals(
+			IdentityTraceSpan.NOT_REACHED,
+			span.getElapsedNanos(IdentityTraceSpan.Phase.DISPATCH, IdentityTraceSpan.Phase.READY)
+		);
+		assertTrue(span.getElapsedNanos(IdentityTraceSpan.Phase.DISPATCH, IdentityTraceSpan.Phase.CALLBACK) >= 0);
+		assertEquals(0, IdentityTracer.getActiveSpanCount());
+	}
+
+	@Test
+	public void test_mark_keepsFirstTimestamp() {
+		// setup
+		final IdentityTraceBuffer buffer = new IdentityTraceBuffer();
+		IdentityTracer.setSink(buffer);
+		final Event event = buildEvent();
+
+		// test
+		IdentityTracer.begin(event, true);
+		IdentityTracer.mark(event.getUniqueIdentifier(), IdentityTraceSpan.Phase.READY_CHECK);
+		IdentityTracer.mark(event.getUniqueIdentifier(), IdentityTraceSpan.Phase.READY);
+		IdentityTracer.mark(event.getUniqueIdentifier(), IdentityTraceSpan.Phase.READY_CHECK);
+		IdentityTracer.complete(event.getUniqueIdentifier(), null);
+
+		// verify
+		final IdentityTraceSpan span = buffer.getSpans().get(0);
+		assertTrue(span.getNanos(IdentityTraceSpan.Phase.READY_CHECK) <= span.getNanos(IdentityTraceSpan.Phase.READY));
+	}
+
+	@Test
+	public void test_withoutCallback_completesAtHandlerEnd() {
+		// setup
+		final IdentityTraceBuffer buffer = new IdentityTraceBuffer();
+		IdentityTracer.setSink(buffer);
+		final Event event = buildEvent();
+
+		// test
+		IdentityTracer.begin(event, false);
+		IdentityTracer.mark(event.getUniqueIdentifier(), IdentityTraceSpan.Phase.HANDLER_START);
+		IdentityTracer.mark(event.getUniqueIdentifier(), IdentityTraceSpan.Phase.HANDLER_END);
+
+		// verify
+		assertEquals(1, buffer.getSpans().size());
+		final IdentityTraceSpan span = buffer.getSpans().get(0);
+		assertEquals(IdentityTraceSpan.NOT_REACHED, span.getNanos(IdentityTraceSpan.Phase.CALLBACK));
+		assertEquals(0, IdentityTracer.getActiveSpanCount());
+	}
+
+	@Test
+	public void test_completeWithError_reportsError() {
+		// setup
+		final IdentityTraceBuffer buffer = new IdentityTraceBuffer();
+		IdentityTracer.setSink(buffer);
+		final Event event = buildEvent();
+
+		// test
+		IdentityTracer.begin(event, true);
+		IdentityTracer.complete(event.getUniqueIdentifier(), "callback_timeout");
+
+		// verify
+		final IdentityTraceSpan span = buffer.getSpans().get(0);
+		assertEquals("callback_timeout", span.getError());
+		assertTrue(span.toString().contains("error=callback_timeout"));
+	}
+
+	@Test
+	public void test_untrackedEvent_isIgnored() {
+		// setup
+		final IdentityTraceBuffer buffer = new IdentityTraceBuffer();
+		IdentityTracer.setSink(buffer);
+
+		// test
+		IdentityTracer.mark(buildEvent().getUniqueIdentifier(), IdentityTraceSpan.Phase.HANDLER_END);
+		IdentityTracer.complete(buildEvent().getUniqueIdentifier(), null);
+		IdentityTracer.mark(null, IdentityTraceSpan.Phase.HANDLER_END);
+
+		// verify
+		assertEquals(0, buffer.getSpans().size());
+	}
+
+	@Test
+	public void test_begin_whenTooManySpansInFlight_skipsEvent() {
+		// setup
+		IdentityTracer.setSink(new IdentityTraceBuffer());
+
+		// test
+		for (int i = 0; i < IdentityTracer.MAX_ACTIVE_SPANS + 10; i++) {
+			IdentityTracer.begin(buildEvent(), true);
+		}
+
+		// verify
+		assertEquals(IdentityTracer.MAX_ACTIVE_SPANS, IdentityTracer.getActiveSpanCount());
+	}
+
+	@Test
+	public void test_setSink_discardsSpansInFlight() {
+		// setup
+		IdentityTracer.setSink(new IdentityTraceBuffer());
+		IdentityTracer.begin(buildEvent(), true);
+
+		// test
+		IdentityTracer.setSink(new IdentityTraceBuffer());
+
+		// verify
+		assertEquals(0, IdentityTracer.getActiveSpanCount());
+	}
+
+	@Test
+	public void test_sinkThrows_doesNotPropagate() {
+		// setup
+		IdentityTracer.setSink(span -> {
+			throw new IllegalStateException("sink failure");
+		});
+		final Event event = buildEvent();
+		IdentityTracer.begin(event, true);
+
+		// test
+		IdentityTracer.complete(event.getUniqueIdentifier(), null);
+
+		// verify
+		assertEquals(0, IdentityTracer.getActiveSpanCount());
+	}
+
+	private static Event buildEvent() {
+		return new Event.Builder("Test event", EventType.EDGE_IDENTITY, EventSource.REQUEST_IDENTITY).build();
+	}
+}
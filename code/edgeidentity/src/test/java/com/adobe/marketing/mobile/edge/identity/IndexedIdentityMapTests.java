@@ -0,0 +1,317 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.edge.identity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IndexedIdentityMapTests {
+
+	@Before
+	public void setup() {
+		IdentityMetrics.reset();
+		IdentityMetrics.setEnabled(true);
+	}
+
+	@After
+	public void teardown() {
+		IdentityMetrics.setEnabled(false);
+		IdentityMetrics.reset();
+	}
+
+	@Test
+	public void test_getNamespacesForIdentifier_caseInsensitiveInInsertionOrder() {
+		// setup
+		IndexedIdentityMap map = new IndexedIdentityMap();
+		map.addItem(new IdentityItem("user@example.com"), "Email");
+		map.addItem(new IdentityItem("USER@example.com"), "HashedEmail");
+		map.addItem(new IdentityItem("other"), "Email");
+
+		// verify
+		assertEquals(Arrays.asList("Email", "HashedEmail"), map.getNamespacesForIdentifier("User@Example.com"));
+		assertEquals(Collections.singletonList("Email"), map.getNamespacesForIdentifier("other"));
+		assertTrue(map.getNamespacesForIdentifier("unknown").isEmpty());
+	}
+
+	@Test
+	public void test_getNamespacesForIdentifier_updatedOnRemoveAndClear() {
+		// setup
+		IndexedIdentityMap map = new IndexedIdentityMap();
+		map.addItem(new IdentityItem("id"), "space1");
+		map.addItem(new IdentityItem("id"), "space2");
+		map.addItem(new IdentityItem("id"), "space3");
+		map.addItem(new IdentityItem("ID"), "space1");
+
+		// test
+		map.removeItem(new IdentityItem("Id"), "space1");
+		map.clearItemsForNamespace("SPACE2");
+
+		// verify
+		assertEquals(Collections.singletonList("space3"), map.getNamespacesForIdentifier("id"));
+
+		map.removeItemsForNamespace("space3");
+		assertTrue(map.getNamespacesForIdentifier("id").isEmpty());
+	}
+
+	@Test
+	public void test_getNamespacesForIdentifier_updatedOnMergeAndEviction() {
+		// setup
+		IndexedIdentityMap map = new IndexedIdentityMap();
+		map.addItem(new IdentityItem("old"), "space");
+		IdentityMap update = new IdentityMap();
+		update.addItem(new IdentityItem("new"), "space");
+
+		// test
+		map.merge(update);
+		map.enforceLimits(new IdentityMapLimits(0, 1, 0), null);
+
+		// verify
+		assertTrue(map.getNamespacesForIdentifier("old").isEmpty());
+		assertEquals(Collections.singletonList("space"), map.getNamespacesForIdentifier("new"));
+	}
+
+	@Test
+	public void test_contentHash_updatedOnlyForChangedNamespaces_matchesFullHash() {
+		// setup
+		IndexedIdentityMap map = new IndexedIdentityMap();
+		map.addItem(new IdentityItem("id1"), "space1");
+		map.addItem(new IdentityItem("id2"), "space2");
+		long initialHash = map.contentHash(System.currentTimeMillis());
+
+		// test
+		map.addItem(new IdentityItem("id3", AuthenticatedState.AUTHENTICATED, true), "space1");
+		map.removeItemsForNamespace("space2");
+		map.addItem(new IdentityItem("id4"), "space3");
+		long updatedHash = map.contentHash(System.currentTimeMillis());
+
+		// verify
+		assertNotEquals(initialHash, updatedHash);
+		IdentityMap rebuilt = IdentityMap.fromXDMMap(map.asXDMMap(false));
+		assertEquals(rebuilt.contentHash(System.currentTimeMillis()), updatedHash);
+
+		map.removeItem(new IdentityItem("id4"), "space3");
+		map.addItem(new IdentityItem("id2"), "space2");
+		map.removeItem(new IdentityItem("id3"), "space1");
+		assertEquals(initialHash, map.contentHash(System.currentTimeMillis()));
+	}
+
+	@Test
+	public void test_clearItemsForNamespace_removesAllSpellingsOnly() {
+		// setup
+		IndexedIdentityMap map = new IndexedIdentityMap();
+		map.addItem(new IdentityItem("id1"), "crmid");
+		map.addItem(new IdentityItem("id2"), "CRMID");
+		map.addItem(new IdentityItem("id3"), "Email");
+
+		// test
+		assertTrue(map.clearItemsForNamespace("CRMid"));
+
+		// verify
+		assertEquals(Collections.singletonList("Email"), map.getNamespaces());
+		assertFalse(map.clearItemsForNamespace("crmid"));
+	}
+
+	@Test
+	public void test_fromXDMMap_indexesItems() {
+		// setup
+		IdentityMap source = new IdentityMap();
+		source.addItem(new IdentityItem("id"), "CRMID");
+
+		// test
+		IndexedIdentityMap map = IdentityMap.fromXDMMap(source.asXDMMap(false), new IndexedIdentityMap());
+
+		// verify
+		assertNotNull(map);
+		assertEquals(Collections.singletonList("CRMID"), map.getNamespacesForIdentifier("ID"));
+		assertTrue(map.clearItemsForNamespace("crmid"));
+		assertTrue(map.isEmpty());
+	}
+
+	@Test
+	public void test_enforceLimits_unlimited_doesNotEvict() {
+		// setup
+		IndexedIdentityMap map = new IndexedIdentityMap();
+		map.addItem(new IdentityItem("id1"), "space1");
+		map.addItem(new IdentityItem("id2"), "space1");
+		map.addItem(new IdentityItem("id3"), "space2");
+
+		// test
+		int evicted = map.enforceLimits(IdentityMapLimits.UNLIMITED, null);
+
+		// verify
+		assertEquals(0, evicted);
+		assertEquals(2, map.getIdentityItemsForNamespace("space1").size());
+		assertEquals(1, map.getIdentityItemsForNamespace("space2").size());
+		assertEquals(0, getEvictedCount());
+	}
+
+	@Test
+	public void test_enforceLimits_maxItemsPerNamespace_evictsLeastRecentlyUpdated() {
+		// setup
+		IndexedIdentityMap map = new IndexedIdentityMap();
+		map.addItem(new IdentityItem("first"), "session");
+		map.addItem(new IdentityItem("second"), "session");
+		map.addItem(new IdentityItem("third"), "session");
+		map.addItem(new IdentityItem("FIRST"), "session"); // updates "first" as most recent
+
+		// test
+		int evicted = map.enforceLimits(new IdentityMapLimits(0, 2, 0), null);
+
+		// verify
+		assertEquals(1, evicted);
+		List<IdentityItem> items = map.getIdentityItemsForNamespace("session");
+		assertEquals(2, items.size());
+		assertEquals("FIRST", items.get(0).getId());
+		assertEquals("third", items.get(1).getId());
+		assertEquals(1, getEvictedCount());
+	}
+
+	@Test
+	public void test_enforceLimits_maxNamespaces_evictsLeastRecentlyUpdatedNamespace() {
+		// setup
+		IndexedIdentityMap map = new IndexedIdentityMap();
+		map.addItem(new IdentityItem("id1"), "space1");
+		map.addItem(new IdentityItem("id2"), "space2");
+		map.addItem(new IdentityItem("id3"), "space2");
+		map.addItem(new IdentityItem("id4"), "space3");
+		map.addItem(new IdentityItem("id5"), "space1");
+
+		// test
+		int evicted = map.enforceLimits(new IdentityMapLimits(2, 0, 0), null);
+
+		// verify
+		assertEquals(2, evicted);
+		assertEquals(2, map.getNamespaces().size());
+		assertTrue(map.getIdentityItemsForNamespace("space2").isEmpty());
+		assertEquals(2, map.getIdentityItemsForNamespace("space1").size());
+		assertEquals(1, map.getIdentityItemsForNamespace("space3").size());
+		assertEquals(2, getEvictedCount());
+	}
+
+	@Test
+	public void test_enforceLimits_maxTotalBytes_evictsOldestItemsAcrossNamespaces() {
+		// setup
+		IndexedIdentityMap map = new IndexedIdentityMap();
+		map.addItem(new IdentityItem("oldest"), "space1");
+		map.addItem(new IdentityItem("older"), "space2");
+		map.addItem(new IdentityItem("newest"), "space1");
+
+		// one namespace with a single item fits, two items do not
+		// namespace "space1" = 6 + 6, item "newest" = 6 + 9 ("ambiguous") + 50
+		long budget = 12 + 65;
+
+		// test
+		int evicted = map.enforceLimits(new IdentityMapLimits(0, 0, budget), null);
+
+		// verify
+		assertEquals(2, evicted);
+		assertEquals(Collections.singletonList("space1"), map.getNamespaces());
+		assertEquals("newest", map.getIdentityItemsForNamespace("space1").get(0).getId());
+		assertEquals(2, getEvictedCount());
+	}
+
+	@Test
+	public void test_enforceLimits_excludedNamespaces_neverEvicted() {
+		// setup
+		IndexedIdentityMap map = new IndexedIdentityMap();
+		map.addItem(new IdentityItem("ecid1"), "ECID");
+		map.addItem(new IdentityItem("ecid2"), "ECID");
+		map.addItem(new IdentityItem("gaid"), "GAID");
+		map.addItem(new IdentityItem("id1"), "custom");
+		map.addItem(new IdentityItem("id2"), "custom");
+
+		// test
+		int evicted = map.enforceLimits(
+			new IdentityMapLimits(1, 1, 1),
+			Arrays.asList("ecid", "gaid", "idfa")
+		);
+
+		// verify
+		assertEquals(2, evicted);
+		assertEquals(2, map.getIdentityItemsForNamespace("ECID").size());
+		assertEquals(1, map.getIdentityItemsForNamespace("GAID").size());
+		assertTrue(map.getIdentityItemsForNamespace("custom").isEmpty());
+	}
+
+	@Test
+	public void test_enforceLimits_afterRemoveAndReAdd_usesLatestUpdate() {
+		// setup
+		IndexedIdentityMap map = new IndexedIdentityMap();
+		map.addItem(new IdentityItem("id1"), "space");
+		map.addItem(new IdentityItem("id2"), "space");
+		map.removeItem(new IdentityItem("id1"), "space");
+		map.addItem(new IdentityItem("id1"), "space");
+
+		// test
+		map.enforceLimits(new IdentityMapLimits(0, 1, 0), null);
+
+		// verify
+		List<IdentityItem> items = map.getIdentityItemsForNamespace("space");
+		assertEquals(1, items.size());
+		assertEquals("id1", items.get(0).getId());
+	}
+
+	@Test
+	public void test_restoreUpdateTimes_keepsLeastRecentlyUpdatedAcrossReload() {
+		// setup
+		IndexedIdentityMap map = new IndexedIdentityMap();
+		map.addItem(new IdentityItem("first"), "session");
+		map.addItem(new IdentityItem("second"), "session");
+		map.addItem(new IdentityItem("FIRST"), "session"); // updates "first" as most recent
+		Map<String, Object> updateTimes = map.getUpdateTimes(null);
+
+		// test
+		IndexedIdentityMap reloaded = IdentityMap.fromXDMMap(map.asXDMMap(false), new IndexedIdentityMap());
+		reloaded.restoreUpdateTimes(updateTimes);
+		reloaded.addItem(new IdentityItem("third"), "session");
+		reloaded.enforceLimits(new IdentityMapLimits(0, 2, 0), null);
+
+		// verify
+		List<IdentityItem> items = reloaded.getIdentityItemsForNamespace("session");
+		assertEquals(2, items.size());
+		assertEquals("FIRST", items.get(0).getId());
+		assertEquals("third", items.get(1).getId());
+	}
+
+	@Test
+	public void test_restoreUpdateTimes_withoutTimes_evictsInStoredOrder() {
+		// setup
+		IndexedIdentityMap map = new IndexedIdentityMap();
+		map.addItem(new IdentityItem("first"), "session");
+		map.addItem(new IdentityItem("second"), "session");
+		map.addItem(new IdentityItem("third"), "session");
+		map.restoreUpdateTimes(null);
+
+		// test
+		int evicted = map.enforceLimits(new IdentityMapLimits(0, 1, 0), null);
+
+		// verify
+		assertEquals(2, evicted);
+		assertEquals("third", map.getIdentityItemsForNamespace("session").get(0).getId());
+		assertTrue(map.getUpdateTimes(null).isEmpty());
+	}
+
+	private static long getEvictedCount() {
+		return IdentityMetrics.snapshot().getCounter("identitymap.evicted");
+	}
+}
@@ -0,0 +1,96 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.edge.identity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Locale;
+import org.junit.Before;
+import org.junit.Test;
+
+public class NamespaceRegistryTests {
+
+	@Before
+	public void setup() {
+		NamespaceRegistry.reset();
+	}
+
+	@Test
+	public void test_fold_returnsSameKeyForAllSpellings() {
+		final String key = NamespaceRegistry.fold("CRMID");
+
+		assertEquals("crmid", key);
+		assertSame(key, NamespaceRegistry.fold("crmid"));
+		assertSame(key, NamespaceRegistry.fold("CrmId"));
+		assertSame(key, NamespaceRegistry.fold(new String("CRMID")));
+	}
+
+	@Test
+	public void test_fold_usesRootLocale() {
+		final Locale defaultLocale = Locale.getDefault();
+
+		try {
+			// in Turkish, the lowercase of I is the dotless ı
+			Locale.setDefault(new Locale("tr", "TR"));
+
+			assertEquals("idfa", NamespaceRegistry.fold("IDFA"));
+			assertTrue(NamespaceRegistry.isReserved("IDFA"));
+		} finally {
+			Locale.setDefault(defaultLocale);
+		}
+	}
+
+	@Test
+	public void test_fold_matchesEqualsIgnoreCase() {
+		// İ (dotted capital I) and ſ (long s) are equal ignoring case to i and s, but lowercase to other strings
+		final String[][] pairs = {
+			{ "\u0130dfa", "idfa" },
+			{ "Cu\u017Ftomer", "CUSTOMER" },
+			{ "\u017Fpace", "Space" },
+			{ "CRMID", "crmid" },
+		};
+
+		for (final String[] pair : pairs) {
+			assertTrue(pair[0].equalsIgnoreCase(pair[1]));
+			assertEquals(NamespaceRegistry.fold(pair[1]), NamespaceRegistry.fold(pair[0]));
+		}
+
+		assertTrue("\u0131dfa".equalsIgnoreCase("idfa"));
+		assertEquals("idfa", NamespaceRegistry.fold("\u0130DFA"));
+		assertTrue(NamespaceRegistry.isReserved("\u0130dfa"));
+		assertEquals(NamespaceRegistry.fold("idfa"), NamespaceRegistry.fold("\u0131dfa"));
+	}
+
+	@Test
+	public void test_fold_pastBound_stillFolds() {
+		for (int i = 0; i < NamespaceRegistry.MAX_INTERNED_NAMESPACES; i++) {
+			NamespaceRegistry.fold("Generated" + i);
+		}
+
+		assertTrue(NamespaceRegistry.size() <= NamespaceRegistry.MAX_INTERNED_NAMESPACES + 1);
+		assertEquals("unbounded-namespace", NamespaceRegistry.fold("Unbounded-Namespace"));
+	}
+
+	@Test
+	public void test_isReserved() {
+		assertTrue(NamespaceRegistry.isReserved("ECID"));
+		assertTrue(NamespaceRegistry.isReserved("ecid"));
+		assertTrue(NamespaceRegistry.isReserved("Gaid"));
+		assertTrue(NamespaceRegistry.isReserved("idfa"));
+		assertFalse(NamespaceRegistry.isReserved("CRMID"));
+		assertFalse(NamespaceRegistry.isReserved(""));
+		assertFalse(NamespaceRegistry.isReserved(null));
+	}
+}
@@ -11,9 +11,11 @@
 
 package com.adobe.marketing.mobile.edge.identity;
 
+import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertFalse;
 import static junit.framework.TestCase.assertTrue;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -36,4 +38,24 @@ public class UtilsTests {
 	public void test_isNullOrEmpty_nonEmptyNonNullList() {
 		assertFalse(Utils.isNullOrEmpty(Arrays.asList("A", 1, true)));
 	}
+
+	@Test
+	public void test_utf8Length_null() {
+		assertEquals(0, Utils.utf8Length(null));
+	}
+
+	@Test
+	public void test_utf8Length_matchesEncodedLength() {
+		for (String value : Arrays.asList("", "ascii", "caf\u00e9", "\u65e5\u672c\u8a9e", "emoji \ud83d\ude00")) {
+			assertEquals(value.getBytes(StandardCharsets.UTF_8).length, Utils.utf8Length(value));
+		}
+	}
+
+	@Test
+	public void test_hashMapCapacity_holdsExpectedSizeWithoutResizing() {
+		assertEquals(1, Utils.hashMapCapacity(0));
+		assertEquals(3, Utils.hashMapCapacity(2));
+		assertEquals(17, Utils.hashMapCapacity(12));
+		assertTrue(Utils.hashMapCapacity(100) * 0.75f >= 100);
+	}
 }